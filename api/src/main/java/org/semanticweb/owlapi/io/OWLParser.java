@@ -94,4 +94,14 @@ public interface OWLParser extends Serializable {
      * @return The supported format for this parser.
      */
     OWLDocumentFormatFactory getSupportedFormat();
+
+    /**
+     * @return true if the parser only applies changes to the ontology it is filling, and never
+     *         reads axioms back from it while parsing. The axioms added by such a parser can be
+     *         indexed on a separate thread while parsing continues.
+     * @since 5.1.8
+     */
+    default boolean supportsPipelinedLoading() {
+        return false;
+    }
 }
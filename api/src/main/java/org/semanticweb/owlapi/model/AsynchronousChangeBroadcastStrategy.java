@@ -0,0 +1,368 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.model;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A change broadcast strategy which delivers changes to listeners on an executor, so that the
+ * thread applying changes, which holds the manager lock, does not wait for slow listeners. The
+ * broadcasting thread holds the manager write lock, or the manager read lock when per ontology
+ * locks are enabled.
+ * <p>
+ * Listeners run on the executor threads while other threads change the ontologies, so this
+ * strategy must only be used with a manager created by
+ * {@code OWLManager.createConcurrentOWLOntologyManager()}: ontologies of a non concurrent manager
+ * cannot be read while they change, and such a manager logs a warning when it is given this
+ * strategy. Listeners reading ontologies take the manager read lock; a listener must not wait for
+ * a thread that is applying changes, and should not apply changes to the ontologies itself, since
+ * this waits for the manager lock.
+ * <p>
+ * Each listener has its own queue: changes are delivered to a listener in the order in which they
+ * were applied, by one thread at a time. Batches of changes that are waiting when a listener
+ * becomes available are coalesced, and delivered in a single call to
+ * {@link OWLOntologyChangeListener#ontologiesChanged(List)}.
+ * <p>
+ * When a listener has more than {@code maxPendingChanges} changes waiting, the broadcasting
+ * thread waits for the listener to catch up, but for at most {@code maxWaitMillis} milliseconds;
+ * after that, the changes are queued anyway and counted as an overflow, and the broadcasting
+ * threads do not wait for that listener again until its queue is empty. The wait is bounded
+ * because a listener reading an ontology might itself be waiting for the manager lock held by the
+ * broadcasting thread.
+ * <p>
+ * Listeners see the ontologies as they are when the changes are delivered, which might include
+ * later changes. Exceptions thrown by listeners are logged; unlike with synchronous strategies,
+ * the listener is not removed from the manager. After {@link #close()}, changes are delivered on
+ * the broadcasting thread.
+ *
+ * @since 5.1.8
+ */
+public class AsynchronousChangeBroadcastStrategy
+    implements OWLOntologyChangeBroadcastStrategy, AutoCloseable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(AsynchronousChangeBroadcastStrategy.class);
+    private final int maxPendingChanges;
+    private final long maxWaitMillis;
+    private final transient Executor executor;
+    @Nullable
+    private final transient ExecutorService ownExecutor;
+    /** Queues of the listeners with changes waiting or being delivered; guards all state. */
+    private final transient Map<OWLOntologyChangeListener, ListenerQueue> queues =
+        new IdentityHashMap<>();
+    private transient boolean closed = false;
+    private transient long pendingChanges = 0;
+    private transient long maxPendingChangesSeen = 0;
+    private transient long receivedBatches = 0;
+    private transient long deliveredBatches = 0;
+    private transient long deliveredChanges = 0;
+    private transient long overflows = 0;
+
+    /**
+     * Creates a strategy delivering changes on its own daemon thread, with up to 10000 changes
+     * waiting for each listener and a wait of up to one second when a listener falls behind.
+     */
+    public AsynchronousChangeBroadcastStrategy() {
+        this(10000, 1000);
+    }
+
+    /**
+     * Creates a strategy delivering changes on its own daemon thread.
+     *
+     * @param maxPendingChanges number of changes waiting for a listener above which the
+     *        broadcasting thread waits
+     * @param maxWaitMillis maximum wait for a listener to catch up, in milliseconds; 0 never waits
+     */
+    public AsynchronousChangeBroadcastStrategy(int maxPendingChanges, long maxWaitMillis) {
+        this.maxPendingChanges = maxPendingChanges;
+        this.maxWaitMillis = maxWaitMillis;
+        ownExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "OWLAPI change broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        executor = ownExecutor;
+    }
+
+    /**
+     * Creates a strategy delivering changes on the specified executor. The executor is not shut
+     * down by {@link #close()}.
+     *
+     * @param executor executor running the deliveries
+     * @param maxPendingChanges number of changes waiting for a listener above which the
+     *        broadcasting thread waits
+     * @param maxWaitMillis maximum wait for a listener to catch up, in milliseconds; 0 never waits
+     */
+    public AsynchronousChangeBroadcastStrategy(Executor executor, int maxPendingChanges,
+        long maxWaitMillis) {
+        this.executor = checkNotNull(executor, "executor cannot be null");
+        this.maxPendingChanges = maxPendingChanges;
+        this.maxWaitMillis = maxWaitMillis;
+        ownExecutor = null;
+    }
+
+    @Override
+    public void broadcastChanges(OWLOntologyChangeListener listener,
+        List<? extends OWLOntologyChange> changes) {
+        checkNotNull(listener, "listener cannot be null");
+        checkNotNull(changes, "changes cannot be null");
+        if (changes.isEmpty()) {
+            return;
+        }
+        // the manager does not keep the list, but callers of applyChanges might modify it
+        List<OWLOntologyChange> batch = new ArrayList<>(changes);
+        ListenerQueue queue = null;
+        synchronized (queues) {
+            if (!closed) {
+                queue = waitForRoom(listener, batch.size());
+                queue.batches.add(batch);
+                queue.size += batch.size();
+                pendingChanges += batch.size();
+                maxPendingChangesSeen = Math.max(maxPendingChangesSeen, pendingChanges);
+                receivedBatches++;
+                if (queue.scheduled) {
+                    return;
+                }
+                queue.scheduled = true;
+            }
+        }
+        if (queue == null) {
+            listener.ontologiesChanged(batch);
+            return;
+        }
+        ListenerQueue q = queue;
+        try {
+            executor.execute(() -> deliver(listener, q));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Change broadcast executor rejected a delivery, delivering changes on {}",
+                Thread.currentThread().getName(), e);
+            deliver(listener, q);
+        }
+    }
+
+    /**
+     * Called holding the monitor of {@code queues}.
+     *
+     * @return the queue of the listener, once it has room for the changes or the wait is over
+     */
+    private ListenerQueue waitForRoom(OWLOntologyChangeListener listener, int size) {
+        ListenerQueue queue = queues.computeIfAbsent(listener, l -> new ListenerQueue());
+        if (queue.delivering == Thread.currentThread()) {
+            // the listener is changing ontologies: waiting for itself would never end
+            return queue;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        while (queue.size > 0 && queue.size + size > maxPendingChanges) {
+            long remaining = deadline - System.nanoTime();
+            if (queue.overflowing || remaining <= 0) {
+                // do not wait again until the listener has caught up
+                queue.overflowing = true;
+                overflows++;
+                return queue;
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(queues, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                overflows++;
+                return queue;
+            }
+            // the queue is dropped once empty, and a new one created for later changes
+            queue = queues.computeIfAbsent(listener, l -> new ListenerQueue());
+        }
+        return queue;
+    }
+
+    private void deliver(OWLOntologyChangeListener listener, ListenerQueue queue) {
+        while (true) {
+            List<OWLOntologyChange> changes;
+            synchronized (queues) {
+                if (queue.batches.isEmpty()) {
+                    queue.scheduled = false;
+                    queue.delivering = null;
+                    queues.remove(listener);
+                    return;
+                }
+                changes = queue.batches.poll();
+                if (!queue.batches.isEmpty()) {
+                    changes = new ArrayList<>(changes);
+                    while (!queue.batches.isEmpty()) {
+                        changes.addAll(queue.batches.poll());
+                    }
+                }
+                queue.delivering = Thread.currentThread();
+            }
+            try {
+                listener.ontologiesChanged(changes);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Listener {} failed to handle changes: {}", listener, e.getMessage(), e);
+            } finally {
+                synchronized (queues) {
+                    queue.size -= changes.size();
+                    pendingChanges -= changes.size();
+                    deliveredBatches++;
+                    deliveredChanges += changes.size();
+                    queues.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait until all the changes broadcast so far have been delivered. Must not be called by a
+     * listener receiving changes from this strategy.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        synchronized (queues) {
+            while (pendingChanges > 0) {
+                queues.wait();
+            }
+        }
+    }
+
+    /**
+     * Deliver the changes waiting, and stop the delivery thread if the strategy created it.
+     * Changes broadcast afterwards are delivered on the broadcasting thread. If the thread is
+     * interrupted while waiting for the changes to be delivered, the wait is abandoned, the
+     * changes still waiting are delivered in the background, and the interrupt status of the
+     * thread is restored so that callers can still see the interruption; {@code close()} does not
+     * throw {@link InterruptedException}.
+     */
+    @Override
+    public void close() {
+        synchronized (queues) {
+            closed = true;
+        }
+        try {
+            flush();
+        } catch (InterruptedException e) {
+            // AutoCloseable.close() should not throw InterruptedException: restore the flag
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while closing, {} changes still waiting for delivery",
+                Long.valueOf(getQueueDepth()), e);
+        }
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    /**
+     * @return number of changes waiting to be delivered, or being delivered, to all listeners
+     */
+    public long getQueueDepth() {
+        synchronized (queues) {
+            return pendingChanges;
+        }
+    }
+
+    /**
+     * @param listener listener
+     * @return number of changes waiting to be delivered, or being delivered, to the listener
+     */
+    public long getQueueDepth(OWLOntologyChangeListener listener) {
+        synchronized (queues) {
+            ListenerQueue queue = queues.get(listener);
+            return queue == null ? 0 : queue.size;
+        }
+    }
+
+    /**
+     * @return largest number of changes waiting for delivery at the same time
+     */
+    public long getMaxQueueDepth() {
+        synchronized (queues) {
+            return maxPendingChangesSeen;
+        }
+    }
+
+    /**
+     * @return number of batches of changes broadcast to this strategy
+     */
+    public long getReceivedBatches() {
+        synchronized (queues) {
+            return receivedBatches;
+        }
+    }
+
+    /**
+     * @return number of calls to listeners; lower than the number of received batches when
+     *         batches have been coalesced
+     */
+    public long getDeliveredBatches() {
+        synchronized (queues) {
+            return deliveredBatches;
+        }
+    }
+
+    /**
+     * @return number of changes delivered to listeners
+     */
+    public long getDeliveredChanges() {
+        synchronized (queues) {
+            return deliveredChanges;
+        }
+    }
+
+    /**
+     * @return number of times changes have been queued for a listener that was still over the
+     *         limit after the maximum wait
+     */
+    public long getOverflows() {
+        synchronized (queues) {
+            return overflows;
+        }
+    }
+
+    /**
+     * Executors and queues are not serialized; a deserialized strategy delivers changes on its
+     * own thread.
+     *
+     * @return a new strategy with the same limits
+     */
+    protected Object readResolve() {
+        return new AsynchronousChangeBroadcastStrategy(maxPendingChanges, maxWaitMillis);
+    }
+
+    private static class ListenerQueue {
+
+        final Deque<List<OWLOntologyChange>> batches = new ArrayDeque<>();
+        /** Changes waiting or being delivered. */
+        int size = 0;
+        /** True if a delivery task has been submitted and has not finished. */
+        boolean scheduled = false;
+        /** True if a wait for this listener timed out since its queue was last empty. */
+        boolean overflowing = false;
+        @Nullable
+        Thread delivering;
+    }
+}
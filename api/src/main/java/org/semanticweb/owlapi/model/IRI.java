@@ -12,6 +12,8 @@
  * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
 package org.semanticweb.owlapi.model;
 
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INTERN_IRIS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.IRI_PREFIX_CACHE_SIZE;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.emptyOptional;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.optional;
@@ -21,6 +23,7 @@ import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
@@ -33,6 +36,8 @@ import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 /**
  * Represents International Resource Identifiers.
@@ -44,13 +49,25 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
     OWLPrimitive, HasShortForm, org.apache.commons.rdf.api.IRI {
 
     // Cache prefixes for memory gains.
-    private static final LoadingCache<String, String> CACHE =
-        Caffeine.newBuilder().maximumSize(2048).build(k -> k);
+    private static final LoadingCache<String, String> CACHE = Caffeine.newBuilder()
+        .maximumSize(IRI_PREFIX_CACHE_SIZE.getValue(Integer.class, Collections.emptyMap())
+            .longValue())
+        .build(k -> k);
+    /**
+     * If true, all IRIs created by the factory methods are interned, and all namespaces are kept in
+     * a shared weak table, so that equal namespaces are the same string. Namespaces and IRIs that
+     * are no longer referenced are dropped from the tables.
+     */
+    private static final boolean INTERN =
+        INTERN_IRIS.getValue(Boolean.class, Collections.emptyMap()).booleanValue();
+    private static final Interner<String> NAMESPACES = Interners.newWeakInterner();
+    private static final Interner<IRI> IRIS = Interners.newWeakInterner();
     private static final AtomicLong COUNTER = new AtomicLong(System.nanoTime());
     // Impl - All constructors are private - factory methods are used for
     // public creation
     private final String remainder;
     private final String namespace;
+    private transient int hashCode = 0;
 
     /**
      * Constructs an IRI which is built from the concatenation of the specified prefix and suffix.
@@ -59,10 +76,41 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
      * @param suffix The suffix.
      */
     protected IRI(String prefix, @Nullable String suffix) {
-        namespace = CACHE.get(prefix);
+        namespace = namespace(prefix);
         remainder = suffix == null ? "" : suffix;
     }
 
+    private static String namespace(String prefix) {
+        if (INTERN) {
+            return NAMESPACES.intern(prefix);
+        }
+        return CACHE.get(prefix);
+    }
+
+    /**
+     * @param iri IRI to intern
+     * @return the canonical instance equal to the input, if interning is enabled; the input
+     *         otherwise
+     */
+    private static IRI intern(IRI iri) {
+        if (INTERN) {
+            return IRIS.intern(iri);
+        }
+        return iri;
+    }
+
+    /**
+     * Deserialized IRIs are interned like those created by the factory methods.
+     *
+     * @return this IRI or its canonical instance
+     */
+    private Object readResolve() {
+        if (INTERN) {
+            return intern(new IRI(namespace, remainder));
+        }
+        return this;
+    }
+
     protected IRI(String s) {
         this(XMLUtils.getNCNamePrefix(s), XMLUtils.getNCNameSuffix(s));
     }
@@ -82,9 +130,9 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
         int index = XMLUtils.getNCNameSuffixIndex(str);
         if (index < 0) {
             // no ncname
-            return new IRI(str, "");
+            return intern(new IRI(str, ""));
         }
-        return new IRI(str.substring(0, index), str.substring(index));
+        return intern(new IRI(str.substring(0, index), str.substring(index)));
     }
 
     /**
@@ -117,7 +165,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
             // the prefix does not contain an ncname character and there is
             // no illegal character in the suffix
             // the split is therefore correct
-            return new IRI(prefix, suffix);
+            return intern(new IRI(prefix, suffix));
         }
         // otherwise the split is wrong; we could obtain the right split by
         // using index and test, but it's just as easy to use the other
@@ -131,7 +179,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
      */
     public static IRI create(File file) {
         checkNotNull(file, "file cannot be null");
-        return new IRI(file.toURI());
+        return intern(new IRI(file.toURI()));
     }
 
     /**
@@ -140,7 +188,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
      */
     public static IRI create(URI uri) {
         checkNotNull(uri, "uri cannot be null");
-        return new IRI(uri);
+        return intern(new IRI(uri));
     }
 
     /**
@@ -151,7 +199,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
     public static IRI create(URL url) {
         checkNotNull(url, "url cannot be null");
         try {
-            return new IRI(url.toURI());
+            return intern(new IRI(url.toURI()));
         } catch (URISyntaxException e) {
             throw new OWLRuntimeException(e);
         }
@@ -429,7 +477,13 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
 
     @Override
     public int hashCode() {
-        return namespace.hashCode() + remainder.hashCode();
+        // cached: the field fits in the padding of the object, so the cache costs no memory
+        int h = hashCode;
+        if (h == 0) {
+            h = namespace.hashCode() + remainder.hashCode();
+            hashCode = h;
+        }
+        return h;
     }
 
     @Override
@@ -462,6 +516,13 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue, SWRLPredic
         }
         if (obj instanceof IRI) {
             IRI other = (IRI) obj;
+            if (hashCode() != other.hashCode()) {
+                return false;
+            }
+            if (INTERN) {
+                // namespaces are unique in the namespace table
+                return other.namespace == namespace && remainder.equals(other.remainder);
+            }
             return remainder.equals(other.remainder) && other.namespace.equals(namespace);
         }
         // Commons RDF IRI equals() contract
@@ -443,6 +443,18 @@ public interface OWLAxiomIndex extends HasImportsClosure {
             imports, IN_SUB_POSITION);
     }
 
+    /**
+     * Gets the axioms that annotate the specified entity with the specified annotation property.
+     *
+     * @param entity The entity whose annotations are to be retrieved.
+     * @param property The annotation property of the annotations.
+     * @return the axioms matching the search. The set is a copy of the data.
+     */
+    default Stream<OWLAnnotationAssertionAxiom> annotationAssertionAxioms(
+        OWLAnnotationSubject entity, OWLAnnotationProperty property) {
+        return annotationAssertionAxioms(entity).filter(ax -> ax.getProperty().equals(property));
+    }
+
     // Classes
 
     /**
@@ -32,4 +32,18 @@ public interface OWLOntologyBuilder extends Serializable {
      * @return new ontology instance
      */
     OWLOntology createOWLOntology(OWLOntologyManager manager, OWLOntologyID ontologyID);
+
+    /**
+     * @param manager manager for the ontology to be created
+     * @param ontologyID id for the ontology to be created
+     * @param concurrentIndexes true if the ontology will be read concurrently without exclusive
+     *        locks, and its indexes must support that. Builders that do not know about such
+     *        indexes ignore it.
+     * @return new ontology instance
+     * @since 5.1.8
+     */
+    default OWLOntology createOWLOntology(OWLOntologyManager manager, OWLOntologyID ontologyID,
+        boolean concurrentIndexes) {
+        return createOWLOntology(manager, ontologyID);
+    }
 }
@@ -15,18 +15,24 @@ package org.semanticweb.owlapi.model;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ACCEPT_HTTP_COMPRESSION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.AUTHORIZATION_VALUE;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.BANNED_PARSERS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.COMPACT_TRIPLE_BUFFER;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.CONNECTION_TIMEOUT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_EXPANSION_LIMIT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.FOLLOW_REDIRECTS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.IMPORTS_LOADING_THREADS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LINE_PARSER_THREADS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LOAD_ANNOTATIONS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_IMPORT_HANDLING_STRATEGY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_ONTOLOGY_HEADER_STRATEGY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_RDF_TRANSLATION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARSE_WITH_STRICT_CONFIGURATION;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PIPELINED_LOADING_BATCH_SIZE;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PRIORITY_COLLECTION_SORTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPAIR_ILLEGAL_PUNNINGS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPORT_STACK_TRACES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.RETRIES_TO_ATTEMPT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TREAT_DUBLINCORE_AS_BUILTIN;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TRIPLE_SPILL_THRESHOLD;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TRIM_TO_SIZE;
 
 import java.io.Serializable;
@@ -262,12 +268,60 @@ public class OWLOntologyLoaderConfiguration implements Serializable {
     }
 
     /**
-     * @return true if ontology should be trimmed to size after load
+     * @return true if ontology should be trimmed to size after load; false by default, since
+     *         trimming rebuilds the indexes of the loaded ontology
      */
     public boolean shouldTrimToSize() {
         return TRIM_TO_SIZE.getValue(Boolean.class, overrides).booleanValue();
     }
 
+    /**
+     * @return true if RDF parsers should buffer unconsumed triples as dictionary encoded integers
+     *         rather than in nested maps
+     */
+    public boolean shouldUseCompactTripleBuffer() {
+        return COMPACT_TRIPLE_BUFFER.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @return number of triples RDF parsers keep in memory before writing them to memory mapped
+     *         temporary files; 0 means triples are never written to disk
+     */
+    public int getTripleSpillThreshold() {
+        return TRIPLE_SPILL_THRESHOLD.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @return number of threads used to parse N-Triples and N-Quads files; 1 means parsing
+     *         happens on the calling thread
+     */
+    public int getLineParserThreads() {
+        return LINE_PARSER_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @return true if the RDF consumer translates assertion triples in parallel
+     */
+    public boolean shouldTranslateRDFInParallel() {
+        return PARALLEL_RDF_TRANSLATION.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @return number of axioms in each batch passed from the parser to the indexing thread; 0
+     *         means axioms are indexed on the parsing thread
+     */
+    public int getPipelinedLoadingBatchSize() {
+        return PIPELINED_LOADING_BATCH_SIZE.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @return number of threads used to load the imports closure; 1 means imports are loaded one
+     *         at a time on the calling thread
+     */
+    public int getImportsLoadingThreads() {
+        return IMPORTS_LOADING_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
     /**
      * @param b true if HTTP compression should be accepted
      * @return a copy of this configuration with accepting HTTP compression set to the new value
@@ -500,4 +554,103 @@ public class OWLOntologyLoaderConfiguration implements Serializable {
         configuration.overrides.put(TRIM_TO_SIZE, Boolean.valueOf(value));
         return configuration;
     }
+
+    /**
+     * @param value true if RDF parsers should buffer unconsumed triples as dictionary encoded
+     *        integers rather than in nested maps. This reduces the memory needed to parse large
+     *        ontologies, at the cost of slower lookups for subjects with many triples.
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OWLOntologyLoaderConfiguration setCompactTripleBuffer(boolean value) {
+        if (shouldUseCompactTripleBuffer() == value) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration configuration = copyConfiguration();
+        configuration.overrides.put(COMPACT_TRIPLE_BUFFER, Boolean.valueOf(value));
+        return configuration;
+    }
+
+    /**
+     * @param threshold number of triples RDF parsers keep in memory before writing them, sorted by
+     *        subject, to memory mapped temporary files. Parsing then uses the compact triple
+     *        buffer regardless of {@link #shouldUseCompactTripleBuffer()}. This allows loading
+     *        RDF documents whose triples do not fit in the heap. 0 means triples are never written
+     *        to disk.
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OWLOntologyLoaderConfiguration setTripleSpillThreshold(int threshold) {
+        if (getTripleSpillThreshold() == threshold) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration configuration = copyConfiguration();
+        configuration.overrides.put(TRIPLE_SPILL_THRESHOLD, Integer.valueOf(threshold));
+        return configuration;
+    }
+
+    /**
+     * @param threads number of threads used to parse N-Triples and N-Quads documents read from
+     *        local, uncompressed files. The file is split at line boundaries and the chunks are
+     *        parsed in parallel; statements reach the RDF consumer in file order. 1 means parsing
+     *        happens on the calling thread.
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OWLOntologyLoaderConfiguration setLineParserThreads(int threads) {
+        if (getLineParserThreads() == threads) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration configuration = copyConfiguration();
+        configuration.overrides.put(LINE_PARSER_THREADS, Integer.valueOf(threads));
+        return configuration;
+    }
+
+    /**
+     * @param b true if, once all triples have been parsed, the RDF consumer should translate
+     *        object property, data property and annotation assertion triples in the common fork
+     *        join pool, in batches. Triples with blank nodes and class expressions are still
+     *        translated sequentially. The resulting ontology is the same as with the sequential
+     *        translation.
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OWLOntologyLoaderConfiguration setParallelRDFTranslation(boolean b) {
+        if (shouldTranslateRDFInParallel() == b) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration configuration = copyConfiguration();
+        configuration.overrides.put(PARALLEL_RDF_TRANSLATION, Boolean.valueOf(b));
+        return configuration;
+    }
+
+    /**
+     * @param batchSize number of axioms in each batch passed from the parser to the indexing
+     *        thread. If positive, parsers that support it run while a separate thread adds the
+     *        parsed axioms to the ontology indexes; the parser waits when too many batches are
+     *        queued. 0 means axioms are indexed on the parsing thread.
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OWLOntologyLoaderConfiguration setPipelinedLoadingBatchSize(int batchSize) {
+        if (getPipelinedLoadingBatchSize() == batchSize) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration configuration = copyConfiguration();
+        configuration.overrides.put(PIPELINED_LOADING_BATCH_SIZE, Integer.valueOf(batchSize));
+        return configuration;
+    }
+
+    /**
+     * @param threads number of threads used to load the imports closure. Imported documents are
+     *        parsed in parallel as soon as their imports declarations are found, and the
+     *        ontologies are added to the manager in the order a sequential load would add them.
+     *        1 means imports are loaded one at a time on the calling thread. Managers with a
+     *        read/write lock, such as concurrent managers, refuse to load with more than one
+     *        thread.
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OWLOntologyLoaderConfiguration setImportsLoadingThreads(int threads) {
+        if (getImportsLoadingThreads() == threads) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration configuration = copyConfiguration();
+        configuration.overrides.put(IMPORTS_LOADING_THREADS, Integer.valueOf(threads));
+        return configuration;
+    }
 }
@@ -13,17 +13,29 @@
 package org.semanticweb.owlapi.model;
 
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ACCEPT_HTTP_COMPRESSION;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ANNOTATION_PROPERTY_INDEX;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.BANNED_PARSERS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.BANNERS_ENABLED;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.COMPACT_TRIPLE_BUFFER;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.CONCURRENT_INDEXES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.CONNECTION_TIMEOUT;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_POLICY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_SIZE;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_STATS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.FOLLOW_REDIRECTS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.IMPORTS_LOADING_THREADS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INDENTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INDENT_SIZE;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LABELS_AS_BANNER;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LINE_PARSER_THREADS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LITERAL_AND_IRI_INDEXES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LOAD_ANNOTATIONS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_IMPORT_HANDLING_STRATEGY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_ONTOLOGY_HEADER_STRATEGY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_RDF_TRANSLATION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARSE_WITH_STRICT_CONFIGURATION;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PER_ONTOLOGY_LOCKS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PIPELINED_LOADING_BATCH_SIZE;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PRIORITY_COLLECTION_SORTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REMAP_IDS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPAIR_ILLEGAL_PUNNINGS;
@@ -31,6 +43,7 @@ import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPOR
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.RETRIES_TO_ATTEMPT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.SAVE_IDS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TREAT_DUBLINCORE_AS_BUILTIN;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TRIPLE_SPILL_THRESHOLD;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.USE_NAMESPACE_ENTITIES;
 
 import java.io.Serializable;
@@ -327,6 +340,233 @@ public class OntologyConfigurator implements Serializable {
         return this;
     }
 
+    /**
+     * @return true if ontologies created by a concurrent ontology builder should use indexes that
+     *         do not block concurrent readers
+     */
+    public boolean shouldUseConcurrentIndexes() {
+        return CONCURRENT_INDEXES.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if ontologies created by a concurrent ontology builder should use indexes that
+     *        do not block concurrent readers
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withConcurrentIndexes(boolean b) {
+        overrides.put(CONCURRENT_INDEXES, Boolean.valueOf(b));
+        return this;
+    }
+
+    /**
+     * @return true if axioms referencing a literal or an IRI should be looked up through
+     *         dedicated indexes
+     */
+    public boolean shouldUseLiteralAndIRIIndexes() {
+        return LITERAL_AND_IRI_INDEXES.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if axioms referencing a literal or an IRI should be looked up through
+     *        dedicated indexes
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withLiteralAndIRIIndexes(boolean b) {
+        overrides.put(LITERAL_AND_IRI_INDEXES, Boolean.valueOf(b));
+        return this;
+    }
+
+    /**
+     * @return interning policy for the entities created by data factories
+     */
+    public InterningPolicy getEntityCachePolicy() {
+        return ENTITY_CACHE_POLICY.getValue(InterningPolicy.class, overrides);
+    }
+
+    /**
+     * @param policy interning policy for the entities created by data factories
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withEntityCachePolicy(InterningPolicy policy) {
+        overrides.put(ENTITY_CACHE_POLICY, policy);
+        return this;
+    }
+
+    /**
+     * @return maximum number of elements in each data factory cache, for bounded caches
+     */
+    public int getEntityCacheSize() {
+        return ENTITY_CACHE_SIZE.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param size maximum number of elements in each data factory cache, for bounded caches
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withEntityCacheSize(int size) {
+        overrides.put(ENTITY_CACHE_SIZE, Integer.valueOf(size));
+        return this;
+    }
+
+    /**
+     * @return true if data factory caches should record hit and miss statistics
+     */
+    public boolean shouldRecordEntityCacheStats() {
+        return ENTITY_CACHE_STATS.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if data factory caches should record hit and miss statistics
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withEntityCacheStats(boolean b) {
+        overrides.put(ENTITY_CACHE_STATS, Boolean.valueOf(b));
+        return this;
+    }
+
+    /**
+     * @return true if RDF parsers should buffer unconsumed triples as dictionary encoded integers
+     *         rather than in nested maps
+     */
+    public boolean shouldUseCompactTripleBuffer() {
+        return COMPACT_TRIPLE_BUFFER.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if RDF parsers should buffer unconsumed triples as dictionary encoded integers
+     *        rather than in nested maps
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withCompactTripleBuffer(boolean b) {
+        overrides.put(COMPACT_TRIPLE_BUFFER, Boolean.valueOf(b));
+        return this;
+    }
+
+    /**
+     * @return number of triples RDF parsers keep in memory before writing them to memory mapped
+     *         temporary files; 0 means triples are never written to disk
+     */
+    public int getTripleSpillThreshold() {
+        return TRIPLE_SPILL_THRESHOLD.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threshold number of triples RDF parsers keep in memory before writing them to memory
+     *        mapped temporary files; 0 means triples are never written to disk
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withTripleSpillThreshold(int threshold) {
+        overrides.put(TRIPLE_SPILL_THRESHOLD, Integer.valueOf(threshold));
+        return this;
+    }
+
+    /**
+     * @return number of threads used to parse N-Triples and N-Quads files; 1 means parsing
+     *         happens on the calling thread
+     */
+    public int getLineParserThreads() {
+        return LINE_PARSER_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threads number of threads used to parse N-Triples and N-Quads files; 1 means parsing
+     *        happens on the calling thread
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withLineParserThreads(int threads) {
+        overrides.put(LINE_PARSER_THREADS, Integer.valueOf(threads));
+        return this;
+    }
+
+    /**
+     * @return true if the RDF consumer translates assertion triples in parallel
+     */
+    public boolean shouldTranslateRDFInParallel() {
+        return PARALLEL_RDF_TRANSLATION.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if the RDF consumer should translate assertion triples in parallel
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withParallelRDFTranslation(boolean b) {
+        overrides.put(PARALLEL_RDF_TRANSLATION, Boolean.valueOf(b));
+        return this;
+    }
+
+    /**
+     * @return number of axioms in each batch passed from the parser to the indexing thread; 0
+     *         means axioms are indexed on the parsing thread
+     */
+    public int getPipelinedLoadingBatchSize() {
+        return PIPELINED_LOADING_BATCH_SIZE.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param batchSize number of axioms in each batch passed from the parser to the indexing
+     *        thread; 0 means axioms are indexed on the parsing thread
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withPipelinedLoadingBatchSize(int batchSize) {
+        overrides.put(PIPELINED_LOADING_BATCH_SIZE, Integer.valueOf(batchSize));
+        return this;
+    }
+
+    /**
+     * @return number of threads used to load the imports closure; 1 means imports are loaded one
+     *         at a time on the calling thread
+     */
+    public int getImportsLoadingThreads() {
+        return IMPORTS_LOADING_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threads number of threads used to load the imports closure; 1 means imports are
+     *        loaded one at a time on the calling thread. Managers with a read/write lock, such as
+     *        concurrent managers, refuse to load with more than one thread.
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withImportsLoadingThreads(int threads) {
+        overrides.put(IMPORTS_LOADING_THREADS, Integer.valueOf(threads));
+        return this;
+    }
+
+    /**
+     * @return true if ontologies created by a concurrent ontology builder should have their own
+     *         lock, with the manager lock guarding only the set of managed ontologies
+     */
+    public boolean shouldUsePerOntologyLocks() {
+        return PER_ONTOLOGY_LOCKS.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if ontologies created by a concurrent ontology builder should have their own
+     *        lock, with the manager lock guarding only the set of managed ontologies
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withPerOntologyLocks(boolean b) {
+        overrides.put(PER_ONTOLOGY_LOCKS, Boolean.valueOf(b));
+        return this;
+    }
+
+    /**
+     * @return true if the annotation assertions for a subject and an annotation property should
+     *         be looked up through a dedicated index
+     */
+    public boolean shouldUseAnnotationPropertyIndex() {
+        return ANNOTATION_PROPERTY_INDEX.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if the annotation assertions for a subject and an annotation property should
+     *        be looked up through a dedicated index
+     * @return An {@code OntologyConfigurator} with the new option set.
+     */
+    public OntologyConfigurator withAnnotationPropertyIndex(boolean b) {
+        overrides.put(ANNOTATION_PROPERTY_INDEX, Boolean.valueOf(b));
+        return this;
+    }
+
     /**
      * @return a new OWLOntologyLoaderConfiguration from the builder current settings
      */
@@ -344,7 +584,13 @@ public class OntologyConfigurator implements Serializable {
             .setStrict(shouldParseWithStrictConfiguration())
             .setTreatDublinCoreAsBuiltIn(shouldTreatDublinCoreAsBuiltin())
             .setBannedParsers(getBannedParsers())
-            .setRepairIllegalPunnings(shouldRepairIllegalPunnings());
+            .setRepairIllegalPunnings(shouldRepairIllegalPunnings())
+            .setCompactTripleBuffer(shouldUseCompactTripleBuffer())
+            .setTripleSpillThreshold(getTripleSpillThreshold())
+            .setLineParserThreads(getLineParserThreads())
+            .setParallelRDFTranslation(shouldTranslateRDFInParallel())
+            .setPipelinedLoadingBatchSize(getPipelinedLoadingBatchSize())
+            .setImportsLoadingThreads(getImportsLoadingThreads());
     }
 
     /**
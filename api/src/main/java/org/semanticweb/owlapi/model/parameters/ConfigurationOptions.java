@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.Properties;
 import javax.annotation.Nullable;
 import org.semanticweb.owlapi.model.ByName;
+import org.semanticweb.owlapi.model.InterningPolicy;
 import org.semanticweb.owlapi.model.MissingImportHandlingStrategy;
 import org.semanticweb.owlapi.model.MissingOntologyHeaderStrategy;
 import org.semanticweb.owlapi.model.PriorityCollectionSorting;
@@ -71,9 +72,87 @@ public enum ConfigurationOptions {
     AUTHORIZATION_VALUE                 (""),
     /**True if ontologies should
      * be trimmed to size after load.
-     * If set to false, trim will
-     * only happen on explicit call.*/
-    TRIM_TO_SIZE                        (Boolean.TRUE);
+     * Trimming rebuilds the indexes,
+     * so it is off by default and
+     * happens on explicit call.*/
+    TRIM_TO_SIZE                        (Boolean.FALSE),
+    /**True if ontologies created
+     * by a concurrent ontology
+     * builder should use indexes
+     * that do not block concurrent
+     * readers.*/
+    CONCURRENT_INDEXES                  (Boolean.FALSE),
+    /**True if lookups of axioms
+     * referencing a literal or an
+     * IRI should build and use
+     * dedicated indexes.*/
+    LITERAL_AND_IRI_INDEXES             (Boolean.FALSE),
+    /**Interning policy for the
+     * entities and annotations
+     * created by a data factory.*/
+    ENTITY_CACHE_POLICY                 (InterningPolicy.BOUNDED),
+    /**Maximum number of elements
+     * in each data factory cache,
+     * for bounded caches.*/
+    ENTITY_CACHE_SIZE                   (Integer.valueOf(2048)),
+    /**True if data factory caches
+     * should record hit and miss
+     * statistics.*/
+    ENTITY_CACHE_STATS                  (Boolean.FALSE),
+    /**Maximum number of IRI
+     * namespaces shared between
+     * IRI instances.*/
+    IRI_PREFIX_CACHE_SIZE               (Integer.valueOf(2048)),
+    /**True if IRIs should be
+     * interned in a global weak
+     * table, so that equal IRIs
+     * are the same object.*/
+    INTERN_IRIS                         (Boolean.FALSE),
+    /**True if RDF parsers should
+     * buffer unconsumed triples as
+     * dictionary encoded integers
+     * instead of nested maps.*/
+    COMPACT_TRIPLE_BUFFER               (Boolean.FALSE),
+    /**Number of triples RDF
+     * parsers keep in memory before
+     * writing them to memory mapped
+     * temporary files. 0 means
+     * triples are never written.*/
+    TRIPLE_SPILL_THRESHOLD              (Integer.valueOf(0)),
+    /**Number of threads used to
+     * parse N-Triples and N-Quads
+     * files; 1 parses on the
+     * calling thread.*/
+    LINE_PARSER_THREADS                 (Integer.valueOf(1)),
+    /**True if the RDF consumer
+     * should translate assertion
+     * triples in parallel once all
+     * triples have been parsed.*/
+    PARALLEL_RDF_TRANSLATION            (Boolean.FALSE),
+    /**Number of axioms in each
+     * batch passed from the parser
+     * to the indexing thread; 0
+     * indexes on the parsing
+     * thread.*/
+    PIPELINED_LOADING_BATCH_SIZE        (Integer.valueOf(0)),
+    /**Number of threads used to
+     * load the imports closure; 1
+     * loads imports one at a time
+     * on the calling thread.*/
+    IMPORTS_LOADING_THREADS             (Integer.valueOf(1)),
+    /**True if ontologies created
+     * by a concurrent ontology
+     * builder should have their
+     * own lock, so that changes to
+     * different ontologies do not
+     * wait for each other.*/
+    PER_ONTOLOGY_LOCKS                  (Boolean.FALSE),
+    /**True if lookups of the
+     * annotation assertions for a
+     * subject and an annotation
+     * property should build and
+     * use a dedicated index.*/
+    ANNOTATION_PROPERTY_INDEX           (Boolean.FALSE);
     //@formatter:on
     private static final String PREFIX = "org.semanticweb.owlapi.model.parameters.ConfigurationOptions.";
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationOptions.class);
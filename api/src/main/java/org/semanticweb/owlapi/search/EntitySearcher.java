@@ -145,8 +145,11 @@ public class EntitySearcher {
      */
     public static Stream<OWLAnnotation> getAnnotationObjects(OWLAnnotationSubject e,
         OWLOntology ontology, @Nullable OWLAnnotationProperty annotationProperty) {
-        return Searcher.annotationObjects(ontology.annotationAssertionAxioms(e),
-            annotationProperty);
+        if (annotationProperty == null) {
+            return Searcher.annotationObjects(ontology.annotationAssertionAxioms(e));
+        }
+        return Searcher.annotationObjects(
+            ontology.annotationAssertionAxioms(e, annotationProperty));
     }
 
     /**
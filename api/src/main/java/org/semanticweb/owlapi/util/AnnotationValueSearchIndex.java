@@ -0,0 +1,519 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.util;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * An in memory search index over the literal values of annotation assertions, for autocompletion
+ * and label lookups. Values are compared in lower case, and are indexed separately for each
+ * annotation property and language: the positions in a value that start a word are kept in a set
+ * sorted by the text that follows them, so that prefix queries match the start of any word, and the
+ * trigrams of a value in an inverted index, which narrows down the values to check for substring
+ * and edit distance queries. Positions refer to the value, so the index does not copy the text that
+ * follows them. The index can be restricted to a set of annotation properties.
+ * <p>
+ * An index created with a manager listens to the changes of the indexed ontologies and stays up to
+ * date; the {@code dispose} method must be called when the index is no longer needed, so that the
+ * index may remove itself as a listener from the manager.
+ *
+ * @since 5.1.8
+ */
+public class AnnotationValueSearchIndex {
+
+    private static final int GRAM = 3;
+    private final List<OWLOntology> ontologies;
+    @Nullable
+    private final Set<OWLAnnotationProperty> properties;
+    private final Map<OWLAnnotationProperty, Map<String, Shard>> shards = new HashMap<>();
+    private final OWLOntologyChangeListener listener = this::handleChanges;
+    @Nullable
+    private OWLOntologyManager man;
+
+    /**
+     * Creates an index of the annotation assertions in the specified ontologies. The index does not
+     * track changes to the ontologies.
+     *
+     * @param ontologies The ontologies whose annotation assertions are to be indexed.
+     */
+    public AnnotationValueSearchIndex(Collection<OWLOntology> ontologies) {
+        this(ontologies, null);
+    }
+
+    /**
+     * Creates an index of the annotation assertions with the specified properties in the specified
+     * ontologies. The index does not track changes to the ontologies.
+     *
+     * @param ontologies The ontologies whose annotation assertions are to be indexed.
+     * @param properties The annotation properties whose assertions are to be indexed; null means
+     *        all.
+     */
+    public AnnotationValueSearchIndex(Collection<OWLOntology> ontologies,
+        @Nullable Collection<OWLAnnotationProperty> properties) {
+        this.ontologies = new ArrayList<>(checkNotNull(ontologies, "ontologies cannot be null"));
+        this.properties = properties == null ? null : new HashSet<>(properties);
+        this.ontologies.forEach(
+            o -> o.axioms(AxiomType.ANNOTATION_ASSERTION).forEach(this::add));
+    }
+
+    /**
+     * Creates an index of the annotation assertions in the specified ontologies, which tracks the
+     * changes to the ontologies. Note that the {@code dispose} method must be called when the index
+     * has been finished with.
+     *
+     * @param man The manager of the ontologies; the index listens to its changes.
+     * @param ontologies The ontologies whose annotation assertions are to be indexed.
+     */
+    public AnnotationValueSearchIndex(OWLOntologyManager man, Collection<OWLOntology> ontologies) {
+        this(man, ontologies, null);
+    }
+
+    /**
+     * Creates an index of the annotation assertions with the specified properties in the specified
+     * ontologies, which tracks the changes to the ontologies. Note that the {@code dispose} method
+     * must be called when the index has been finished with.
+     *
+     * @param man The manager of the ontologies; the index listens to its changes.
+     * @param ontologies The ontologies whose annotation assertions are to be indexed.
+     * @param properties The annotation properties whose assertions are to be indexed; null means
+     *        all.
+     */
+    public AnnotationValueSearchIndex(OWLOntologyManager man, Collection<OWLOntology> ontologies,
+        @Nullable Collection<OWLAnnotationProperty> properties) {
+        this(ontologies, properties);
+        this.man = checkNotNull(man, "man cannot be null");
+        man.addOntologyChangeListener(listener);
+    }
+
+    /**
+     * @param prefix text to search for
+     * @return annotation assertions with a value in which a word starts with the prefix, ignoring
+     *         case
+     */
+    public Stream<OWLAnnotationAssertionAxiom> startingWith(String prefix) {
+        return startingWith(prefix, null, null);
+    }
+
+    /**
+     * @param prefix text to search for
+     * @param property annotation property of the assertions; null means all
+     * @param lang language of the values; null means all, the empty string means values without
+     *        language
+     * @return annotation assertions with a value in which a word starts with the prefix, ignoring
+     *         case
+     */
+    public synchronized Stream<OWLAnnotationAssertionAxiom> startingWith(String prefix,
+        @Nullable OWLAnnotationProperty property, @Nullable String lang) {
+        String p = normalize(checkNotNull(prefix, "prefix cannot be null"));
+        return search(property, lang, (shard, result) -> shard.startingWith(p, result));
+    }
+
+    /**
+     * @param text text to search for
+     * @return annotation assertions with a value containing the text, ignoring case
+     */
+    public Stream<OWLAnnotationAssertionAxiom> containing(String text) {
+        return containing(text, null, null);
+    }
+
+    /**
+     * @param text text to search for
+     * @param property annotation property of the assertions; null means all
+     * @param lang language of the values; null means all, the empty string means values without
+     *        language
+     * @return annotation assertions with a value containing the text, ignoring case
+     */
+    public synchronized Stream<OWLAnnotationAssertionAxiom> containing(String text,
+        @Nullable OWLAnnotationProperty property, @Nullable String lang) {
+        String t = normalize(checkNotNull(text, "text cannot be null"));
+        return search(property, lang, (shard, result) -> shard.containing(t, result));
+    }
+
+    /**
+     * @param text text to search for
+     * @param maxDistance maximum number of single character insertions, deletions and
+     *        substitutions
+     * @return annotation assertions with a value within the edit distance of the text, ignoring
+     *         case
+     */
+    public Stream<OWLAnnotationAssertionAxiom> similarTo(String text, int maxDistance) {
+        return similarTo(text, maxDistance, null, null);
+    }
+
+    /**
+     * @param text text to search for
+     * @param maxDistance maximum number of single character insertions, deletions and
+     *        substitutions
+     * @param property annotation property of the assertions; null means all
+     * @param lang language of the values; null means all, the empty string means values without
+     *        language
+     * @return annotation assertions with a value within the edit distance of the text, ignoring
+     *         case
+     */
+    public synchronized Stream<OWLAnnotationAssertionAxiom> similarTo(String text,
+        int maxDistance, @Nullable OWLAnnotationProperty property, @Nullable String lang) {
+        String t = normalize(checkNotNull(text, "text cannot be null"));
+        return search(property, lang, (shard, result) -> shard.similarTo(t, maxDistance, result));
+    }
+
+    /**
+     * Stops tracking changes and empties the index.
+     */
+    public synchronized void dispose() {
+        OWLOntologyManager m = man;
+        if (m != null) {
+            m.removeOntologyChangeListener(listener);
+            man = null;
+        }
+        shards.clear();
+    }
+
+    private Stream<OWLAnnotationAssertionAxiom> search(@Nullable OWLAnnotationProperty property,
+        @Nullable String lang, BiConsumer<Shard, Set<OWLAnnotationAssertionAxiom>> query) {
+        Set<OWLAnnotationAssertionAxiom> result = new LinkedHashSet<>();
+        String l = lang == null ? null : normalize(lang);
+        shards.forEach((p, byLang) -> {
+            if (property == null || property.equals(p)) {
+                byLang.forEach((k, shard) -> {
+                    if (l == null || l.equals(k)) {
+                        query.accept(shard, result);
+                    }
+                });
+            }
+        });
+        return result.stream();
+    }
+
+    synchronized void handleChanges(List<? extends OWLOntologyChange> changes) {
+        for (OWLOntologyChange change : changes) {
+            if (!change.isAxiomChange() || !ontologies.contains(change.getOntology())) {
+                continue;
+            }
+            OWLAxiom axiom = change.getAxiom();
+            if (axiom instanceof OWLAnnotationAssertionAxiom) {
+                if (change.isAddAxiom()) {
+                    add((OWLAnnotationAssertionAxiom) axiom);
+                } else if (ontologies.stream().noneMatch(o -> o.containsAxiom(axiom))) {
+                    remove((OWLAnnotationAssertionAxiom) axiom);
+                }
+            }
+        }
+    }
+
+    private boolean indexed(OWLAnnotationProperty property) {
+        Set<OWLAnnotationProperty> set = properties;
+        return set == null || set.contains(property);
+    }
+
+    private void add(OWLAnnotationAssertionAxiom axiom) {
+        if (!indexed(axiom.getProperty())) {
+            return;
+        }
+        OWLLiteral value = axiom.getValue().asLiteral().orElse(null);
+        if (value != null) {
+            shards.computeIfAbsent(axiom.getProperty(), p -> new HashMap<>())
+                .computeIfAbsent(normalize(value.getLang()), l -> new Shard())
+                .add(normalize(value.getLiteral()), axiom);
+        }
+    }
+
+    private void remove(OWLAnnotationAssertionAxiom axiom) {
+        OWLLiteral value = axiom.getValue().asLiteral().orElse(null);
+        if (value == null || !indexed(axiom.getProperty())) {
+            return;
+        }
+        Map<String, Shard> byLang = shards.get(axiom.getProperty());
+        if (byLang == null) {
+            return;
+        }
+        String lang = normalize(value.getLang());
+        Shard shard = byLang.get(lang);
+        if (shard != null && shard.remove(normalize(value.getLiteral()), axiom)) {
+            byLang.remove(lang);
+            if (byLang.isEmpty()) {
+                shards.remove(axiom.getProperty());
+            }
+        }
+    }
+
+    private static String normalize(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param s normalized value
+     * @return the positions in the value starting a word; the value start is always included, so
+     *         that values starting with punctuation can still be found by their start
+     */
+    static List<WordStart> wordStarts(String s) {
+        List<WordStart> list = new ArrayList<>();
+        list.add(new WordStart(s, 0, false));
+        for (int i = 1; i < s.length(); i++) {
+            if (Character.isLetterOrDigit(s.charAt(i))
+                && !Character.isLetterOrDigit(s.charAt(i - 1))) {
+                list.add(new WordStart(s, i, false));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @param s normalized value
+     * @return the distinct trigrams of the value
+     */
+    static Set<String> grams(String s) {
+        Set<String> set = new HashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            set.add(s.substring(i, i + GRAM));
+        }
+        return set;
+    }
+
+    /**
+     * @param a first string
+     * @param b second string
+     * @param max maximum distance
+     * @return true if the Levenshtein distance between the strings is at most max
+     */
+    static boolean withinDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return false;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int min = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j], current[j - 1]) + 1,
+                    previous[j - 1] + cost);
+                min = Math.min(min, current[j]);
+            }
+            if (min > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    /**
+     * A position in a value, ordered by the text from the position to the end of the value. Equal
+     * texts are ordered by value and position; a probe, used to search for a prefix, comes before
+     * the positions with the same text.
+     */
+    static final class WordStart implements Comparable<WordStart> {
+
+        final String value;
+        final int offset;
+        private final boolean probe;
+
+        WordStart(String value, int offset, boolean probe) {
+            this.value = value;
+            this.offset = offset;
+            this.probe = probe;
+        }
+
+        boolean startsWith(String prefix) {
+            return value.startsWith(prefix, offset);
+        }
+
+        @Override
+        public int compareTo(WordStart o) {
+            int length = Math.min(value.length() - offset, o.value.length() - o.offset);
+            for (int i = 0; i < length; i++) {
+                char a = value.charAt(offset + i);
+                char b = o.value.charAt(o.offset + i);
+                if (a != b) {
+                    return a - b;
+                }
+            }
+            int diff = value.length() - offset - (o.value.length() - o.offset);
+            if (diff != 0) {
+                return diff;
+            }
+            if (probe != o.probe) {
+                return probe ? -1 : 1;
+            }
+            diff = value.compareTo(o.value);
+            return diff != 0 ? diff : Integer.compare(offset, o.offset);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return obj instanceof WordStart && compareTo((WordStart) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode() * 31 + offset;
+        }
+    }
+
+    /**
+     * Index of the values of one annotation property in one language.
+     */
+    private static class Shard {
+
+        /** Normalized values to the assertions with that value. */
+        private final Map<String, Set<OWLAnnotationAssertionAxiom>> values = new HashMap<>();
+        /** Positions starting a word, sorted by the text that follows them. */
+        private final NavigableSet<WordStart> words = new TreeSet<>();
+        /** Trigrams to the values containing them. */
+        private final Map<String, Set<String>> grams = new HashMap<>();
+        /** Lengths to the values of that length. */
+        private final Map<Integer, Set<String>> lengths = new HashMap<>();
+
+        Shard() {}
+
+        void add(String value, OWLAnnotationAssertionAxiom axiom) {
+            Set<OWLAnnotationAssertionAxiom> axioms = values.get(value);
+            if (axioms == null) {
+                axioms = new HashSet<>(1);
+                values.put(value, axioms);
+                words.addAll(wordStarts(value));
+                grams(value)
+                    .forEach(g -> grams.computeIfAbsent(g, k -> new HashSet<>()).add(value));
+                lengths.computeIfAbsent(Integer.valueOf(value.length()), k -> new HashSet<>())
+                    .add(value);
+            }
+            axioms.add(axiom);
+        }
+
+        /**
+         * @return true if the shard is empty after the removal
+         */
+        boolean remove(String value, OWLAnnotationAssertionAxiom axiom) {
+            Set<OWLAnnotationAssertionAxiom> axioms = values.get(value);
+            if (axioms == null || !axioms.remove(axiom) || !axioms.isEmpty()) {
+                return values.isEmpty();
+            }
+            values.remove(value);
+            words.removeAll(wordStarts(value));
+            grams(value).forEach(g -> removeValue(grams, g, value));
+            removeValue(lengths, Integer.valueOf(value.length()), value);
+            return values.isEmpty();
+        }
+
+        private static <K> void removeValue(Map<K, Set<String>> map, K key, String value) {
+            Set<String> set = map.get(key);
+            if (set != null && set.remove(value) && set.isEmpty()) {
+                map.remove(key);
+            }
+        }
+
+        void startingWith(String prefix, Set<OWLAnnotationAssertionAxiom> result) {
+            for (WordStart w : words.tailSet(new WordStart(prefix, 0, true), false)) {
+                if (!w.startsWith(prefix)) {
+                    return;
+                }
+                result.addAll(values.get(w.value));
+            }
+        }
+
+        void containing(String text, Set<OWLAnnotationAssertionAxiom> result) {
+            Set<String> candidates = rarest(text, values.keySet());
+            if (candidates != null) {
+                candidates.stream().filter(v -> v.contains(text))
+                    .forEach(v -> result.addAll(values.get(v)));
+            }
+        }
+
+        /**
+         * @param text normalized text
+         * @param all values to return if the text is too short to have trigrams
+         * @return the values containing the rarest trigram of the text, or null if a trigram of
+         *         the text is not in any value
+         */
+        @Nullable
+        private Set<String> rarest(String text, Set<String> all) {
+            Set<String> candidates = all;
+            for (String g : grams(text)) {
+                Set<String> set = grams.get(g);
+                if (set == null) {
+                    return null;
+                }
+                if (set.size() < candidates.size()) {
+                    candidates = set;
+                }
+            }
+            return candidates;
+        }
+
+        void similarTo(String text, int maxDistance, Set<OWLAnnotationAssertionAxiom> result) {
+            int max = Math.max(0, maxDistance);
+            List<Set<String>> candidates = new ArrayList<>();
+            int size = 0;
+            for (int l = text.length() - max; l <= text.length() + max; l++) {
+                Set<String> set = lengths.get(Integer.valueOf(l));
+                if (set != null) {
+                    candidates.add(set);
+                    size += set.size();
+                }
+            }
+            int pieceLength = text.length() / (max + 1);
+            if (pieceLength >= GRAM) {
+                // split the text in max + 1 pieces: each edit changes at most one of them, so a
+                // value close enough contains at least one piece, and the rarest trigram in it
+                List<Set<String>> containing = new ArrayList<>();
+                int containingSize = 0;
+                for (int i = 0; i <= max && containingSize < size; i++) {
+                    int end = i == max ? text.length() : (i + 1) * pieceLength;
+                    Set<String> set = rarest(text.substring(i * pieceLength, end), values.keySet());
+                    if (set != null) {
+                        containing.add(set);
+                        containingSize += set.size();
+                    }
+                }
+                if (containingSize < size) {
+                    candidates = containing;
+                }
+            }
+            candidates.stream().flatMap(Set::stream).distinct()
+                .filter(v -> withinDistance(text, v, max))
+                .forEach(v -> result.addAll(values.get(v)));
+        }
+    }
+}
@@ -117,6 +117,18 @@ public class OWLManager implements OWLOntologyManagerFactory {
         return normalInjector.inject(normalInjector.getImplementation(OWLOntologyManager.class));
     }
 
+    /**
+     * Creates an OWL ontology manager that is configured with standard parsers, storers etc. The
+     * manager and its data factory use the specified configuration; in particular, the data factory
+     * has its own caches, configured by the entity cache options.
+     *
+     * @param config configuration for the manager and its data factory
+     * @return The new manager.
+     */
+    public static OWLOntologyManager createOWLOntologyManager(OntologyConfigurator config) {
+        return create(normalInjector, config);
+    }
+
     /**
      * Creates an OWL ontology manager that is configured with the standard parsers and storers and
      * provides locking for concurrent access.
@@ -128,6 +140,27 @@ public class OWLManager implements OWLOntologyManagerFactory {
             .inject(concurrentInjector.getImplementation(OWLOntologyManager.class));
     }
 
+    /**
+     * Creates an OWL ontology manager that is configured with the standard parsers and storers and
+     * provides locking for concurrent access. The manager and its data factory use the specified
+     * configuration; in particular, the data factory has its own caches, configured by the entity
+     * cache options.
+     *
+     * @param config configuration for the manager and its data factory
+     * @return The new manager.
+     */
+    public static OWLOntologyManager createConcurrentOWLOntologyManager(
+        OntologyConfigurator config) {
+        return create(concurrentInjector, config);
+    }
+
+    private static OWLOntologyManager create(Injector injector, OntologyConfigurator config) {
+        OWLOntologyManager manager =
+            injector.inject(injector.getImplementation(OWLOntologyManager.class, config));
+        manager.setOntologyConfigurator(config);
+        return manager;
+    }
+
     /**
      * Gets a global data factory that can be used to create OWL API objects.
      *
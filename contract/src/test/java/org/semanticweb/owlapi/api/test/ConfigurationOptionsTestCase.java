@@ -1,25 +1,38 @@
 package org.semanticweb.owlapi.api.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.semanticweb.owlapi.model.InterningPolicy.BOUNDED;
 import static org.semanticweb.owlapi.model.MissingImportHandlingStrategy.THROW_EXCEPTION;
 import static org.semanticweb.owlapi.model.MissingOntologyHeaderStrategy.INCLUDE_GRAPH;
 import static org.semanticweb.owlapi.model.PriorityCollectionSorting.ON_SET_INJECTION_ONLY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ACCEPT_HTTP_COMPRESSION;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ANNOTATION_PROPERTY_INDEX;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.COMPACT_TRIPLE_BUFFER;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.CONNECTION_TIMEOUT;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_POLICY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_SIZE;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_STATS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.FOLLOW_REDIRECTS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.IMPORTS_LOADING_THREADS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INDENTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INDENT_SIZE;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INTERN_IRIS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LABELS_AS_BANNER;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LINE_PARSER_THREADS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LOAD_ANNOTATIONS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_IMPORT_HANDLING_STRATEGY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_ONTOLOGY_HEADER_STRATEGY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_RDF_TRANSLATION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARSE_WITH_STRICT_CONFIGURATION;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PER_ONTOLOGY_LOCKS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PIPELINED_LOADING_BATCH_SIZE;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PRIORITY_COLLECTION_SORTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REMAP_IDS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPORT_STACK_TRACES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.RETRIES_TO_ATTEMPT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.SAVE_IDS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TREAT_DUBLINCORE_AS_BUILTIN;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TRIPLE_SPILL_THRESHOLD;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.USE_NAMESPACE_ENTITIES;
 
 import java.util.ArrayList;
@@ -45,21 +58,33 @@ public class ConfigurationOptionsTestCase {
     public static List<Object[]> values() {
         List<Object[]> toReturn = new ArrayList<>();
         toReturn.add(new Object[]{ACCEPT_HTTP_COMPRESSION, Boolean.TRUE});
+        toReturn.add(new Object[]{ANNOTATION_PROPERTY_INDEX, Boolean.FALSE});
+        toReturn.add(new Object[]{COMPACT_TRIPLE_BUFFER, Boolean.FALSE});
         toReturn.add(new Object[]{CONNECTION_TIMEOUT, Integer.valueOf(20000)});
+        toReturn.add(new Object[]{ENTITY_CACHE_POLICY, BOUNDED});
+        toReturn.add(new Object[]{ENTITY_CACHE_SIZE, Integer.valueOf(2048)});
+        toReturn.add(new Object[]{ENTITY_CACHE_STATS, Boolean.FALSE});
         toReturn.add(new Object[]{FOLLOW_REDIRECTS, Boolean.TRUE});
         toReturn.add(new Object[]{INDENT_SIZE, Integer.valueOf(4)});
+        toReturn.add(new Object[]{IMPORTS_LOADING_THREADS, Integer.valueOf(1)});
         toReturn.add(new Object[]{INDENTING, Boolean.TRUE});
+        toReturn.add(new Object[]{INTERN_IRIS, Boolean.FALSE});
         toReturn.add(new Object[]{LABELS_AS_BANNER, Boolean.FALSE});
+        toReturn.add(new Object[]{LINE_PARSER_THREADS, Integer.valueOf(1)});
         toReturn.add(new Object[]{LOAD_ANNOTATIONS, Boolean.TRUE});
         toReturn.add(new Object[]{PARSE_WITH_STRICT_CONFIGURATION, Boolean.FALSE});
         toReturn.add(new Object[]{MISSING_IMPORT_HANDLING_STRATEGY, THROW_EXCEPTION});
         toReturn.add(new Object[]{MISSING_ONTOLOGY_HEADER_STRATEGY, INCLUDE_GRAPH});
+        toReturn.add(new Object[]{PARALLEL_RDF_TRANSLATION, Boolean.FALSE});
+        toReturn.add(new Object[]{PER_ONTOLOGY_LOCKS, Boolean.FALSE});
+        toReturn.add(new Object[]{PIPELINED_LOADING_BATCH_SIZE, Integer.valueOf(0)});
         toReturn.add(new Object[]{PRIORITY_COLLECTION_SORTING, ON_SET_INJECTION_ONLY});
         toReturn.add(new Object[]{REMAP_IDS, Boolean.TRUE});
         toReturn.add(new Object[]{REPORT_STACK_TRACES, Boolean.TRUE});
         toReturn.add(new Object[]{RETRIES_TO_ATTEMPT, Integer.valueOf(5)});
         toReturn.add(new Object[]{SAVE_IDS, Boolean.FALSE});
         toReturn.add(new Object[]{TREAT_DUBLINCORE_AS_BUILTIN, Boolean.TRUE});
+        toReturn.add(new Object[]{TRIPLE_SPILL_THRESHOLD, Integer.valueOf(0)});
         toReturn.add(new Object[]{USE_NAMESPACE_ENTITIES, Boolean.FALSE});
         return toReturn;
     }
@@ -14,6 +14,7 @@ package org.semanticweb.owlapi.api.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.semanticweb.owlapi.vocab.OWLFacet.MAX_EXCLUSIVE;
 import static org.semanticweb.owlapi.vocab.OWLFacet.MIN_INCLUSIVE;
@@ -26,6 +27,7 @@ import java.util.function.Supplier;
 
 import org.junit.Test;
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.InterningPolicy;
 import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
@@ -36,9 +38,12 @@ import org.semanticweb.owlapi.model.OWLDatatype;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OntologyConfigurator;
 import org.semanticweb.owlapi.model.SWRLClassAtom;
 import org.semanticweb.owlapi.model.SWRLVariable;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 /**
@@ -369,4 +374,33 @@ public class OWLDataFactoryImplTestCase {
         assertSameFromSupplier(testSubject::getRDFSSeeAlso);
         assertSameFromSupplier(testSubject::getTopDatatype);
     }
+
+    @Test
+    public void shouldInternEntitiesPerFactoryWithFullPolicy() {
+        OWLDataFactoryImpl full = new OWLDataFactoryImpl(new OntologyConfigurator()
+            .withEntityCachePolicy(InterningPolicy.FULL).withEntityCacheStats(true));
+        OWLDataFactoryImpl other = new OWLDataFactoryImpl(
+            new OntologyConfigurator().withEntityCachePolicy(InterningPolicy.FULL));
+        IRI iri = IRI.create("urn:test:", "A");
+        OWLClass c = full.getOWLClass(iri);
+        for (int i = 0; i < 5000; i++) {
+            full.getOWLClass(IRI.create("urn:test:", "C" + i));
+        }
+        assertSame(c, full.getOWLClass(iri));
+        assertEquals(c, other.getOWLClass(iri));
+        assertNotSame(c, other.getOWLClass(iri));
+        CacheStats stats = full.getCacheStats().get("classes");
+        assertEquals(1, stats.hitCount());
+        assertEquals(5001, stats.missCount());
+    }
+
+    @Test
+    public void shouldInternEntitiesWithWeakPolicy() {
+        OWLDataFactoryImpl weak = new OWLDataFactoryImpl(new OntologyConfigurator()
+            .withEntityCachePolicy(InterningPolicy.WEAK).withEntityCacheStats(true));
+        IRI iri = IRI.create("urn:test:", "A");
+        OWLClass c = weak.getOWLClass(iri);
+        assertSame(c, weak.getOWLClass(iri));
+        assertEquals(1, weak.getCacheStats().get("classes").hitCount());
+    }
 }
@@ -0,0 +1,103 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.annotations;
+
+import static org.junit.Assert.assertEquals;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.util.AnnotationValueSearchIndex;
+import org.semanticweb.owlapi.util.CollectionFactory;
+
+@SuppressWarnings("javadoc")
+public class AnnotationValueSearchIndexTestCase extends TestBase {
+
+    private final OWLAnnotationProperty synonym = df.getOWLAnnotationProperty(iri("synonym"));
+    private final OWLAnnotationAssertionAxiom heart =
+        df.getOWLAnnotationAssertionAxiom(iri("A"), df.getRDFSLabel("Congenital heart disease"));
+    private final OWLAnnotationAssertionAxiom liver = df.getOWLAnnotationAssertionAxiom(iri("B"),
+        df.getRDFSLabel(df.getOWLLiteral("Liver disease", "en")));
+    private final OWLAnnotationAssertionAxiom heartSynonym = df.getOWLAnnotationAssertionAxiom(
+        synonym, iri("A"), df.getOWLLiteral("heart malformation"));
+
+    private static Set<OWLAnnotationAssertionAxiom> set(OWLAnnotationAssertionAxiom... axioms) {
+        return CollectionFactory.createSet(axioms);
+    }
+
+    @Test
+    public void shouldFindValuesByPrefixSubstringAndDistance() {
+        OWLOntology o = getOWLOntology();
+        o.add(heart, liver, heartSynonym);
+        AnnotationValueSearchIndex index =
+            new AnnotationValueSearchIndex(Collections.singleton(o));
+        assertEquals(set(heart, heartSynonym), asUnorderedSet(index.startingWith("Heart")));
+        assertEquals(set(heart), asUnorderedSet(index.startingWith("heart dis")));
+        assertEquals(set(heart),
+            asUnorderedSet(index.startingWith("heart", df.getRDFSLabel(), null)));
+        assertEquals(set(), asUnorderedSet(index.startingWith("eart")));
+        assertEquals(set(heart, liver), asUnorderedSet(index.containing("ISEAS")));
+        assertEquals(set(liver), asUnorderedSet(index.containing("disease", null, "en")));
+        assertEquals(set(heart), asUnorderedSet(index.containing("disease", null, "")));
+        assertEquals(set(liver), asUnorderedSet(index.similarTo("livr desease", 2)));
+        assertEquals(set(), asUnorderedSet(index.similarTo("livr desease", 1)));
+    }
+
+    @Test
+    public void shouldTrackChanges() {
+        OWLOntology o = getOWLOntology();
+        o.add(heart);
+        AnnotationValueSearchIndex index =
+            new AnnotationValueSearchIndex(m, Collections.singleton(o));
+        try {
+            o.add(liver);
+            assertEquals(set(heart, liver), asUnorderedSet(index.containing("disease")));
+            o.remove(heart);
+            assertEquals(set(liver), asUnorderedSet(index.containing("disease")));
+            assertEquals(set(), asUnorderedSet(index.startingWith("heart")));
+        } finally {
+            index.dispose();
+        }
+        o.add(heart);
+        assertEquals(set(), asUnorderedSet(index.startingWith("heart")));
+    }
+
+    @Test
+    public void shouldIndexOnlySelectedProperties() {
+        OWLOntology o = getOWLOntology();
+        o.add(heart, liver, heartSynonym);
+        AnnotationValueSearchIndex index = new AnnotationValueSearchIndex(m,
+            Collections.singleton(o), Collections.singleton(synonym));
+        try {
+            assertEquals(set(heartSynonym), asUnorderedSet(index.startingWith("heart")));
+            assertEquals(set(), asUnorderedSet(index.containing("disease")));
+            OWLAnnotationAssertionAxiom malformed = df.getOWLAnnotationAssertionAxiom(synonym,
+                iri("C"), df.getOWLLiteral("Malformed heart, malformed valves"));
+            o.add(malformed, df.getOWLAnnotationAssertionAxiom(iri("C"),
+                df.getRDFSLabel("Malformed heart")));
+            assertEquals(set(heartSynonym), asUnorderedSet(index.startingWith("malformation")));
+            assertEquals(set(malformed), asUnorderedSet(index.startingWith("malformed")));
+            assertEquals(set(malformed), asUnorderedSet(index.startingWith("heart, malf")));
+            o.remove(malformed);
+            assertEquals(set(), asUnorderedSet(index.startingWith("malformed")));
+        } finally {
+            index.dispose();
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
 package org.semanticweb.owlapi.api.test.annotations;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationProperty;
@@ -51,4 +52,24 @@ public class GetAxiomsIgnoringAnnotationsTestCase extends TestBase {
         assertFalse(contains(
             ont.axiomsIgnoreAnnotations(noAnnotations), noAnnotations));
     }
+
+    @Test
+    public void shouldKeepIgnoreAnnotationsLookupsInSyncWithChanges() {
+        OWLAnnotation anno = df.getOWLAnnotation(AnnotationProperty(iri("annoProp")),
+            Literal("value"));
+        OWLAxiom annotated =
+            df.getOWLSubClassOfAxiom(Class(iri("A")), Class(iri("B")), singleton(anno));
+        OWLAxiom plain = annotated.getAxiomWithoutAnnotations();
+        OWLOntology ont = getOWLOntology();
+        ont.add(annotated);
+        assertTrue(ont.containsAxiomIgnoreAnnotations(plain));
+        ont.add(plain);
+        assertEquals(2L, ont.axiomsIgnoreAnnotations(annotated).count());
+        ont.remove(annotated);
+        assertTrue(contains(ont.axiomsIgnoreAnnotations(annotated), plain));
+        assertTrue(ont.containsAxiomIgnoreAnnotations(annotated));
+        ont.remove(plain);
+        assertFalse(ont.containsAxiomIgnoreAnnotations(annotated));
+        assertEquals(0L, ont.axiomsIgnoreAnnotations(plain).count());
+    }
 }
@@ -0,0 +1,225 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.imports;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.FileDocumentTarget;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.MissingImportHandlingStrategy;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyIRIMapper;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderListener;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.util.AutoIRIMapper;
+import org.semanticweb.owlapi.util.SimpleIRIMapper;
+
+@SuppressWarnings("javadoc")
+public class ParallelImportsLoadingTestCase extends TestBase {
+
+    private static final String NS = "http://test.org/parallelimports/";
+
+    private static class Events implements OWLOntologyLoaderListener {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void startedLoadingOntology(LoadingStartedEvent event) {
+            events.add("start " + event.getDocumentIRI());
+        }
+
+        @Override
+        public void finishedLoadingOntology(LoadingFinishedEvent event) {
+            events.add("end " + event.getOntologyID() + ' ' + event.isSuccessful());
+        }
+    }
+
+    private static class CountingMapper implements OWLOntologyIRIMapper {
+
+        final Map<IRI, Integer> lookups = new TreeMap<>();
+        private final OWLOntologyIRIMapper delegate;
+
+        CountingMapper(OWLOntologyIRIMapper delegate) {
+            this.delegate = delegate;
+        }
+
+        @Nullable
+        @Override
+        public IRI getDocumentIRI(IRI ontologyIRI) {
+            // the parallel imports loader calls mappers one thread at a time
+            lookups.merge(ontologyIRI, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue()
+                + b.intValue()));
+            return delegate.getDocumentIRI(ontologyIRI);
+        }
+    }
+
+    private OWLOntology load(OWLOntologyManager manager, File file,
+        OWLOntologyLoaderConfiguration configuration) throws OWLOntologyCreationException {
+        return manager.loadOntologyFromOntologyDocument(
+            new FileDocumentSource(file), configuration);
+    }
+
+    private static Map<String, Integer> axiomCounts(OWLOntologyManager manager) {
+        Map<String, Integer> counts = new TreeMap<>();
+        manager.ontologies().forEach(
+            o -> counts.put(o.getOntologyID().toString(), Integer.valueOf(o.getAxiomCount())));
+        return counts;
+    }
+
+    private void shouldLoadLikeSequentialLoad(File root, File directory)
+        throws OWLOntologyCreationException {
+        m.getIRIMappers().add(new AutoIRIMapper(directory, true));
+        m1.getIRIMappers().add(new AutoIRIMapper(directory, true));
+        Events sequential = new Events();
+        Events parallel = new Events();
+        m.addOntologyLoaderListener(sequential);
+        m1.addOntologyLoaderListener(parallel);
+        OWLOntology expected = load(m, root, config);
+        OWLOntology actual = load(m1, root, config.setImportsLoadingThreads(4));
+        assertEquals(axiomCounts(m), axiomCounts(m1));
+        assertEquals(sequential.events, parallel.events);
+        assertEquals(expected.importsClosure().count(), actual.importsClosure().count());
+        m.ontologies().forEach(o -> assertTrue(equal(o, m1.getOntology(o.getOntologyID()))));
+    }
+
+    @Test
+    public void shouldLoadRDFImportsLikeSequentialLoad() throws OWLOntologyCreationException {
+        File directory = new File(RESOURCES, "imports");
+        shouldLoadLikeSequentialLoad(new File(directory, "D.owl"), directory);
+    }
+
+    @Test
+    public void shouldLoadCyclicRDFImportsLikeSequentialLoad()
+        throws OWLOntologyCreationException {
+        File directory = new File(RESOURCES, "importscyclic");
+        shouldLoadLikeSequentialLoad(new File(directory, "D.owl"), directory);
+    }
+
+    @Test
+    public void shouldParseRDFImportsOnce() throws OWLOntologyCreationException {
+        File directory = new File(RESOURCES, "imports");
+        CountingMapper sequential = new CountingMapper(new AutoIRIMapper(directory, true));
+        CountingMapper parallel = new CountingMapper(new AutoIRIMapper(directory, true));
+        m.getIRIMappers().add(sequential);
+        m1.getIRIMappers().add(parallel);
+        load(m, new File(directory, "D.owl"), config);
+        load(m1, new File(directory, "D.owl"), config.setImportsLoadingThreads(4));
+        // every imported document is looked up, and parsed, as many times as in a sequential load
+        assertEquals(sequential.lookups, parallel.lookups);
+        assertEquals(axiomCounts(m), axiomCounts(m1));
+    }
+
+    @Test(expected = OWLOntologyCreationException.class)
+    public void shouldRejectParallelImportsInConcurrentManager()
+        throws OWLOntologyCreationException {
+        String input = "Prefix(:=<" + NS + ">)\nOntology(<" + NS + "concurrent>)";
+        OWLManager.createConcurrentOWLOntologyManager().loadOntologyFromOntologyDocument(
+            new StringDocumentSource(input, "urn:test:concurrent",
+                new FunctionalSyntaxDocumentFormat(), null),
+            config.setImportsLoadingThreads(4));
+    }
+
+    @Test
+    public void shouldLoadFunctionalSyntaxImportsLikeSequentialLoad() throws Exception {
+        // root imports ten ontologies, each importing a leaf and a shared ontology, which
+        // imports the root again
+        File directory = folder.newFolder("parallelimports");
+        OWLOntologyManager manager = setupManager();
+        OWLOntology root = manager.createOntology(IRI.create(NS, "root"));
+        OWLOntology shared = manager.createOntology(IRI.create(NS, "shared"));
+        shared.add(df.getOWLSubClassOfAxiom(df.getOWLClass(NS, "S"), df.getOWLThing()));
+        shared.applyChange(new AddImport(shared, df.getOWLImportsDeclaration(root.getOntologyID()
+            .getOntologyIRI().get())));
+        List<OWLOntology> all = new ArrayList<>();
+        all.add(root);
+        all.add(shared);
+        for (int i = 0; i < 10; i++) {
+            OWLOntology middle = manager.createOntology(IRI.create(NS, "middle" + i));
+            OWLOntology leaf = manager.createOntology(IRI.create(NS, "leaf" + i));
+            for (int j = 0; j < 500; j++) {
+                OWLClass c = df.getOWLClass(NS, "C" + i + '_' + j);
+                middle.add(df.getOWLSubClassOfAxiom(c, df.getOWLClass(NS, "S")));
+                leaf.add(df.getOWLDeclarationAxiom(c), df.getOWLAnnotationAssertionAxiom(
+                    c.getIRI(), df.getRDFSLabel("class " + i + ' ' + j)));
+            }
+            middle.applyChange(new AddImport(middle, df.getOWLImportsDeclaration(IRI.create(NS,
+                "leaf" + i))));
+            middle.applyChange(new AddImport(middle, df.getOWLImportsDeclaration(IRI.create(NS,
+                "shared"))));
+            root.applyChange(new AddImport(root, df.getOWLImportsDeclaration(IRI.create(NS,
+                "middle" + i))));
+            all.add(middle);
+            all.add(leaf);
+        }
+        File rootFile = null;
+        for (OWLOntology o : all) {
+            IRI iri = o.getOntologyID().getOntologyIRI().get();
+            File file = new File(directory, iri.getShortForm() + ".ofn");
+            o.saveOntology(new FunctionalSyntaxDocumentFormat(), new FileDocumentTarget(file));
+            m.getIRIMappers().add(new SimpleIRIMapper(iri, IRI.create(file)));
+            m1.getIRIMappers().add(new SimpleIRIMapper(iri, IRI.create(file)));
+            if (o == root) {
+                rootFile = file;
+            }
+        }
+        Events sequential = new Events();
+        Events parallel = new Events();
+        m.addOntologyLoaderListener(sequential);
+        m1.addOntologyLoaderListener(parallel);
+        OWLOntology expected = load(m, rootFile, config);
+        OWLOntology actual = load(m1, rootFile, config.setImportsLoadingThreads(4));
+        assertEquals(22, actual.importsClosure().count());
+        assertEquals(expected.getAxiomCount(INCLUDED), actual.getAxiomCount(INCLUDED));
+        assertEquals(axiomCounts(m), axiomCounts(m1));
+        assertEquals(sequential.events, parallel.events);
+        m.ontologies().forEach(o -> assertTrue(equal(o, m1.getOntology(o.getOntologyID()))));
+        m.ontologies().forEach(o -> assertEquals(m.getOntologyDocumentIRI(o),
+            m1.getOntologyDocumentIRI(m1.getOntology(o.getOntologyID()))));
+    }
+
+    @Test
+    public void shouldReportMissingImports() throws OWLOntologyCreationException {
+        String input = "Prefix(:=<" + NS + ">)\nOntology(<" + NS + "missing>\nImport(<" + NS
+            + "nowhere>)\nDeclaration(Class(:A)))";
+        List<IRI> missing = new ArrayList<>();
+        m1.addMissingImportListener(e -> missing.add(e.getImportedOntologyURI()));
+        OWLOntology loaded = m1.loadOntologyFromOntologyDocument(
+            new StringDocumentSource(input, "urn:test:missing",
+                new FunctionalSyntaxDocumentFormat(), null),
+            config.setImportsLoadingThreads(4)
+                .setMissingImportHandlingStrategy(MissingImportHandlingStrategy.SILENT));
+        assertEquals(1, missing.size());
+        assertEquals(IRI.create(NS, "nowhere"), missing.get(0));
+        assertEquals(1, loaded.importsClosure().count());
+    }
+}
@@ -0,0 +1,64 @@
+package org.semanticweb.owlapi.api.test.multithread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentIndexesTestCase {
+
+    private static final String NS = "http://www.concurrent.org#";
+
+    @Test
+    public void shouldAnswerConcurrentReadersLikeDefaultIndexes() throws Exception {
+        OWLOntologyManager manager = OWLManager.createConcurrentOWLOntologyManager();
+        manager.getOntologyConfigurator().withConcurrentIndexes(true);
+        OWLDataFactory df = manager.getOWLDataFactory();
+        OWLOntology concurrent = manager.createOntology(IRI.create(NS, "concurrent"));
+        OWLOntology plain = OWLManager.createOWLOntologyManager().createOntology();
+        OWLClass top = df.getOWLClass(IRI.create(NS, "Top"));
+        for (int i = 0; i < 200; i++) {
+            OWLClass c = df.getOWLClass(IRI.create(NS, "C" + i));
+            concurrent.add(df.getOWLSubClassOfAxiom(c, top),
+                df.getOWLAnnotationAssertionAxiom(c.getIRI(), df.getRDFSLabel("label " + i)));
+            plain.add(df.getOWLSubClassOfAxiom(c, top),
+                df.getOWLAnnotationAssertionAxiom(c.getIRI(), df.getRDFSLabel("label " + i)));
+        }
+        ExecutorService exec = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Set<OWLAnnotationAssertionAxiom>>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                IRI subject = IRI.create(NS, "C" + i);
+                results.add(exec.submit(() -> asSet(concurrent.annotationAssertionAxioms(subject))));
+            }
+            for (int i = 0; i < 200; i++) {
+                IRI subject = IRI.create(NS, "C" + i);
+                assertEquals(asSet(plain.annotationAssertionAxioms(subject)), results.get(i).get());
+            }
+        } finally {
+            exec.shutdown();
+        }
+        assertEquals(asSet(plain.subClassAxiomsForSuperClass(top)),
+            asSet(concurrent.subClassAxiomsForSuperClass(top)));
+        assertEquals(plain.getAxiomCount(), concurrent.getAxiomCount());
+        concurrent.remove(df.getOWLSubClassOfAxiom(df.getOWLClass(IRI.create(NS, "C0")), top));
+        assertEquals(199, concurrent.subClassAxiomsForSuperClass(top).count());
+        assertFalse(concurrent.containsClassInSignature(IRI.create(NS, "C0")));
+    }
+}
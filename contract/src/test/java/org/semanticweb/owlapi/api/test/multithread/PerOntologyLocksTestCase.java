@@ -0,0 +1,172 @@
+package org.semanticweb.owlapi.api.test.multithread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+@SuppressWarnings("javadoc")
+public class PerOntologyLocksTestCase {
+
+    private static final String NS = "http://www.perontologylocks.org#";
+
+    private static OWLOntologyManager createManager() {
+        OWLOntologyManager manager = OWLManager.createConcurrentOWLOntologyManager();
+        manager.getOntologyConfigurator().withPerOntologyLocks(true);
+        return manager;
+    }
+
+    @Test
+    public void shouldChangeOntologyWhileAnotherIsLocked() throws Exception {
+        OWLOntologyManager manager = createManager();
+        OWLDataFactory df = manager.getOWLDataFactory();
+        OWLOntology first = manager.createOntology(IRI.create(NS, "first"));
+        OWLOntology second = manager.createOntology(IRI.create(NS, "second"));
+        OWLOntologyID firstID = first.getOntologyID();
+        CountDownLatch notified = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // keeps the first ontology locked until the change to the second ontology is done
+        manager.addOntologyChangeListener(changes -> {
+            if (changes.get(0).getOntology().getOntologyID().equals(firstID)
+                && release.getCount() > 0) {
+                notified.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        ExecutorService exec = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> firstChange = exec.submit(
+                () -> first.add(df.getOWLDeclarationAxiom(df.getOWLClass(NS, "A"))));
+            assertTrue(notified.await(10, TimeUnit.SECONDS));
+            exec.submit(() -> second.add(df.getOWLDeclarationAxiom(df.getOWLClass(NS, "B"))))
+                .get(10, TimeUnit.SECONDS);
+            release.countDown();
+            firstChange.get();
+        } finally {
+            release.countDown();
+            exec.shutdown();
+        }
+        assertEquals(1, first.getAxiomCount());
+        assertEquals(1, second.getAxiomCount());
+    }
+
+    @Test
+    public void shouldNotifyListenersHoldingManagerWriteLockByDefault() throws Exception {
+        OWLOntologyManager manager = OWLManager.createConcurrentOWLOntologyManager();
+        OWLDataFactory df = manager.getOWLDataFactory();
+        OWLOntology first = manager.createOntology(IRI.create(NS, "first"));
+        OWLOntology second = manager.createOntology(IRI.create(NS, "second"));
+        OWLOntologyID firstID = first.getOntologyID();
+        CountDownLatch notified = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        manager.addOntologyChangeListener(changes -> {
+            if (changes.get(0).getOntology().getOntologyID().equals(firstID)
+                && release.getCount() > 0) {
+                notified.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        ExecutorService exec = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> firstChange = exec.submit(
+                () -> first.add(df.getOWLDeclarationAxiom(df.getOWLClass(NS, "A"))));
+            assertTrue(notified.await(10, TimeUnit.SECONDS));
+            Future<?> secondChange = exec
+                .submit(() -> second.add(df.getOWLDeclarationAxiom(df.getOWLClass(NS, "B"))));
+            boolean blocked = false;
+            try {
+                secondChange.get(200, TimeUnit.MILLISECONDS);
+            } catch (@SuppressWarnings("unused") TimeoutException e) {
+                blocked = true;
+            }
+            assertTrue(blocked);
+            assertFalse(secondChange.isDone());
+            release.countDown();
+            firstChange.get(10, TimeUnit.SECONDS);
+            secondChange.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            exec.shutdown();
+        }
+        assertEquals(1, second.getAxiomCount());
+    }
+
+    @Test
+    public void shouldApplyConcurrentChangesToDifferentOntologies() throws Exception {
+        OWLOntologyManager manager = createManager();
+        OWLDataFactory df = manager.getOWLDataFactory();
+        int size = 8;
+        List<OWLOntology> ontologies = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ontologies.add(manager.createOntology(IRI.create(NS, "o" + i)));
+        }
+        ExecutorService exec = Executors.newFixedThreadPool(size + 2);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                OWLOntology o = ontologies.get(i);
+                int k = i;
+                results.add(exec.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(NS, "C" + k + '_' + j),
+                            df.getOWLThing()));
+                        if (j == 500) {
+                            // imports changes need the manager write lock
+                            o.applyChange(new AddImport(o, df.getOWLImportsDeclaration(
+                                IRI.create(NS, "o" + (k + 1) % size))));
+                        }
+                    }
+                }));
+            }
+            results.add(exec.submit(() -> {
+                for (int j = 0; j < 100; j++) {
+                    ontologies.forEach(o -> o.getAxiomCount(Imports.INCLUDED));
+                }
+            }));
+            results.add(exec.submit(() -> {
+                for (int j = 0; j < 20; j++) {
+                    OWLOntology o = manager.createOntology(IRI.create(NS, "temp" + j));
+                    o.add(df.getOWLDeclarationAxiom(df.getOWLClass(NS, "T")));
+                    manager.removeOntology(o);
+                }
+                return null;
+            }));
+            for (Future<?> f : results) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            exec.shutdown();
+        }
+        assertEquals(size, manager.ontologies().count());
+        for (OWLOntology o : ontologies) {
+            assertEquals(1000, o.getAxiomCount());
+            assertEquals(size, o.importsClosure().count());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.contains;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.search.EntitySearcher;
+
+@SuppressWarnings("javadoc")
+public class AnnotationPropertyIndexTestCase extends TestBase {
+
+    private final IRI subject = iri("A");
+    private final OWLAnnotationProperty synonym = df.getOWLAnnotationProperty(iri("synonym"));
+
+    private OWLOntology fill(OWLOntology o) {
+        o.add(df.getOWLAnnotationAssertionAxiom(subject, df.getRDFSLabel("label")),
+            df.getOWLAnnotationAssertionAxiom(synonym, subject, df.getOWLLiteral("first")),
+            df.getOWLAnnotationAssertionAxiom(synonym, subject, df.getOWLLiteral("second")),
+            df.getOWLAnnotationAssertionAxiom(iri("B"), df.getRDFSLabel("other label")));
+        return o;
+    }
+
+    @Test
+    public void shouldFindSameAnnotationsWithAndWithoutIndex() throws OWLOntologyCreationException {
+        OWLOntology scanned = fill(getOWLOntology());
+        m1.getOntologyConfigurator().withAnnotationPropertyIndex(true);
+        OWLOntology indexed = fill(m1.createOntology());
+        assertEquals(asUnorderedSet(scanned.annotationAssertionAxioms(subject, synonym)),
+            asUnorderedSet(indexed.annotationAssertionAxioms(subject, synonym)));
+        assertEquals(2, indexed.annotationAssertionAxioms(subject, synonym).count());
+        OWLAnnotationProperty label = df.getRDFSLabel();
+        assertEquals(asUnorderedSet(EntitySearcher.getAnnotationObjects(subject, scanned, label)),
+            asUnorderedSet(EntitySearcher.getAnnotationObjects(subject, indexed, label)));
+        assertEquals(1, EntitySearcher.getAnnotationObjects(subject, indexed, label).count());
+    }
+
+    @Test
+    public void shouldKeepIndexInSyncWithChanges() throws OWLOntologyCreationException {
+        m1.getOntologyConfigurator().withAnnotationPropertyIndex(true);
+        OWLOntology o = fill(m1.createOntology());
+        assertEquals(2, o.annotationAssertionAxioms(subject, synonym).count());
+        OWLAxiom first =
+            df.getOWLAnnotationAssertionAxiom(synonym, subject, df.getOWLLiteral("first"));
+        o.remove(first);
+        assertFalse(contains(o.annotationAssertionAxioms(subject, synonym), first));
+        OWLAxiom third =
+            df.getOWLAnnotationAssertionAxiom(synonym, subject, df.getOWLLiteral("third"));
+        o.add(third);
+        assertTrue(contains(o.annotationAssertionAxioms(subject, synonym), third));
+        assertEquals(2, o.annotationAssertionAxioms(subject, synonym).count());
+    }
+}
@@ -0,0 +1,109 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AsynchronousChangeBroadcastStrategy;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+@SuppressWarnings("javadoc")
+public class AsynchronousChangeBroadcastTestCase extends TestBase {
+
+    private List<OWLAxiom> axioms(int n) {
+        List<OWLAxiom> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(df.getOWLDeclarationAxiom(df.getOWLClass(iri("C" + i))));
+        }
+        return list;
+    }
+
+    private static OWLOntology concurrentOntology() throws OWLOntologyCreationException {
+        // listeners run on another thread, so the ontology must support concurrent access
+        return OWLManager.createConcurrentOWLOntologyManager().createOntology();
+    }
+
+    @Test
+    public void shouldDeliverChangesInOrderWithoutBlockingChanges() throws Exception {
+        OWLOntology o = concurrentOntology();
+        CountDownLatch release = new CountDownLatch(1);
+        List<OWLAxiom> received = new ArrayList<>();
+        OWLOntologyChangeListener listener = changes -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            changes.forEach(c -> received.add(c.getAxiom()));
+        };
+        try (AsynchronousChangeBroadcastStrategy strategy =
+            new AsynchronousChangeBroadcastStrategy()) {
+            o.getOWLOntologyManager().addOntologyChangeListener(listener, strategy);
+            List<OWLAxiom> axioms = axioms(100);
+            // the listener is blocked, yet changes are applied
+            axioms.forEach(o::add);
+            assertEquals(100, o.getAxiomCount());
+            assertTrue(strategy.getQueueDepth() > 0);
+            release.countDown();
+            strategy.flush();
+            assertEquals(axioms, received);
+            assertEquals(0, strategy.getQueueDepth());
+            assertEquals(100, strategy.getReceivedBatches());
+            assertEquals(100, strategy.getDeliveredChanges());
+            // batches queued while the listener was blocked are delivered together
+            assertTrue(strategy.getDeliveredBatches() < strategy.getReceivedBatches());
+        }
+    }
+
+    @Test
+    public void shouldStopWaitingForSlowListener() throws Exception {
+        OWLOntology o = concurrentOntology();
+        CountDownLatch release = new CountDownLatch(1);
+        try (AsynchronousChangeBroadcastStrategy strategy =
+            new AsynchronousChangeBroadcastStrategy(1, 10)) {
+            o.getOWLOntologyManager().addOntologyChangeListener(changes -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, strategy);
+            axioms(5).forEach(o::add);
+            assertTrue(strategy.getOverflows() > 0);
+            assertTrue(strategy.getMaxQueueDepth() > 1);
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void shouldRestoreInterruptWhenClosing() throws Exception {
+        OWLOntology o = concurrentOntology();
+        CountDownLatch release = new CountDownLatch(1);
+        AsynchronousChangeBroadcastStrategy strategy = new AsynchronousChangeBroadcastStrategy();
+        o.getOWLOntologyManager().addOntologyChangeListener(changes -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, strategy);
+        o.add(axioms(1));
+        Thread.currentThread().interrupt();
+        strategy.close();
+        // close() abandons the wait for the listener but keeps the thread interrupted
+        assertTrue(Thread.interrupted());
+        release.countDown();
+        strategy.flush();
+        assertEquals(1, strategy.getDeliveredChanges());
+    }
+}
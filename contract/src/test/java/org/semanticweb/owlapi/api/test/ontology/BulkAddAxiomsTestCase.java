@@ -0,0 +1,66 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.ChangeDetails;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.parameters.ChangeApplied;
+
+@SuppressWarnings("javadoc")
+public class BulkAddAxiomsTestCase extends TestBase {
+
+    @Test
+    public void shouldIndexBulkAdditionsLikeSingleAdditions() {
+        OWLOntology bulk = getOWLOntology();
+        OWLOntology single = getOWLOntology();
+        List<OWLOntologyChange> changes = new ArrayList<>();
+        OWLClass top = df.getOWLClass(iri("Top"));
+        for (int i = 0; i < 20000; i++) {
+            OWLClass c = df.getOWLClass(iri("C" + i));
+            OWLNamedIndividual ind = df.getOWLNamedIndividual(iri("i" + i));
+            changes.add(new AddAxiom(bulk, df.getOWLSubClassOfAxiom(c, top)));
+            changes.add(new AddAxiom(bulk, df.getOWLClassAssertionAxiom(c, ind)));
+            changes.add(new AddAxiom(bulk,
+                df.getOWLAnnotationAssertionAxiom(c.getIRI(), df.getRDFSLabel("c" + i))));
+        }
+        // a duplicate addition is not enacted
+        changes.add(new AddAxiom(bulk, df.getOWLSubClassOfAxiom(df.getOWLClass(iri("C0")), top)));
+        changes.forEach(c -> single.add(c.getAxiom()));
+        ChangeDetails details = bulk.applyChangesAndGetDetails(changes);
+        assertEquals(ChangeApplied.NO_OPERATION, details.getChangeEffect());
+        assertEquals(changes.size() - 1, details.getEnactedChanges().size());
+        assertEquals(single.getAxiomCount(), bulk.getAxiomCount());
+        assertEquals(asUnorderedSet(single.classesInSignature()),
+            asUnorderedSet(bulk.classesInSignature()));
+        assertEquals(asUnorderedSet(single.individualsInSignature()),
+            asUnorderedSet(bulk.individualsInSignature()));
+        assertEquals(asUnorderedSet(single.annotationPropertiesInSignature()),
+            asUnorderedSet(bulk.annotationPropertiesInSignature()));
+        assertEquals(20000, bulk.referencingAxioms(top).count());
+        assertTrue(bulk.containsClassInSignature(iri("C19999")));
+        assertEquals(2, bulk.referencingAxioms(df.getOWLClass(iri("C42"))).count());
+    }
+}
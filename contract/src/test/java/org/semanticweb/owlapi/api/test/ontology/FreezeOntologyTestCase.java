@@ -0,0 +1,78 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.ImmutableOWLOntologyChangeException;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import uk.ac.manchester.cs.owl.owlapi.HasFreeze;
+
+@SuppressWarnings("javadoc")
+public class FreezeOntologyTestCase extends TestBase {
+
+    private final OWLClass top = df.getOWLClass(iri("Top"));
+
+    private OWLOntology fill(OWLOntology o) {
+        for (int i = 0; i < 500; i++) {
+            OWLClass c = df.getOWLClass(iri("C" + i));
+            OWLNamedIndividual ind = df.getOWLNamedIndividual(iri("i" + i));
+            o.add(df.getOWLSubClassOfAxiom(c, top), df.getOWLClassAssertionAxiom(c, ind),
+                df.getOWLAnnotationAssertionAxiom(c.getIRI(), df.getRDFSLabel("c" + i)),
+                df.getOWLDeclarationAxiom(c));
+        }
+        return o;
+    }
+
+    @Test
+    public void shouldAnswerLikeMutableOntologyAfterFreezing() {
+        OWLOntology mutable = fill(getOWLOntology());
+        OWLOntology frozen = fill(getOWLOntology());
+        assertTrue(frozen instanceof HasFreeze);
+        assertFalse(((HasFreeze) frozen).isFrozen());
+        ((HasFreeze) frozen).freeze();
+        assertTrue(((HasFreeze) frozen).isFrozen());
+        OWLClass c7 = df.getOWLClass(iri("C7"));
+        assertEquals(mutable.getAxiomCount(), frozen.getAxiomCount());
+        assertEquals(asUnorderedSet(mutable.axioms()), asUnorderedSet(frozen.axioms()));
+        assertEquals(asUnorderedSet(mutable.subClassAxiomsForSuperClass(top)),
+            asUnorderedSet(frozen.subClassAxiomsForSuperClass(top)));
+        assertEquals(asUnorderedSet(mutable.axioms(c7)), asUnorderedSet(frozen.axioms(c7)));
+        assertEquals(asUnorderedSet(mutable.referencingAxioms(c7)),
+            asUnorderedSet(frozen.referencingAxioms(c7)));
+        assertEquals(asUnorderedSet(mutable.annotationAssertionAxioms(c7.getIRI())),
+            asUnorderedSet(frozen.annotationAssertionAxioms(c7.getIRI())));
+        assertEquals(asUnorderedSet(mutable.classesInSignature()),
+            asUnorderedSet(frozen.classesInSignature()));
+        assertTrue(frozen.containsClassInSignature(c7.getIRI()));
+        assertTrue(frozen.containsAxiom(df.getOWLSubClassOfAxiom(c7, top)));
+        mutable.axioms().forEach(ax -> assertTrue(frozen.containsAxiom(ax)));
+        assertFalse(frozen.containsAxiom(df.getOWLSubClassOfAxiom(top, c7)));
+        assertEquals(0, frozen.axioms(df.getOWLClass(iri("missing"))).count());
+    }
+
+    @Test(expected = ImmutableOWLOntologyChangeException.class)
+    public void shouldRejectChangesAfterFreezing() {
+        OWLOntology o = fill(getOWLOntology());
+        ((HasFreeze) o).freeze();
+        o.add(df.getOWLSubClassOfAxiom(top, df.getOWLClass(iri("C0"))));
+    }
+}
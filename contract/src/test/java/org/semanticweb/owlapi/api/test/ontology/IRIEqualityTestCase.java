@@ -0,0 +1,59 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+
+@SuppressWarnings("javadoc")
+public class IRIEqualityTestCase {
+
+    @Test
+    public void shouldBeEqualAcrossFactoryMethods() {
+        IRI split = IRI.create("http://owlapi.sourceforge.net#", "ABC");
+        IRI whole = IRI.create("http://owlapi.sourceforge.net#ABC");
+        IRI uri = IRI.create(URI.create("http://owlapi.sourceforge.net#ABC"));
+        IRI badSplit = IRI.create("http://owlapi.sourceforge.net#A", "BC");
+        for (IRI i : new IRI[] {whole, uri, badSplit}) {
+            assertEquals(split, i);
+            assertEquals(split.hashCode(), i.hashCode());
+        }
+        assertNotEquals(split, IRI.create("http://owlapi.sourceforge.net#", "ABD"));
+        assertNotEquals(split, IRI.create("http://owlapi.sourceforge.net/", "ABC"));
+    }
+
+    @Test
+    public void shouldBeEqualAfterSerialization() throws Exception {
+        IRI iri = IRI.create("http://owlapi.sourceforge.net#", "ABC");
+        assertEquals(iri.hashCode(), iri.hashCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+            stream.writeObject(iri);
+        }
+        try (ObjectInputStream stream =
+            new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            IRI read = (IRI) stream.readObject();
+            assertEquals(iri, read);
+            assertEquals(iri.hashCode(), read.hashCode());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+@SuppressWarnings("javadoc")
+public class IndexSnapshotTestCase extends TestBase {
+
+    private void shouldReadSnapshot(int size) {
+        OWLOntology o = getOWLOntology();
+        OWLClass top = df.getOWLClass(iri("Top"));
+        for (int i = 0; i < size; i++) {
+            o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(iri("C" + i)), top));
+        }
+        Stream<OWLSubClassOfAxiom> before = o.subClassAxiomsForSuperClass(top);
+        Stream<OWLSubClassOfAxiom> again = o.subClassAxiomsForSuperClass(top);
+        Iterator<OWLSubClassOfAxiom> started = o.subClassAxiomsForSuperClass(top).iterator();
+        started.next();
+        o.remove(df.getOWLSubClassOfAxiom(df.getOWLClass(iri("C0")), top));
+        o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(iri("D")), top));
+        o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(iri("E")), top));
+        // streams obtained before the changes are not affected by them
+        assertEquals(size, before.count());
+        assertEquals(size, again.count());
+        int remaining = 0;
+        while (started.hasNext()) {
+            started.next();
+            remaining++;
+        }
+        assertEquals(size - 1, remaining);
+        assertEquals(size + 1, o.subClassAxiomsForSuperClass(top).count());
+    }
+
+    @Test
+    public void shouldReadSnapshotOfSmallBuckets() {
+        shouldReadSnapshot(2);
+    }
+
+    @Test
+    public void shouldReadSnapshotOfLargeBuckets() {
+        shouldReadSnapshot(100);
+    }
+
+    @Test
+    public void shouldReadSnapshotOfVeryLargeBuckets() {
+        // reads share the set content, which is copied on the next change
+        shouldReadSnapshot(1000);
+    }
+}
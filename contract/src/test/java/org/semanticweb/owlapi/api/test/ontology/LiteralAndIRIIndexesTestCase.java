@@ -0,0 +1,83 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.contains;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+
+@SuppressWarnings("javadoc")
+public class LiteralAndIRIIndexesTestCase extends TestBase {
+
+    private final IRI xref = iri("xref");
+    private final OWLLiteral literal = df.getOWLLiteral("shared value");
+    private final OWLLiteral uri =
+        df.getOWLLiteral(xref.toString(), OWL2Datatype.XSD_ANY_URI.getDatatype(df));
+
+    private OWLOntology fill(OWLOntology o) {
+        OWLAnnotation annotation = df.getOWLAnnotation(df.getRDFSComment(), literal);
+        o.add(df.getOWLDataPropertyAssertionAxiom(df.getOWLDataProperty(iri("p")),
+            df.getOWLNamedIndividual(iri("i")), literal),
+            df.getOWLAnnotationAssertionAxiom(iri("A"), df.getRDFSLabel(literal)),
+            df.getOWLSubClassOfAxiom(df.getOWLClass(iri("A")), df.getOWLClass(iri("B")),
+                singleton(annotation)),
+            df.getOWLAnnotationAssertionAxiom(xref, df.getRDFSLabel("xref label")),
+            df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), iri("A"), uri),
+            df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), iri("C"), xref),
+            df.getOWLDataPropertyAssertionAxiom(df.getOWLDataProperty(iri("p")),
+                df.getOWLNamedIndividual(iri("i")), uri),
+            df.getOWLSubClassOfAxiom(df.getOWLClass(iri("C")), df.getOWLClass(iri("D"))));
+        return o;
+    }
+
+    @Test
+    public void shouldFindSameReferencesWithAndWithoutIndexes() throws OWLOntologyCreationException {
+        OWLOntology scanned = fill(getOWLOntology());
+        m1.getOntologyConfigurator().withLiteralAndIRIIndexes(true);
+        OWLOntology indexed = fill(m1.createOntology());
+        assertEquals(asUnorderedSet(scanned.referencingAxioms(literal)),
+            asUnorderedSet(indexed.referencingAxioms(literal)));
+        assertEquals(3, indexed.referencingAxioms(literal).count());
+        assertEquals(asUnorderedSet(scanned.referencingAxioms(xref)),
+            asUnorderedSet(indexed.referencingAxioms(xref)));
+        assertEquals(4, indexed.referencingAxioms(xref).count());
+    }
+
+    @Test
+    public void shouldKeepIndexesInSyncWithChanges() throws OWLOntologyCreationException {
+        m1.getOntologyConfigurator().withLiteralAndIRIIndexes(true);
+        OWLOntology o = fill(m1.createOntology());
+        assertEquals(3, o.referencingAxioms(literal).count());
+        OWLAxiom label = df.getOWLAnnotationAssertionAxiom(iri("A"), df.getRDFSLabel(literal));
+        o.remove(label);
+        assertFalse(contains(o.referencingAxioms(literal), label));
+        OWLAxiom seeAlso = df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), iri("B"), uri);
+        o.add(seeAlso);
+        assertTrue(contains(o.referencingAxioms(xref), seeAlso));
+        OWLAxiom iriValue = df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), iri("C"), xref);
+        o.remove(iriValue);
+        assertFalse(contains(o.referencingAxioms(xref), iriValue));
+    }
+}
@@ -0,0 +1,142 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.model.parameters.ChangeApplied.NO_OPERATION;
+import static org.semanticweb.owlapi.model.parameters.ChangeApplied.SUCCESSFULLY;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.formats.OWLXMLDocumentFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.HasPipelinedLoading;
+
+@SuppressWarnings("javadoc")
+public class PipelinedLoadingTestCase extends TestBase {
+
+    private OWLOntology roundTrip(OWLDocumentFormat format) throws Exception {
+        return roundTrip(format, setupManager());
+    }
+
+    private OWLOntology roundTrip(OWLDocumentFormat format, OWLOntologyManager manager)
+        throws Exception {
+        OWLOntology o = getOWLOntology();
+        OWLObjectProperty p = df.getOWLObjectProperty(iri("p"));
+        OWLClass top = df.getOWLClass(iri("Top"));
+        o.add(df.getOWLDeclarationAxiom(p));
+        for (int i = 0; i < 5000; i++) {
+            OWLClass c = df.getOWLClass(iri("C" + i));
+            o.add(df.getOWLDeclarationAxiom(c), df.getOWLSubClassOfAxiom(c, top),
+                df.getOWLSubClassOfAxiom(c, df.getOWLObjectSomeValuesFrom(p, top)),
+                df.getOWLAnnotationAssertionAxiom(c.getIRI(), df.getRDFSLabel("class " + i)));
+        }
+        o.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSComment(), iri("C1"),
+            df.getOWLLiteral("duplicated axiom")));
+        o.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSComment(), iri("C1"),
+            df.getOWLLiteral("duplicated axiom")));
+        StringDocumentTarget target = new StringDocumentTarget();
+        o.saveOntology(format, target);
+        OWLOntology expected = m1.loadOntologyFromOntologyDocument(
+            new StringDocumentSource(target.toString(), "urn:test:expected", format, null));
+        OWLOntology actual = manager.loadOntologyFromOntologyDocument(
+            new StringDocumentSource(target.toString(), "urn:test:actual", format, null),
+            config.setPipelinedLoadingBatchSize(100));
+        assertEquals(expected.getOntologyID(), actual.getOntologyID());
+        assertEquals(expected.getAxiomCount(), actual.getAxiomCount());
+        assertTrue(equal(expected, actual));
+        return actual;
+    }
+
+    @Test
+    public void shouldLoadFunctionalSyntaxWithIndexingThread() throws Exception {
+        OWLOntology o = roundTrip(new FunctionalSyntaxDocumentFormat());
+        assertEquals(5000, o.subClassAxiomsForSuperClass(df.getOWLClass(iri("Top"))).count());
+        // the ontology accepts changes after loading
+        o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(iri("D")), df.getOWLClass(iri("Top"))));
+        assertEquals(5001, o.subClassAxiomsForSuperClass(df.getOWLClass(iri("Top"))).count());
+    }
+
+    @Test
+    public void shouldLoadOWLXMLWithIndexingThread() throws Exception {
+        OWLOntology o = roundTrip(new OWLXMLDocumentFormat());
+        assertEquals(5001, o.classesInSignature().count());
+    }
+
+    @Test
+    public void shouldLoadWithIndexingThreadInConcurrentManager() throws Exception {
+        OWLOntology o = roundTrip(new FunctionalSyntaxDocumentFormat(),
+            OWLManager.createConcurrentOWLOntologyManager());
+        assertEquals(5000, o.subClassAxiomsForSuperClass(df.getOWLClass(iri("Top"))).count());
+    }
+
+    @Test
+    public void shouldReadIndexedBatchesFromOtherThreads() throws Exception {
+        OWLOntology o = OWLManager.createConcurrentOWLOntologyManager().createOntology();
+        OWLClass top = df.getOWLClass(iri("Top"));
+        HasPipelinedLoading pipelined = (HasPipelinedLoading) o;
+        pipelined.startPipelinedLoading(10);
+        ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 0; i < 100; i++) {
+                o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(iri("C" + i)), top));
+            }
+            // the ontology is locked for each batch, not until loading ends
+            int seen = exec.submit(() -> o.getAxiomCount()).get(10, TimeUnit.SECONDS).intValue();
+            assertTrue(seen <= 100);
+        } finally {
+            exec.shutdown();
+            pipelined.endPipelinedLoading();
+        }
+        assertEquals(100, o.getAxiomCount());
+        assertEquals(100, o.subClassAxiomsForSuperClass(top).count());
+    }
+
+    @Test
+    public void shouldNotReportDuplicatesAsAdded() {
+        OWLOntology o = getOWLOntology();
+        OWLClass top = df.getOWLClass(iri("Top"));
+        OWLAxiom existing = df.getOWLSubClassOfAxiom(df.getOWLClass(iri("C0")), top);
+        OWLAxiom added = df.getOWLSubClassOfAxiom(df.getOWLClass(iri("C1")), top);
+        o.add(existing);
+        HasPipelinedLoading pipelined = (HasPipelinedLoading) o;
+        pipelined.startPipelinedLoading(10);
+        try {
+            assertEquals(NO_OPERATION, o.add(existing));
+            assertEquals(SUCCESSFULLY, o.add(added));
+            assertEquals(NO_OPERATION, o.add(added));
+            pipelined.flushPipelinedLoading();
+            assertEquals(2, o.subClassAxiomsForSuperClass(top).count());
+            assertEquals(SUCCESSFULLY, o.remove(added));
+            assertEquals(SUCCESSFULLY, o.add(added));
+        } finally {
+            pipelined.endPipelinedLoading();
+        }
+        assertEquals(2, o.getAxiomCount());
+    }
+}
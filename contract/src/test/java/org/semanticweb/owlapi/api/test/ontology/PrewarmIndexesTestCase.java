@@ -0,0 +1,98 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import uk.ac.manchester.cs.owl.owlapi.HasPrewarmIndexes;
+
+@SuppressWarnings("javadoc")
+public class PrewarmIndexesTestCase extends TestBase {
+
+    private OWLOntology fill(OWLOntology o) {
+        OWLClass top = df.getOWLClass(iri("Top"));
+        for (int i = 0; i < 500; i++) {
+            OWLClass c = df.getOWLClass(iri("C" + i));
+            OWLNamedIndividual ind = df.getOWLNamedIndividual(iri("i" + i));
+            o.add(df.getOWLSubClassOfAxiom(c, top), df.getOWLClassAssertionAxiom(c, ind),
+                df.getOWLAnnotationAssertionAxiom(c.getIRI(), df.getRDFSLabel("c" + i)),
+                df.getOWLDisjointClassesAxiom(c, df.getOWLClass(iri("D" + i))));
+        }
+        return o;
+    }
+
+    @Test
+    public void shouldAnswerLikeLazyIndexesAfterPrewarming() {
+        OWLOntology lazy = fill(getOWLOntology());
+        OWLOntology warm = fill(getOWLOntology());
+        assertTrue(warm instanceof HasPrewarmIndexes);
+        ((HasPrewarmIndexes) warm).prewarmIndexes();
+        OWLClass top = df.getOWLClass(iri("Top"));
+        OWLClass c7 = df.getOWLClass(iri("C7"));
+        assertEquals(asUnorderedSet(lazy.subClassAxiomsForSuperClass(top)),
+            asUnorderedSet(warm.subClassAxiomsForSuperClass(top)));
+        assertEquals(asUnorderedSet(lazy.axioms(c7)), asUnorderedSet(warm.axioms(c7)));
+        assertEquals(asUnorderedSet(lazy.classAssertionAxioms(c7)),
+            asUnorderedSet(warm.classAssertionAxioms(c7)));
+        assertEquals(asUnorderedSet(lazy.annotationAssertionAxioms(c7.getIRI())),
+            asUnorderedSet(warm.annotationAssertionAxioms(c7.getIRI())));
+        OWLAnnotationProperty label = df.getRDFSLabel();
+        assertEquals(asUnorderedSet(lazy.annotationAssertionAxioms(c7.getIRI(), label)),
+            asUnorderedSet(warm.annotationAssertionAxioms(c7.getIRI(), label)));
+        // changes after prewarming are reflected in the indexes
+        warm.remove(df.getOWLSubClassOfAxiom(c7, top));
+        assertEquals(499, warm.subClassAxiomsForSuperClass(top).count());
+        assertEquals(1, warm.axioms(c7).count());
+    }
+
+    @Test
+    public void shouldKeepPrewarmedAnnotationPropertyIndexUpToDate() {
+        m.getOntologyConfigurator().withAnnotationPropertyIndex(true);
+        OWLOntology warm = fill(getOWLOntology());
+        ((HasPrewarmIndexes) warm).prewarmIndexes();
+        OWLClass c7 = df.getOWLClass(iri("C7"));
+        OWLAnnotationProperty label = df.getRDFSLabel();
+        assertEquals(1, warm.annotationAssertionAxioms(c7.getIRI(), label).count());
+        warm.add(df.getOWLAnnotationAssertionAxiom(c7.getIRI(), df.getRDFSLabel("seven")));
+        assertEquals(2, warm.annotationAssertionAxioms(c7.getIRI(), label).count());
+        warm.remove(df.getOWLAnnotationAssertionAxiom(c7.getIRI(), df.getRDFSLabel("c7")));
+        assertEquals(1, warm.annotationAssertionAxioms(c7.getIRI(), label).count());
+        assertEquals(0, warm.annotationAssertionAxioms(c7.getIRI(), df.getRDFSComment()).count());
+    }
+
+    @Test
+    public void shouldPrewarmSelectedTypes() {
+        OWLOntology lazy = fill(getOWLOntology());
+        OWLOntology warm = fill(getOWLOntology());
+        ((HasPrewarmIndexes) warm)
+            .prewarmIndexes(Arrays.asList(AxiomType.CLASS_ASSERTION, AxiomType.DISJOINT_CLASSES));
+        OWLClass c3 = df.getOWLClass(iri("C3"));
+        assertEquals(asUnorderedSet(lazy.disjointClassesAxioms(c3)),
+            asUnorderedSet(warm.disjointClassesAxioms(c3)));
+        assertEquals(asUnorderedSet(lazy.classAssertionAxioms(c3)),
+            asUnorderedSet(warm.classAssertionAxioms(c3)));
+        assertEquals(asUnorderedSet(lazy.axioms(c3)), asUnorderedSet(warm.axioms(c3)));
+    }
+}
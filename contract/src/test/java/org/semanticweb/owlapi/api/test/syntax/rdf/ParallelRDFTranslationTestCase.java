@@ -0,0 +1,60 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.syntax.rdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asSet;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+@SuppressWarnings("javadoc")
+@RunWith(Parameterized.class)
+public class ParallelRDFTranslationTestCase extends TestBase {
+
+    private final String fileName;
+
+    public ParallelRDFTranslationTestCase(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Parameters(name = "{0}")
+    public static List<String> getData() {
+        return Arrays.asList("all.rdf", "AnnotatedPropertyAssertions.rdf", "DataComplementOf.rdf",
+            "ObjectMinQualifiedCardinality.rdf", "SubClassOfUntypedSomeValuesFrom.rdf",
+            "TestParser10.rdf", "koala.owl", "pizza.owl", "primer.rdfxml.xml",
+            "primer.turtle.rdf", "testBlankNodes.ttl");
+    }
+
+    @Test
+    public void shouldParseLikeSequentialTranslation() throws OWLOntologyCreationException {
+        OWLOntology expected = ontologyFromClasspathFile(fileName);
+        OWLOntology actual = m.loadOntologyFromOntologyDocument(
+            new StreamDocumentSource(getClass().getResourceAsStream('/' + fileName)),
+            config.setParallelRDFTranslation(true));
+        assertEquals(expected.getOntologyID(), actual.getOntologyID());
+        assertEquals(expected.getAxiomCount(), actual.getAxiomCount());
+        assertEquals(asSet(expected.annotations()), asSet(actual.annotations()));
+        assertTrue(equal(expected, actual));
+    }
+}
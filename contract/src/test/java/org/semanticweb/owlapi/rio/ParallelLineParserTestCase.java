@@ -0,0 +1,103 @@
+package org.semanticweb.owlapi.rio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.formats.NQuadsDocumentFormat;
+import org.semanticweb.owlapi.formats.NTriplesDocumentFormat;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.FileDocumentTarget;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+@SuppressWarnings("javadoc")
+public class ParallelLineParserTestCase extends TestBase {
+
+    private File save(OWLDocumentFormat format) throws Exception {
+        OWLOntology o = getOWLOntology();
+        OWLObjectProperty p = df.getOWLObjectProperty(iri("p"));
+        OWLClass top = df.getOWLClass(iri("Top"));
+        for (int i = 0; i < 20000; i++) {
+            OWLClass c = df.getOWLClass(iri("C" + i));
+            o.add(df.getOWLSubClassOfAxiom(c, top),
+                df.getOWLSubClassOfAxiom(c,
+                    df.getOWLObjectSomeValuesFrom(p, df.getOWLClass(iri("D" + i)))),
+                df.getOWLAnnotationAssertionAxiom(c.getIRI(), df.getRDFSLabel("class " + i)));
+        }
+        File file = folder.newFile("parallel." + format.getKey().replace(' ', '_'));
+        o.saveOntology(format, new FileDocumentTarget(file));
+        return file;
+    }
+
+    private void shouldParseLikeSequentialParser(OWLDocumentFormat format) throws Exception {
+        File file = save(format);
+        OWLOntology expected = m1.loadOntologyFromOntologyDocument(new FileDocumentSource(file));
+        OWLOntology actual = setupManager().loadOntologyFromOntologyDocument(
+            new FileDocumentSource(file), config.setLineParserThreads(4));
+        // large enough to be split in several chunks
+        assertTrue(file.length() > 4 << 20);
+        assertEquals(40000, actual.getLogicalAxiomCount());
+        assertEquals(expected.getAxiomCount(), actual.getAxiomCount());
+        assertTrue(equal(expected, actual));
+    }
+
+    @Test
+    public void shouldParseNTriplesInParallel() throws Exception {
+        shouldParseLikeSequentialParser(new NTriplesDocumentFormat());
+    }
+
+    @Test
+    public void shouldParseNQuadsInParallel() throws Exception {
+        shouldParseLikeSequentialParser(new NQuadsDocumentFormat());
+    }
+
+    private File labelled(String name) throws Exception {
+        File file = folder.newFile(name + ".nt");
+        String type = " <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> ";
+        String owl = "<http://www.w3.org/2002/07/owl#";
+        String triples = "<urn:test:" + name + ">" + type + owl + "Ontology> .\n"
+            + "<urn:test:p>" + type + owl + "ObjectProperty> .\n"
+            + "<urn:test:" + name + "#i> <urn:test:p> _:a .\n";
+        Files.write(file.toPath(), triples.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void shouldKeepLabelsApart(int threads) throws Exception {
+        OWLOntologyManager manager = setupManager();
+        manager.getOntologyConfigurator().withRemapAllAnonymousIndividualsIds(false);
+        OWLOntology first = manager.loadOntologyFromOntologyDocument(
+            new FileDocumentSource(labelled("first" + threads)),
+            config.setLineParserThreads(threads));
+        OWLOntology second = manager.loadOntologyFromOntologyDocument(
+            new FileDocumentSource(labelled("second" + threads)),
+            config.setLineParserThreads(threads));
+        Set<OWLAnonymousIndividual> a = asUnorderedSet(first.anonymousIndividuals());
+        Set<OWLAnonymousIndividual> b = asUnorderedSet(second.anonymousIndividuals());
+        assertEquals(1, a.size());
+        assertEquals(1, b.size());
+        assertTrue(Collections.disjoint(a, b));
+    }
+
+    @Test
+    public void shouldNotMergeBlankNodesOfTwoDocumentsInParallel() throws Exception {
+        shouldKeepLabelsApart(4);
+    }
+
+    @Test
+    public void shouldNotMergeBlankNodesOfTwoDocumentsSequentially() throws Exception {
+        shouldKeepLabelsApart(1);
+    }
+}
@@ -0,0 +1,136 @@
+package org.semanticweb.owlapitools.decomposition.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.AsynchronousChangeBroadcastStrategy;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+
+import uk.ac.manchester.cs.atomicdecomposition.Atom;
+import uk.ac.manchester.cs.atomicdecomposition.AtomicDecomposition;
+import uk.ac.manchester.cs.atomicdecomposition.AtomicDecompositionImpl;
+import uk.ac.manchester.cs.atomicdecomposition.IncrementalAtomicDecomposition;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+
+@SuppressWarnings("javadoc")
+public class IncrementalAtomicDecompositionTestCase extends TestBase {
+
+    private static Set<Object> structure(AtomicDecomposition ad) {
+        Set<Object> structure = new HashSet<>();
+        for (Atom atom : ad.getAtoms()) {
+            for (Atom dependency : ad.getDependencies(atom)) {
+                structure.add(Arrays.asList(atom.getAxioms(), dependency.getAxioms()));
+            }
+            structure.add(Arrays.asList(atom.getAxioms(), ad.getPrincipalIdeal(atom)));
+        }
+        structure.add(ad.getTautologies());
+        return structure;
+    }
+
+    private static Set<OWLAxiom> module(AtomicDecomposition ad, Set<OWLEntity> signature,
+        ModuleType type) {
+        return ad.getModule(signature.stream(), false, type).collect(Collectors.toSet());
+    }
+
+    private OWLAxiom sub(String subClass, String superClass) {
+        return df.getOWLSubClassOfAxiom(df.getOWLClass(iri(subClass)),
+            df.getOWLClass(iri(superClass)));
+    }
+
+    private static void assertSameDecomposition(OWLOntology o, ModuleType type,
+        IncrementalAtomicDecomposition ad) {
+        AtomicDecomposition expected = new AtomicDecompositionImpl(o, type);
+        assertEquals(structure(expected), structure(ad));
+        assertEquals(expected.getTermBasedIndex(), ad.getTermBasedIndex());
+        assertEquals(expected.getTopAtoms(), ad.getTopAtoms());
+        assertEquals(expected.getBottomAtoms(), ad.getBottomAtoms());
+    }
+
+    @Test
+    public void shouldRepairAffectedAtoms() {
+        OWLOntology o = getOWLOntology();
+        for (int i = 1; i < 20; i++) {
+            o.add(sub("C" + i, "C" + (i - 1)));
+        }
+        IncrementalAtomicDecomposition ad = IncrementalAtomicDecomposition.create(o);
+        o.add(sub("D", "C19"));
+        assertSameDecomposition(o, ModuleType.BOT, ad);
+        o.remove(sub("C19", "C18"));
+        assertSameDecomposition(o, ModuleType.BOT, ad);
+        OWLAxiom tautology =
+            df.getOWLSubClassOfAxiom(df.getOWLNothing(), df.getOWLClass(iri("E")));
+        o.add(tautology);
+        assertTrue(ad.getTautologies().contains(tautology));
+        // an axiom added and removed in the same batch changes nothing
+        o.getOWLOntologyManager().applyChanges(
+            Arrays.asList(new AddAxiom(o, sub("C1", "D")), new RemoveAxiom(o, sub("C1", "D"))));
+        assertSameDecomposition(o, ModuleType.BOT, ad);
+        assertEquals(3, ad.getRepairs());
+        assertEquals(1, ad.getRecomputations());
+        ad.dispose();
+        Set<Object> disposed = structure(ad);
+        o.add(sub("F", "C19"));
+        assertEquals(disposed, structure(ad));
+    }
+
+    @Test
+    public void shouldFollowChangesForAllModuleTypes() throws OWLOntologyCreationException {
+        OWLOntology o = loadOntologyFromString(OldModularisationEquivalenceTestCase.KOALA);
+        OWLAxiom removed = o.logicalAxioms().findFirst().get();
+        String ns = "http://protege.stanford.edu/plugins/owl/owl-library/koala.owl#";
+        OWLClass herbivore = df.getOWLClass(ns, "Herbivore");
+        OWLAxiom koalaHerbivore =
+            df.getOWLSubClassOfAxiom(df.getOWLClass(ns, "Koala"), herbivore);
+        OWLAxiom herbivoreAnimal =
+            df.getOWLSubClassOfAxiom(herbivore, df.getOWLClass(ns, "Animal"));
+        for (ModuleType type : ModuleType.values()) {
+            IncrementalAtomicDecomposition ad = IncrementalAtomicDecomposition.create(o, type);
+            o.add(koalaHerbivore, herbivoreAnimal);
+            o.remove(removed);
+            assertSameDecomposition(o, type, ad);
+            AtomicDecomposition expected = new AtomicDecompositionImpl(o, type);
+            for (OWLEntity e : asUnorderedSet(o.signature())) {
+                Set<OWLEntity> signature = new HashSet<>(Arrays.asList(e));
+                assertEquals(module(expected, signature, type), module(ad, signature, type));
+            }
+            o.remove(koalaHerbivore, herbivoreAnimal);
+            o.add(removed);
+            assertSameDecomposition(o, type, ad);
+            ad.dispose();
+        }
+    }
+
+    @Test
+    public void shouldFollowChangesDeliveredAsynchronously() throws Exception {
+        OWLOntology o = OWLManager.createConcurrentOWLOntologyManager().createOntology();
+        for (int i = 1; i < 10; i++) {
+            o.add(sub("C" + i, "C" + (i - 1)));
+        }
+        try (AsynchronousChangeBroadcastStrategy strategy =
+            new AsynchronousChangeBroadcastStrategy()) {
+            IncrementalAtomicDecomposition ad =
+                IncrementalAtomicDecomposition.create(o, ModuleType.BOT, strategy);
+            o.add(sub("D", "C9"));
+            o.remove(sub("C9", "C8"));
+            strategy.flush();
+            assertSameDecomposition(o, ModuleType.BOT, ad);
+            assertEquals(1, ad.getRecomputations());
+            ad.dispose();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.semanticweb.owlapitools.decomposition.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.io.ToStringRenderer;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.util.SimpleRenderer;
+
+import uk.ac.manchester.cs.atomicdecomposition.Atom;
+import uk.ac.manchester.cs.atomicdecomposition.AtomicDecomposition;
+import uk.ac.manchester.cs.atomicdecomposition.AtomicDecompositionImpl;
+import uk.ac.manchester.cs.atomicdecomposition.MappedAtomicDecomposition;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+
+@SuppressWarnings("javadoc")
+public class MappedAtomicDecompositionTestCase extends TestBase {
+
+    private static Set<Object> structure(AtomicDecomposition ad) {
+        Set<Object> structure = new HashSet<>();
+        for (Atom atom : ad.getAtoms()) {
+            for (Atom dependency : ad.getDependencies(atom)) {
+                structure.add(Arrays.asList(atom.getAxioms(), dependency.getAxioms()));
+            }
+            structure.add(Arrays.asList(atom.getAxioms(), ad.getPrincipalIdeal(atom)));
+        }
+        structure.add(ad.getTautologies());
+        return structure;
+    }
+
+    private static Set<OWLAxiom> module(AtomicDecomposition ad, Set<OWLEntity> signature,
+        ModuleType type) {
+        return ad.getModule(signature.stream(), false, type).collect(Collectors.toSet());
+    }
+
+    private OWLOntology koala() throws OWLOntologyCreationException {
+        return loadOntologyFromString(OldModularisationEquivalenceTestCase.KOALA);
+    }
+
+    @Test
+    public void shouldLoadSavedDecomposition() throws OWLOntologyCreationException, IOException {
+        OWLOntology o = koala();
+        for (ModuleType type : ModuleType.values()) {
+            AtomicDecompositionImpl ad = new AtomicDecompositionImpl(o, type);
+            Path file = folder.newFile().toPath();
+            ad.save(file);
+            AtomicDecomposition mapped = MappedAtomicDecomposition.load(o, file).get();
+            assertEquals(structure(ad), structure(mapped));
+            assertEquals(ad.getTermBasedIndex(), mapped.getTermBasedIndex());
+            assertEquals(ad.getTopAtoms(), mapped.getTopAtoms());
+            assertEquals(ad.getBottomAtoms(), mapped.getBottomAtoms());
+            for (Atom atom : ad.getAtoms()) {
+                for (OWLAxiom ax : atom.getAxioms()) {
+                    assertEquals(atom, mapped.getAtomForAxiom(ax));
+                }
+            }
+            for (OWLEntity e : asUnorderedSet(o.signature())) {
+                Set<OWLEntity> signature = new HashSet<>(Arrays.asList(e));
+                for (ModuleType moduleType : ModuleType.values()) {
+                    assertEquals(module(ad, signature, moduleType),
+                        module(mapped, signature, moduleType));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotLoadDecompositionOfOtherAxioms()
+        throws OWLOntologyCreationException, IOException {
+        OWLOntology o = koala();
+        Path file = folder.newFile().toPath();
+        new AtomicDecompositionImpl(o).save(file);
+        o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(iri("A")), df.getOWLClass(iri("B"))));
+        assertFalse(MappedAtomicDecomposition.load(o, file).isPresent());
+    }
+
+    private OWLOntology withAnonymousIndividuals() {
+        OWLOntology o = getOWLOntology();
+        OWLObjectProperty p = df.getOWLObjectProperty(iri("p"));
+        OWLClass a = df.getOWLClass(iri("A"));
+        for (int i = 0; i < 10; i++) {
+            OWLAnonymousIndividual x = df.getOWLAnonymousIndividual();
+            OWLClass c = df.getOWLClass(iri("C" + i));
+            o.add(df.getOWLClassAssertionAxiom(c, x),
+                df.getOWLObjectPropertyAssertionAxiom(p, x, df.getOWLAnonymousIndividual()),
+                df.getOWLSubClassOfAxiom(c, df.getOWLObjectHasValue(p, x)),
+                df.getOWLSubClassOfAxiom(c, a));
+        }
+        return o;
+    }
+
+    @Test
+    public void shouldLoadDecompositionWithOtherAnonymousIndividuals() throws IOException {
+        Path file = folder.newFile().toPath();
+        new AtomicDecompositionImpl(withAnonymousIndividuals()).save(file);
+        // same axioms, with new node IDs for the anonymous individuals
+        OWLOntology o = withAnonymousIndividuals();
+        AtomicDecomposition mapped = MappedAtomicDecomposition.load(o, file).get();
+        assertEquals(structure(new AtomicDecompositionImpl(o)), structure(mapped));
+    }
+
+    @Test
+    public void shouldDecomposeOnceInSnapshotDirectory()
+        throws OWLOntologyCreationException, IOException {
+        OWLOntology o = koala();
+        Path directory = folder.newFolder().toPath();
+        AtomicDecomposition computed =
+            MappedAtomicDecomposition.load(o, ModuleType.BOT, directory);
+        assertTrue(computed instanceof AtomicDecompositionImpl);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        AtomicDecomposition loaded = MappedAtomicDecomposition.load(o, ModuleType.BOT, directory);
+        assertTrue(loaded instanceof MappedAtomicDecomposition);
+        assertEquals(structure(computed), structure(loaded));
+    }
+
+    private static Path snapshot(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findAny().get();
+        }
+    }
+
+    @Test
+    public void shouldReplaceTruncatedSnapshot() throws OWLOntologyCreationException, IOException {
+        OWLOntology o = koala();
+        Path directory = folder.newFolder().toPath();
+        AtomicDecomposition computed = MappedAtomicDecomposition.load(o, ModuleType.BOT, directory);
+        Path file = snapshot(directory);
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 8));
+        AtomicDecomposition recomputed =
+            MappedAtomicDecomposition.load(o, ModuleType.BOT, directory);
+        assertTrue(recomputed instanceof AtomicDecompositionImpl);
+        assertEquals(structure(computed), structure(recomputed));
+        assertTrue(Arrays.equals(content, Files.readAllBytes(file)));
+        assertTrue(MappedAtomicDecomposition.load(o, ModuleType.BOT,
+            directory) instanceof MappedAtomicDecomposition);
+    }
+
+    @Test
+    public void shouldReplaceSnapshotOfOtherVersion()
+        throws OWLOntologyCreationException, IOException {
+        OWLOntology o = koala();
+        Path directory = folder.newFolder().toPath();
+        MappedAtomicDecomposition.load(o, ModuleType.BOT, directory);
+        Path file = snapshot(directory);
+        byte[] content = Files.readAllBytes(file);
+        byte[] old = content.clone();
+        ByteBuffer.wrap(old).putInt(4, 1);
+        Files.write(file, old);
+        assertTrue(MappedAtomicDecomposition.load(o, ModuleType.BOT,
+            directory) instanceof AtomicDecompositionImpl);
+        assertTrue(Arrays.equals(content, Files.readAllBytes(file)));
+    }
+
+    @Test
+    public void shouldHashIndependentlyOfToStringRenderer()
+        throws OWLOntologyCreationException, IOException {
+        OWLOntology o = koala();
+        Path directory = folder.newFolder().toPath();
+        MappedAtomicDecomposition.load(o, ModuleType.BOT, directory);
+        ToStringRenderer.setRenderer(() -> new SimpleRenderer() {
+
+            @Override
+            public String render(OWLObject object) {
+                return "changed " + super.render(object);
+            }
+        });
+        try {
+            assertTrue(MappedAtomicDecomposition.load(o, ModuleType.BOT,
+                directory) instanceof MappedAtomicDecomposition);
+        } finally {
+            ToStringRenderer.setRenderer(SimpleRenderer::new);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.semanticweb.owlapitools.decomposition.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.util.ProgressMonitor;
+
+import uk.ac.manchester.cs.atomicdecomposition.Atom;
+import uk.ac.manchester.cs.atomicdecomposition.AtomicDecomposition;
+import uk.ac.manchester.cs.atomicdecomposition.AtomicDecompositionImpl;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+
+@SuppressWarnings("javadoc")
+public class ParallelAtomicDecompositionTestCase extends TestBase {
+
+    // atoms, their dependencies and their principal ideals, independent of atom identities
+    private static Set<Object> structure(AtomicDecomposition ad) {
+        Set<Object> structure = new HashSet<>();
+        for (Atom atom : ad.getAtoms()) {
+            for (Atom dependency : ad.getDependencies(atom)) {
+                structure.add(Arrays.asList(atom.getAxioms(), dependency.getAxioms()));
+            }
+            structure.add(Arrays.asList(atom.getAxioms(), ad.getPrincipalIdeal(atom)));
+        }
+        structure.add(ad.getTautologies());
+        return structure;
+    }
+
+    private OWLOntology koala() throws OWLOntologyCreationException {
+        return loadOntologyFromString(OldModularisationEquivalenceTestCase.KOALA);
+    }
+
+    @Test
+    public void shouldDecomposeAsSequentialDecomposition() throws OWLOntologyCreationException {
+        OWLOntology o = koala();
+        for (ModuleType type : ModuleType.values()) {
+            AtomicLong progress = new AtomicLong();
+            AtomicDecomposition parallel =
+                new AtomicDecompositionImpl(o, type, 3, new ProgressMonitor() {
+
+                    @Override
+                    public void setProgress(long value) {
+                        progress.set(value);
+                    }
+                });
+            AtomicDecomposition sequential = new AtomicDecompositionImpl(o, type);
+            assertEquals(sequential.getAtoms().size(), parallel.getAtoms().size());
+            assertEquals(structure(sequential), structure(parallel));
+            assertEquals(o.getLogicalAxiomCount() + o.getAxiomCount(AxiomType.DECLARATION),
+                progress.get());
+        }
+    }
+
+    @Test(expected = OWLRuntimeException.class)
+    public void shouldStopWhenCancelled() throws OWLOntologyCreationException {
+        new AtomicDecompositionImpl(koala(), ModuleType.BOT, 2, new ProgressMonitor() {
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,207 @@
+package org.semanticweb.owlapitools.decomposition.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
+
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+@SuppressWarnings("javadoc")
+public class SyntacticLocalityModuleExtractorTestCase extends TestBase {
+
+    private final OWLClass a = df.getOWLClass(iri("A"));
+    private final OWLClass b = df.getOWLClass(iri("B"));
+    private final OWLClass c = df.getOWLClass(iri("C"));
+    private final OWLClass d = df.getOWLClass(iri("D"));
+    private final OWLClass e = df.getOWLClass(iri("E"));
+    private final OWLClass f = df.getOWLClass(iri("F"));
+    private final OWLClass g = df.getOWLClass(iri("G"));
+    private final OWLAxiom aB = df.getOWLSubClassOfAxiom(a, b);
+    private final OWLAxiom bC = df.getOWLSubClassOfAxiom(b, c);
+    private final OWLAxiom cD = df.getOWLSubClassOfAxiom(c,
+        df.getOWLObjectSomeValuesFrom(df.getOWLObjectProperty(iri("p")), d));
+    private final OWLAxiom eF = df.getOWLSubClassOfAxiom(e, f);
+    // not local for the empty signature, for bottom locality
+    private final OWLAxiom thingG = df.getOWLSubClassOfAxiom(df.getOWLThing(), g);
+
+    private SyntacticLocalityModuleExtractor extractor(ModuleType type) {
+        OWLOntology o = getOWLOntology();
+        o.add(cD, eF, bC, thingG, aB);
+        return new SyntacticLocalityModuleExtractor(m, o, type);
+    }
+
+    private Set<OWLAxiom> module(ModuleType type, OWLEntity... signature) {
+        return extractor(type).extract(signature(signature));
+    }
+
+    private static Set<OWLEntity> signature(OWLEntity... entities) {
+        return new HashSet<>(Arrays.asList(entities));
+    }
+
+    private static Set<OWLAxiom> set(OWLAxiom... axioms) {
+        return new HashSet<>(Arrays.asList(axioms));
+    }
+
+    @Test
+    public void shouldFollowSignatureGrowthForBottomModules() {
+        assertEquals(set(aB, bC, cD, thingG), module(ModuleType.BOT, a));
+        assertEquals(set(bC, cD, thingG), module(ModuleType.BOT, b));
+        assertEquals(set(thingG), module(ModuleType.BOT));
+    }
+
+    @Test
+    public void shouldFollowSignatureGrowthForTopModules() {
+        assertEquals(set(eF), module(ModuleType.TOP, f));
+        assertEquals(set(aB, bC), module(ModuleType.TOP, c));
+        assertEquals(Collections.emptySet(), module(ModuleType.STAR, c));
+    }
+
+    @Test
+    public void shouldExtractModulesForManySignatures() {
+        SyntacticLocalityModuleExtractor extractor = extractor(ModuleType.BOT);
+        List<Set<OWLEntity>> signatures = Arrays.asList(signature(a), signature(b, e),
+            signature(), signature(a), signature(e, b), signature(d, f));
+        Map<Set<OWLEntity>, Set<OWLAxiom>> modules = extractor.extract(signatures, 3);
+        assertEquals(Arrays.asList(signature(a), signature(b, e), signature(), signature(d, f)),
+            new ArrayList<>(modules.keySet()));
+        modules.forEach((sig, module) -> assertEquals(extractor.extract(sig), module));
+        assertEquals(modules, extractor.extract(signatures, 1));
+    }
+
+    @Test
+    public void shouldCacheModules() {
+        SyntacticLocalityModuleExtractor extractor = extractor(ModuleType.BOT);
+        extractor.setModuleCacheEnabled(true);
+        Set<OWLAxiom> module = extractor.extract(signature(b));
+        assertEquals(set(bC, cD, thingG), module);
+        // cached modules are copied, so changing a module does not change the cache
+        module.clear();
+        Set<OWLAxiom> cached = extractor.extract(signature(b));
+        assertNotSame(module, cached);
+        assertEquals(set(bC, cD, thingG), cached);
+        extractor.setModuleType(ModuleType.TOP);
+        assertEquals(set(aB, bC), extractor.extract(signature(c)));
+        extractor.setModuleCacheEnabled(false);
+        assertEquals(set(aB, bC), extractor.extract(signature(c)));
+    }
+
+    @Test
+    public void shouldEnrichCachedModulesFromCurrentOntology() {
+        OWLOntology o = getOWLOntology();
+        o.add(cD, eF, bC, thingG, aB);
+        SyntacticLocalityModuleExtractor extractor =
+            new SyntacticLocalityModuleExtractor(m, o, ModuleType.BOT);
+        extractor.setModuleCacheEnabled(true);
+        assertEquals(set(bC, cD, thingG), extractor.extract(signature(b)));
+        // the extractor enriches modules from its own copy of the axioms, which lives in the
+        // manager and can be edited there
+        OWLOntology copy = m.ontologies().filter(x -> x != o && x.containsAxiom(bC)).findAny()
+            .get();
+        OWLAxiom declaration = df.getOWLDeclarationAxiom(b);
+        copy.add(declaration);
+        assertTrue(extractor.extract(signature(b)).contains(declaration));
+    }
+
+    @Test
+    public void shouldExtractSameModulesAsFixpointAlgorithm() {
+        for (String file : Arrays.asList("koala.owl", "pizza.owl")) {
+            OWLOntology o = ontologyFromClasspathFile(file);
+            List<OWLAxiom> axioms = asList(o.axioms(INCLUDED));
+            List<Set<OWLEntity>> signatures = asList(o.classesInSignature().map(x -> signature(x)));
+            signatures.add(asUnorderedSet(o.objectPropertiesInSignature(), OWLEntity.class));
+            for (ModuleType type : ModuleType.values()) {
+                SyntacticLocalityModuleExtractor extractor =
+                    new SyntacticLocalityModuleExtractor(m1, o, type);
+                for (Set<OWLEntity> sig : signatures) {
+                    Set<OWLEntity> moduleSignature = new HashSet<>(sig);
+                    Set<OWLAxiom> expected = fixpointModule(axioms, moduleSignature, type);
+                    // enrichment adds the individual axioms for the module signature
+                    moduleSignature.stream().filter(OWLEntity::isOWLNamedIndividual)
+                        .map(OWLEntity::asOWLNamedIndividual).forEach(i -> {
+                            o.sameIndividualAxioms(i).forEach(expected::add);
+                            o.differentIndividualAxioms(i).forEach(expected::add);
+                        });
+                    assertEquals(file + ' ' + type + ' ' + sig, expected,
+                        logical(extractor.extract(sig)));
+                }
+            }
+        }
+    }
+
+    private static Set<OWLAxiom> logical(Set<OWLAxiom> module) {
+        return module.stream().filter(OWLAxiom::isLogicalAxiom).collect(Collectors.toSet());
+    }
+
+    /**
+     * The logical axioms of a module, as computed by the fixpoint iteration over all the axioms
+     * that the worklist extraction replaced.
+     */
+    private static Set<OWLAxiom> fixpointModule(List<OWLAxiom> axioms, Set<OWLEntity> signature,
+        ModuleType type) {
+        if (type != ModuleType.STAR) {
+            LocalityClass cls =
+                type == ModuleType.BOT ? LocalityClass.BOTTOM_BOTTOM : LocalityClass.TOP_TOP;
+            return logical(fixpointModule(new HashSet<>(axioms), signature, cls));
+        }
+        Set<OWLEntity> seed = new HashSet<>(signature);
+        Set<OWLAxiom> module = new HashSet<>(axioms);
+        LocalityClass cls = LocalityClass.BOTTOM_BOTTOM;
+        boolean first = true;
+        while (true) {
+            int previousSize = module.size();
+            signature.clear();
+            signature.addAll(seed);
+            module = fixpointModule(module, signature, cls);
+            if (module.size() == previousSize && !first) {
+                return logical(module);
+            }
+            first = false;
+            cls = cls == LocalityClass.BOTTOM_BOTTOM ? LocalityClass.TOP_TOP
+                : LocalityClass.BOTTOM_BOTTOM;
+        }
+    }
+
+    private static Set<OWLAxiom> fixpointModule(Set<OWLAxiom> axioms, Set<OWLEntity> signature,
+        LocalityClass cls) {
+        Set<OWLAxiom> module = new HashSet<>();
+        Set<OWLAxiom> rest = new HashSet<>(axioms);
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(cls);
+        boolean change = true;
+        while (change) {
+            change = false;
+            for (Iterator<OWLAxiom> i = rest.iterator(); i.hasNext();) {
+                OWLAxiom ax = i.next();
+                if (!sle.isLocal(ax, signature)) {
+                    module.add(ax);
+                    i.remove();
+                    change |= signature.addAll(asList(ax.signature()));
+                }
+            }
+        }
+        return module;
+    }
+}
@@ -0,0 +1,109 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable array backed bucket; modifications create a new bucket.
+ *
+ * @param <S> element type
+ */
+final class ArrayBucket<S> extends AbstractCollection<S> {
+
+    private final Object[] elements;
+
+    ArrayBucket(S s) {
+        elements = new Object[] {s};
+    }
+
+    ArrayBucket(Collection<S> c) {
+        elements = c.toArray();
+    }
+
+    private ArrayBucket(Object[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * @return estimate of the bytes used by this bucket
+     */
+    long footprint() {
+        return 2L * MapPointer.HEADER_SIZE + (long) MapPointer.REFERENCE_SIZE * elements.length;
+    }
+
+    ArrayBucket<S> with(S s) {
+        Object[] copy = Arrays.copyOf(elements, elements.length + 1);
+        copy[elements.length] = s;
+        return new ArrayBucket<>(copy);
+    }
+
+    ArrayBucket<S> without(Object o) {
+        Object[] copy = new Object[elements.length - 1];
+        int index = 0;
+        for (Object e : elements) {
+            if (!e.equals(o)) {
+                copy[index++] = e;
+            }
+        }
+        return new ArrayBucket<>(copy);
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        for (Object e : elements) {
+            if (e.equals(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<S> iterator() {
+        return new Iterator<S>() {
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < elements.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public S next() {
+                if (index >= elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return (S) elements[index++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public boolean add(@Nullable S e) {
+        throw new UnsupportedOperationException("Array buckets are immutable");
+    }
+}
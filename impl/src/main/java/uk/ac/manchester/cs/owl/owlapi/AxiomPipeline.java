@@ -0,0 +1,227 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+
+/**
+ * Adds axioms to an {@link Internals} on a dedicated thread. Axioms are collected in batches by
+ * the producing thread and passed to the indexing thread through a bounded queue. Each batch is
+ * indexed holding the indexing lock, so that readers holding a lock excluded by it see the
+ * internals between batches.
+ * <p>
+ * The producing thread never waits for the indexing thread, since it might hold the indexing lock
+ * itself: when the queue is full, it indexes the new batch, and {@link #flush()} indexes the
+ * batches still queued. A batch stays queued until it has been indexed, and runs only once, on
+ * whichever thread gets to it first. An axiom added is therefore in the internals, in a queued
+ * batch or in the current batch, which is how additions of axioms already present are detected;
+ * the producing thread does not keep a copy of the axioms.
+ *
+ * @since 5.1.8
+ */
+class AxiomPipeline {
+
+    /**
+     * Maximum number of batches waiting to be indexed.
+     */
+    private static final int QUEUE_SIZE = 16;
+    private final Internals ints;
+    private final Lock lock;
+    private final Runnable indexed;
+    private final int batchSize;
+    /** Batches waiting to be indexed or being indexed; guards itself and {@link #closed}. */
+    private final Deque<Batch> queue = new ArrayDeque<>();
+    private final Thread indexer;
+    private Set<OWLAxiom> batch;
+    /** True if axioms have been queued since the last flush. */
+    private boolean queued = false;
+    private boolean closed = false;
+    @Nullable
+    private volatile RuntimeException failure;
+
+    /**
+     * @param ints internals receiving the axioms
+     * @param batchSize number of axioms in each batch
+     * @param lock lock held while a batch is indexed; must be reentrant, since the producing thread
+     *        might already hold it
+     * @param indexed called after each batch is indexed, holding the lock
+     */
+    AxiomPipeline(Internals ints, int batchSize, Lock lock, Runnable indexed) {
+        this.ints = ints;
+        this.batchSize = Math.max(1, batchSize);
+        this.lock = lock;
+        this.indexed = indexed;
+        batch = new LinkedHashSet<>();
+        indexer = new Thread(this::index, "OWLAPI axiom indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    private void index() {
+        try {
+            while (true) {
+                Batch next;
+                synchronized (queue) {
+                    while (queue.isEmpty() && !closed) {
+                        queue.wait();
+                    }
+                    next = queue.peek();
+                }
+                if (next == null) {
+                    return;
+                }
+                run(next);
+            }
+        } catch (@SuppressWarnings("unused") InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Batch next) {
+        lock.lock();
+        try {
+            // no-op if the other thread has already indexed the batch
+            next.run();
+        } finally {
+            lock.unlock();
+        }
+        synchronized (queue) {
+            queue.remove(next);
+            queue.notifyAll();
+        }
+        try {
+            next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            if (failure == null) {
+                failure = e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause() : new OWLRuntimeException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * @param axiom axiom to add
+     * @return true if the axiom was queued, false if it is already in the internals or queued
+     */
+    boolean add(OWLAxiom axiom) {
+        if (batch.contains(axiom) || isQueued(axiom)
+            || Internals.contains(ints.getAxiomsByType(), axiom.getAxiomType(), axiom)) {
+            return false;
+        }
+        batch.add(axiom);
+        queued = true;
+        if (batch.size() >= batchSize) {
+            submit();
+        }
+        return true;
+    }
+
+    private boolean isQueued(OWLAxiom axiom) {
+        synchronized (queue) {
+            for (Batch b : queue) {
+                if (b.axioms.contains(axiom)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void submit() {
+        checkFailure();
+        if (!indexer.isAlive()) {
+            throw new OWLRuntimeException("Axiom indexing thread has stopped");
+        }
+        Batch toIndex = new Batch(batch);
+        batch = new LinkedHashSet<>();
+        boolean full;
+        synchronized (queue) {
+            full = queue.size() >= QUEUE_SIZE;
+            queue.add(toIndex);
+            queue.notifyAll();
+        }
+        if (full) {
+            // index on this thread rather than wait for the indexer, which needs the lock
+            run(toIndex);
+            checkFailure();
+        }
+    }
+
+    /**
+     * Index all the axioms added so far; batches still queued are indexed on the calling thread.
+     *
+     * @return true if axioms had been queued since the last flush
+     * @throws OWLRuntimeException if indexing failed
+     */
+    boolean flush() {
+        if (!queued) {
+            checkFailure();
+            return false;
+        }
+        if (!batch.isEmpty()) {
+            submit();
+        }
+        while (true) {
+            Batch next;
+            synchronized (queue) {
+                next = queue.peek();
+            }
+            if (next == null) {
+                break;
+            }
+            run(next);
+        }
+        queued = false;
+        checkFailure();
+        return true;
+    }
+
+    private void checkFailure() {
+        RuntimeException e = failure;
+        if (e != null) {
+            throw new OWLRuntimeException("Axiom indexing failed", e);
+        }
+    }
+
+    /**
+     * Index the remaining axioms and stop the indexing thread.
+     *
+     * @throws OWLRuntimeException if indexing failed
+     */
+    void close() {
+        try {
+            flush();
+        } finally {
+            synchronized (queue) {
+                closed = true;
+                queue.notifyAll();
+            }
+        }
+    }
+
+    private class Batch extends FutureTask<Void> {
+
+        final Set<OWLAxiom> axioms;
+
+        Batch(Set<OWLAxiom> axioms) {
+            super(() -> {
+                ints.addAxioms(axioms);
+                indexed.run();
+                return null;
+            });
+            this.axioms = axioms;
+        }
+    }
+}
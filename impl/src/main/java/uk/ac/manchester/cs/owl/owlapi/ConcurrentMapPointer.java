@@ -0,0 +1,363 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
+import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
+
+import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitAxiomVisitor;
+import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitCollectionVisitor;
+import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitReferenceVisitor;
+import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitVisitor;
+
+/**
+ * A {@link MapPointer} whose read operations do not take any lock, so that concurrent readers of
+ * the same index do not serialize on a single monitor. Keys are held in a {@link ConcurrentHashMap}
+ * (writes are striped across its bins); small value buckets are immutable arrays replaced on write,
+ * larger buckets are concurrent sets. Lazy initialization happens once and is published through a
+ * volatile flag. Writes are expected to be serialized by the caller, e.g., by the write lock of
+ * {@link uk.ac.manchester.cs.owl.owlapi.concurrent.ConcurrentOWLOntologyImpl}.
+ *
+ * @author ignazio
+ * @param <K> key
+ * @param <V> value
+ */
+public class ConcurrentMapPointer<K, V extends OWLAxiom> extends MapPointer<K, V> {
+
+    /**
+     * Buckets up to this size are copy on write arrays; larger buckets are concurrent sets.
+     */
+    private static final int ARRAY_BUCKET_LIMIT = 8;
+    /**
+     * Rough size in bytes of an empty set created by {@link ConcurrentHashMap#newKeySet()}.
+     */
+    private static final long CONCURRENT_SET_OVERHEAD = 128;
+    private final ConcurrentMap<K, Collection<V>> map = new ConcurrentHashMap<>(17, 0.75F);
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean initialized;
+    @Nullable
+    private volatile SoftReference<Set<IRI>> iris;
+
+    /**
+     * @param t type of axioms contained
+     * @param v visitor
+     * @param initialized true if initialized
+     * @param i internals containing this pointer
+     */
+    public ConcurrentMapPointer(@Nullable AxiomType<?> t, @Nullable OWLAxiomVisitorEx<?> v,
+        boolean initialized, Internals i) {
+        super(t, v, initialized, i, false);
+        this.initialized = initialized;
+    }
+
+    @Override
+    public boolean containsReference(K e) {
+        return map.containsKey(e);
+    }
+
+    @Override
+    public boolean containsReference(IRI e) {
+        SoftReference<Set<IRI>> reference = iris;
+        Set<IRI> set = null;
+        if (reference != null) {
+            set = reference.get();
+        }
+        if (set == null) {
+            set = ConcurrentHashMap.newKeySet();
+            for (K k : map.keySet()) {
+                consumer(set, k);
+            }
+            iris = new SoftReference<>(set);
+        }
+        return set.contains(e);
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @Override
+    public ConcurrentMapPointer<K, V> init() {
+        if (initialized) {
+            return this;
+        }
+        synchronized (this) {
+            if (!initialized) {
+                loadAxioms();
+                // volatile write: publishes the content of the map to all readers
+                initialized = true;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Fill the map from the axioms in the internals; called at most once, before the map is
+     * published.
+     */
+    @SuppressWarnings({"unchecked"})
+    protected void loadAxioms() {
+        if (visitor == null) {
+            return;
+        }
+        if (type == null) {
+            if (visitor instanceof InitAxiomVisitor) {
+                InitAxiomVisitor v = (InitAxiomVisitor) visitor;
+                i.getAxioms().forEach(ax -> putInternal((K) ax.accept(v), (V) ax));
+            } else if (visitor instanceof InitReferenceVisitor) {
+                InitReferenceVisitor<K> v = (InitReferenceVisitor<K>) visitor;
+                i.getAxioms().forEach(ax -> ax.accept(v).forEach(key -> putInternal(key, (V) ax)));
+            }
+            return;
+        }
+        AxiomType<?> t = type;
+        if (visitor instanceof InitVisitor) {
+            InitVisitor<K> v = (InitVisitor<K>) visitor;
+            i.getAxiomsByType().forEach(t, ax -> putInternal(ax.accept(v), (V) ax));
+        } else if (visitor instanceof InitCollectionVisitor) {
+            InitCollectionVisitor<K> v = (InitCollectionVisitor<K>) visitor;
+            i.getAxiomsByType().forEach(t,
+                ax -> ax.accept(v).forEach(key -> putInternal(key, (V) ax)));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return initialized + map.toString();
+    }
+
+    @Override
+    public Stream<K> keySet() {
+        init();
+        return map.keySet().stream();
+    }
+
+    @Override
+    public Stream<V> getValues(K key) {
+        init();
+        return get(key);
+    }
+
+    @Override
+    public void forEach(K key, Consumer<V> function) {
+        init();
+        Collection<V> t = map.get(key);
+        if (t != null) {
+            t.forEach(function);
+        }
+    }
+
+    @Override
+    public boolean matchOnValues(K key, Predicate<V> function) {
+        init();
+        return get(key).anyMatch(function);
+    }
+
+    @Override
+    public Collection<V> getValuesAsCollection(K key) {
+        init();
+        Collection<V> t = map.get(key);
+        if (t == null) {
+            return Collections.emptyList();
+        }
+        if (t instanceof ArrayBucket) {
+            // immutable, replaced on write
+            return t;
+        }
+        // concurrent sets change in place; the copy does not change when the index does
+        return new ArrayBucket<>(t);
+    }
+
+    @Override
+    public int countValues(K key) {
+        init();
+        Collection<V> t = map.get(key);
+        if (t == null) {
+            return 0;
+        }
+        return t.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O extends V> Stream<O> values(K key, @SuppressWarnings("unused") Class<O> classType) {
+        init();
+        return (Stream<O>) get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Collection<OWLAxiom> filterAxioms(OWLAxiomSearchFilter filter, T key) {
+        init();
+        List<OWLAxiom> toReturn = new ArrayList<>();
+        for (AxiomType<?> at : filter.getAxiomTypes()) {
+            // This method is only used for MapPointer<AxiomType, OWLAxiom>
+            Collection<V> collection = map.get((K) at);
+            if (collection != null) {
+                collection.stream().filter(x -> filter.pass(x, key)).forEach(toReturn::add);
+            }
+        }
+        return toReturn;
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        // lazy init: no elements added until a recall is made
+        if (!initialized) {
+            return false;
+        }
+        iris = null;
+        return putInternal(key, value);
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        if (!initialized) {
+            return false;
+        }
+        iris = null;
+        return removeInternal(key, value);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        init();
+        return map.containsKey(key);
+    }
+
+    @Override
+    public boolean contains(K key, V value) {
+        init();
+        Collection<V> t = map.get(key);
+        return t != null && t.contains(value);
+    }
+
+    @Override
+    public Stream<V> getAllValues() {
+        init();
+        return map.values().stream().flatMap(Collection::stream);
+    }
+
+    @Override
+    public int size() {
+        init();
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        init();
+        return map.isEmpty();
+    }
+
+    @Override
+    public long trimToSize() {
+        if (!initialized) {
+            return 0;
+        }
+        long reclaimed = 0;
+        for (Map.Entry<K, Collection<V>> e : map.entrySet()) {
+            Collection<V> bucket = e.getValue();
+            if (!(bucket instanceof ArrayBucket) && bucket.size() <= ARRAY_BUCKET_LIMIT) {
+                // concurrent sets have a large fixed overhead compared to small arrays
+                if (map.replace(e.getKey(), bucket, new ArrayBucket<>(bucket))) {
+                    reclaimed += CONCURRENT_SET_OVERHEAD;
+                }
+            }
+        }
+        return reclaimed;
+    }
+
+    protected boolean putInternal(@Nullable K k, V v) {
+        if (k == null) {
+            return false;
+        }
+        AtomicBoolean added = new AtomicBoolean(false);
+        map.compute(k, (key, bucket) -> {
+            if (bucket == null) {
+                added.set(true);
+                return new ArrayBucket<>(v);
+            }
+            if (bucket instanceof ArrayBucket) {
+                ArrayBucket<V> array = (ArrayBucket<V>) bucket;
+                if (array.contains(v)) {
+                    return bucket;
+                }
+                added.set(true);
+                if (array.size() < ARRAY_BUCKET_LIMIT) {
+                    return array.with(v);
+                }
+                Set<V> set = ConcurrentHashMap.newKeySet(ARRAY_BUCKET_LIMIT * 2);
+                set.addAll(array);
+                set.add(v);
+                return set;
+            }
+            added.set(bucket.add(v));
+            return bucket;
+        });
+        if (added.get()) {
+            size.incrementAndGet();
+        }
+        return added.get();
+    }
+
+    private boolean removeInternal(K k, V v) {
+        AtomicBoolean removed = new AtomicBoolean(false);
+        map.computeIfPresent(k, (key, bucket) -> {
+            Collection<V> result = bucket;
+            if (bucket instanceof ArrayBucket) {
+                ArrayBucket<V> array = (ArrayBucket<V>) bucket;
+                if (array.contains(v)) {
+                    removed.set(true);
+                    result = array.without(v);
+                }
+            } else {
+                removed.set(bucket.remove(v));
+            }
+            return result.isEmpty() ? null : result;
+        });
+        if (removed.get()) {
+            size.decrementAndGet();
+        }
+        return removed.get();
+    }
+
+    private Stream<V> get(K k) {
+        Collection<V> t = map.get(k);
+        if (t == null) {
+            return Stream.empty();
+        }
+        return t.stream();
+    }
+}
@@ -0,0 +1,311 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
+
+/**
+ * A read only copy of an initialized {@link MapPointer}, packed into arrays in compressed sparse row
+ * form: keys are sorted by hash code, so that lookups are a binary search on an int array, and the
+ * values for the key at position {@code n} are {@code values[offsets[n]]} to
+ * {@code values[offsets[n + 1] - 1]}. The values of each key are sorted by hash code as well, so
+ * that membership checks are a binary search within the slice. There are no per key or per value
+ * objects besides the keys and values themselves, and since the arrays are never modified after
+ * construction, reads do not need any lock. Attempts to modify the index throw {@link UnsupportedOperationException}.
+ *
+ * @author ignazio
+ * @param <K> key
+ * @param <V> value
+ */
+public class FrozenMapPointer<K, V extends OWLAxiom> extends MapPointer<K, V> {
+
+    private final int[] hashes;
+    private final Object[] keys;
+    private final int[] offsets;
+    private final Object[] values;
+    private final int[] valueHashes;
+    @Nullable
+    private volatile SoftReference<Set<IRI>> iris;
+
+    /**
+     * @param source pointer to copy; it is initialized if it was not already
+     */
+    public FrozenMapPointer(MapPointer<K, V> source) {
+        super(source.type, source.visitor, true, source.i, false);
+        source.init();
+        keys = source.keySet().toArray();
+        Arrays.sort(keys, Comparator.comparingInt(Object::hashCode));
+        hashes = new int[keys.length];
+        offsets = new int[keys.length + 1];
+        List<V> all = new ArrayList<>(source.size());
+        for (int n = 0; n < keys.length; n++) {
+            hashes[n] = keys[n].hashCode();
+            offsets[n] = all.size();
+            List<V> slice = new ArrayList<>(source.getValuesAsCollection(key(n)));
+            slice.sort(Comparator.comparingInt(Object::hashCode));
+            all.addAll(slice);
+        }
+        offsets[keys.length] = all.size();
+        values = all.toArray();
+        valueHashes = new int[values.length];
+        for (int n = 0; n < values.length; n++) {
+            valueHashes[n] = values[n].hashCode();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int n) {
+        return (K) keys[n];
+    }
+
+    /**
+     * @param key key to find
+     * @return position of the key, or -1 if the key is not present
+     */
+    private int indexOf(@Nullable Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int h = key.hashCode();
+        int n = Arrays.binarySearch(hashes, h);
+        if (n < 0) {
+            return -1;
+        }
+        // keys with the same hash code are adjacent; scan all of them
+        while (n > 0 && hashes[n - 1] == h) {
+            n--;
+        }
+        for (; n < hashes.length && hashes[n] == h; n++) {
+            if (keys[n].equals(key)) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    private List<V> slice(@Nullable Object key) {
+        int n = indexOf(key);
+        if (n < 0) {
+            return Collections.emptyList();
+        }
+        return new Slice<>(values, valueHashes, offsets[n], offsets[n + 1]);
+    }
+
+    @Override
+    public boolean containsReference(K e) {
+        return indexOf(e) > -1;
+    }
+
+    @Override
+    public boolean containsReference(IRI e) {
+        SoftReference<Set<IRI>> reference = iris;
+        Set<IRI> set = null;
+        if (reference != null) {
+            set = reference.get();
+        }
+        if (set == null) {
+            set = new HashSet<>();
+            for (int n = 0; n < keys.length; n++) {
+                consumer(set, key(n));
+            }
+            iris = new SoftReference<>(set);
+        }
+        return set.contains(e);
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return true;
+    }
+
+    @Override
+    public FrozenMapPointer<K, V> init() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "frozen" + keys.length + '/' + values.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<K> keySet() {
+        return Arrays.stream(keys).map(k -> (K) k);
+    }
+
+    @Override
+    public Stream<V> getValues(K key) {
+        return slice(key).stream();
+    }
+
+    @Override
+    public void forEach(K key, Consumer<V> function) {
+        slice(key).forEach(function);
+    }
+
+    @Override
+    public boolean matchOnValues(K key, Predicate<V> function) {
+        return slice(key).stream().anyMatch(function);
+    }
+
+    @Override
+    public Collection<V> getValuesAsCollection(K key) {
+        return slice(key);
+    }
+
+    @Override
+    public int countValues(K key) {
+        int n = indexOf(key);
+        return n < 0 ? 0 : offsets[n + 1] - offsets[n];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O extends V> Stream<O> values(K key, @SuppressWarnings("unused") Class<O> classType) {
+        return (Stream<O>) slice(key).stream();
+    }
+
+    @Override
+    public <T> Collection<OWLAxiom> filterAxioms(OWLAxiomSearchFilter filter, T key) {
+        List<OWLAxiom> toReturn = new ArrayList<>();
+        for (AxiomType<?> at : filter.getAxiomTypes()) {
+            // This method is only used for MapPointer<AxiomType, OWLAxiom>
+            slice(at).stream().filter(x -> filter.pass(x, key)).forEach(toReturn::add);
+        }
+        return toReturn;
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        throw new UnsupportedOperationException("Frozen index cannot be modified");
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        throw new UnsupportedOperationException("Frozen index cannot be modified");
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key) > -1;
+    }
+
+    @Override
+    public boolean contains(K key, V value) {
+        return slice(key).contains(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<V> getAllValues() {
+        return Arrays.stream(values).map(v -> (V) v);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public long trimToSize() {
+        return 0;
+    }
+
+    /**
+     * @return estimate of the bytes used by the arrays of this index
+     */
+    public long footprint() {
+        return 4L * HEADER_SIZE
+            + (long) REFERENCE_SIZE * (keys.length + values.length)
+            + 4L * (hashes.length + offsets.length + valueHashes.length);
+    }
+
+    /**
+     * Read only view of a section of the values array.
+     */
+    private static class Slice<S> extends AbstractList<S> {
+
+        private final Object[] elements;
+        private final int[] hashes;
+        private final int from;
+        private final int to;
+
+        Slice(Object[] elements, int[] hashes, int from, int to) {
+            this.elements = elements;
+            this.hashes = hashes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public S get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return (S) elements[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(@Nullable Object o) {
+            if (o == null) {
+                return false;
+            }
+            int h = o.hashCode();
+            int n = Arrays.binarySearch(hashes, from, to, h);
+            if (n < 0) {
+                return false;
+            }
+            // elements with the same hash code are adjacent; scan all of them
+            while (n > from && hashes[n - 1] == h) {
+                n--;
+            }
+            for (; n < to && hashes[n] == h; n++) {
+                if (elements[n].equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
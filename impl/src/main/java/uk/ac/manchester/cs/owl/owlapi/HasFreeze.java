@@ -0,0 +1,23 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+/**
+ * Implemented by ontologies that can be made read only, with a more compact representation of their
+ * axiom indexes.
+ *
+ * @author ignazio
+ */
+public interface HasFreeze {
+
+    /**
+     * Convert the axiom indexes to a compact, read only form that can be read without locking. Any
+     * change applied to the ontology afterwards is rejected with an
+     * {@link org.semanticweb.owlapi.model.ImmutableOWLOntologyChangeException}. Freezing an ontology
+     * twice has no further effect.
+     */
+    void freeze();
+
+    /**
+     * @return true if {@link #freeze()} has been called
+     */
+    boolean isFrozen();
+}
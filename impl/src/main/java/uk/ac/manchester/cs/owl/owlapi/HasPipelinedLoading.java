@@ -0,0 +1,55 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implemented by ontologies that can index the axioms added by a parser on a separate thread, while
+ * parsing continues.
+ *
+ * @since 5.1.8
+ */
+public interface HasPipelinedLoading {
+
+    /**
+     * Start indexing added axioms on a separate thread. Until {@link #endPipelinedLoading()} is
+     * called, axiom additions are collected in batches of {@code batchSize} axioms and queued for
+     * the indexing thread; when the queue is full, the thread adding axioms indexes the batch
+     * itself. Any other change first indexes all the queued axioms. Addition of axioms already in
+     * the ontology or queued is reported as
+     * {@link org.semanticweb.owlapi.model.parameters.ChangeApplied#NO_OPERATION}.
+     * <p>
+     * Reads must be preceded by {@link #flushPipelinedLoading()}. Ontologies created by
+     * {@link uk.ac.manchester.cs.owl.owlapi.concurrent.ConcurrentOWLOntologyBuilder} do this on
+     * every read by the loading thread, and index each batch holding their write lock, so that
+     * reads from other threads see the axioms indexed so far.
+     *
+     * @param batchSize number of axioms in each batch
+     */
+    default void startPipelinedLoading(int batchSize) {
+        startPipelinedLoading(batchSize, new ReentrantLock());
+    }
+
+    /**
+     * Start indexing added axioms on a separate thread, as {@link #startPipelinedLoading(int)}.
+     *
+     * @param batchSize number of axioms in each batch
+     * @param indexingLock reentrant lock held while each batch is indexed
+     */
+    void startPipelinedLoading(int batchSize, Lock indexingLock);
+
+    /**
+     * Index the axioms queued so far. Does nothing if pipelined loading has not been started.
+     *
+     * @throws org.semanticweb.owlapi.model.OWLRuntimeException if indexing failed
+     */
+    void flushPipelinedLoading();
+
+    /**
+     * Index all queued axioms and stop the indexing thread. Does nothing if pipelined loading has
+     * not been started.
+     *
+     * @throws org.semanticweb.owlapi.model.OWLRuntimeException if indexing failed
+     */
+    void endPipelinedLoading();
+}
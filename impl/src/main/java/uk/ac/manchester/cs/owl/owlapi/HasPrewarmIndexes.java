@@ -0,0 +1,30 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.Collection;
+
+import org.semanticweb.owlapi.model.AxiomType;
+
+/**
+ * Implemented by ontologies whose axiom indexes are built lazily, on first access.
+ *
+ * @author ignazio
+ */
+@FunctionalInterface
+public interface HasPrewarmIndexes {
+
+    /**
+     * Build the lazy axiom indexes for the specified axiom types, concurrently, so that the first
+     * lookups after loading an ontology do not pay for the index construction. Indexes that are
+     * already built are not affected.
+     *
+     * @param types axiom types whose indexes should be built
+     */
+    void prewarmIndexes(Collection<? extends AxiomType<?>> types);
+
+    /**
+     * Build all the lazy axiom indexes, concurrently.
+     */
+    default void prewarmIndexes() {
+        prewarmIndexes(AxiomType.AXIOM_TYPES);
+    }
+}
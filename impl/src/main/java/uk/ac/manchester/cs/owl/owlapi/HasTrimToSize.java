@@ -11,4 +11,16 @@ public interface HasTrimToSize {
      * operation to minimize the storage of the index instance.
      */
     void trimToSize();
+
+    /**
+     * Trim the capacity of the axiom indexes, as {@link #trimToSize()} does, and estimate the
+     * memory reclaimed.
+     *
+     * @return estimate of the bytes reclaimed; 0 if the implementation does not estimate it
+     * @since 5.1.8
+     */
+    default long trimToSizeAndEstimate() {
+        trimToSize();
+        return 0;
+    }
 }
@@ -12,10 +12,18 @@
  * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
 package uk.ac.manchester.cs.owl.owlapi;
 
+import java.util.Optional;
 import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLAnnotationSubject;
+import org.semanticweb.owlapi.model.OWLAnnotationValue;
 import org.semanticweb.owlapi.model.OWLAsymmetricObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
@@ -39,6 +47,7 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLInverseFunctionalObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLInverseObjectPropertiesAxiom;
 import org.semanticweb.owlapi.model.OWLIrreflexiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLNegativeDataPropertyAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLNegativeObjectPropertyAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLObject;
@@ -53,6 +62,7 @@ import org.semanticweb.owlapi.model.OWLSubDataPropertyOfAxiom;
 import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
 import org.semanticweb.owlapi.model.OWLSymmetricObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
 
 /**
  * @author ignazio
@@ -73,6 +83,10 @@ public class InitVisitorFactory {
     static final InitVisitor<OWLDataPropertyExpression>             DPSUPERNAMED       = new InitVisitor<>          (false, true);
     static final InitVisitor<OWLIndividual>                         INDIVIDUALSUBNAMED = new InitIndividualVisitor<>(true,  true);
     static final InitVisitor<OWLAnnotationSubject> ANNOTSUPERNAMED = new InitVisitor<>(true, true);
+    static final InitSubjectAndPropertyVisitor ANNOTSUBJECTANDPROPERTY = new InitSubjectAndPropertyVisitor();
+    static final InitAxiomVisitor AXIOMSWITHOUTANNOTATIONS = new InitAxiomVisitor();
+    static final InitLiteralVisitor LITERALS = new InitLiteralVisitor();
+    static final InitIRIVisitor IRIS = new InitIRIVisitor();
     private InitVisitorFactory() {}
 // @formatter:on
     /**
@@ -324,4 +338,155 @@ public class InitVisitorFactory {
             return (Stream<K>) axiom.properties();
         }
     }
+
+    /**
+     * Visitor returning the axiom stripped of its annotations; used to index axioms by their
+     * annotation free version.
+     *
+     * @author ignazio
+     */
+    public static class InitAxiomVisitor implements OWLAxiomVisitorEx<OWLAxiom> {
+
+        @Override
+        public OWLAxiom doDefault(Object object) {
+            return ((OWLAxiom) object).getAxiomWithoutAnnotations();
+        }
+    }
+
+    /**
+     * Visitor returning the subject and the annotation property of annotation assertions.
+     */
+    public static class InitSubjectAndPropertyVisitor extends InitVisitor<SubjectAndProperty> {
+
+        /**
+         * Default constructor.
+         */
+        public InitSubjectAndPropertyVisitor() {
+            super(true, true);
+        }
+
+        @Override
+        public SubjectAndProperty visit(OWLAnnotationAssertionAxiom axiom) {
+            return new SubjectAndProperty(axiom.getSubject(), axiom.getProperty());
+        }
+    }
+
+    /**
+     * Key of the index of annotation assertions by subject and annotation property.
+     */
+    public static final class SubjectAndProperty {
+
+        private final OWLAnnotationSubject subject;
+        private final OWLAnnotationProperty property;
+        private final int hashCode;
+
+        /**
+         * @param subject annotation subject
+         * @param property annotation property
+         */
+        public SubjectAndProperty(OWLAnnotationSubject subject, OWLAnnotationProperty property) {
+            this.subject = subject;
+            this.property = property;
+            hashCode = subject.hashCode() * 37 + property.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof SubjectAndProperty)) {
+                return false;
+            }
+            SubjectAndProperty other = (SubjectAndProperty) obj;
+            return hashCode == other.hashCode && subject.equals(other.subject)
+                && property.equals(other.property);
+        }
+
+        @Override
+        public String toString() {
+            return subject + " " + property;
+        }
+    }
+
+    /**
+     * Visitor returning the keys an axiom is referenced by in an index covering all axiom types.
+     *
+     * @param <K> key type
+     * @author ignazio
+     */
+    public static class InitReferenceVisitor<K> implements OWLAxiomVisitorEx<Stream<K>> {
+
+        @Override
+        public Stream<K> doDefault(Object object) {
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Visitor returning the literals used as data property assertion objects, annotation
+     * assertion values and axiom annotation values.
+     *
+     * @author ignazio
+     */
+    public static class InitLiteralVisitor extends InitReferenceVisitor<OWLLiteral> {
+
+        @Override
+        public Stream<OWLLiteral> doDefault(Object object) {
+            return ((OWLAxiom) object).annotations().map(a -> a.getValue().asLiteral())
+                .filter(Optional::isPresent).map(Optional::get);
+        }
+
+        @Override
+        public Stream<OWLLiteral> visit(OWLDataPropertyAssertionAxiom axiom) {
+            return Stream.concat(Stream.of(axiom.getObject()), doDefault(axiom));
+        }
+
+        @Override
+        public Stream<OWLLiteral> visit(OWLAnnotationAssertionAxiom axiom) {
+            Optional<OWLLiteral> value = axiom.getValue().asLiteral();
+            if (value.isPresent()) {
+                return Stream.concat(Stream.of(value.get()), doDefault(axiom));
+            }
+            return doDefault(axiom);
+        }
+    }
+
+    /**
+     * Visitor returning the IRI strings used as annotation assertion subjects and values, and as
+     * {@code xsd:anyURI} values of data property and annotation assertions.
+     *
+     * @author ignazio
+     */
+    public static class InitIRIVisitor extends InitReferenceVisitor<String> {
+
+        private static Stream<String> anyURI(OWLLiteral literal) {
+            if (OWL2Datatype.XSD_ANY_URI.matches(literal.getDatatype())) {
+                return Stream.of(literal.getLiteral());
+            }
+            return Stream.empty();
+        }
+
+        @Override
+        public Stream<String> visit(OWLDataPropertyAssertionAxiom axiom) {
+            return anyURI(axiom.getObject());
+        }
+
+        @Override
+        public Stream<String> visit(OWLAnnotationAssertionAxiom axiom) {
+            OWLAnnotationValue value = axiom.getValue();
+            Stream<String> values = value.isIRI() ? Stream.of(value.toString())
+                : value.asLiteral().map(InitIRIVisitor::anyURI).orElse(Stream.empty());
+            Optional<IRI> subject = axiom.getSubject().asIRI();
+            if (subject.isPresent()) {
+                return Stream.concat(Stream.of(subject.get().toString()), values);
+            }
+            return values;
+        }
+    }
 }
@@ -49,8 +49,11 @@ import static org.semanticweb.owlapi.util.CollectionFactory.createSyncSet;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.emptyOptional;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.optional;
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.ANNOTSUPERNAMED;
+import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.ANNOTSUBJECTANDPROPERTY;
+import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.AXIOMSWITHOUTANNOTATIONS;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.CLASSCOLLECTIONS;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.CLASSEXPRESSIONS;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.CLASSSUBNAMED;
@@ -60,6 +63,8 @@ import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.DPSUBNAMED;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.DPSUPERNAMED;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.ICOLLECTIONS;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.INDIVIDUALSUBNAMED;
+import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.IRIS;
+import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.LITERALS;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.OPCOLLECTIONS;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.OPSUBNAMED;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.OPSUPERNAMED;
@@ -70,10 +75,17 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -119,6 +131,7 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLInverseFunctionalObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLInverseObjectPropertiesAxiom;
 import org.semanticweb.owlapi.model.OWLIrreflexiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLLogicalAxiom;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLNegativeDataPropertyAssertionAxiom;
@@ -130,6 +143,7 @@ import org.semanticweb.owlapi.model.OWLObjectPropertyDomainAxiom;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
 import org.semanticweb.owlapi.model.OWLReflexiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.model.OWLSameIndividualAxiom;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import org.semanticweb.owlapi.model.OWLSubDataPropertyOfAxiom;
@@ -144,12 +158,18 @@ import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.SubjectAndProperty;
+
 /**
  * @author ignazio
  */
 public class Internals implements Serializable {
 
     protected static final Logger LOGGER = LoggerFactory.getLogger(Internals.class);
+    /**
+     * Minimum number of axioms for each parallel task in {@link #addAxioms(Collection)}.
+     */
+    private static final int BULK_CHUNK_SIZE = 4096;
     //@formatter:off
     private final AddAxiomVisitor addChangeVisitor = new AddAxiomVisitor();
     private final RemoveAxiomVisitor removeChangeVisitor = new RemoveAxiomVisitor();
@@ -197,6 +217,11 @@ public class Internals implements Serializable {
     protected transient MapPointer<OWLIndividual, OWLDifferentIndividualsAxiom>                         differentIndividualsAxiomsByIndividual              = buildLazy(DIFFERENT_INDIVIDUALS, ICOLLECTIONS);
     protected transient MapPointer<OWLIndividual, OWLSameIndividualAxiom>                               sameIndividualsAxiomsByIndividual                   = buildLazy(SAME_INDIVIDUAL, ICOLLECTIONS);
 
+    protected transient MapPointer<OWLAxiom, OWLAxiom>                                                  axiomsByAxiomWithoutAnnotations                     = buildLazy(null, AXIOMSWITHOUTANNOTATIONS);
+    protected transient MapPointer<OWLLiteral, OWLAxiom>                                                literalReferences                                   = buildLazy(null, LITERALS);
+    protected transient MapPointer<String, OWLAxiom>                                                    iriReferences                                       = buildLazy(null, IRIS);
+    protected transient MapPointer<SubjectAndProperty, OWLAnnotationAssertionAxiom>                     annotationAssertionAxiomsBySubjectAndProperty       = buildLazy(ANNOTATION_ASSERTION, ANNOTSUBJECTANDPROPERTY);
+
 
     protected SetPointer<OWLImportsDeclaration> importsDeclarations = new SetPointer<>();
     protected SetPointer<OWLAnnotation> ontologyAnnotations = new SetPointer<>();
@@ -215,6 +240,7 @@ public class Internals implements Serializable {
 
     @Nullable
     private List<OWLAxiom> axiomsForSerialization;
+    private volatile boolean frozen = false;
 
     /**
      * @param p pointer
@@ -285,8 +311,17 @@ public class Internals implements Serializable {
             buildLazy(NEGATIVE_DATA_PROPERTY_ASSERTION, INDIVIDUALSUBNAMED);
         differentIndividualsAxiomsByIndividual = buildLazy(DIFFERENT_INDIVIDUALS, ICOLLECTIONS);
         sameIndividualsAxiomsByIndividual = buildLazy(SAME_INDIVIDUAL, ICOLLECTIONS);
+        axiomsByAxiomWithoutAnnotations = buildLazy(null, AXIOMSWITHOUTANNOTATIONS);
+        literalReferences = buildLazy(null, LITERALS);
+        iriReferences = buildLazy(null, IRIS);
+        annotationAssertionAxiomsBySubjectAndProperty =
+            buildLazy(ANNOTATION_ASSERTION, ANNOTSUBJECTANDPROPERTY);
         axiomsForSerialization.forEach(this::addAxiom);
         axiomsForSerialization = null;
+        if (frozen) {
+            frozen = false;
+            freeze();
+        }
     }
 
     /**
@@ -320,52 +355,181 @@ public class Internals implements Serializable {
      * the storage of the internals instance.
      */
     public void trimToSize() {
-        // axiomsByType.trimToSize();
-        // owlClassReferences.trimToSize();
-        // owlObjectPropertyReferences.trimToSize();
-        // owlDataPropertyReferences.trimToSize();
-        // owlIndividualReferences.trimToSize();
-        // owlAnonymousIndividualReferences.trimToSize();
-        // owlDatatypeReferences.trimToSize();
-        // owlAnnotationPropertyReferences.trimToSize();
-        // declarationsByEntity.trimToSize();
-        // classAssertionAxiomsByClass.trimToSize();
-        // annotationAssertionAxiomsBySubject.trimToSize();
-        // subClassAxiomsBySubPosition.trimToSize();
-        // subClassAxiomsBySuperPosition.trimToSize();
-        // objectSubPropertyAxiomsBySubPosition.trimToSize();
-        // objectSubPropertyAxiomsBySuperPosition.trimToSize();
-        // dataSubPropertyAxiomsBySubPosition.trimToSize();
-        // dataSubPropertyAxiomsBySuperPosition.trimToSize();
-        // classAxiomsByClass.trimToSize();
-        // equivalentClassesAxiomsByClass.trimToSize();
-        // disjointClassesAxiomsByClass.trimToSize();
-        // disjointUnionAxiomsByClass.trimToSize();
-        // hasKeyAxiomsByClass.trimToSize();
-        // equivalentObjectPropertyAxiomsByProperty.trimToSize();
-        // disjointObjectPropertyAxiomsByProperty.trimToSize();
-        // objectPropertyDomainAxiomsByProperty.trimToSize();
-        // objectPropertyRangeAxiomsByProperty.trimToSize();
-        // functionalObjectPropertyAxiomsByProperty.trimToSize();
-        // inverseFunctionalPropertyAxiomsByProperty.trimToSize();
-        // symmetricPropertyAxiomsByProperty.trimToSize();
-        // asymmetricPropertyAxiomsByProperty.trimToSize();
-        // reflexivePropertyAxiomsByProperty.trimToSize();
-        // irreflexivePropertyAxiomsByProperty.trimToSize();
-        // transitivePropertyAxiomsByProperty.trimToSize();
-        // inversePropertyAxiomsByProperty.trimToSize();
-        // equivalentDataPropertyAxiomsByProperty.trimToSize();
-        // disjointDataPropertyAxiomsByProperty.trimToSize();
-        // dataPropertyDomainAxiomsByProperty.trimToSize();
-        // dataPropertyRangeAxiomsByProperty.trimToSize();
-        // functionalDataPropertyAxiomsByProperty.trimToSize();
-        // classAssertionAxiomsByIndividual.trimToSize();
-        // objectPropertyAssertionsByIndividual.trimToSize();
-        // dataPropertyAssertionsByIndividual.trimToSize();
-        // negativeObjectPropertyAssertionAxiomsByIndividual.trimToSize();
-        // negativeDataPropertyAssertionAxiomsByIndividual.trimToSize();
-        // differentIndividualsAxiomsByIndividual.trimToSize();
-        // sameIndividualsAxiomsByIndividual.trimToSize();
+        trimToSizeAndEstimate();
+    }
+
+    /**
+     * Trims the capacity of the axiom indexes, as {@link #trimToSize()} does.
+     *
+     * @return estimate of the bytes reclaimed
+     */
+    public long trimToSizeAndEstimate() {
+        long reclaimed = Stream
+            .<MapPointer<?, ?>>of(axiomsByType, owlClassReferences, owlObjectPropertyReferences,
+                owlDataPropertyReferences, owlIndividualReferences, owlAnonymousIndividualReferences,
+                owlDatatypeReferences, owlAnnotationPropertyReferences, declarationsByEntity,
+                classAxiomsByClass, axiomsByAxiomWithoutAnnotations, literalReferences,
+                iriReferences, annotationAssertionAxiomsBySubjectAndProperty)
+            .mapToLong(MapPointer::trimToSize).sum();
+        reclaimed += typedLazyIndexes().mapToLong(MapPointer::trimToSize).sum();
+        LOGGER.debug("Trimmed axiom indexes, about {} bytes reclaimed", Long.valueOf(reclaimed));
+        return reclaimed;
+    }
+
+    /**
+     * @return the lazily built indexes of axioms of a specific type
+     */
+    protected Stream<MapPointer<?, ?>> typedLazyIndexes() {
+        return Stream.<MapPointer<?, ?>>of(classAssertionAxiomsByClass,
+            annotationAssertionAxiomsBySubject,
+            subClassAxiomsBySubPosition,
+            subClassAxiomsBySuperPosition,
+            objectSubPropertyAxiomsBySubPosition,
+            objectSubPropertyAxiomsBySuperPosition,
+            dataSubPropertyAxiomsBySubPosition,
+            dataSubPropertyAxiomsBySuperPosition,
+            equivalentClassesAxiomsByClass,
+            disjointClassesAxiomsByClass,
+            disjointUnionAxiomsByClass,
+            hasKeyAxiomsByClass,
+            equivalentObjectPropertyAxiomsByProperty,
+            disjointObjectPropertyAxiomsByProperty,
+            objectPropertyDomainAxiomsByProperty,
+            objectPropertyRangeAxiomsByProperty,
+            functionalObjectPropertyAxiomsByProperty,
+            inverseFunctionalPropertyAxiomsByProperty,
+            symmetricPropertyAxiomsByProperty,
+            asymmetricPropertyAxiomsByProperty,
+            reflexivePropertyAxiomsByProperty,
+            irreflexivePropertyAxiomsByProperty,
+            transitivePropertyAxiomsByProperty,
+            inversePropertyAxiomsByProperty,
+            equivalentDataPropertyAxiomsByProperty,
+            disjointDataPropertyAxiomsByProperty,
+            dataPropertyDomainAxiomsByProperty,
+            dataPropertyRangeAxiomsByProperty,
+            functionalDataPropertyAxiomsByProperty,
+            classAssertionAxiomsByIndividual,
+            objectPropertyAssertionsByIndividual,
+            dataPropertyAssertionsByIndividual,
+            negativeObjectPropertyAssertionAxiomsByIndividual,
+            negativeDataPropertyAssertionAxiomsByIndividual,
+            differentIndividualsAxiomsByIndividual,
+            sameIndividualsAxiomsByIndividual);
+    }
+
+    /**
+     * Build the lazy indexes for the specified axiom types, one task per index in the common fork
+     * join pool. The index of class axioms by class is built last, since it is filled from the
+     * class axiom indexes.
+     *
+     * @param types axiom types whose indexes should be built
+     */
+    public void prewarmIndexes(Collection<? extends AxiomType<?>> types) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        typedLazyIndexes().filter(p -> types.contains(p.type) && !p.isInitialized())
+            .forEach(p -> tasks.add(() -> {
+                p.init();
+                return null;
+            }));
+        ForkJoinPool.commonPool().invokeAll(tasks).forEach(Internals::join);
+        if (types.contains(AxiomType.SUBCLASS_OF) || types.contains(AxiomType.EQUIVALENT_CLASSES)
+            || types.contains(AxiomType.DISJOINT_CLASSES)
+            || types.contains(AxiomType.DISJOINT_UNION)) {
+            classAxiomsByClass.init();
+        }
+    }
+
+    /**
+     * Build the optional index of annotation assertions by subject and annotation property. The
+     * index is otherwise built by the first search that uses it.
+     */
+    public void prewarmAnnotationPropertyIndex() {
+        annotationAssertionAxiomsBySubjectAndProperty.init();
+    }
+
+    /**
+     * Replace every axiom index with a read only copy packed into arrays; see
+     * {@link FrozenMapPointer}. All the lazy indexes for axiom types are built first; the optional
+     * indexes that have not been built are left lazy. Frozen internals cannot be modified: attempts
+     * to add or remove axioms fail with an {@link UnsupportedOperationException}.
+     */
+    public synchronized void freeze() {
+        if (frozen) {
+            return;
+        }
+        prewarmIndexes(AxiomType.AXIOM_TYPES);
+        classAxiomsByClass.init();
+        axiomsByType = freeze(axiomsByType);
+        owlClassReferences = freeze(owlClassReferences);
+        owlObjectPropertyReferences = freeze(owlObjectPropertyReferences);
+        owlDataPropertyReferences = freeze(owlDataPropertyReferences);
+        owlIndividualReferences = freeze(owlIndividualReferences);
+        owlAnonymousIndividualReferences = freeze(owlAnonymousIndividualReferences);
+        owlDatatypeReferences = freeze(owlDatatypeReferences);
+        owlAnnotationPropertyReferences = freeze(owlAnnotationPropertyReferences);
+        declarationsByEntity = freeze(declarationsByEntity);
+        classAssertionAxiomsByClass = freeze(classAssertionAxiomsByClass);
+        annotationAssertionAxiomsBySubject = freeze(annotationAssertionAxiomsBySubject);
+        subClassAxiomsBySubPosition = freeze(subClassAxiomsBySubPosition);
+        subClassAxiomsBySuperPosition = freeze(subClassAxiomsBySuperPosition);
+        objectSubPropertyAxiomsBySubPosition = freeze(objectSubPropertyAxiomsBySubPosition);
+        objectSubPropertyAxiomsBySuperPosition = freeze(objectSubPropertyAxiomsBySuperPosition);
+        dataSubPropertyAxiomsBySubPosition = freeze(dataSubPropertyAxiomsBySubPosition);
+        dataSubPropertyAxiomsBySuperPosition = freeze(dataSubPropertyAxiomsBySuperPosition);
+        classAxiomsByClass = freeze(classAxiomsByClass);
+        equivalentClassesAxiomsByClass = freeze(equivalentClassesAxiomsByClass);
+        disjointClassesAxiomsByClass = freeze(disjointClassesAxiomsByClass);
+        disjointUnionAxiomsByClass = freeze(disjointUnionAxiomsByClass);
+        hasKeyAxiomsByClass = freeze(hasKeyAxiomsByClass);
+        equivalentObjectPropertyAxiomsByProperty = freeze(equivalentObjectPropertyAxiomsByProperty);
+        disjointObjectPropertyAxiomsByProperty = freeze(disjointObjectPropertyAxiomsByProperty);
+        objectPropertyDomainAxiomsByProperty = freeze(objectPropertyDomainAxiomsByProperty);
+        objectPropertyRangeAxiomsByProperty = freeze(objectPropertyRangeAxiomsByProperty);
+        functionalObjectPropertyAxiomsByProperty = freeze(functionalObjectPropertyAxiomsByProperty);
+        inverseFunctionalPropertyAxiomsByProperty =
+            freeze(inverseFunctionalPropertyAxiomsByProperty);
+        symmetricPropertyAxiomsByProperty = freeze(symmetricPropertyAxiomsByProperty);
+        asymmetricPropertyAxiomsByProperty = freeze(asymmetricPropertyAxiomsByProperty);
+        reflexivePropertyAxiomsByProperty = freeze(reflexivePropertyAxiomsByProperty);
+        irreflexivePropertyAxiomsByProperty = freeze(irreflexivePropertyAxiomsByProperty);
+        transitivePropertyAxiomsByProperty = freeze(transitivePropertyAxiomsByProperty);
+        inversePropertyAxiomsByProperty = freeze(inversePropertyAxiomsByProperty);
+        equivalentDataPropertyAxiomsByProperty = freeze(equivalentDataPropertyAxiomsByProperty);
+        disjointDataPropertyAxiomsByProperty = freeze(disjointDataPropertyAxiomsByProperty);
+        dataPropertyDomainAxiomsByProperty = freeze(dataPropertyDomainAxiomsByProperty);
+        dataPropertyRangeAxiomsByProperty = freeze(dataPropertyRangeAxiomsByProperty);
+        functionalDataPropertyAxiomsByProperty = freeze(functionalDataPropertyAxiomsByProperty);
+        classAssertionAxiomsByIndividual = freeze(classAssertionAxiomsByIndividual);
+        objectPropertyAssertionsByIndividual = freeze(objectPropertyAssertionsByIndividual);
+        dataPropertyAssertionsByIndividual = freeze(dataPropertyAssertionsByIndividual);
+        negativeObjectPropertyAssertionAxiomsByIndividual =
+            freeze(negativeObjectPropertyAssertionAxiomsByIndividual);
+        negativeDataPropertyAssertionAxiomsByIndividual =
+            freeze(negativeDataPropertyAssertionAxiomsByIndividual);
+        differentIndividualsAxiomsByIndividual = freeze(differentIndividualsAxiomsByIndividual);
+        sameIndividualsAxiomsByIndividual = freeze(sameIndividualsAxiomsByIndividual);
+        axiomsByAxiomWithoutAnnotations = freeze(axiomsByAxiomWithoutAnnotations);
+        literalReferences = freeze(literalReferences);
+        iriReferences = freeze(iriReferences);
+        annotationAssertionAxiomsBySubjectAndProperty =
+            freeze(annotationAssertionAxiomsBySubjectAndProperty);
+        frozen = true;
+    }
+
+    /**
+     * @return true if the axiom indexes have been frozen
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    protected <K, V extends OWLAxiom> MapPointer<K, V> freeze(MapPointer<K, V> p) {
+        if (!p.isInitialized()) {
+            // optional content indexes are only built on demand
+            return p;
+        }
+        return new FrozenMapPointer<>(p);
     }
 
     private void writeObject(ObjectOutputStream stream) throws IOException {
@@ -648,12 +812,12 @@ public class Internals implements Serializable {
         return build(null, null);
     }
 
-    protected <K, V extends OWLAxiom> MapPointer<K, V> buildLazy(AxiomType<?> t,
+    protected <K, V extends OWLAxiom> MapPointer<K, V> buildLazy(@Nullable AxiomType<?> t,
         OWLAxiomVisitorEx<?> v) {
         return new MapPointer<>(t, v, false, this);
     }
 
-    protected ClassAxiomByClassPointer buildClassAxiomByClass() {
+    protected MapPointer<OWLClass, OWLClassAxiom> buildClassAxiomByClass() {
         return new ClassAxiomByClassPointer(null, null, false, this);
     }
 
@@ -708,11 +872,162 @@ public class Internals implements Serializable {
                 }
             };
             axiom.accept(referenceAdder);
+            addToContentIndexes(axiom);
             return true;
         }
         return false;
     }
 
+    /**
+     * Bulk version of {@link #addAxiom(OWLAxiom)}. For large inputs, the entity references of
+     * the new axioms are collected in parallel in the common fork join pool, in per task partial
+     * indexes; the partial indexes are then merged into the reference maps, one task per map.
+     *
+     * @param axioms axioms to add
+     * @return the axioms that were not already included
+     */
+    public List<OWLAxiom> addAxioms(Collection<? extends OWLAxiom> axioms) {
+        List<OWLAxiom> added = new ArrayList<>(axioms.size());
+        for (OWLAxiom axiom : axioms) {
+            checkNotNull(axiom, "axiom cannot be null");
+            if (getAxiomsByType().put(axiom.getAxiomType(), axiom)) {
+                axiom.accept(addChangeVisitor);
+                added.add(axiom);
+            }
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunks = Math.min(added.size() / BULK_CHUNK_SIZE, pool.getParallelism() * 4);
+        List<Callable<PartialReferences>> tasks = new ArrayList<>();
+        int chunkSize = (added.size() + Math.max(chunks, 1) - 1) / Math.max(chunks, 1);
+        for (int start = 0; start < added.size(); start += chunkSize) {
+            List<OWLAxiom> chunk = added.subList(start, Math.min(added.size(), start + chunkSize));
+            tasks.add(() -> new PartialReferences().collect(chunk));
+        }
+        List<PartialReferences> partials = new ArrayList<>(tasks.size());
+        List<Callable<Void>> merges = new ArrayList<>();
+        merges.add(() -> merge(partials, x -> x.classes, owlClassReferences));
+        merges.add(() -> merge(partials, x -> x.objectProperties, owlObjectPropertyReferences));
+        merges.add(() -> merge(partials, x -> x.dataProperties, owlDataPropertyReferences));
+        merges.add(() -> merge(partials, x -> x.individuals, owlIndividualReferences));
+        merges.add(
+            () -> merge(partials, x -> x.annotationProperties, owlAnnotationPropertyReferences));
+        merges.add(() -> merge(partials, x -> x.datatypes, owlDatatypeReferences));
+        merges.add(
+            () -> merge(partials, x -> x.anonymousIndividuals, owlAnonymousIndividualReferences));
+        if (chunks < 2) {
+            // not worth the overhead of parallel tasks
+            tasks.forEach(t -> partials.add(call(t)));
+            merges.forEach(Internals::call);
+        } else {
+            pool.invokeAll(tasks).forEach(f -> partials.add(join(f)));
+            pool.invokeAll(merges).forEach(Internals::join);
+        }
+        added.forEach(this::addToContentIndexes);
+        return added;
+    }
+
+    private static <T> T call(Callable<T> c) {
+        try {
+            return c.call();
+        } catch (Exception e) {
+            throw new OWLRuntimeException(e);
+        }
+    }
+
+    private static <T> T join(Future<T> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new OWLRuntimeException(e.getCause());
+        }
+    }
+
+    @Nullable
+    private static <K> Void merge(List<PartialReferences> partials,
+        Function<PartialReferences, Map<K, List<OWLAxiom>>> f, MapPointer<K, OWLAxiom> pointer) {
+        partials.forEach(p -> f.apply(p).forEach((k, l) -> l.forEach(ax -> pointer.put(k, ax))));
+        return null;
+    }
+
+    private void addToContentIndexes(OWLAxiom axiom) {
+        if (axiomsByAxiomWithoutAnnotations.isInitialized()) {
+            axiomsByAxiomWithoutAnnotations.put(axiom.getAxiomWithoutAnnotations(), axiom);
+        }
+        if (literalReferences.isInitialized()) {
+            axiom.accept(LITERALS).forEach(l -> literalReferences.put(l, axiom));
+        }
+        if (iriReferences.isInitialized()) {
+            axiom.accept(IRIS).forEach(iri -> iriReferences.put(iri, axiom));
+        }
+    }
+
+    /**
+     * Entity references of a subset of axioms, collected by a single task.
+     */
+    static class PartialReferences extends AbstractCollector {
+
+        final Map<OWLClass, List<OWLAxiom>> classes = new HashMap<>();
+        final Map<OWLObjectProperty, List<OWLAxiom>> objectProperties = new HashMap<>();
+        final Map<OWLDataProperty, List<OWLAxiom>> dataProperties = new HashMap<>();
+        final Map<OWLNamedIndividual, List<OWLAxiom>> individuals = new HashMap<>();
+        final Map<OWLAnnotationProperty, List<OWLAxiom>> annotationProperties = new HashMap<>();
+        final Map<OWLDatatype, List<OWLAxiom>> datatypes = new HashMap<>();
+        final Map<OWLAnonymousIndividual, List<OWLAxiom>> anonymousIndividuals = new HashMap<>();
+        @Nullable
+        private OWLAxiom current;
+
+        PartialReferences collect(List<OWLAxiom> axioms) {
+            for (OWLAxiom axiom : axioms) {
+                current = axiom;
+                axiom.accept(this);
+            }
+            current = null;
+            return this;
+        }
+
+        private <K> void add(Map<K, List<OWLAxiom>> map, K k) {
+            map.computeIfAbsent(k, x -> new ArrayList<>(2)).add(verifyNotNull(current));
+        }
+
+        @Override
+        public void visit(OWLClass ce) {
+            add(classes, ce);
+        }
+
+        @Override
+        public void visit(OWLObjectProperty property) {
+            add(objectProperties, property);
+        }
+
+        @Override
+        public void visit(OWLDataProperty property) {
+            add(dataProperties, property);
+        }
+
+        @Override
+        public void visit(OWLNamedIndividual individual) {
+            add(individuals, individual);
+        }
+
+        @Override
+        public void visit(OWLAnnotationProperty property) {
+            add(annotationProperties, property);
+        }
+
+        @Override
+        public void visit(OWLDatatype node) {
+            add(datatypes, node);
+        }
+
+        @Override
+        public void visit(OWLAnonymousIndividual individual) {
+            add(anonymousIndividuals, individual);
+        }
+    }
+
     /**
      * @param axiom axiom to remove
      * @return true if removed
@@ -759,11 +1074,66 @@ public class Internals implements Serializable {
                 }
             };
             axiom.accept(referenceRemover);
+            if (axiomsByAxiomWithoutAnnotations.isInitialized()) {
+                axiomsByAxiomWithoutAnnotations.remove(axiom.getAxiomWithoutAnnotations(), axiom);
+            }
+            if (literalReferences.isInitialized()) {
+                axiom.accept(LITERALS).forEach(l -> literalReferences.remove(l, axiom));
+            }
+            if (iriReferences.isInitialized()) {
+                axiom.accept(IRIS).forEach(iri -> iriReferences.remove(iri, axiom));
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * @param axiom axiom to search
+     * @return the axioms in the ontology that are equal to the input once annotations are ignored
+     */
+    public Stream<OWLAxiom> getAxiomsIgnoreAnnotations(OWLAxiom axiom) {
+        return axiomsByAxiomWithoutAnnotations.getValues(axiom.getAxiomWithoutAnnotations());
+    }
+
+    /**
+     * @param axiom axiom to search
+     * @return true if the ontology contains an axiom equal to the input once annotations are
+     *         ignored
+     */
+    public boolean containsAxiomIgnoreAnnotations(OWLAxiom axiom) {
+        return axiomsByAxiomWithoutAnnotations.containsKey(axiom.getAxiomWithoutAnnotations());
+    }
+
+    /**
+     * @param literal literal to search
+     * @return axioms using the literal as data property assertion object, annotation assertion
+     *         value or axiom annotation value
+     */
+    public Stream<OWLAxiom> getLiteralReferences(OWLLiteral literal) {
+        return literalReferences.getValues(literal);
+    }
+
+    /**
+     * @param iri IRI to search
+     * @return annotation assertions with the IRI as subject, and data property or annotation
+     *         assertions with the IRI as {@code xsd:anyURI} value
+     */
+    public Stream<OWLAxiom> getIRIReferences(IRI iri) {
+        return iriReferences.getValues(iri.toString());
+    }
+
+    /**
+     * @param subject annotation subject to search
+     * @param property annotation property to search
+     * @return annotation assertions with the given subject and annotation property
+     */
+    public Stream<OWLAnnotationAssertionAxiom> getAnnotationAssertionAxioms(
+        OWLAnnotationSubject subject, OWLAnnotationProperty property) {
+        return annotationAssertionAxiomsBySubjectAndProperty
+            .getValues(new SubjectAndProperty(subject, property));
+    }
+
     /**
      * @param e entity to check
      * @return true if the entity is declared in the ontology
@@ -1168,6 +1538,10 @@ public class Internals implements Serializable {
         @Override
         public void visit(OWLAnnotationAssertionAxiom axiom) {
             annotationAssertionAxiomsBySubject.put(axiom.getSubject(), axiom);
+            if (annotationAssertionAxiomsBySubjectAndProperty.isInitialized()) {
+                annotationAssertionAxiomsBySubjectAndProperty.put(
+                    new SubjectAndProperty(axiom.getSubject(), axiom.getProperty()), axiom);
+            }
         }
 
         @Override
@@ -1381,6 +1755,10 @@ public class Internals implements Serializable {
         @Override
         public void visit(OWLAnnotationAssertionAxiom axiom) {
             annotationAssertionAxiomsBySubject.remove(axiom.getSubject(), axiom);
+            if (annotationAssertionAxiomsBySubjectAndProperty.isInitialized()) {
+                annotationAssertionAxiomsBySubjectAndProperty.remove(
+                    new SubjectAndProperty(axiom.getSubject(), axiom.getProperty()), axiom);
+            }
         }
 
         @Override
@@ -16,6 +16,7 @@ import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 
 import java.lang.ref.SoftReference;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -36,14 +37,15 @@ import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
 import org.semanticweb.owlapi.util.CollectionFactory;
 import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
-import org.semanticweb.owlapi.util.SmallSet;
 
 import com.carrotsearch.hppcrt.cursors.ObjectCursor;
 import com.carrotsearch.hppcrt.maps.ObjectObjectHashMap;
 import com.carrotsearch.hppcrt.procedures.ObjectProcedure;
 import com.carrotsearch.hppcrt.sets.ObjectHashSet;
 
+import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitAxiomVisitor;
 import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitCollectionVisitor;
+import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitReferenceVisitor;
 import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitVisitor;
 
 /**
@@ -56,17 +58,42 @@ import uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.InitVisitor;
  */
 public class MapPointer<K, V extends OWLAxiom> {
 
+    /**
+     * Estimated size of a reference, assuming compressed pointers.
+     */
+    static final int REFERENCE_SIZE = 4;
+    /**
+     * Estimated size of an object or array header.
+     */
+    static final int HEADER_SIZE = 16;
+    /**
+     * Sets of values up to this size are compacted to arrays by {@link #trimToSize()}.
+     */
+    private static final int ARRAY_BUCKET_LIMIT = 16;
+    /**
+     * Buckets grow as immutable arrays up to this size; larger buckets are hash sets.
+     */
+    private static final int SMALL_BUCKET_LIMIT = 3;
+
     @Nullable
-    private final AxiomType<?> type;
+    protected final AxiomType<?> type;
     @Nullable
-    private final OWLAxiomVisitorEx<?> visitor;
+    protected final OWLAxiomVisitorEx<?> visitor;
     private boolean initialized;
     protected final Internals i;
     @Nullable
     private SoftReference<Set<IRI>> iris;
     private int size = 0;
-    private final ObjectObjectHashMap<K, Collection<V>> map = new ObjectObjectHashMap<>(17, 0.75F);
-    private boolean neverTrimmed = true;
+    /**
+     * Null for subclasses that keep their own storage.
+     */
+    private ObjectObjectHashMap<K, Collection<V>> map;
+    /**
+     * Number of keys the map was sized for, and highest number of keys it has contained since;
+     * hash maps do not shrink, so these determine the map capacity.
+     */
+    private int expectedKeys = 17;
+    private int peakKeys = 0;
 
     /**
      * @param t type of axioms contained
@@ -76,10 +103,24 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public MapPointer(@Nullable AxiomType<?> t, @Nullable OWLAxiomVisitorEx<?> v,
         boolean initialized, Internals i) {
+        this(t, v, initialized, i, true);
+    }
+
+    /**
+     * @param t type of axioms contained
+     * @param v visitor
+     * @param initialized true if initialized
+     * @param i internals containing this pointer
+     * @param storage false for subclasses that keep their own storage and override all the public
+     *        methods; the map of this class is then not allocated
+     */
+    protected MapPointer(@Nullable AxiomType<?> t, @Nullable OWLAxiomVisitorEx<?> v,
+        boolean initialized, Internals i, boolean storage) {
         type = t;
         visitor = v;
         this.initialized = initialized;
         this.i = checkNotNull(i, "i cannot be null");
+        map = storage ? new ObjectObjectHashMap<>(17, 0.75F) : null;
     }
 
     /**
@@ -148,18 +189,31 @@ public class MapPointer<K, V extends OWLAxiom> {
             return this;
         }
         initialized = true;
-        if (visitor == null || type == null) {
+        if (visitor == null) {
+            return this;
+        }
+        if (type == null) {
+            // no axiom type: the index covers all axioms
+            if (visitor instanceof InitAxiomVisitor) {
+                InitAxiomVisitor v = (InitAxiomVisitor) visitor;
+                i.getAxioms().forEach(ax -> putInternal((K) ax.accept(v), (V) ax));
+            } else if (visitor instanceof InitReferenceVisitor) {
+                InitReferenceVisitor<K> v = (InitReferenceVisitor<K>) visitor;
+                i.getAxioms().forEach(ax -> ax.accept(v).forEach(key -> putInternal(key, (V) ax)));
+            }
             return this;
         }
         AxiomType<?> t = type;
         assert t != null;
+        // work on a copy, so that the axiom by type index is not locked while this index is
+        // built and indexes for different types can be built concurrently
+        Collection<OWLAxiom> axioms = i.getAxiomsByType().getValuesAsCollection(t);
         if (visitor instanceof InitVisitor) {
             InitVisitor<K> v = (InitVisitor<K>) visitor;
-            i.getAxiomsByType().forEach(t, ax -> putInternal(ax.accept(v), (V) ax));
+            axioms.forEach(ax -> putInternal(ax.accept(v), (V) ax));
         } else if (visitor instanceof InitCollectionVisitor) {
             InitCollectionVisitor<K> v = (InitCollectionVisitor<K>) visitor;
-            i.getAxiomsByType().forEach(t,
-                ax -> ax.accept(v).forEach(key -> putInternal(key, (V) ax)));
+            axioms.forEach(ax -> ax.accept(v).forEach(key -> putInternal(key, (V) ax)));
         }
         return this;
     }
@@ -186,17 +240,7 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized Stream<V> getValues(K key) {
         init();
-        Collection<V> t = map.get(key);
-        if (t == null) {
-            return Stream.empty();
-        }
-        if (t instanceof SmallSet) {
-            return t.stream();
-        }
-        if (t instanceof HPPCSet) {
-            return new ArrayList<>(t).stream();
-        }
-        return t.stream();
+        return snapshot(map.get(key)).stream();
     }
 
     /**
@@ -205,7 +249,10 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized void forEach(K key, Consumer<V> function) {
         init();
-        get(key).forEach(function);
+        Collection<V> t = map.get(key);
+        if (t != null) {
+            t.forEach(function);
+        }
     }
 
     /**
@@ -224,15 +271,23 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized Collection<V> getValuesAsCollection(K key) {
         init();
-        Collection<V> t = map.get(key);
+        return snapshot(map.get(key));
+    }
+
+    /**
+     * Buckets handed out to callers must not change when the index is modified later on; singleton
+     * and array buckets are immutable, sets provide a read only view of their content, and copy it
+     * on the next modification if the view has been handed out. Reads do not copy the values.
+     *
+     * @param t bucket
+     * @return immutable view of the bucket
+     */
+    private Collection<V> snapshot(@Nullable Collection<V> t) {
         if (t == null) {
             return Collections.emptyList();
         }
-        if (t instanceof SmallSet) {
-            return new ArrayList<>(t);
-        }
         if (t instanceof HPPCSet) {
-            return new ArrayList<>(t);
+            return ((HPPCSet<V>) t).snapshot();
         }
         return t;
     }
@@ -264,17 +319,7 @@ public class MapPointer<K, V extends OWLAxiom> {
     public synchronized <O extends V> Stream<O> values(K key,
         @SuppressWarnings("unused") Class<O> classType) {
         init();
-        Collection<V> t = map.get(key);
-        if (t == null) {
-            return Stream.empty();
-        }
-        if (t instanceof SmallSet) {
-            return (Stream<O>) t.stream();
-        }
-        if (t instanceof HPPCSet) {
-            return (Stream<O>) new ArrayList<>(t).stream();
-        }
-        return (Stream<O>) t.stream();
+        return (Stream<O>) snapshot(map.get(key)).stream();
     }
 
     /**
@@ -355,12 +400,63 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized int size() {
         init();
-        if (neverTrimmed) {
-            // trimToSize();
-        }
         return size;
     }
 
+    /**
+     * Compact this index: the map is rebuilt with the capacity required for its current keys, sets
+     * of values small enough are replaced with arrays and larger sets are shrunk to their size.
+     * Indexes not yet initialized are left alone.
+     *
+     * @return estimate of the bytes reclaimed
+     */
+    public synchronized long trimToSize() {
+        if (!initialized) {
+            return 0;
+        }
+        long reclaimed = 0;
+        int keys = map.size();
+        if (hashSlots(Math.max(expectedKeys, peakKeys)) > hashSlots(keys)) {
+            ObjectObjectHashMap<K, Collection<V>> trimmed =
+                new ObjectObjectHashMap<>(Math.max(keys, 1), 0.75F);
+            ObjectProcedure<K> copy = k -> trimmed.put(k, map.get(k));
+            map.keys().forEach(copy);
+            // keys and values arrays
+            reclaimed += 2L * REFERENCE_SIZE
+                * (hashSlots(Math.max(expectedKeys, peakKeys)) - hashSlots(Math.max(keys, 1)));
+            map = trimmed;
+            expectedKeys = Math.max(keys, 1);
+            peakKeys = keys;
+        }
+        List<K> toCompact = new ArrayList<>();
+        ObjectProcedure<K> select = k -> {
+            if (map.get(k) instanceof HPPCSet) {
+                toCompact.add(k);
+            }
+        };
+        map.keys().forEach(select);
+        for (K k : toCompact) {
+            HPPCSet<V> set = (HPPCSet<V>) map.get(k);
+            if (set.size() <= ARRAY_BUCKET_LIMIT) {
+                ArrayBucket<V> bucket = new ArrayBucket<>(set);
+                reclaimed += set.footprint() - bucket.footprint();
+                map.put(k, bucket);
+            } else {
+                reclaimed += set.trimToSize();
+            }
+        }
+        return reclaimed;
+    }
+
+    /**
+     * @param expected expected number of elements in an HPPC hash container
+     * @return number of slots allocated by the container, with the default load factor
+     */
+    static int hashSlots(int expected) {
+        int min = (int) Math.ceil(expected / 0.75D) + 1;
+        return Integer.highestOneBit(min - 1) << 1;
+    }
+
     /**
      * @return true if empty
      */
@@ -378,24 +474,23 @@ public class MapPointer<K, V extends OWLAxiom> {
             set = Collections.singleton(v);
             map.put(k, set);
             size++;
+            if (map.size() > peakKeys) {
+                peakKeys = map.size();
+            }
             return true;
         }
-        if (set.size() == 1) {
+        if (set instanceof ArrayBucket || set.size() == 1) {
+            // singleton or array bucket, immutable: copy on write
             if (set.contains(v)) {
                 return false;
-            } else {
-                set = new SmallSet<>(set);
-                map.put(k, set);
             }
-        } else if (set.size() == 3) {
-            if (set.contains(v)) {
-                return false;
+            if (set.size() < SMALL_BUCKET_LIMIT) {
+                map.put(k, new ArrayBucket<>(set).with(v));
             } else {
-                set = new HPPCSet(set, v);
-                map.put(k, set);
-                size++;
-                return true;
+                map.put(k, new HPPCSet<>(set, v));
             }
+            size++;
+            return true;
         }
         boolean added = set.add(v);
         if (added) {
@@ -413,13 +508,23 @@ public class MapPointer<K, V extends OWLAxiom> {
     }
 
     private boolean removeInternal(K k, V v) {
-        if (neverTrimmed) {
-            // trimToSize();
-        }
         Collection<V> t = map.get(k);
         if (t == null) {
             return false;
         }
+        if (t instanceof ArrayBucket) {
+            // compacted bucket, immutable
+            if (!t.contains(v)) {
+                return false;
+            }
+            if (t.size() == 1) {
+                map.remove(k);
+            } else {
+                map.put(k, ((ArrayBucket<V>) t).without(v));
+            }
+            size--;
+            return true;
+        }
         if (t.size() == 1) {
             if (t.contains(v)) {
                 map.remove(k);
@@ -440,48 +545,108 @@ public class MapPointer<K, V extends OWLAxiom> {
     }
 
     private Stream<V> values() {
-        List<V> l = new ArrayList<>();
-        Consumer<ObjectCursor<Collection<V>>> c = q -> l.addAll(q.value);
+        // copy the bucket references only; the buckets themselves are immutable views
+        List<Collection<V>> l = new ArrayList<>(map.size());
+        Consumer<ObjectCursor<Collection<V>>> c = q -> l.add(snapshot(q.value));
         map.values().forEach(c);
-        return l.stream();
+        return l.stream().flatMap(Collection::stream);
     }
 
     private Stream<V> get(K k) {
-        Collection<V> t = map.get(k);
-        if (t == null) {
-            return Stream.empty();
-        }
-        return t.stream();
+        return snapshot(map.get(k)).stream();
     }
 }
 
 
 class HPPCSet<S> implements Collection<S> {
     private ObjectHashSet<S> delegate;
+    /**
+     * Read only view of the delegate handed out to readers; while it is set, the delegate is
+     * shared and is copied before the next modification.
+     */
+    @Nullable
+    private View<S> view;
+    // expected and peak sizes, used to estimate the capacity of the delegate
+    private int expected;
+    private int peak;
 
     public HPPCSet() {
         delegate = new ObjectHashSet<>();
+        expected = 8;
     }
 
     public HPPCSet(int initialCapacity) {
         delegate = new ObjectHashSet<>(initialCapacity);
+        expected = initialCapacity;
     }
 
     public HPPCSet(int initialCapacity, double loadFactor) {
         delegate = new ObjectHashSet<>(initialCapacity, loadFactor);
+        expected = initialCapacity;
     }
 
     public HPPCSet(Collection<S> container) {
         delegate = new ObjectHashSet<>(container.size() + 1);
+        expected = container.size() + 1;
         addAll(container);
     }
 
     public HPPCSet(Collection<S> container, S s) {
         delegate = new ObjectHashSet<>(container.size() + 1);
+        expected = container.size() + 1;
         addAll(container);
         add(s);
     }
 
+    /**
+     * @return estimate of the bytes used by this set
+     */
+    long footprint() {
+        return 3L * MapPointer.HEADER_SIZE
+            + (long) MapPointer.REFERENCE_SIZE * MapPointer.hashSlots(Math.max(expected, peak));
+    }
+
+    /**
+     * @return read only view of the content of this set; the view does not copy the content and
+     *         does not change when the set is modified, since the set copies its content before
+     *         the next modification instead. The same view is returned until then.
+     */
+    Collection<S> snapshot() {
+        View<S> v = view;
+        if (v == null) {
+            v = new View<>(delegate);
+            view = v;
+        }
+        return v;
+    }
+
+    /**
+     * Copy the delegate if a view of it has been handed out, so that the view does not change.
+     */
+    private void beforeChange() {
+        if (view != null) {
+            delegate = delegate.clone();
+            view = null;
+        }
+    }
+
+    /**
+     * Rebuild the delegate with the capacity required for the current elements.
+     *
+     * @return estimate of the bytes reclaimed
+     */
+    long trimToSize() {
+        long before = footprint();
+        ObjectHashSet<S> trimmed = new ObjectHashSet<>(delegate.size());
+        ObjectProcedure<S> copy = trimmed::add;
+        delegate.forEach(copy);
+        delegate = trimmed;
+        view = null;
+        expected = delegate.size();
+        peak = expected;
+        return before - footprint();
+    }
+
     @Override
     public int size() {
         return delegate.size();
@@ -499,10 +664,7 @@ class HPPCSet<S> implements Collection<S> {
 
     @Override
     public Iterator<S> iterator() {
-        List<S> l = new ArrayList<>();
-        Consumer<ObjectCursor<S>> c = q -> l.add(q.value);
-        delegate.forEach(c);
-        return l.iterator();
+        return snapshot().iterator();
     }
 
     @Override
@@ -517,11 +679,25 @@ class HPPCSet<S> implements Collection<S> {
 
     @Override
     public boolean add(@Nullable S e) {
-        return delegate.add(e);
+        if (view != null && delegate.contains(e)) {
+            return false;
+        }
+        beforeChange();
+        boolean added = delegate.add(e);
+        if (added) {
+            if (delegate.size() > peak) {
+                peak = delegate.size();
+            }
+        }
+        return added;
     }
 
     @Override
     public boolean remove(@Nullable Object o) {
+        if (view != null && !delegate.contains((S) o)) {
+            return false;
+        }
+        beforeChange();
         return delegate.remove((S) o);
     }
 
@@ -559,11 +735,56 @@ class HPPCSet<S> implements Collection<S> {
 
     @Override
     public boolean retainAll(@Nullable Collection<?> c) {
+        beforeChange();
         return delegate.retainAll(new HPPCSet(verifyNotNull(c)).delegate) > 0;
     }
 
     @Override
     public void clear() {
-        this.delegate.clear();
+        if (view != null) {
+            delegate = new ObjectHashSet<>();
+            view = null;
+        } else {
+            delegate.clear();
+        }
+    }
+
+    /**
+     * Read only view of a delegate that is no longer modified.
+     */
+    private static final class View<S> extends AbstractCollection<S> {
+
+        private final ObjectHashSet<S> set;
+
+        View(ObjectHashSet<S> set) {
+            this.set = set;
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+
+        @Override
+        public boolean contains(@Nullable Object o) {
+            return set.contains((S) o);
+        }
+
+        @Override
+        public Iterator<S> iterator() {
+            Iterator<ObjectCursor<S>> cursors = set.iterator();
+            return new Iterator<S>() {
+
+                @Override
+                public boolean hasNext() {
+                    return cursors.hasNext();
+                }
+
+                @Override
+                public S next() {
+                    return cursors.next().value;
+                }
+            };
+        }
     }
 }
@@ -1,6 +1,8 @@
 package uk.ac.manchester.cs.owl.owlapi;
 
+import java.util.Collection;
 import java.util.stream.Stream;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLAnnotationPropertyDomainAxiom;
 import org.semanticweb.owlapi.model.OWLAnnotationPropertyRangeAxiom;
@@ -15,15 +17,46 @@ import org.semanticweb.owlapi.search.Filters;
  * @since 4.0.0
  */
 public abstract class OWLAxiomIndexImpl extends OWLObjectImpl implements OWLAxiomIndex,
-    HasTrimToSize {
+    HasTrimToSize, HasPrewarmIndexes, HasFreeze {
 
-    protected final Internals ints = new Internals();
+    protected final Internals ints;
+
+    protected OWLAxiomIndexImpl() {
+        this(new Internals());
+    }
+
+    /**
+     * @param ints internals to use for storing and indexing axioms
+     */
+    protected OWLAxiomIndexImpl(Internals ints) {
+        this.ints = ints;
+    }
 
     @Override
     public void trimToSize() {
         ints.trimToSize();
     }
 
+    @Override
+    public long trimToSizeAndEstimate() {
+        return ints.trimToSizeAndEstimate();
+    }
+
+    @Override
+    public void prewarmIndexes(Collection<? extends AxiomType<?>> types) {
+        ints.prewarmIndexes(types);
+    }
+
+    @Override
+    public void freeze() {
+        ints.freeze();
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return ints.isFrozen();
+    }
+
     @Override
     public Stream<OWLDatatypeDefinitionAxiom> datatypeDefinitions(OWLDatatype datatype) {
         // XXX stream better?
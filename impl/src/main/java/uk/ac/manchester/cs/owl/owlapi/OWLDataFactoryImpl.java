@@ -40,14 +40,17 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.InterningPolicy;
 import org.semanticweb.owlapi.model.NodeID;
 import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
@@ -131,6 +134,7 @@ import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
 import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
 import org.semanticweb.owlapi.model.OWLSymmetricObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OntologyConfigurator;
 import org.semanticweb.owlapi.model.SWRLAtom;
 import org.semanticweb.owlapi.model.SWRLBuiltInAtom;
 import org.semanticweb.owlapi.model.SWRLClassAtom;
@@ -152,6 +156,8 @@ import org.semanticweb.owlapi.vocab.OWL2Datatype;
 import org.semanticweb.owlapi.vocab.OWLFacet;
 import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 /**
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics Group
  * @since 2.0.0
@@ -210,8 +216,38 @@ public class OWLDataFactoryImpl implements OWLDataFactory, Serializable, ClassPr
     private static final String ENTITY_TYPE_CANNOT_BE_NULL = "entityType cannot be null";
     private static final String ANNOTATIONS_CANNOT_BE_NULL = "annotations cannot be null";
     private final boolean useCompression = false;
-    private transient OWLDataFactoryInternals dataFactoryInternals =
-        new OWLDataFactoryInternalsImpl(useCompression);
+    @Nullable
+    private final InterningPolicy interningPolicy;
+    private final int cacheSize;
+    private final boolean cacheStats;
+    private transient OWLDataFactoryInternals dataFactoryInternals;
+
+    /**
+     * Data factory with caches configured by system properties or configuration file.
+     */
+    public OWLDataFactoryImpl() {
+        this(new OntologyConfigurator());
+    }
+
+    /**
+     * @param config configuration for the interning caches of this data factory
+     */
+    @Inject
+    public OWLDataFactoryImpl(OntologyConfigurator config) {
+        interningPolicy = config.getEntityCachePolicy();
+        cacheSize = config.getEntityCacheSize();
+        cacheStats = config.shouldRecordEntityCacheStats();
+        dataFactoryInternals = createInternals();
+    }
+
+    private OWLDataFactoryInternals createInternals() {
+        InterningPolicy policy = interningPolicy;
+        if (policy == null) {
+            // serialized before the interning policy was introduced
+            return new OWLDataFactoryInternalsImpl(useCompression);
+        }
+        return new OWLDataFactoryInternalsImpl(useCompression, policy, cacheSize, cacheStats);
+    }
 
     private static void checkAnnotations(Collection<OWLAnnotation> o) {
         checkIterableNotNull(o, ANNOTATIONS_CANNOT_BE_NULL, true);
@@ -219,7 +255,19 @@ public class OWLDataFactoryImpl implements OWLDataFactory, Serializable, ClassPr
 
     private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
         stream.defaultReadObject();
-        dataFactoryInternals = new OWLDataFactoryInternalsImpl(useCompression);
+        dataFactoryInternals = createInternals();
+    }
+
+    /**
+     * @return hit and miss statistics for each entity cache, by name; empty if the factory does not
+     *         use caches. Counts are zero unless {@code ConfigurationOptions.ENTITY_CACHE_STATS} is
+     *         enabled.
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        if (dataFactoryInternals instanceof OWLDataFactoryInternalsImpl) {
+            return ((OWLDataFactoryInternalsImpl) dataFactoryInternals).getCacheStats();
+        }
+        return Collections.emptyMap();
     }
 
     @Override
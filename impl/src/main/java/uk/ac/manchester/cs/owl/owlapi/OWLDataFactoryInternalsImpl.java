@@ -12,9 +12,17 @@
  * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
 package uk.ac.manchester.cs.owl.owlapi;
 
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_POLICY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_SIZE;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ENTITY_CACHE_STATS;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.InterningPolicy;
 import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLAnnotationValue;
@@ -27,6 +35,7 @@ import org.semanticweb.owlapi.model.OWLObjectProperty;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 /**
  * @author ignazio
@@ -38,30 +47,93 @@ public class OWLDataFactoryInternalsImpl extends OWLDataFactoryInternalsImplNoCa
      * simply the key. As with an interner, each access constructs a new object that is discarded if
      * the key is used. Most annotations will only be used once; however some annotations may be
      * reused extremely frequently. for ontologies in the OBO family, a few annotations will be
-     * reused extremely frequently.
+     * reused extremely frequently. Since keys and values are the same objects, weak values would
+     * never be collected: with a weak interning policy, annotations are cached in a bounded cache.
      */
     //@formatter:off
-    private static final LoadingCache<IRI, OWLAnnotationProperty>   annotationProperties = builder(OWLAnnotationPropertyImpl::new);
-    private static final LoadingCache<OWLAnnotation, OWLAnnotation> annotations =          builder(OWLDataFactoryInternalsImpl::ann);
-    private static final LoadingCache<IRI, OWLClass>                classes =              builder(OWLClassImpl::new);
-    private static final LoadingCache<IRI, OWLObjectProperty>       objectProperties =     builder(OWLObjectPropertyImpl::new);
-    private static final LoadingCache<IRI, OWLDataProperty>         dataProperties =       builder(OWLDataPropertyImpl::new);
-    private static final LoadingCache<IRI, OWLDatatype>             datatypes =            builder(OWLDatatypeImpl::new);
-    private static final LoadingCache<IRI, OWLNamedIndividual>      individuals =          builder(OWLNamedIndividualImpl::new);
+    private final transient LoadingCache<IRI, OWLAnnotationProperty>   annotationProperties;
+    private final transient LoadingCache<OWLAnnotation, OWLAnnotation> annotations;
+    private final transient LoadingCache<IRI, OWLClass>                classes;
+    private final transient LoadingCache<IRI, OWLObjectProperty>       objectProperties;
+    private final transient LoadingCache<IRI, OWLDataProperty>         dataProperties;
+    private final transient LoadingCache<IRI, OWLDatatype>             datatypes;
+    private final transient LoadingCache<IRI, OWLNamedIndividual>      individuals;
     //@formatter:on
+
     /**
+     * Caches are configured according to {@code ConfigurationOptions.ENTITY_CACHE_POLICY},
+     * {@code ConfigurationOptions.ENTITY_CACHE_SIZE} and
+     * {@code ConfigurationOptions.ENTITY_CACHE_STATS}, as set in system properties or in the
+     * configuration file.
+     *
      * @param useCompression true if literals should be compressed
      */
     public OWLDataFactoryInternalsImpl(boolean useCompression) {
+        this(useCompression,
+            ENTITY_CACHE_POLICY.getValue(InterningPolicy.class, Collections.emptyMap()),
+            ENTITY_CACHE_SIZE.getValue(Integer.class, Collections.emptyMap()).intValue(),
+            ENTITY_CACHE_STATS.getValue(Boolean.class, Collections.emptyMap()).booleanValue());
+    }
+
+    /**
+     * @param useCompression true if literals should be compressed
+     * @param policy interning policy for the caches
+     * @param maximumSize maximum size of each cache, for bounded caches
+     * @param recordStats true if the caches should record hit and miss statistics
+     */
+    public OWLDataFactoryInternalsImpl(boolean useCompression, InterningPolicy policy,
+        int maximumSize, boolean recordStats) {
         super(useCompression);
+        InterningPolicy annotationPolicy =
+            policy == InterningPolicy.WEAK ? InterningPolicy.BOUNDED : policy;
+        annotationProperties =
+            builder(OWLAnnotationPropertyImpl::new, policy, maximumSize, recordStats);
+        annotations =
+            builder(OWLDataFactoryInternalsImpl::ann, annotationPolicy, maximumSize, recordStats);
+        classes = builder(OWLClassImpl::new, policy, maximumSize, recordStats);
+        objectProperties = builder(OWLObjectPropertyImpl::new, policy, maximumSize, recordStats);
+        dataProperties = builder(OWLDataPropertyImpl::new, policy, maximumSize, recordStats);
+        datatypes = builder(OWLDatatypeImpl::new, policy, maximumSize, recordStats);
+        individuals = builder(OWLNamedIndividualImpl::new, policy, maximumSize, recordStats);
     }
 
     private static OWLAnnotation ann(OWLAnnotation o) {
         return o;
     }
 
-    private static <F, T> LoadingCache<F, T> builder(CacheLoader<F, T> f) {
-        return Caffeine.newBuilder().maximumSize(2048).build(f);
+    private static <F, T> LoadingCache<F, T> builder(CacheLoader<F, T> f, InterningPolicy policy,
+        int maximumSize, boolean recordStats) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (recordStats) {
+            builder.recordStats();
+        }
+        switch (policy) {
+            case WEAK:
+                builder.weakValues();
+                break;
+            case FULL:
+                break;
+            case BOUNDED:
+            default:
+                builder.maximumSize(maximumSize);
+        }
+        return builder.build(f);
+    }
+
+    /**
+     * @return hit and miss statistics for each cache, by name; all counts are zero unless
+     *         statistics are enabled
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("classes", classes.stats());
+        stats.put("objectProperties", objectProperties.stats());
+        stats.put("dataProperties", dataProperties.stats());
+        stats.put("datatypes", datatypes.stats());
+        stats.put("individuals", individuals.stats());
+        stats.put("annotationProperties", annotationProperties.stats());
+        stats.put("annotations", annotations.stats());
+        return stats;
     }
 
     @Override
@@ -40,6 +40,7 @@ import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnnotationSubject;
 import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLAxiomCollection;
@@ -66,6 +67,7 @@ import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLPrimitive;
+import org.semanticweb.owlapi.model.OntologyConfigurator;
 import org.semanticweb.owlapi.model.parameters.AxiomAnnotations;
 import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.model.parameters.Navigation;
@@ -125,6 +127,17 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
      * @param ontologyID ontology id
      */
     public OWLImmutableOntologyImpl(OWLOntologyManager manager, OWLOntologyID ontologyID) {
+        this(manager, ontologyID, new Internals());
+    }
+
+    /**
+     * @param manager ontology manager
+     * @param ontologyID ontology id
+     * @param ints internals to use for storing and indexing axioms
+     */
+    protected OWLImmutableOntologyImpl(OWLOntologyManager manager, OWLOntologyID ontologyID,
+        Internals ints) {
+        super(checkNotNull(ints, "ints cannot be null"));
         this.manager = checkNotNull(manager, "manager cannot be null");
         this.ontologyID = checkNotNull(ontologyID, "ontologyID cannot be null");
         df = manager.getOWLDataFactory();
@@ -266,8 +279,7 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
 
     @Override
     public Stream<OWLAxiom> axiomsIgnoreAnnotations(OWLAxiom axiom) {
-        return axioms(axiom.getAxiomType()).map(x -> (OWLAxiom) x)
-            .filter(ax -> ax.equalsIgnoreAnnotations(axiom));
+        return ints.getAxiomsIgnoreAnnotations(axiom);
     }
 
     @Override
@@ -275,7 +287,7 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
         if (containsAxiom(axiom)) {
             return true;
         }
-        return axioms(axiom.getAxiomType()).anyMatch(ax -> ax.equalsIgnoreAnnotations(axiom));
+        return ints.containsAxiomIgnoreAnnotations(axiom);
     }
 
     @Override
@@ -500,6 +512,10 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
             // with IRI as subject, annotations with IRI as subject or object.
             entitiesInSignature((IRI) owlEntity)
                 .forEach(e -> OWLAPIStreamUtils.add(axioms, referencingAxioms(e)));
+            if (useLiteralAndIRIIndexes()) {
+                OWLAPIStreamUtils.add(axioms, ints.getIRIReferences((IRI) owlEntity));
+                return axioms.stream();
+            }
             axioms(AxiomType.DATA_PROPERTY_ASSERTION)
                 .filter(ax -> OWL2Datatype.XSD_ANY_URI.matches(ax.getObject().getDatatype()))
                 .filter(ax -> ax.getObject().getLiteral().equals(iriString)).forEach(axioms::add);
@@ -507,6 +523,9 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
                 .forEach(ax -> examineAssertion(owlEntity, axioms, ax));
             return axioms.stream();
         } else if (owlEntity instanceof OWLLiteral) {
+            if (useLiteralAndIRIIndexes()) {
+                return ints.getLiteralReferences((OWLLiteral) owlEntity);
+            }
             Set<OWLAxiom> axioms = new HashSet<>();
             axioms(AxiomType.DATA_PROPERTY_ASSERTION).filter(ax -> ax.getObject().equals(owlEntity))
                 .forEach(axioms::add);
@@ -520,13 +539,64 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
         return empty();
     }
 
+    /**
+     * @return true if the manager configuration asks for literal and IRI lookups to go through
+     *         the indexes in {@link Internals}
+     */
+    protected boolean useLiteralAndIRIIndexes() {
+        OWLOntologyManager m = manager;
+        if (m == null) {
+            return false;
+        }
+        OntologyConfigurator configurator = m.getOntologyConfigurator();
+        return configurator != null && configurator.shouldUseLiteralAndIRIIndexes();
+    }
+
+    @Override
+    public Stream<OWLAnnotationAssertionAxiom> annotationAssertionAxioms(
+        OWLAnnotationSubject entity, OWLAnnotationProperty property) {
+        if (useAnnotationPropertyIndex()) {
+            return ints.getAnnotationAssertionAxioms(entity, property);
+        }
+        return annotationAssertionAxioms(entity).filter(ax -> ax.getProperty().equals(property));
+    }
+
+    /**
+     * The index of annotation assertions by subject and property is built only if the manager
+     * configuration enables it.
+     */
+    @Override
+    public void prewarmIndexes(Collection<? extends AxiomType<?>> types) {
+        super.prewarmIndexes(types);
+        if (types.contains(AxiomType.ANNOTATION_ASSERTION) && useAnnotationPropertyIndex()) {
+            ints.prewarmAnnotationPropertyIndex();
+        }
+    }
+
+    @Override
+    public void freeze() {
+        if (!isFrozen() && useAnnotationPropertyIndex()) {
+            ints.prewarmAnnotationPropertyIndex();
+        }
+        super.freeze();
+    }
+
+    protected boolean useAnnotationPropertyIndex() {
+        OWLOntologyManager m = manager;
+        if (m == null) {
+            return false;
+        }
+        OntologyConfigurator configurator = m.getOntologyConfigurator();
+        return configurator != null && configurator.shouldUseAnnotationPropertyIndex();
+    }
+
     protected boolean hasLiteralInAnnotations(OWLPrimitive owlEntity, OWLAxiom ax) {
         return ax.annotations().anyMatch(a -> a.getValue().equals(owlEntity));
     }
 
     protected void examineAssertion(OWLPrimitive owlEntity, Set<OWLAxiom> axioms,
         OWLAnnotationAssertionAxiom ax) {
-        if (ax.getSubject().equals(owlEntity)) {
+        if (ax.getSubject().equals(owlEntity) || ax.getValue().equals(owlEntity)) {
             axioms.add(ax);
         } else {
             ax.getValue().asLiteral().ifPresent(lit -> {
@@ -539,6 +609,19 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
     }
 
     // OWLAxiomIndex
+    @Override
+    public <T extends OWLAxiom> Stream<T> axioms(Class<T> type,
+        Class<? extends OWLObject> explicitClass, OWLObject entity, Imports imports,
+        Navigation forSubPosition) {
+        if (imports == EXCLUDED) {
+            // look up the index now rather than when the stream is consumed, so that the stream
+            // reads the values present at the time of the call
+            return axioms(type, explicitClass, entity, forSubPosition);
+        }
+        return imports.stream(this)
+            .flatMap(o -> o.axioms(type, explicitClass, entity, forSubPosition));
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <A extends OWLAxiom> Stream<A> axioms(Class<A> type,
@@ -146,6 +146,35 @@ public class OWLOntologyFactoryImpl implements OWLOntologyFactory {
         return ont;
     }
 
+    /**
+     * Parse a document; if pipelined loading is configured and supported by parser and ontology,
+     * the parsed axioms are indexed on a separate thread while parsing continues.
+     */
+    private static OWLDocumentFormat parse(OWLParser parser,
+        OWLOntologyDocumentSource documentSource, OWLOntology ont,
+        OWLOntologyLoaderConfiguration configuration) {
+        int batchSize = configuration.getPipelinedLoadingBatchSize();
+        if (batchSize <= 0 || !parser.supportsPipelinedLoading()
+            || !(ont instanceof HasPipelinedLoading)) {
+            return parser.parse(documentSource, ont, configuration);
+        }
+        HasPipelinedLoading pipelined = (HasPipelinedLoading) ont;
+        pipelined.startPipelinedLoading(batchSize);
+        OWLDocumentFormat format;
+        try {
+            format = parser.parse(documentSource, ont, configuration);
+        } catch (RuntimeException e) {
+            try {
+                pipelined.endPipelinedLoading();
+            } catch (RuntimeException indexingError) {
+                e.addSuppressed(indexingError);
+            }
+            throw e;
+        }
+        pipelined.endPipelinedLoading();
+        return format;
+    }
+
     @Override
     public OWLOntology loadOWLOntology(OWLOntologyManager manager,
         OWLOntologyDocumentSource documentSource, OWLOntologyCreationHandler handler,
@@ -190,7 +219,7 @@ public class OWLOntologyFactoryImpl implements OWLOntologyFactory {
                         ont = createOWLOntology(manager, ontologyID,
                             documentSource.getDocumentIRI(), handler);
                     }
-                    OWLDocumentFormat format = parser.parse(documentSource, ont, configuration);
+                    OWLDocumentFormat format = parse(parser, documentSource, ont, configuration);
                     handler.setOntologyFormat(ont, format);
                     return ont;
                 } catch (UnloadableImportException e) {
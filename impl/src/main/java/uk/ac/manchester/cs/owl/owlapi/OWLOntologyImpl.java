@@ -17,14 +17,20 @@ import static org.semanticweb.owlapi.model.parameters.ChangeApplied.SUCCESSFULLY
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddImport;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.ChangeDetails;
+import org.semanticweb.owlapi.model.ImmutableOWLOntologyChangeException;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLMutableOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyChangeVisitorEx;
@@ -41,7 +47,10 @@ import org.semanticweb.owlapi.model.parameters.ChangeApplied;
  * @since 2.0.0
  */
 public class OWLOntologyImpl extends OWLImmutableOntologyImpl
-    implements OWLMutableOntology, Serializable {
+    implements OWLMutableOntology, HasPipelinedLoading, Serializable {
+
+    @Nullable
+    private transient AxiomPipeline pipeline;
 
     /**
      * @param manager ontology manager
@@ -52,14 +61,77 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
         super(manager, ontologyID);
     }
 
+    /**
+     * @param manager ontology manager
+     * @param ontologyID ontology id
+     * @param concurrentIndexes true if the axiom indexes should allow concurrent readers not to
+     *        block each other; useful only if access to the ontology is guarded by a read/write
+     *        lock, as for ontologies created by
+     *        {@link uk.ac.manchester.cs.owl.owlapi.concurrent.ConcurrentOWLOntologyBuilder}
+     */
+    public OWLOntologyImpl(OWLOntologyManager manager, OWLOntologyID ontologyID,
+        boolean concurrentIndexes) {
+        super(manager, ontologyID, concurrentIndexes ? new ConcurrentInternals() : new Internals());
+    }
+
+    @Override
+    public void startPipelinedLoading(int batchSize, Lock indexingLock) {
+        if (pipeline == null) {
+            pipeline = new AxiomPipeline(ints, batchSize, indexingLock,
+                () -> invalidateOntologyCaches(this));
+        }
+    }
+
+    @Override
+    public void endPipelinedLoading() {
+        AxiomPipeline p = pipeline;
+        if (p != null) {
+            pipeline = null;
+            p.close();
+        }
+    }
+
+    @Override
+    public void flushPipelinedLoading() {
+        AxiomPipeline p = pipeline;
+        if (p != null) {
+            p.flush();
+        }
+    }
+
     @Override
     public ChangeApplied applyDirectChange(OWLOntologyChange change) {
+        checkNotFrozen(change);
+        AxiomPipeline p = pipeline;
+        if (p != null && change.isAddAxiom()) {
+            return p.add(change.getAxiom()) ? SUCCESSFULLY : NO_OPERATION;
+        }
+        flushPipelinedLoading();
         OWLOntologyChangeFilter changeFilter = new OWLOntologyChangeFilter();
         return change.accept(changeFilter);
     }
 
     @Override
     public ChangeDetails applyChangesAndGetDetails(List<? extends OWLOntologyChange> changes) {
+        if (!changes.isEmpty()) {
+            checkNotFrozen(changes.get(0));
+        }
+        AxiomPipeline p = pipeline;
+        if (p != null && changes.stream().allMatch(OWLOntologyChange::isAddAxiom)) {
+            List<OWLOntologyChange> enactedChanges = new ArrayList<>(changes.size());
+            for (OWLOntologyChange change : changes) {
+                if (p.add(change.getAxiom())) {
+                    enactedChanges.add(change);
+                }
+            }
+            ChangeApplied result = !enactedChanges.isEmpty()
+                && enactedChanges.size() == changes.size() ? SUCCESSFULLY : NO_OPERATION;
+            return new ChangeDetails(result, enactedChanges);
+        }
+        flushPipelinedLoading();
+        if (changes.size() > 1 && changes.stream().allMatch(OWLOntologyChange::isAddAxiom)) {
+            return addAxiomsInBulk(changes);
+        }
         List<OWLOntologyChange> enactedChanges = new ArrayList<>();
         ChangeApplied appliedChanges = SUCCESSFULLY;
         OWLOntologyChangeFilter changeFilter = new OWLOntologyChangeFilter();
@@ -78,6 +150,39 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
         return new ChangeDetails(appliedChanges, enactedChanges);
     }
 
+    private void checkNotFrozen(OWLOntologyChange change) {
+        if (ints.isFrozen()) {
+            throw new ImmutableOWLOntologyChangeException(change.getChangeData(), toString());
+        }
+    }
+
+    /**
+     * Apply a list of axiom additions through {@link Internals#addAxioms(java.util.Collection)},
+     * which builds the reference indexes in parallel for large lists.
+     *
+     * @param changes axiom additions
+     * @return change details
+     */
+    protected ChangeDetails addAxiomsInBulk(List<? extends OWLOntologyChange> changes) {
+        List<OWLAxiom> axioms = new ArrayList<>(changes.size());
+        changes.forEach(c -> axioms.add(c.getAxiom()));
+        Set<OWLAxiom> added = new HashSet<>(ints.addAxioms(axioms));
+        if (added.isEmpty()) {
+            return new ChangeDetails(NO_OPERATION, new ArrayList<>());
+        }
+        invalidateOntologyCaches(this);
+        List<OWLOntologyChange> enactedChanges = new ArrayList<>(added.size());
+        for (OWLOntologyChange change : changes) {
+            // the same axiom might appear in more than one change; only the first is enacted
+            if (added.remove(change.getAxiom())) {
+                enactedChanges.add(change);
+            }
+        }
+        ChangeApplied result =
+            enactedChanges.size() == changes.size() ? SUCCESSFULLY : NO_OPERATION;
+        return new ChangeDetails(result, enactedChanges);
+    }
+
     protected class OWLOntologyChangeFilter
         implements OWLOntologyChangeVisitorEx<ChangeApplied>, Serializable {
 
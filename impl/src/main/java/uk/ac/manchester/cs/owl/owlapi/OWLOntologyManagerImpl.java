@@ -61,6 +61,7 @@ import org.semanticweb.owlapi.io.StreamDocumentTarget;
 import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddImport;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.AsynchronousChangeBroadcastStrategy;
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.ChangeDetails;
 import org.semanticweb.owlapi.model.DefaultChangeBroadcastStrategy;
@@ -125,7 +126,9 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
+import uk.ac.manchester.cs.owl.owlapi.concurrent.ConcurrentOWLOntologyImpl;
 import uk.ac.manchester.cs.owl.owlapi.concurrent.ConcurrentPriorityCollection;
+import uk.ac.manchester.cs.owl.owlapi.concurrent.NoOpReadWriteLock;
 
 /**
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics Group
@@ -160,6 +163,7 @@ public class OWLOntologyManagerImpl
     private final AtomicBoolean broadcastChanges = new AtomicBoolean(true);
     private final Lock readLock;
     private final Lock writeLock;
+    private final boolean noOpLock;
     protected OWLOntologyChangeBroadcastStrategy defaultChangeBroadcastStrategy =
         new DefaultChangeBroadcastStrategy();
     protected ImpendingOWLOntologyChangeBroadcastStrategy defaultImpendingChangeBroadcastStrategy =
@@ -172,6 +176,11 @@ public class OWLOntologyManagerImpl
     private OntologyConfigurator configProvider = new OntologyConfigurator();
     private transient Optional<OWLOntologyLoaderConfiguration> loaderConfig = emptyOptional();
     private transient Optional<OWLOntologyWriterConfiguration> writerConfig = emptyOptional();
+    @Nullable
+    private transient ParallelImportsLoader importsLoader;
+    @Nullable
+    private transient ParallelImportsLoader.ParsedImport parsedImport;
+    private transient int adoptingImports = 0;
 
     /**
      * @param dataFactory data factory
@@ -192,6 +201,7 @@ public class OWLOntologyManagerImpl
         this.dataFactory = checkNotNull(dataFactory, "dataFactory cannot be null");
         readLock = readWriteLock.readLock();
         writeLock = readWriteLock.writeLock();
+        noOpLock = readWriteLock instanceof NoOpReadWriteLock;
         documentMappers = new ConcurrentPriorityCollection<>(readWriteLock, sorting);
         ontologyFactories = new ConcurrentPriorityCollection<>(readWriteLock, sorting);
         parserFactories = new ConcurrentPriorityCollection<>(readWriteLock, sorting);
@@ -452,6 +462,20 @@ public class OWLOntologyManagerImpl
     @Override
     @Nullable
     public OWLOntology getImportedOntology(OWLImportsDeclaration declaration) {
+        ParallelImportsLoader.ParsedImport parse = parsedImport;
+        if (parse != null) {
+            // private manager of a parallel load: imports are parsed by other threads
+            OWLOntology imported = verifyNotNull(importsLoader).imported(parse,
+                declaration.getIRI());
+            if (imported != null) {
+                // no cache reset: this can be called while the imports closure is computed
+                ontologiesByID.putIfAbsent(imported.getOntologyID(), imported);
+            }
+            return imported;
+        }
+        if (importsLoader != null && adoptingImports == 0) {
+            adoptParsedImports();
+        }
         readLock.lock();
         try {
             OWLOntologyID ontologyID = ontologyIDsByImportsDeclaration.get(declaration);
@@ -598,7 +622,7 @@ public class OWLOntologyManagerImpl
 
     @Override
     public ChangeDetails applyChangesAndGetDetails(List<? extends OWLOntologyChange> changes) {
-        writeLock.lock();
+        Lock lock = lockForChanges(changes);
         try {
             broadcastImpendingChanges(changes);
             AtomicBoolean rollbackRequested = new AtomicBoolean(false);
@@ -626,8 +650,51 @@ public class OWLOntologyManagerImpl
             broadcastOntologyChangesVetoed(changes, e);
             return new ChangeDetails(ChangeApplied.UNSUCCESSFULLY, Collections.emptyList());
         } finally {
-            writeLock.unlock();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquire the lock needed to apply a list of changes. Changes to a single ontology that has
+     * its own lock, and that do not change its ID or its imports, only need the lock of that
+     * ontology, which includes the manager read lock; all other changes need the manager write
+     * lock.
+     *
+     * @param changes changes to apply
+     * @return the acquired lock
+     */
+    private Lock lockForChanges(List<? extends OWLOntologyChange> changes) {
+        Lock lock = ontologyLock(changes);
+        if (lock != null) {
+            lock.lock();
+            // the ontology might have been removed before the lock was acquired
+            if (lock == ontologyLock(changes)) {
+                return lock;
+            }
+            lock.unlock();
         }
+        writeLock.lock();
+        return writeLock;
+    }
+
+    @Nullable
+    private Lock ontologyLock(List<? extends OWLOntologyChange> changes) {
+        // listeners expect the manager write lock unless per ontology locks are enabled
+        if (changes.isEmpty() || !configProvider.shouldUsePerOntologyLocks()) {
+            return null;
+        }
+        OWLOntology ontology = changes.get(0).getOntology();
+        for (OWLOntologyChange change : changes) {
+            if (change.getOntology() != ontology || change.isImportChange()
+                || change instanceof SetOntologyID) {
+                return null;
+            }
+        }
+        OWLOntology registered = ontologiesByID.get(ontology.getOntologyID());
+        if (registered instanceof ConcurrentOWLOntologyImpl) {
+            return ((ConcurrentOWLOntologyImpl) registered).getOwnWriteLock(ontology);
+        }
+        return null;
     }
 
     protected void actuallyApply(List<? extends OWLOntologyChange> changes,
@@ -1017,6 +1084,13 @@ public class OWLOntologyManagerImpl
     protected OWLOntology loadOntology(@Nullable IRI ontologyIRI,
         OWLOntologyDocumentSource documentSource, OWLOntologyLoaderConfiguration configuration)
         throws OWLOntologyCreationException {
+        if (!noOpLock && configuration.getImportsLoadingThreads() > 1) {
+            // the parsing threads would create ontologies sharing the write lock held by this
+            // thread for the whole load
+            throw new OWLOntologyCreationException(
+                "Imports cannot be loaded in parallel by a manager with a read/write lock;"
+                    + " set the imports loading threads to 1");
+        }
         writeLock.lock();
         try {
             if (loadCount.get() != importsLoadCount.get()) {
@@ -1048,6 +1122,7 @@ public class OWLOntologyManagerImpl
                 if (loadCount.decrementAndGet() == 0) {
                     broadcastChanges.set(true);
                     // Completed loading ontology and imports
+                    closeImportsLoader();
                 }
                 fireFinishedLoadingEvent(idOfLoadedOntology, documentSource.getDocumentIRI(),
                     loadCount.get() > 0, ex);
@@ -1069,6 +1144,9 @@ public class OWLOntologyManagerImpl
                     // when the ontology is created.
                     OWLOntology ontology =
                         factory.loadOWLOntology(this, documentSource, this, configuration);
+                    if (importsLoader != null && parsedImport == null && adoptingImports == 0) {
+                        adoptParsedImports();
+                    }
                     if (configuration.shouldRepairIllegalPunnings()) {
                         fixIllegalPunnings(ontology);
                     }
@@ -1490,7 +1568,8 @@ public class OWLOntologyManagerImpl
      * @param changes The ontology changes to broadcast
      */
     protected void broadcastChanges(List<? extends OWLOntologyChange> changes) {
-        writeLock.lock();
+        Lock lock = listenerLock();
+        lock.lock();
         try {
             if (!broadcastChanges.get()) {
                 return;
@@ -1514,12 +1593,25 @@ public class OWLOntologyManagerImpl
                 }
             }
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
+    /**
+     * Listeners are notified holding the manager write lock. With per ontology locks, changes to
+     * an ontology with its own lock are applied holding only the manager read lock, which cannot
+     * be upgraded; listeners are then notified holding the read lock, and may be notified
+     * concurrently of changes to different ontologies.
+     *
+     * @return the lock to hold while notifying listeners
+     */
+    private Lock listenerLock() {
+        return configProvider.shouldUsePerOntologyLocks() ? readLock : writeLock;
+    }
+
     protected void broadcastImpendingChanges(List<? extends OWLOntologyChange> changes) {
-        writeLock.lock();
+        Lock lock = listenerLock();
+        lock.lock();
         try {
             if (!broadcastChanges.get()) {
                 return;
@@ -1533,12 +1625,13 @@ public class OWLOntologyManagerImpl
                 }
             }
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void setDefaultChangeBroadcastStrategy(OWLOntologyChangeBroadcastStrategy strategy) {
+        checkBroadcastStrategy(strategy);
         writeLock.lock();
         try {
             defaultChangeBroadcastStrategy = strategy;
@@ -1550,6 +1643,7 @@ public class OWLOntologyManagerImpl
     @Override
     public void addOntologyChangeListener(OWLOntologyChangeListener listener,
         OWLOntologyChangeBroadcastStrategy strategy) {
+        checkBroadcastStrategy(strategy);
         writeLock.lock();
         try {
             listenerMap.put(listener, strategy);
@@ -1558,6 +1652,13 @@ public class OWLOntologyManagerImpl
         }
     }
 
+    private void checkBroadcastStrategy(OWLOntologyChangeBroadcastStrategy strategy) {
+        if (noOpLock && strategy instanceof AsynchronousChangeBroadcastStrategy) {
+            LOGGER.warn("Asynchronous change broadcast used with a manager without locks: "
+                + "listeners might read ontologies while they change. Use a concurrent manager.");
+        }
+    }
+
     @Override
     public void addImpendingOntologyChangeListener(ImpendingOWLOntologyChangeListener listener) {
         writeLock.lock();
@@ -1610,11 +1711,12 @@ public class OWLOntologyManagerImpl
 
     private void broadcastOntologyChangesVetoed(List<? extends OWLOntologyChange> changes,
         OWLOntologyChangeVetoException veto) {
-        writeLock.lock();
+        Lock lock = listenerLock();
+        lock.lock();
         try {
             new ArrayList<>(vetoListeners).forEach(l -> l.ontologyChangesVetoed(changes, veto));
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
@@ -1627,7 +1729,7 @@ public class OWLOntologyManagerImpl
             importsLoadCount.incrementAndGet();
             OWLOntology ont = null;
             try {
-                ont = loadOntology(declaration.getIRI(), true, configuration);
+                ont = loadImportedOntology(declaration.getIRI(), configuration);
             } catch (OWLOntologyCreationException e) {
                 if (configuration
                     .getMissingImportHandlingStrategy() == MissingImportHandlingStrategy.THROW_EXCEPTION) {
@@ -1666,15 +1768,8 @@ public class OWLOntologyManagerImpl
             if (!configuration.isIgnoredImport(iri) && !importedIRIs.containsKey(iri)) {
                 // insert temporary value - we do not know the actual ID yet
                 importedIRIs.put(iri, new Object());
-                try {
-                    OWLOntology ont = loadImports(declaration, configuration);
-                    if (ont != null) {
-                        ontologyIDsByImportsDeclaration.put(declaration, ont.getOntologyID());
-                        importedIRIs.put(iri, ont.getOntologyID());
-                    }
-                } catch (OWLOntologyCreationException e) {
-                    // Wrap as UnloadableImportException and throw
-                    throw new UnloadableImportException(e, declaration);
+                if (!deferImport(declaration, configuration)) {
+                    loadImport(declaration, configuration);
                 }
             }
         } finally {
@@ -1682,6 +1777,159 @@ public class OWLOntologyManagerImpl
         }
     }
 
+    private void loadImport(OWLImportsDeclaration declaration,
+        OWLOntologyLoaderConfiguration configuration) {
+        try {
+            OWLOntology ont = loadImports(declaration, configuration);
+            if (ont != null) {
+                ontologyIDsByImportsDeclaration.put(declaration, ont.getOntologyID());
+                importedIRIs.put(declaration.getIRI(), ont.getOntologyID());
+            }
+        } catch (OWLOntologyCreationException e) {
+            // Wrap as UnloadableImportException and throw
+            throw new UnloadableImportException(e, declaration);
+        }
+    }
+
+    /**
+     * Hand an import over to the parallel imports loader, if the loader configuration asks for
+     * more than one imports loading thread. Imports requested while parsing are only parsed; they
+     * are adopted when the parser reads the imports closure, or when parsing ends.
+     *
+     * @return true if the import will be loaded by the parallel imports loader
+     */
+    private boolean deferImport(OWLImportsDeclaration declaration,
+        OWLOntologyLoaderConfiguration configuration) {
+        ParallelImportsLoader.ParsedImport parse = parsedImport;
+        if (parse != null) {
+            // private manager of a parallel load: the import is parsed by another thread
+            parse.imports.add(declaration);
+            verifyNotNull(importsLoader).parse(declaration.getIRI(), configuration);
+            return true;
+        }
+        if (adoptingImports > 0 || loadCount.get() == 0
+            || configuration.getImportsLoadingThreads() < 2) {
+            return false;
+        }
+        IRI iri = declaration.getIRI();
+        if (ids().anyMatch(id -> id.match(iri))) {
+            return false;
+        }
+        ParallelImportsLoader loader = importsLoader;
+        if (loader == null) {
+            loader = new ParallelImportsLoader(this, configuration.getImportsLoadingThreads());
+            importsLoader = loader;
+        }
+        loader.request(declaration, configuration);
+        return true;
+    }
+
+    /**
+     * Adopt the imports requested while parsing, depth first and in request order.
+     */
+    private void adoptParsedImports() {
+        ParallelImportsLoader loader = verifyNotNull(importsLoader);
+        adoptingImports++;
+        try {
+            for (ParallelImportsLoader.Request r = loader.next(); r != null; r = loader.next()) {
+                loadImport(r.declaration, r.configuration);
+            }
+        } finally {
+            adoptingImports--;
+        }
+    }
+
+    private void closeImportsLoader() {
+        ParallelImportsLoader loader = importsLoader;
+        // a private manager does not own the loader it reports imports to
+        if (loader != null && parsedImport == null) {
+            importsLoader = null;
+            // imports not adopted because loading failed can be requested again
+            loader.close().forEach(r -> importedIRIs.remove(r.declaration.getIRI()));
+        }
+    }
+
+    /**
+     * @param loader parallel imports loader parsing the imports found by this manager
+     * @param parse outcome of the parse done by this manager
+     */
+    void parseImportsWith(ParallelImportsLoader loader, ParallelImportsLoader.ParsedImport parse) {
+        importsLoader = loader;
+        parsedImport = parse;
+    }
+
+    @Nullable
+    private OWLOntology loadImportedOntology(IRI iri, OWLOntologyLoaderConfiguration configuration)
+        throws OWLOntologyCreationException {
+        ParallelImportsLoader loader = importsLoader;
+        if (loader != null && parsedImport == null) {
+            OWLOntology ont = adoptParsedImport(loader, iri, configuration);
+            if (ont != null) {
+                return ont;
+            }
+        }
+        return loadOntology(iri, true, configuration);
+    }
+
+    /**
+     * Add an ontology parsed by the parallel imports loader to this manager, with the same checks
+     * and events as {@link #loadOntology(IRI, boolean, OWLOntologyLoaderConfiguration)}.
+     *
+     * @return the imported ontology, or null if it must be loaded by this manager
+     */
+    @Nullable
+    private OWLOntology adoptParsedImport(ParallelImportsLoader loader, IRI iri,
+        OWLOntologyLoaderConfiguration configuration) throws OWLOntologyCreationException {
+        java.util.Optional<OWLOntologyID> loaded = ids().filter(o -> o.match(iri)).findAny();
+        if (loaded.isPresent()) {
+            return ontologiesByID.get(loaded.get());
+        }
+        ParallelImportsLoader.ParsedImport parse = loader.parsed(iri);
+        if (parse == null) {
+            return null;
+        }
+        OWLOntologyCreationException error = parse.error;
+        if (error != null) {
+            throw error;
+        }
+        OWLOntology ont = verifyNotNull(parse.ontology);
+        OWLOntology existing = ontologiesByID.get(ont.getOntologyID());
+        if (existing == null) {
+            existing = loadOntologyByDocumentIRI(parse.documentIRI);
+        }
+        if (existing != null || parse.importsRead) {
+            return existing;
+        }
+        // parsing threads may still be reading the ontology
+        loader.awaitParses();
+        adoptingImports++;
+        fireStartedLoadingEvent(new OWLOntologyID(optional(iri), emptyOptional()),
+            parse.documentIRI, true);
+        Exception ex = null;
+        try {
+            ont.setOWLOntologyManager(this);
+            addOntology(ont);
+            OWLOntologyID id = ont.getOntologyID();
+            documentIRIsByID.put(id, parse.documentIRI);
+            ontologyConfigurationsByOntologyID.put(id, configuration);
+            OWLDocumentFormat format = parse.format;
+            if (format != null) {
+                ontologyFormatsByOntology.put(id, format);
+            }
+            parse.imports.forEach(d -> makeLoadImportRequest(d, configuration));
+            if (configuration.shouldRepairIllegalPunnings()) {
+                fixIllegalPunnings(ont);
+            }
+            return ont;
+        } catch (UnloadableImportException e) {
+            ex = e;
+            throw e;
+        } finally {
+            adoptingImports--;
+            fireFinishedLoadingEvent(ont.getOntologyID(), parse.documentIRI, true, ex);
+        }
+    }
+
     @Override
     public void addMissingImportListener(MissingImportListener listener) {
         writeLock.lock();
@@ -1779,7 +2027,8 @@ public class OWLOntologyManagerImpl
     }
 
     protected void fireBeginChanges(int size) {
-        writeLock.lock();
+        Lock lock = listenerLock();
+        lock.lock();
         try {
             if (!broadcastChanges.get()) {
                 return;
@@ -1793,12 +2042,13 @@ public class OWLOntologyManagerImpl
                 }
             }
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
     protected void fireEndChanges() {
-        writeLock.lock();
+        Lock lock = listenerLock();
+        lock.lock();
         try {
             if (!broadcastChanges.get()) {
                 return;
@@ -1812,12 +2062,13 @@ public class OWLOntologyManagerImpl
                 }
             }
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
     protected void fireChangeApplied(OWLOntologyChange change) {
-        writeLock.lock();
+        Lock lock = listenerLock();
+        lock.lock();
         try {
             if (!broadcastChanges.get()) {
                 return;
@@ -1834,7 +2085,7 @@ public class OWLOntologyManagerImpl
                 }
             }
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 }
@@ -0,0 +1,291 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.io.IRIDocumentSource;
+import org.semanticweb.owlapi.io.OWLParserFactory;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyFactory;
+import org.semanticweb.owlapi.model.OWLOntologyIRIMapper;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.model.OntologyConfigurator;
+
+import uk.ac.manchester.cs.owl.owlapi.concurrent.NoOpReadWriteLock;
+
+/**
+ * Loads the imports closure of an ontology on a pool of threads. Each imported document is parsed
+ * by a private manager as soon as an imports declaration for it is found; the private manager does
+ * not follow imports, it passes them back to this loader, so that every document in the closure is
+ * parsed once, whichever ontology imports it. The loading manager adopts the parsed ontologies on
+ * its own thread, depth first and in the order in which the imports were requested, which is the
+ * order of a sequential load.
+ * <p>
+ * A parser reading the imports closure, as the RDF parsers do to type the entities declared in
+ * imported ontologies, waits for the imported documents to be parsed and reads the parsed
+ * ontologies, before their illegal punnings are repaired. A parse that would wait for itself
+ * through a cycle of imports, or that read an import which could not be parsed this way, cannot be
+ * adopted: the loading manager parses those documents again, once their imports have been adopted.
+ * Parses not started yet are run by the thread waiting for them, so that waiting threads do not
+ * starve the pool.
+ *
+ * @since 5.1.8
+ */
+final class ParallelImportsLoader {
+
+    private final OWLOntologyManagerImpl manager;
+    private final OntologyConfigurator configurator;
+    private final List<OWLOntologyFactory> factories;
+    private final List<OWLParserFactory> parsers;
+    private final List<OWLOntologyIRIMapper> mappers;
+    private final ExecutorService pool;
+    private final Map<IRI, FutureTask<ParsedImport>> parses = new ConcurrentHashMap<>();
+    /** Imported IRI each parse is waiting for; guards itself. */
+    private final Map<IRI, IRI> waits = new HashMap<>();
+    private final Deque<Request> requests = new ArrayDeque<>();
+
+    /**
+     * @param manager manager adopting the imported ontologies
+     * @param threads number of parsing threads
+     */
+    ParallelImportsLoader(OWLOntologyManagerImpl manager, int threads) {
+        this.manager = manager;
+        configurator = manager.getOntologyConfigurator();
+        // copied on the loading thread, so that the parsing threads never access the manager
+        factories = copy(manager.ontologyFactories);
+        parsers = copy(manager.parserFactories);
+        mappers = copy(manager.documentMappers);
+        pool = Executors.newFixedThreadPool(threads);
+    }
+
+    private static <T> List<T> copy(Iterable<T> c) {
+        List<T> list = new ArrayList<>();
+        c.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Start parsing an import, and queue it for adoption. Called on the loading thread.
+     *
+     * @param declaration imports declaration
+     * @param configuration loader configuration
+     */
+    void request(OWLImportsDeclaration declaration, OWLOntologyLoaderConfiguration configuration) {
+        parse(declaration.getIRI(), configuration);
+        requests.add(new Request(declaration, configuration));
+    }
+
+    /**
+     * @return the next import waiting for adoption, or null if there is none
+     */
+    @Nullable
+    Request next() {
+        return requests.poll();
+    }
+
+    /**
+     * Start parsing an import, unless it has already been started.
+     *
+     * @param iri imported IRI
+     * @param configuration loader configuration
+     */
+    void parse(IRI iri, OWLOntologyLoaderConfiguration configuration) {
+        parses.computeIfAbsent(iri, i -> {
+            FutureTask<ParsedImport> task = new FutureTask<>(() -> load(i, configuration));
+            pool.execute(task);
+            return task;
+        });
+    }
+
+    /**
+     * @param iri imported IRI
+     * @return the result of parsing the import, waiting for it if needed, or null if the import
+     *         has not been parsed by this loader
+     */
+    @Nullable
+    ParsedImport parsed(IRI iri) {
+        FutureTask<ParsedImport> f = parses.get(iri);
+        if (f == null) {
+            return null;
+        }
+        return get(f);
+    }
+
+    /**
+     * Wait for the parses started so far, and for the ones they start, so that no parsing thread
+     * reads the parsed ontologies while they are adopted.
+     */
+    void awaitParses() {
+        int started;
+        do {
+            List<FutureTask<ParsedImport>> tasks = new ArrayList<>(parses.values());
+            started = tasks.size();
+            tasks.forEach(ParallelImportsLoader::get);
+        } while (parses.size() > started);
+    }
+
+    /**
+     * Called by the private manager of a parse when its parser reads an imported ontology.
+     *
+     * @param waiter parse reading the import
+     * @param iri imported IRI
+     * @return the imported ontology, once parsed, or null if it cannot be read; in that case, the
+     *         waiting parse is marked as having read an incomplete imports closure, unless the
+     *         import has not been requested from this loader
+     */
+    @Nullable
+    OWLOntology imported(ParsedImport waiter, IRI iri) {
+        FutureTask<ParsedImport> f = parses.get(iri);
+        if (f == null) {
+            return null;
+        }
+        synchronized (waits) {
+            for (IRI i = iri; i != null; i = waits.get(i)) {
+                if (i.equals(waiter.iri)) {
+                    // the import is waiting for this parse
+                    waiter.importsRead = true;
+                    return null;
+                }
+            }
+            waits.put(waiter.iri, iri);
+        }
+        ParsedImport parsed;
+        try {
+            parsed = get(f);
+        } finally {
+            synchronized (waits) {
+                waits.remove(waiter.iri);
+            }
+        }
+        if (parsed.ontology == null || parsed.importsRead) {
+            waiter.importsRead = true;
+            return null;
+        }
+        return parsed.ontology;
+    }
+
+    private static ParsedImport get(FutureTask<ParsedImport> f) {
+        // no-op if the task has been started by another thread
+        f.run();
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new OWLRuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Stop the parsing threads and drop the imports not adopted yet.
+     *
+     * @return the imports that were waiting for adoption
+     */
+    List<Request> close() {
+        pool.shutdownNow();
+        List<Request> list = new ArrayList<>(requests);
+        requests.clear();
+        return list;
+    }
+
+    private ParsedImport load(IRI iri, OWLOntologyLoaderConfiguration configuration) {
+        ParsedImport parsed = new ParsedImport(iri, documentIRI(iri));
+        OWLOntologyManagerImpl m =
+            new OWLOntologyManagerImpl(manager.getOWLDataFactory(), new NoOpReadWriteLock());
+        m.setOntologyConfigurator(configurator);
+        m.ontologyFactories.set(factories);
+        m.parserFactories.set(parsers);
+        m.parseImportsWith(this, parsed);
+        try {
+            // punnings are repaired once the imports closure is complete
+            OWLOntology o = m.loadOntologyFromOntologyDocument(
+                new IRIDocumentSource(parsed.documentIRI, null, null),
+                configuration.setRepairIllegalPunnings(false));
+            parsed.ontology = o;
+            parsed.format = m.getOntologyFormat(o);
+        } catch (OWLOntologyCreationException e) {
+            parsed.error = e;
+        }
+        return parsed;
+    }
+
+    private IRI documentIRI(IRI iri) {
+        // mappers, such as AutoIRIMapper, are not meant to be used by more than one thread
+        synchronized (mappers) {
+            for (OWLOntologyIRIMapper mapper : mappers) {
+                IRI documentIRI = mapper.getDocumentIRI(iri);
+                if (documentIRI != null) {
+                    return documentIRI;
+                }
+            }
+        }
+        return iri;
+    }
+
+    /**
+     * An import waiting to be adopted by the loading manager.
+     */
+    static final class Request {
+
+        final OWLImportsDeclaration declaration;
+        final OWLOntologyLoaderConfiguration configuration;
+
+        Request(OWLImportsDeclaration declaration, OWLOntologyLoaderConfiguration configuration) {
+            this.declaration = declaration;
+            this.configuration = configuration;
+        }
+    }
+
+    /**
+     * The outcome of parsing an imported document with a private manager.
+     */
+    static final class ParsedImport {
+
+        final IRI iri;
+        final IRI documentIRI;
+        /** Imports declarations found by the parser, in order. */
+        final List<OWLImportsDeclaration> imports = new ArrayList<>();
+        /** True if the parser read an incomplete imports closure. */
+        boolean importsRead;
+        @Nullable
+        OWLOntology ontology;
+        @Nullable
+        OWLDocumentFormat format;
+        @Nullable
+        OWLOntologyCreationException error;
+
+        ParsedImport(IRI iri, IRI documentIRI) {
+            this.iri = iri;
+            this.documentIRI = documentIRI;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyBuilder;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OntologyConfigurator;
 
 /**
  * Matthew Horridge Stanford Center for Biomedical Informatics Research 10/04/15
@@ -30,7 +31,27 @@ public class ConcurrentOWLOntologyBuilder implements OWLOntologyBuilder {
 
     @Override
     public OWLOntology createOWLOntology(OWLOntologyManager manager, OWLOntologyID ontologyID) {
-        OWLOntology owlOntology = builder.createOWLOntology(manager, ontologyID);
+        // readers are guarded by the read lock only, so the indexes must not serialize them
+        OWLOntology owlOntology =
+            builder.createOWLOntology(manager, ontologyID, useConcurrentIndexes(manager));
+        if (usePerOntologyLocks(manager)) {
+            return new ConcurrentOWLOntologyImpl(owlOntology,
+                new PerOntologyReadWriteLock(readWriteLock));
+        }
         return new ConcurrentOWLOntologyImpl(owlOntology, readWriteLock);
     }
+
+    private static boolean useConcurrentIndexes(OWLOntologyManager manager) {
+        OntologyConfigurator configurator = manager.getOntologyConfigurator();
+        return configurator != null && configurator.shouldUseConcurrentIndexes();
+    }
+
+    private boolean usePerOntologyLocks(OWLOntologyManager manager) {
+        if (readWriteLock instanceof NoOpReadWriteLock) {
+            // nothing to gain without locking
+            return false;
+        }
+        OntologyConfigurator configurator = manager.getOntologyConfigurator();
+        return configurator != null && configurator.shouldUsePerOntologyLocks();
+    }
 }
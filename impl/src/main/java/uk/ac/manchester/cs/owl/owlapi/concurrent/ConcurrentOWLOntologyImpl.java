@@ -18,8 +18,11 @@ import java.io.OutputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -109,6 +112,9 @@ import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.model.parameters.Navigation;
 import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
 
+import uk.ac.manchester.cs.owl.owlapi.HasFreeze;
+import uk.ac.manchester.cs.owl.owlapi.HasPipelinedLoading;
+import uk.ac.manchester.cs.owl.owlapi.HasPrewarmIndexes;
 import uk.ac.manchester.cs.owl.owlapi.HasTrimToSize;
 
 /**
@@ -121,11 +127,38 @@ import uk.ac.manchester.cs.owl.owlapi.HasTrimToSize;
  * Matthew Horridge Stanford Center for Biomedical Informatics Research 03/04/15
  */
 @SuppressWarnings({"deprecation"})
-public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToSize {
+public class ConcurrentOWLOntologyImpl
+    implements OWLMutableOntology, HasTrimToSize, HasPrewarmIndexes, HasFreeze,
+    HasPipelinedLoading {
 
     private final OWLOntology delegate;
     private final Lock readLock;
+    /**
+     * Read lock for the ontology ID and manager, which do not depend on the axioms: unlike
+     * {@link #readLock}, it does not wait for pipelined axioms to be indexed.
+     */
+    private final Lock idReadLock;
     private final Lock writeLock;
+    /**
+     * Lock held while changes are passed to the manager; the manager locks an ontology with its
+     * own lock when the changes are applied.
+     */
+    private final Lock changeLock;
+    private final boolean ownLock;
+    /**
+     * True while loading is pipelined; only changed by the thread holding the write lock.
+     */
+    private boolean pipelined = false;
+    /**
+     * Thread that started pipelined loading; only changed by the thread holding the write lock.
+     */
+    @Nullable
+    private Thread loadingThread;
+    /**
+     * While loading is pipelined, batches of axioms are indexed holding the write lock, and reads
+     * hold the read lock, so that reads see the ontology between batches.
+     */
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
 
     /**
      * Constructs a ConcurrentOWLOntology that provides concurrent access to a delegate
@@ -140,8 +173,26 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
     public ConcurrentOWLOntologyImpl(OWLOntology delegate, ReadWriteLock readWriteLock) {
         this.delegate = verifyNotNull(delegate);
         verifyNotNull(readWriteLock);
-        readLock = readWriteLock.readLock();
+        idReadLock = readWriteLock.readLock();
+        readLock = new FlushingReadLock(idReadLock);
         writeLock = readWriteLock.writeLock();
+        ownLock = readWriteLock instanceof PerOntologyReadWriteLock;
+        changeLock = ownLock ? new NoOpReadWriteLock().writeLock() : writeLock;
+    }
+
+    /**
+     * @param ontology ontology targeted by a list of changes
+     * @return the write lock of this ontology, if this ontology does not share the lock of its
+     *         manager and the changes target this ontology or its delegate; null otherwise. The
+     *         lock includes the read lock of the manager.
+     * @since 5.1.8
+     */
+    @Nullable
+    public Lock getOwnWriteLock(OWLOntology ontology) {
+        if (ownLock && (ontology == this || ontology == delegate)) {
+            return writeLock;
+        }
+        return null;
     }
 
     @Override
@@ -151,10 +202,100 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
 
     @Override
     public void trimToSize() {
+        trimToSizeAndEstimate();
+    }
+
+    @Override
+    public long trimToSizeAndEstimate() {
         writeLock.lock();
         try {
             if (delegate instanceof HasTrimToSize) {
-                ((HasTrimToSize) delegate).trimToSize();
+                return ((HasTrimToSize) delegate).trimToSizeAndEstimate();
+            }
+            return 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void prewarmIndexes(Collection<? extends AxiomType<?>> types) {
+        // building lazy indexes is allowed under the read lock, as for any lookup
+        readLock.lock();
+        try {
+            if (delegate instanceof HasPrewarmIndexes) {
+                ((HasPrewarmIndexes) delegate).prewarmIndexes(types);
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void freeze() {
+        writeLock.lock();
+        try {
+            if (delegate instanceof HasFreeze) {
+                ((HasFreeze) delegate).freeze();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return delegate instanceof HasFreeze && ((HasFreeze) delegate).isFrozen();
+    }
+
+    /**
+     * {@inheritDoc} Each batch is indexed holding a lock that reads wait for, so that other
+     * threads can read the axioms indexed so far without waiting for loading to end; reads on the
+     * loading thread first index the queued axioms.
+     */
+    @Override
+    public void startPipelinedLoading(int batchSize) {
+        startPipelinedLoading(batchSize, indexLock.writeLock());
+    }
+
+    /**
+     * {@inheritDoc} Reads only wait for batches indexed holding the lock used by
+     * {@link #startPipelinedLoading(int)}.
+     */
+    @Override
+    public void startPipelinedLoading(int batchSize, Lock indexingLock) {
+        writeLock.lock();
+        try {
+            if (!pipelined && delegate instanceof HasPipelinedLoading) {
+                ((HasPipelinedLoading) delegate).startPipelinedLoading(batchSize, indexingLock);
+                pipelined = true;
+                loadingThread = Thread.currentThread();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void flushPipelinedLoading() {
+        writeLock.lock();
+        try {
+            if (pipelined) {
+                ((HasPipelinedLoading) delegate).flushPipelinedLoading();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void endPipelinedLoading() {
+        writeLock.lock();
+        try {
+            if (pipelined) {
+                pipelined = false;
+                loadingThread = null;
+                ((HasPipelinedLoading) delegate).endPipelinedLoading();
             }
         } finally {
             writeLock.unlock();
@@ -173,31 +314,31 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
 
     @Override
     public int hashCode() {
-        readLock.lock();
+        idReadLock.lock();
         try {
             return delegate.hashCode();
         } finally {
-            readLock.unlock();
+            idReadLock.unlock();
         }
     }
 
     @Override
     public boolean equals(@Nullable Object obj) {
-        readLock.lock();
+        idReadLock.lock();
         try {
             return delegate.equals(obj);
         } finally {
-            readLock.unlock();
+            idReadLock.unlock();
         }
     }
 
     @Override
     public OWLOntologyManager getOWLOntologyManager() {
-        readLock.lock();
+        idReadLock.lock();
         try {
             return delegate.getOWLOntologyManager();
         } finally {
-            readLock.unlock();
+            idReadLock.unlock();
         }
     }
 
@@ -213,21 +354,21 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
 
     @Override
     public OWLOntologyID getOntologyID() {
-        readLock.lock();
+        idReadLock.lock();
         try {
             return delegate.getOntologyID();
         } finally {
-            readLock.unlock();
+            idReadLock.unlock();
         }
     }
 
     @Override
     public boolean isAnonymous() {
-        readLock.lock();
+        idReadLock.lock();
         try {
             return delegate.isAnonymous();
         } finally {
-            readLock.unlock();
+            idReadLock.unlock();
         }
     }
 
@@ -2484,11 +2625,11 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
 
     @Override
     public ChangeApplied applyChange(OWLOntologyChange owlOntologyChange) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return getMutableOntology().applyChange(owlOntologyChange);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
@@ -2504,61 +2645,61 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
 
     @Override
     public ChangeApplied addAxiom(OWLAxiom owlAxiom) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return getMutableOntology().addAxiom(owlAxiom);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied addAxioms(Collection<? extends OWLAxiom> set) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return getMutableOntology().addAxioms(set);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied addAxioms(OWLAxiom... set) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return getMutableOntology().addAxioms(set);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied add(OWLAxiom owlAxiom) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return getMutableOntology().add(owlAxiom);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied add(Collection<? extends OWLAxiom> set) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return getMutableOntology().add(set);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied add(OWLAxiom... set) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return getMutableOntology().add(set);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
@@ -2631,61 +2772,61 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
 
     @Override
     public ChangeApplied removeAxiom(OWLAxiom axiom) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return delegate.removeAxiom(axiom);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied removeAxioms(Collection<? extends OWLAxiom> axioms) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return delegate.removeAxioms(axioms);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied removeAxioms(OWLAxiom... axioms) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return delegate.removeAxioms(axioms);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied remove(OWLAxiom axiom) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return delegate.remove(axiom);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied remove(Collection<? extends OWLAxiom> axioms) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return delegate.remove(axioms);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
     @Override
     public ChangeApplied remove(OWLAxiom... axioms) {
-        writeLock.lock();
+        changeLock.lock();
         try {
             return delegate.remove(axioms);
         } finally {
-            writeLock.unlock();
+            changeLock.unlock();
         }
     }
 
@@ -2742,6 +2883,17 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
         }
     }
 
+    @Override
+    public Stream<OWLAnnotationAssertionAxiom> annotationAssertionAxioms(
+        OWLAnnotationSubject entity, OWLAnnotationProperty property) {
+        readLock.lock();
+        try {
+            return delegate.annotationAssertionAxioms(entity, property);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     @Override
     public Stream<OWLAnnotationProperty> annotationPropertiesInSignature() {
         readLock.lock();
@@ -3467,4 +3619,81 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
             readLock.unlock();
         }
     }
+
+    /**
+     * Read lock which, while loading is pipelined, also holds the read lock of {@link #indexLock},
+     * so that batches are not indexed during reads. On the loading thread, the queued axioms are
+     * indexed first; this is safe since the read lock excludes threads applying changes.
+     */
+    private class FlushingReadLock implements Lock {
+
+        private final Lock lock;
+
+        FlushingReadLock(Lock lock) {
+            this.lock = lock;
+        }
+
+        private void afterLock() {
+            if (!pipelined) {
+                return;
+            }
+            try {
+                // nested reads on the loading thread have already indexed the queued axioms
+                if (loadingThread == Thread.currentThread() && indexLock.getReadHoldCount() == 0) {
+                    ((HasPipelinedLoading) delegate).flushPipelinedLoading();
+                }
+                indexLock.readLock().lock();
+            } catch (RuntimeException | Error e) {
+                lock.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public void lock() {
+            lock.lock();
+            afterLock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            lock.lockInterruptibly();
+            afterLock();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!lock.tryLock()) {
+                return false;
+            }
+            afterLock();
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            if (!lock.tryLock(time, unit)) {
+                return false;
+            }
+            afterLock();
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            try {
+                // reads started before pipelined loading did not take the index lock
+                if (indexLock.getReadHoldCount() > 0) {
+                    indexLock.readLock().unlock();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            return lock.newCondition();
+        }
+    }
 }
@@ -16,4 +16,10 @@ public class NonConcurrentOWLOntologyBuilder implements OWLOntologyBuilder {
     public OWLOntology createOWLOntology(OWLOntologyManager manager, OWLOntologyID ontologyID) {
         return new OWLOntologyImpl(manager, ontologyID);
     }
+
+    @Override
+    public OWLOntology createOWLOntology(OWLOntologyManager manager, OWLOntologyID ontologyID,
+        boolean concurrentIndexes) {
+        return new OWLOntologyImpl(manager, ontologyID, concurrentIndexes);
+    }
 }
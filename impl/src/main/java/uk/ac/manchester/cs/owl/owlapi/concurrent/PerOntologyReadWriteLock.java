@@ -0,0 +1,142 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi.concurrent;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock of an ontology that does not share the write lock of its manager. Both the read and the
+ * write lock first acquire the read lock of the manager, then the lock of the ontology; locks are
+ * therefore always taken in the same order, manager first, and an ontology cannot be removed from
+ * its manager, or have its imports changed, while it is locked. The manager write lock excludes
+ * all the ontology locks.
+ * <p>
+ * Changes to a single ontology with its own lock are applied, and broadcast to listeners, holding
+ * the write lock of the ontology only; listeners can therefore be notified concurrently of changes
+ * to different ontologies. A listener must not change ontology IDs or imports, since the manager
+ * read lock cannot be upgraded to the write lock, and should not read other ontologies that might
+ * be changing at the same time.
+ *
+ * @since 5.1.8
+ */
+public class PerOntologyReadWriteLock implements ReadWriteLock {
+
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    /**
+     * @param managerLock lock of the manager
+     */
+    public PerOntologyReadWriteLock(ReadWriteLock managerLock) {
+        verifyNotNull(managerLock);
+        ReadWriteLock ontologyLock = new ReentrantReadWriteLock();
+        readLock = new OrderedLock(managerLock.readLock(), ontologyLock.readLock());
+        writeLock = new OrderedLock(managerLock.readLock(), ontologyLock.writeLock());
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * A pair of locks, acquired in order and released in reverse order.
+     */
+    private static class OrderedLock implements Lock {
+
+        private final Lock first;
+        private final Lock second;
+
+        OrderedLock(Lock first, Lock second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void lock() {
+            first.lock();
+            try {
+                second.lock();
+            } catch (RuntimeException | Error e) {
+                first.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            first.lockInterruptibly();
+            try {
+                second.lockInterruptibly();
+            } catch (InterruptedException | RuntimeException | Error e) {
+                first.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!first.tryLock()) {
+                return false;
+            }
+            if (second.tryLock()) {
+                return true;
+            }
+            first.unlock();
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!first.tryLock(time, unit)) {
+                return false;
+            }
+            try {
+                if (second.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException | RuntimeException | Error e) {
+                first.unlock();
+                throw e;
+            }
+            first.unlock();
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            try {
+                second.unlock();
+            } finally {
+                first.unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported by ontology locks");
+        }
+    }
+}
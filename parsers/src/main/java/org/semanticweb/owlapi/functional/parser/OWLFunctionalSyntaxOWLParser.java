@@ -37,6 +37,11 @@ public class OWLFunctionalSyntaxOWLParser extends AbstractOWLParser {
         return new FunctionalSyntaxDocumentFormatFactory();
     }
 
+    @Override
+    public boolean supportsPipelinedLoading() {
+        return true;
+    }
+
     @Override
     public OWLDocumentFormat parse(OWLOntologyDocumentSource source, OWLOntology ontology,
         OWLOntologyLoaderConfiguration config) {
@@ -39,6 +39,11 @@ public class OWLXMLParser extends AbstractOWLParser {
         return new OWLXMLDocumentFormatFactory();
     }
 
+    @Override
+    public boolean supportsPipelinedLoading() {
+        return true;
+    }
+
     @Override
     public OWLDocumentFormat parse(OWLOntologyDocumentSource documentSource, OWLOntology ontology,
         OWLOntologyLoaderConfiguration configuration) {
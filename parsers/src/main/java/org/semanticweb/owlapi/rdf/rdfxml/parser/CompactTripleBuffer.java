@@ -0,0 +1,701 @@
+package org.semanticweb.owlapi.rdf.rdfxml.parser;
+
+import static org.semanticweb.owlapi.util.CollectionFactory.createLinkedSet;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+
+import com.carrotsearch.hppcrt.maps.ObjectIntHashMap;
+
+/**
+ * Triple buffer that encodes IRIs and literals as integers and stores triples in columnar int
+ * arrays. Each term is stored once in a dictionary; a triple costs four ints plus its slot in an
+ * open addressing table used to find duplicates and answer exact lookups. Triples with the same
+ * subject are chained in insertion order. Consumed triples are marked rather than removed, so that
+ * positions stay stable; the arrays are released on {@link #clear()}.
+ * <p>
+ * If a spill threshold is set, the in memory columns are written to a memory mapped temporary file,
+ * sorted by subject, every time they hold that many triples. Lookups and iterations then run
+ * over the mapped runs, oldest first, and over the in memory columns; only the dictionary and one
+ * bit per spilled triple stay on the heap.
+ */
+class CompactTripleBuffer implements TripleBuffer {
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Largest number of triples in a mapped run: three ints per triple, within the 2GB limit of a
+     * single mapping.
+     */
+    private static final int MAX_RUN = Integer.MAX_VALUE / 12;
+    private final IRI[] singleValuedPredicates;
+    private final int spillThreshold;
+    /**
+     * Term to term id plus one, so that the map default value means absent.
+     */
+    private ObjectIntHashMap<Object> ids = new ObjectIntHashMap<>();
+    private Object[] terms = new Object[INITIAL_CAPACITY];
+    private int termCount = 0;
+    private int[] singleValued = new int[0];
+    private Columns resources = new Columns();
+    private Columns literals = new Columns();
+    private final List<SpilledRun> spilledResources = new ArrayList<>();
+    private final List<SpilledRun> spilledLiterals = new ArrayList<>();
+
+    /**
+     * @param singleValuedPredicates predicates with a single resource object per subject
+     */
+    CompactTripleBuffer(Collection<IRI> singleValuedPredicates) {
+        this(singleValuedPredicates, 0);
+    }
+
+    /**
+     * @param singleValuedPredicates predicates with a single resource object per subject
+     * @param spillThreshold number of triples kept in memory before they are written to a mapped
+     *        temporary file; 0 or less means triples are never spilled
+     */
+    CompactTripleBuffer(Collection<IRI> singleValuedPredicates, int spillThreshold) {
+        this.singleValuedPredicates = singleValuedPredicates.toArray(new IRI[0]);
+        this.spillThreshold = spillThreshold <= 0 ? 0 : Math.min(spillThreshold, MAX_RUN);
+        encodeSingleValued();
+    }
+
+    private void encodeSingleValued() {
+        singleValued = Arrays.stream(singleValuedPredicates).mapToInt(this::encode).toArray();
+    }
+
+    private int encode(Object term) {
+        int id = ids.get(term);
+        if (id != ids.getDefaultValue()) {
+            return id - 1;
+        }
+        if (termCount == terms.length) {
+            terms = Arrays.copyOf(terms, termCount * 2);
+        }
+        terms[termCount++] = term;
+        ids.put(term, termCount);
+        return termCount - 1;
+    }
+
+    private int lookup(Object term) {
+        int id = ids.get(term);
+        if (id == ids.getDefaultValue()) {
+            return NONE;
+        }
+        return id - 1;
+    }
+
+    private IRI iri(int id) {
+        return (IRI) terms[id];
+    }
+
+    private OWLLiteral literal(int id) {
+        return (OWLLiteral) terms[id];
+    }
+
+    private boolean isSingleValued(int predicate) {
+        for (int p : singleValued) {
+            if (p == predicate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Segment> resourceSegments() {
+        return segments(spilledResources, resources);
+    }
+
+    private List<Segment> literalSegments() {
+        return segments(spilledLiterals, literals);
+    }
+
+    private static List<Segment> segments(List<SpilledRun> runs, Columns columns) {
+        if (runs.isEmpty()) {
+            return Arrays.asList(columns);
+        }
+        List<Segment> segments = new ArrayList<>(runs);
+        segments.add(columns);
+        return segments;
+    }
+
+    /**
+     * Find the first live triple with subject and predicate, and consume it if requested.
+     *
+     * @return the object of the triple, or NONE
+     */
+    private static int first(List<Segment> segments, int subject, int predicate,
+        boolean consume) {
+        for (Segment segment : segments) {
+            int i = segment.first(subject, predicate);
+            if (i != NONE) {
+                int object = segment.object(i);
+                if (consume) {
+                    segment.consume(i);
+                }
+                return object;
+            }
+        }
+        return NONE;
+    }
+
+    private static boolean find(List<Segment> segments, int subject, int predicate, int object,
+        boolean consume) {
+        for (Segment segment : segments) {
+            int i = segment.find(subject, predicate, object);
+            if (i != NONE) {
+                if (consume) {
+                    segment.consume(i);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void add(IRI subject, IRI predicate, IRI object) {
+        int s = encode(subject);
+        int p = encode(predicate);
+        int o = encode(object);
+        List<Segment> segments = resourceSegments();
+        if (isSingleValued(p)) {
+            first(segments, s, p, true);
+        } else if (find(segments, s, p, o, false)) {
+            return;
+        }
+        resources.add(s, p, o);
+        resources = spillIfFull(resources, spilledResources);
+    }
+
+    @Override
+    public void add(IRI subject, IRI predicate, OWLLiteral object) {
+        int s = encode(subject);
+        int p = encode(predicate);
+        int o = encode(object);
+        if (find(literalSegments(), s, p, o, false)) {
+            return;
+        }
+        literals.add(s, p, o);
+        literals = spillIfFull(literals, spilledLiterals);
+    }
+
+    @Override
+    @Nullable
+    public IRI resourceObject(IRI subject, IRI predicate, boolean consume) {
+        int object = first(resourceSegments(), lookup(subject), lookup(predicate), consume);
+        if (object == NONE) {
+            return null;
+        }
+        return iri(object);
+    }
+
+    @Override
+    public Set<IRI> resourceObjects(IRI subject, IRI predicate) {
+        Set<IRI> result = createLinkedSet();
+        int s = lookup(subject);
+        int p = lookup(predicate);
+        for (Segment segment : resourceSegments()) {
+            for (int i = segment.head(s); i != NONE; i = segment.next(i)) {
+                if (segment.predicate(i) == p && segment.isLive(i)) {
+                    result.add(iri(segment.object(i)));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public OWLLiteral literalObject(IRI subject, IRI predicate, boolean consume) {
+        int object = first(literalSegments(), lookup(subject), lookup(predicate), consume);
+        if (object == NONE) {
+            return null;
+        }
+        return literal(object);
+    }
+
+    @Override
+    public Set<OWLLiteral> literalObjects(IRI subject, IRI predicate) {
+        Set<OWLLiteral> result = createLinkedSet();
+        int s = lookup(subject);
+        int p = lookup(predicate);
+        for (Segment segment : literalSegments()) {
+            for (int i = segment.head(s); i != NONE; i = segment.next(i)) {
+                if (segment.predicate(i) == p && segment.isLive(i)) {
+                    result.add(literal(segment.object(i)));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(IRI subject, IRI predicate, IRI object, boolean consume) {
+        int s = lookup(subject);
+        int p = lookup(predicate);
+        if (isSingleValued(p)) {
+            return first(resourceSegments(), s, p, consume) != NONE;
+        }
+        return find(resourceSegments(), s, p, lookup(object), consume);
+    }
+
+    @Override
+    public boolean contains(IRI subject, IRI predicate, OWLLiteral object, boolean consume) {
+        return find(literalSegments(), lookup(subject), lookup(predicate), lookup(object),
+            consume);
+    }
+
+    @Override
+    public boolean hasPredicate(IRI subject, IRI predicate) {
+        int s = lookup(subject);
+        int p = lookup(predicate);
+        if (first(resourceSegments(), s, p, false) != NONE) {
+            return true;
+        }
+        return !isSingleValued(p) && first(literalSegments(), s, p, false) != NONE;
+    }
+
+    @Override
+    public Set<IRI> predicates(IRI subject) {
+        Set<IRI> result = createLinkedSet();
+        int s = lookup(subject);
+        for (Segment segment : resourceSegments()) {
+            for (int i = segment.head(s); i != NONE; i = segment.next(i)) {
+                if (segment.isLive(i) && !isSingleValued(segment.predicate(i))) {
+                    result.add(iri(segment.predicate(i)));
+                }
+            }
+        }
+        for (Segment segment : literalSegments()) {
+            for (int i = segment.head(s); i != NONE; i = segment.next(i)) {
+                if (segment.isLive(i)) {
+                    result.add(iri(segment.predicate(i)));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void iterateResources(ResourceTripleIterator iterator) {
+        // take all snapshots before the iterator can consume or spill triples
+        List<SpilledRun> runs = new ArrayList<>(spilledResources);
+        List<BitSet> consumed = new ArrayList<>(runs.size());
+        runs.forEach(r -> consumed.add((BitSet) r.consumed.clone()));
+        int[] snapshot = resources.snapshot(this, false);
+        for (int r = 0; r < runs.size(); r++) {
+            SpilledRun run = runs.get(r);
+            BitSet dead = consumed.get(r);
+            for (int i = dead.nextClearBit(0); i < run.size; i = dead.nextClearBit(i + 1)) {
+                if (!isSingleValued(run.predicate(i))) {
+                    iterator.handleResourceTriple(iri(run.subject(i)), iri(run.predicate(i)),
+                        iri(run.object(i)));
+                }
+            }
+        }
+        for (int i = 0; i < snapshot.length; i += 3) {
+            iterator.handleResourceTriple(iri(snapshot[i]), iri(snapshot[i + 1]),
+                iri(snapshot[i + 2]));
+        }
+    }
+
+    @Override
+    public void iterateLiterals(LiteralTripleIterator iterator) {
+        List<SpilledRun> runs = new ArrayList<>(spilledLiterals);
+        List<BitSet> consumed = new ArrayList<>(runs.size());
+        runs.forEach(r -> consumed.add((BitSet) r.consumed.clone()));
+        int[] snapshot = literals.snapshot(this, true);
+        for (int r = 0; r < runs.size(); r++) {
+            SpilledRun run = runs.get(r);
+            BitSet dead = consumed.get(r);
+            for (int i = dead.nextClearBit(0); i < run.size; i = dead.nextClearBit(i + 1)) {
+                iterator.handleLiteralTriple(iri(run.subject(i)), iri(run.predicate(i)),
+                    literal(run.object(i)));
+            }
+        }
+        for (int i = 0; i < snapshot.length; i += 3) {
+            iterator.handleLiteralTriple(iri(snapshot[i]), iri(snapshot[i + 1]),
+                literal(snapshot[i + 2]));
+        }
+    }
+
+    @Override
+    public void forEachRemaining(ResourceTripleIterator resourceIterator,
+        LiteralTripleIterator literalIterator) {
+        for (Segment segment : resourceSegments()) {
+            for (int i = 0; i < segment.size(); i++) {
+                if (segment.isLive(i)) {
+                    resourceIterator.handleResourceTriple(iri(segment.subject(i)),
+                        iri(segment.predicate(i)), iri(segment.object(i)));
+                }
+            }
+        }
+        iterateLiterals(literalIterator);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return resourceSegments().stream().allMatch(s -> s.live == 0)
+            && literalSegments().stream().allMatch(s -> s.live == 0);
+    }
+
+    @Override
+    public void clear() {
+        ids = new ObjectIntHashMap<>();
+        terms = new Object[INITIAL_CAPACITY];
+        termCount = 0;
+        resources = new Columns();
+        literals = new Columns();
+        spilledResources.clear();
+        spilledLiterals.clear();
+        encodeSingleValued();
+    }
+
+    /**
+     * @return the columns, or new empty columns if the spill threshold has been reached and the
+     *         live triples have been added to the runs
+     */
+    private Columns spillIfFull(Columns columns, List<SpilledRun> runs) {
+        if (spillThreshold == 0 || columns.size < spillThreshold) {
+            return columns;
+        }
+        if (columns.live > 0) {
+            runs.add(spill(columns));
+        }
+        return new Columns();
+    }
+
+    /**
+     * Write the live triples in the columns to a memory mapped temporary file, sorted by subject;
+     * triples with the same subject keep their insertion order. The file is deleted when the
+     * mapping is released.
+     */
+    private static SpilledRun spill(Columns columns) {
+        long[] order = new long[columns.live];
+        int n = 0;
+        for (int i = 0; i < columns.size; i++) {
+            if (columns.isLive(i)) {
+                order[n++] = (long) columns.subjects[i] << 32 | i;
+            }
+        }
+        Arrays.sort(order, 0, n);
+        try {
+            Path file = Files.createTempFile("owlapi-triples", ".bin");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+                IntBuffer triples = channel.map(MapMode.READ_WRITE, 0, 12L * n).asIntBuffer();
+                for (int k = 0; k < n; k++) {
+                    int i = (int) order[k];
+                    triples.put(columns.subjects[i]).put(columns.predicates[i])
+                        .put(columns.objects[i]);
+                }
+                return new SpilledRun(triples, n);
+            }
+        } catch (IOException e) {
+            throw new OWLRuntimeException("Triples could not be written to a temporary file", e);
+        }
+    }
+
+    /**
+     * A sequence of triples, addressed by position. Positions of the triples with the same subject
+     * are linked through {@link #head(int)} and {@link #next(int)}.
+     */
+    private abstract static class Segment {
+
+        int live = 0;
+
+        abstract int size();
+
+        abstract int head(int subject);
+
+        abstract int next(int i);
+
+        abstract int subject(int i);
+
+        abstract int predicate(int i);
+
+        abstract int object(int i);
+
+        abstract boolean isLive(int i);
+
+        abstract void consume(int i);
+
+        int first(int subject, int predicate) {
+            if (predicate == NONE) {
+                return NONE;
+            }
+            for (int i = head(subject); i != NONE; i = next(i)) {
+                if (predicate(i) == predicate && isLive(i)) {
+                    return i;
+                }
+            }
+            return NONE;
+        }
+
+        int find(int subject, int predicate, int object) {
+            if (predicate == NONE || object == NONE) {
+                return NONE;
+            }
+            for (int i = head(subject); i != NONE; i = next(i)) {
+                if (predicate(i) == predicate && object(i) == object && isLive(i)) {
+                    return i;
+                }
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * Columnar storage for triples: subject, predicate and object ids, plus the position of the
+     * next triple with the same subject. A consumed triple has {@link #NONE} as object.
+     */
+    private static final class Columns extends Segment {
+
+        int[] subjects = new int[INITIAL_CAPACITY];
+        int[] predicates = new int[INITIAL_CAPACITY];
+        int[] objects = new int[INITIAL_CAPACITY];
+        int[] nexts = new int[INITIAL_CAPACITY];
+        /**
+         * First and last triple for each subject id.
+         */
+        int[] heads = new int[0];
+        int[] tails = new int[0];
+        /**
+         * Open addressing table of triple positions plus one; zero marks an empty slot.
+         */
+        int[] table = new int[INITIAL_CAPACITY * 2];
+        int size = 0;
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        int head(int subject) {
+            if (subject < 0 || subject >= heads.length) {
+                return NONE;
+            }
+            return heads[subject];
+        }
+
+        @Override
+        int next(int i) {
+            return nexts[i];
+        }
+
+        @Override
+        int subject(int i) {
+            return subjects[i];
+        }
+
+        @Override
+        int predicate(int i) {
+            return predicates[i];
+        }
+
+        @Override
+        int object(int i) {
+            return objects[i];
+        }
+
+        @Override
+        boolean isLive(int i) {
+            return objects[i] != NONE;
+        }
+
+        @Override
+        void consume(int i) {
+            objects[i] = NONE;
+            live--;
+        }
+
+        @Override
+        int find(int subject, int predicate, int object) {
+            if (subject == NONE || predicate == NONE || object == NONE) {
+                return NONE;
+            }
+            int mask = table.length - 1;
+            for (int slot = hash(subject, predicate, object) & mask; table[slot] != 0; slot =
+                (slot + 1) & mask) {
+                int i = table[slot] - 1;
+                if (objects[i] == object && predicates[i] == predicate
+                    && subjects[i] == subject) {
+                    return i;
+                }
+            }
+            return NONE;
+        }
+
+        /**
+         * Append a triple; the caller checks it is not already present.
+         */
+        void add(int subject, int predicate, int object) {
+            if (size == subjects.length) {
+                int capacity = size * 2;
+                subjects = Arrays.copyOf(subjects, capacity);
+                predicates = Arrays.copyOf(predicates, capacity);
+                objects = Arrays.copyOf(objects, capacity);
+                nexts = Arrays.copyOf(nexts, capacity);
+            }
+            if (subject >= heads.length) {
+                int old = heads.length;
+                int capacity = Math.max(subject + 1, old * 2);
+                heads = Arrays.copyOf(heads, capacity);
+                tails = Arrays.copyOf(tails, capacity);
+                Arrays.fill(heads, old, capacity, NONE);
+                Arrays.fill(tails, old, capacity, NONE);
+            }
+            int i = size++;
+            subjects[i] = subject;
+            predicates[i] = predicate;
+            objects[i] = object;
+            nexts[i] = NONE;
+            if (heads[subject] == NONE) {
+                heads[subject] = i;
+            } else {
+                nexts[tails[subject]] = i;
+            }
+            tails[subject] = i;
+            live++;
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            } else {
+                insert(i);
+            }
+        }
+
+        private void insert(int i) {
+            int mask = table.length - 1;
+            int slot = hash(subjects[i], predicates[i], objects[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+
+        /**
+         * Rebuild the lookup table; consumed triples are left out.
+         */
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            for (int i = 0; i < size; i++) {
+                if (objects[i] != NONE) {
+                    insert(i);
+                }
+            }
+        }
+
+        int[] snapshot(CompactTripleBuffer buffer, boolean includeSingleValued) {
+            int[] snapshot = new int[live * 3];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (objects[i] != NONE
+                    && (includeSingleValued || !buffer.isSingleValued(predicates[i]))) {
+                    snapshot[n++] = subjects[i];
+                    snapshot[n++] = predicates[i];
+                    snapshot[n++] = objects[i];
+                }
+            }
+            return n == snapshot.length ? snapshot : Arrays.copyOf(snapshot, n);
+        }
+
+        private static int hash(int subject, int predicate, int object) {
+            int h = (subject * 31 + predicate) * 31 + object;
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Triples in a memory mapped file, three ints per triple, sorted by subject. Consumed triples
+     * are recorded in a bit set, so that the mapped data is never written after the spill.
+     */
+    private static final class SpilledRun extends Segment {
+
+        private final IntBuffer triples;
+        final int size;
+        final BitSet consumed;
+
+        SpilledRun(IntBuffer triples, int size) {
+            this.triples = triples;
+            this.size = size;
+            consumed = new BitSet(size);
+            live = size;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        int head(int subject) {
+            if (subject < 0) {
+                return NONE;
+            }
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (subject(mid) < subject) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low < size && subject(low) == subject ? low : NONE;
+        }
+
+        @Override
+        int next(int i) {
+            return i + 1 < size && subject(i + 1) == subject(i) ? i + 1 : NONE;
+        }
+
+        @Override
+        int subject(int i) {
+            return triples.get(3 * i);
+        }
+
+        @Override
+        int predicate(int i) {
+            return triples.get(3 * i + 1);
+        }
+
+        @Override
+        int object(int i) {
+            return triples.get(3 * i + 2);
+        }
+
+        @Override
+        boolean isLive(int i) {
+            return !consumed.get(i);
+        }
+
+        @Override
+        void consume(int i) {
+            if (!consumed.get(i)) {
+                consumed.set(i);
+                live--;
+            }
+        }
+    }
+}
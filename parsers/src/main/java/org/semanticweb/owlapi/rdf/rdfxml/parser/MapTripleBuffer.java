@@ -0,0 +1,241 @@
+package org.semanticweb.owlapi.rdf.rdfxml.parser;
+
+import static org.semanticweb.owlapi.util.CollectionFactory.createLinkedSet;
+import static org.semanticweb.owlapi.util.CollectionFactory.createMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLLiteral;
+
+/**
+ * Triple buffer based on nested maps from subject to predicate to objects.
+ */
+class MapTripleBuffer implements TripleBuffer {
+
+    /**
+     * Subject, predicate, object
+     */
+    private final Map<IRI, Map<IRI, Collection<IRI>>> resTriplesBySubject = createMap();
+    /**
+     * Predicate, subject, object
+     */
+    private final Map<IRI, Map<IRI, IRI>> singleValuedResTriplesByPredicate = createMap();
+    /**
+     * Literal triples
+     */
+    private final Map<IRI, Map<IRI, Collection<OWLLiteral>>> litTriplesBySubject = createMap();
+
+    /**
+     * @param singleValuedPredicates predicates with a single resource object per subject
+     */
+    MapTripleBuffer(Collection<IRI> singleValuedPredicates) {
+        singleValuedPredicates
+            .forEach(p -> singleValuedResTriplesByPredicate.put(p, createMap()));
+    }
+
+    @Override
+    public void add(IRI subject, IRI predicate, IRI object) {
+        Map<IRI, IRI> subjObjMap = singleValuedResTriplesByPredicate.get(predicate);
+        if (subjObjMap != null) {
+            subjObjMap.put(subject, object);
+        } else {
+            resTriplesBySubject.computeIfAbsent(subject, x -> createMap())
+                .computeIfAbsent(predicate, x -> createLinkedSet()).add(object);
+        }
+    }
+
+    @Override
+    public void add(IRI subject, IRI predicate, OWLLiteral object) {
+        litTriplesBySubject.computeIfAbsent(subject, x -> createMap())
+            .computeIfAbsent(predicate, x -> createLinkedSet()).add(object);
+    }
+
+    @Override
+    @Nullable
+    public IRI resourceObject(IRI subject, IRI predicate, boolean consume) {
+        Map<IRI, IRI> subjPredMap = singleValuedResTriplesByPredicate.get(predicate);
+        if (subjPredMap != null) {
+            IRI obj = subjPredMap.get(subject);
+            if (consume) {
+                subjPredMap.remove(subject);
+            }
+            return obj;
+        }
+        return first(resTriplesBySubject, subject, predicate, consume);
+    }
+
+    @Override
+    public Set<IRI> resourceObjects(IRI subject, IRI predicate) {
+        Set<IRI> result = createLinkedSet();
+        Map<IRI, IRI> subjPredMap = singleValuedResTriplesByPredicate.get(predicate);
+        if (subjPredMap != null) {
+            IRI obj = subjPredMap.get(subject);
+            if (obj != null) {
+                result.add(obj);
+            }
+        }
+        addAll(resTriplesBySubject, subject, predicate, result);
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public OWLLiteral literalObject(IRI subject, IRI predicate, boolean consume) {
+        return first(litTriplesBySubject, subject, predicate, consume);
+    }
+
+    @Override
+    public Set<OWLLiteral> literalObjects(IRI subject, IRI predicate) {
+        Set<OWLLiteral> result = createLinkedSet();
+        addAll(litTriplesBySubject, subject, predicate, result);
+        return result;
+    }
+
+    @Override
+    public boolean contains(IRI subject, IRI predicate, IRI object, boolean consume) {
+        Map<IRI, IRI> subjPredMap = singleValuedResTriplesByPredicate.get(predicate);
+        if (subjPredMap != null) {
+            IRI obj = subjPredMap.get(subject);
+            if (consume) {
+                subjPredMap.remove(subject);
+            }
+            return obj != null;
+        }
+        return contains(resTriplesBySubject, subject, predicate, object, consume);
+    }
+
+    @Override
+    public boolean contains(IRI subject, IRI predicate, OWLLiteral object, boolean consume) {
+        return contains(litTriplesBySubject, subject, predicate, object, consume);
+    }
+
+    @Override
+    public boolean hasPredicate(IRI subject, IRI predicate) {
+        Map<IRI, IRI> resPredMap = singleValuedResTriplesByPredicate.get(predicate);
+        if (resPredMap != null) {
+            return resPredMap.containsKey(subject);
+        }
+        Map<IRI, Collection<IRI>> resPredObjMap = resTriplesBySubject.get(subject);
+        if (resPredObjMap != null && resPredObjMap.containsKey(predicate)) {
+            return true;
+        }
+        Map<IRI, Collection<OWLLiteral>> litPredObjMap = litTriplesBySubject.get(subject);
+        if (litPredObjMap != null) {
+            return litPredObjMap.containsKey(predicate);
+        }
+        return false;
+    }
+
+    @Override
+    public Set<IRI> predicates(IRI subject) {
+        Set<IRI> iris = createLinkedSet();
+        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
+        if (predObjMap != null) {
+            iris.addAll(predObjMap.keySet());
+        }
+        Map<IRI, Collection<OWLLiteral>> predObjMapLit = litTriplesBySubject.get(subject);
+        if (predObjMapLit != null) {
+            iris.addAll(predObjMapLit.keySet());
+        }
+        return iris;
+    }
+
+    @Override
+    public void iterateResources(ResourceTripleIterator iterator) {
+        new ArrayList<>(resTriplesBySubject.entrySet()).forEach(
+            e -> new ArrayList<>(e.getValue().entrySet()).forEach(p -> new ArrayList<>(p.getValue())
+                .forEach(object -> iterator.handleResourceTriple(e.getKey(), p.getKey(), object))));
+    }
+
+    @Override
+    public void iterateLiterals(LiteralTripleIterator iterator) {
+        new ArrayList<>(litTriplesBySubject.entrySet()).forEach(
+            e -> new ArrayList<>(e.getValue().entrySet()).forEach(p -> new ArrayList<>(p.getValue())
+                .forEach(object -> iterator.handleLiteralTriple(e.getKey(), p.getKey(), object))));
+    }
+
+    @Override
+    public void forEachRemaining(ResourceTripleIterator resources,
+        LiteralTripleIterator literals) {
+        singleValuedResTriplesByPredicate
+            .forEach((p, map) -> map.forEach((s, o) -> resources.handleResourceTriple(s, p, o)));
+        resTriplesBySubject.forEach((s, map) -> map
+            .forEach((p, o) -> o.forEach(x -> resources.handleResourceTriple(s, p, x))));
+        litTriplesBySubject.forEach((s, map) -> map
+            .forEach((p, o) -> o.forEach(x -> literals.handleLiteralTriple(s, p, x))));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return resTriplesBySubject.isEmpty() && litTriplesBySubject.isEmpty()
+            && singleValuedResTriplesByPredicate.values().stream().allMatch(Map::isEmpty);
+    }
+
+    @Override
+    public void clear() {
+        resTriplesBySubject.clear();
+        litTriplesBySubject.clear();
+        singleValuedResTriplesByPredicate.clear();
+    }
+
+    @Nullable
+    private static <O> O first(Map<IRI, Map<IRI, Collection<O>>> map, IRI subject,
+        IRI predicate, boolean consume) {
+        Map<IRI, Collection<O>> predObjMap = map.get(subject);
+        if (predObjMap != null) {
+            Collection<O> objects = predObjMap.get(predicate);
+            if (objects != null && !objects.isEmpty()) {
+                O object = objects.iterator().next();
+                if (consume) {
+                    objects.remove(object);
+                }
+                if (objects.isEmpty()) {
+                    predObjMap.remove(predicate);
+                    if (predObjMap.isEmpty()) {
+                        map.remove(subject);
+                    }
+                }
+                return object;
+            }
+        }
+        return null;
+    }
+
+    private static <O> void addAll(Map<IRI, Map<IRI, Collection<O>>> map, IRI subject,
+        IRI predicate, Collection<O> result) {
+        Map<IRI, Collection<O>> predObjMap = map.get(subject);
+        if (predObjMap != null) {
+            Collection<O> objects = predObjMap.get(predicate);
+            if (objects != null) {
+                result.addAll(objects);
+            }
+        }
+    }
+
+    private static <O> boolean contains(Map<IRI, Map<IRI, Collection<O>>> map, IRI subject,
+        IRI predicate, O object, boolean consume) {
+        Map<IRI, Collection<O>> predObjMap = map.get(subject);
+        if (predObjMap != null) {
+            Collection<O> objects = predObjMap.get(predicate);
+            if (objects != null && objects.contains(object)) {
+                if (consume) {
+                    objects.remove(object);
+                    if (objects.isEmpty()) {
+                        predObjMap.remove(predicate);
+                        if (predObjMap.isEmpty()) {
+                            map.remove(subject);
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -340,22 +340,9 @@ public class OWLRDFConsumer
      */
     private final Map<IRI, OWLObjectPropertyExpression> translatedProperties = createMap();
     /**
-     * Subject, predicate, object
+     * Triples not consumed while streaming.
      */
-    private final Map<IRI, Map<IRI, Collection<IRI>>> resTriplesBySubject = createMap();
-    /**
-     * Predicate, subject, object
-     */
-    private final Map<IRI, Map<IRI, IRI>> singleValuedResTriplesByPredicate = createMap();
-    /**
-     * Literal triples
-     */
-    private final Map<IRI, Map<IRI, Collection<OWLLiteral>>> litTriplesBySubject = createMap();
-    // Resource triples
-    /**
-     * Predicate, subject, object
-     */
-    private final Map<IRI, Map<IRI, OWLLiteral>> singleValuedLitTriplesByPredicate = createMap();
+    private final TripleBuffer triples;
     private final Map<IRI, IRI> remappedIRIs = createMap();
     private final Map<String, IRI> remappedIRIStrings = createMap();
     // Caching IRIs here helps save memory. This cache is local to a particular
@@ -430,7 +417,7 @@ public class OWLRDFConsumer
         dataPropertyIRIs.add(OWL_TOP_DATA_PROPERTY.getIRI());
         dataPropertyIRIs.add(OWL_BOTTOM_DATA_PROPERTY.getIRI());
         setupSynonymMap();
-        setupSinglePredicateMaps();
+        triples = createTripleBuffer(configuration);
         // Cache anything in the existing imports closure
         importsClosureChanged();
         if (this.ontology.getOntologyID().getOntologyIRI().isPresent()) {
@@ -487,11 +474,19 @@ public class OWLRDFConsumer
         this.iriProvider = iriProvider;
     }
 
-    private void setupSinglePredicateMaps() {
-        Stream
+    private static TripleBuffer createTripleBuffer(OWLOntologyLoaderConfiguration configuration) {
+        List<IRI> singleValuedPredicates = asList(Stream
             .of(OWL_ON_PROPERTY, OWL_SOME_VALUES_FROM, OWL_ALL_VALUES_FROM, OWL_ON_CLASS,
                 OWL_ON_DATA_RANGE)
-            .forEach(v -> singleValuedResTriplesByPredicate.put(v.getIRI(), createMap()));
+            .map(OWLRDFVocabulary::getIRI));
+        int spillThreshold = configuration.getTripleSpillThreshold();
+        if (spillThreshold > 0) {
+            return new CompactTripleBuffer(singleValuedPredicates, spillThreshold);
+        }
+        if (configuration.shouldUseCompactTripleBuffer()) {
+            return new CompactTripleBuffer(singleValuedPredicates);
+        }
+        return new MapTripleBuffer(singleValuedPredicates);
     }
 
     private void setupSynonymMap() {
@@ -648,6 +643,13 @@ public class OWLRDFConsumer
         return annos;
     }
 
+    /**
+     * @return true if there are annotations waiting to be attached to the next axiom
+     */
+    protected boolean hasPendingAnnotations() {
+        return !pendingAnnotations.isEmpty();
+    }
+
     /**
      * Sets the pending annotations.
      *
@@ -1355,17 +1357,8 @@ public class OWLRDFConsumer
     protected void dumpRemainingTriples() {
         // if info logging is disabled or all collections are empty, do not
         // output anything
-        if (LOGGER.isInfoEnabled()
-            && singleValuedResTriplesByPredicate.size() + singleValuedLitTriplesByPredicate.size()
-                + resTriplesBySubject.size() + litTriplesBySubject.size() > 0) {
-            singleValuedResTriplesByPredicate
-                .forEach((p, map) -> map.forEach((s, o) -> printTriple(s, p, o)));
-            singleValuedLitTriplesByPredicate
-                .forEach((p, map) -> map.forEach((s, o) -> printTriple(s, p, o)));
-            resTriplesBySubject
-                .forEach((p, map) -> map.forEach((s, o) -> o.forEach(x -> printTriple(s, p, x))));
-            litTriplesBySubject
-                .forEach((p, map) -> map.forEach((s, o) -> o.forEach(x -> printTriple(s, p, x))));
+        if (LOGGER.isInfoEnabled() && !triples.isEmpty()) {
+            triples.forEachRemaining(OWLRDFConsumer::printTriple, OWLRDFConsumer::printTriple);
         }
     }
 
@@ -1502,10 +1495,7 @@ public class OWLRDFConsumer
         listRestTripleMap.clear();
         // XXX clean new members
         translatorAccessor.cleanup();
-        resTriplesBySubject.clear();
-        litTriplesBySubject.clear();
-        singleValuedLitTriplesByPredicate.clear();
-        singleValuedResTriplesByPredicate.clear();
+        triples.clear();
         guessedDeclarations.clear();
     }
 
@@ -1858,16 +1848,7 @@ public class OWLRDFConsumer
      * @return the predicates by subject
      */
     protected Set<IRI> getPredicatesBySubject(IRI subject) {
-        Set<IRI> iris = createLinkedSet();
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            iris.addAll(predObjMap.keySet());
-        }
-        Map<IRI, Collection<OWLLiteral>> predObjMapLit = litTriplesBySubject.get(subject);
-        if (predObjMapLit != null) {
-            iris.addAll(predObjMapLit.keySet());
-        }
-        return iris;
+        return triples.predicates(subject);
     }
 
     /**
@@ -1893,32 +1874,7 @@ public class OWLRDFConsumer
      */
     @Nullable
     protected IRI getResourceObject(IRI subject, IRI predicate, boolean consume) {
-        Map<IRI, IRI> subjPredMap = singleValuedResTriplesByPredicate.get(predicate);
-        if (subjPredMap != null) {
-            IRI obj = subjPredMap.get(subject);
-            if (consume) {
-                subjPredMap.remove(subject);
-            }
-            return obj;
-        }
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<IRI> objects = predObjMap.get(predicate);
-            if (objects != null && !objects.isEmpty()) {
-                IRI object = objects.iterator().next();
-                if (consume) {
-                    objects.remove(object);
-                }
-                if (objects.isEmpty()) {
-                    predObjMap.remove(predicate);
-                    if (predObjMap.isEmpty()) {
-                        resTriplesBySubject.remove(subject);
-                    }
-                }
-                return object;
-            }
-        }
-        return null;
+        return triples.resourceObject(subject, predicate, consume);
     }
 
     /**
@@ -1929,22 +1885,7 @@ public class OWLRDFConsumer
      * @return the resource objects
      */
     protected Set<IRI> getResourceObjects(IRI subject, IRI predicate) {
-        Set<IRI> result = createLinkedSet();
-        Map<IRI, IRI> subjPredMap = singleValuedResTriplesByPredicate.get(predicate);
-        if (subjPredMap != null) {
-            IRI obj = subjPredMap.get(subject);
-            if (obj != null) {
-                result.add(obj);
-            }
-        }
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<IRI> objects = predObjMap.get(predicate);
-            if (objects != null) {
-                result.addAll(objects);
-            }
-        }
-        return result;
+        return triples.resourceObjects(subject, predicate);
     }
 
     /**
@@ -1971,29 +1912,7 @@ public class OWLRDFConsumer
      */
     @Nullable
     protected OWLLiteral getLiteralObject(IRI subject, IRI predicate, boolean consume) {
-        Map<IRI, OWLLiteral> subjPredMap = singleValuedLitTriplesByPredicate.get(predicate);
-        if (subjPredMap != null) {
-            OWLLiteral obj = subjPredMap.get(subject);
-            if (consume) {
-                subjPredMap.remove(subject);
-            }
-            return obj;
-        }
-        Map<IRI, Collection<OWLLiteral>> predObjMap = litTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<OWLLiteral> objects = predObjMap.get(predicate);
-            if (objects != null && !objects.isEmpty()) {
-                OWLLiteral object = objects.iterator().next();
-                if (consume) {
-                    objects.remove(object);
-                }
-                if (objects.isEmpty()) {
-                    predObjMap.remove(predicate);
-                }
-                return object;
-            }
-        }
-        return null;
+        return triples.literalObject(subject, predicate, consume);
     }
 
     /**
@@ -2004,22 +1923,7 @@ public class OWLRDFConsumer
      * @return the literal objects
      */
     protected Set<OWLLiteral> getLiteralObjects(IRI subject, IRI predicate) {
-        Set<OWLLiteral> result = createLinkedSet();
-        Map<IRI, OWLLiteral> subjPredMap = singleValuedLitTriplesByPredicate.get(predicate);
-        if (subjPredMap != null) {
-            OWLLiteral obj = subjPredMap.get(subject);
-            if (obj != null) {
-                result.add(obj);
-            }
-        }
-        Map<IRI, Collection<OWLLiteral>> predObjMap = litTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<OWLLiteral> objects = predObjMap.get(predicate);
-            if (objects != null) {
-                result.addAll(objects);
-            }
-        }
-        return result;
+        return triples.literalObjects(subject, predicate);
     }
 
     /**
@@ -2032,31 +1936,7 @@ public class OWLRDFConsumer
      * @return true, if is triple present
      */
     protected boolean isTriplePresent(IRI subject, IRI predicate, IRI object, boolean consume) {
-        Map<IRI, IRI> subjPredMap = singleValuedResTriplesByPredicate.get(predicate);
-        if (subjPredMap != null) {
-            IRI obj = subjPredMap.get(subject);
-            if (consume) {
-                subjPredMap.remove(subject);
-            }
-            return obj != null;
-        }
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<IRI> objects = predObjMap.get(predicate);
-            if (objects != null && objects.contains(object)) {
-                if (consume) {
-                    objects.remove(object);
-                    if (objects.isEmpty()) {
-                        predObjMap.remove(predicate);
-                        if (predObjMap.isEmpty()) {
-                            resTriplesBySubject.remove(subject);
-                        }
-                    }
-                }
-                return true;
-            }
-        }
-        return false;
+        return triples.contains(subject, predicate, object, consume);
     }
 
     /**
@@ -2070,31 +1950,7 @@ public class OWLRDFConsumer
      */
     protected boolean isTriplePresent(IRI subject, IRI predicate, OWLLiteral object,
         boolean consume) {
-        Map<IRI, OWLLiteral> subjPredMap = singleValuedLitTriplesByPredicate.get(predicate);
-        if (subjPredMap != null) {
-            OWLLiteral obj = subjPredMap.get(subject);
-            if (consume) {
-                subjPredMap.remove(subject);
-            }
-            return obj != null;
-        }
-        Map<IRI, Collection<OWLLiteral>> predObjMap = litTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<OWLLiteral> objects = predObjMap.get(predicate);
-            if (objects != null && objects.contains(object)) {
-                if (consume) {
-                    objects.remove(object);
-                    if (objects.isEmpty()) {
-                        predObjMap.remove(predicate);
-                        if (predObjMap.isEmpty()) {
-                            litTriplesBySubject.remove(subject);
-                        }
-                    }
-                }
-                return true;
-            }
-        }
-        return false;
+        return triples.contains(subject, predicate, object, consume);
     }
 
     /**
@@ -2105,23 +1961,7 @@ public class OWLRDFConsumer
      * @return true, if successful
      */
     protected boolean hasPredicate(IRI subject, IRI predicate) {
-        Map<IRI, IRI> resPredMap = singleValuedResTriplesByPredicate.get(predicate);
-        if (resPredMap != null) {
-            return resPredMap.containsKey(subject);
-        }
-        Map<IRI, OWLLiteral> litPredMap = singleValuedLitTriplesByPredicate.get(predicate);
-        if (litPredMap != null) {
-            return litPredMap.containsKey(subject);
-        }
-        Map<IRI, Collection<IRI>> resPredObjMap = resTriplesBySubject.get(subject);
-        if (resPredObjMap != null && resPredObjMap.containsKey(predicate)) {
-            return true;
-        }
-        Map<IRI, Collection<OWLLiteral>> litPredObjMap = litTriplesBySubject.get(subject);
-        if (litPredObjMap != null) {
-            return litPredObjMap.containsKey(predicate);
-        }
-        return false;
+        return triples.hasPredicate(subject, predicate);
     }
 
     /**
@@ -2247,8 +2087,8 @@ public class OWLRDFConsumer
     }
 
     protected boolean isAxiomIRI(IRI s) {
-        return contains(resTriplesBySubject, s, OWLRDFVocabulary.RDF_TYPE.getIRI(),
-            OWLRDFVocabulary.OWL_AXIOM.getIRI());
+        return triples.contains(s, OWLRDFVocabulary.RDF_TYPE.getIRI(),
+            OWLRDFVocabulary.OWL_AXIOM.getIRI(), false);
     }
 
     /**
@@ -2274,9 +2114,7 @@ public class OWLRDFConsumer
      * @param iterator the iterator
      */
     protected void iterateResources(ResourceTripleIterator iterator) {
-        new ArrayList<>(resTriplesBySubject.entrySet()).forEach(
-            e -> new ArrayList<>(e.getValue().entrySet()).forEach(p -> new ArrayList<>(p.getValue())
-                .forEach(object -> iterator.handleResourceTriple(e.getKey(), p.getKey(), object))));
+        triples.iterateResources(iterator);
     }
 
     /**
@@ -2285,9 +2123,7 @@ public class OWLRDFConsumer
      * @param iterator the iterator
      */
     protected void iterateLiterals(LiteralTripleIterator iterator) {
-        new ArrayList<>(litTriplesBySubject.entrySet()).forEach(
-            e -> new ArrayList<>(e.getValue().entrySet()).forEach(p -> new ArrayList<>(p.getValue())
-                .forEach(object -> iterator.handleLiteralTriple(e.getKey(), p.getKey(), object))));
+        triples.iterateLiterals(iterator);
     }
 
     @Override
@@ -2314,22 +2150,10 @@ public class OWLRDFConsumer
     }
 
     protected void addTriple(IRI subject, IRI predicate, IRI object) {
-        Map<IRI, IRI> subjObjMap = singleValuedResTriplesByPredicate.get(predicate);
-        if (subjObjMap != null) {
-            subjObjMap.put(subject, object);
-        } else {
-            resTriplesBySubject.computeIfAbsent(subject, x -> createMap())
-                .computeIfAbsent(predicate, x -> createLinkedSet()).add(object);
-        }
+        triples.add(subject, predicate, object);
     }
 
     protected void addTriple(IRI subject, IRI predicate, OWLLiteral con) {
-        Map<IRI, OWLLiteral> subjObjMap = singleValuedLitTriplesByPredicate.get(predicate);
-        if (subjObjMap != null) {
-            subjObjMap.put(subject, con);
-        } else {
-            litTriplesBySubject.computeIfAbsent(subject, x -> createMap())
-                .computeIfAbsent(predicate, x -> createLinkedSet()).add(con);
-        }
+        triples.add(subject, predicate, con);
     }
 }
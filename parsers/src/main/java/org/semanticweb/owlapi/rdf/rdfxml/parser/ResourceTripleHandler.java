@@ -1,6 +1,12 @@
 package org.semanticweb.owlapi.rdf.rdfxml.parser;
 
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
 
 interface ResourceTripleHandler {
 
@@ -26,4 +32,20 @@ interface ResourceTripleHandler {
      * @return true if can handle
      */
     boolean canHandle(IRI subject, IRI predicate, IRI object);
+
+    /**
+     * Translate a triple that this handler can handle without modifying the consumer, so that
+     * distinct triples can be translated concurrently. The triple is not consumed.
+     *
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     * @param annotations axiom annotations
+     * @return the axiom for the triple, or null if the triple must be passed to handleTriple
+     */
+    @Nullable
+    default OWLAxiom translate(IRI subject, IRI predicate, IRI object,
+        Set<OWLAnnotation> annotations) {
+        return null;
+    }
 }
@@ -0,0 +1,128 @@
+package org.semanticweb.owlapi.rdf.rdfxml.parser;
+
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLLiteral;
+
+/**
+ * Storage for the triples that {@link OWLRDFConsumer} could not consume while streaming. Objects
+ * for a subject and predicate are kept in insertion order, without duplicates. Triples whose
+ * predicate is single valued keep only the last object added for a subject; they are not returned
+ * by {@link #predicates(IRI)} or by the iteration methods, and their presence does not depend on
+ * the object.
+ */
+interface TripleBuffer {
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     */
+    void add(IRI subject, IRI predicate, IRI object);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     */
+    void add(IRI subject, IRI predicate, OWLLiteral object);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param consume true if the triple found should be removed
+     * @return first resource object for subject and predicate, or null if none exists
+     */
+    @Nullable
+    IRI resourceObject(IRI subject, IRI predicate, boolean consume);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @return all resource objects for subject and predicate
+     */
+    Set<IRI> resourceObjects(IRI subject, IRI predicate);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param consume true if the triple found should be removed
+     * @return first literal object for subject and predicate, or null if none exists
+     */
+    @Nullable
+    OWLLiteral literalObject(IRI subject, IRI predicate, boolean consume);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @return all literal objects for subject and predicate
+     */
+    Set<OWLLiteral> literalObjects(IRI subject, IRI predicate);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     * @param consume true if the triple should be removed
+     * @return true if the triple is present
+     */
+    boolean contains(IRI subject, IRI predicate, IRI object, boolean consume);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     * @param consume true if the triple should be removed
+     * @return true if the triple is present
+     */
+    boolean contains(IRI subject, IRI predicate, OWLLiteral object, boolean consume);
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @return true if a triple with subject and predicate is present
+     */
+    boolean hasPredicate(IRI subject, IRI predicate);
+
+    /**
+     * @param subject subject
+     * @return predicates of the triples with the subject, excluding single valued predicates
+     */
+    Set<IRI> predicates(IRI subject);
+
+    /**
+     * Iterate over a snapshot of the resource triples, excluding single valued predicates. The
+     * iterator can consume triples.
+     *
+     * @param iterator iterator
+     */
+    void iterateResources(ResourceTripleIterator iterator);
+
+    /**
+     * Iterate over a snapshot of the literal triples. The iterator can consume triples.
+     *
+     * @param iterator iterator
+     */
+    void iterateLiterals(LiteralTripleIterator iterator);
+
+    /**
+     * Iterate over all remaining triples, including single valued predicates.
+     *
+     * @param resources iterator for resource triples
+     * @param literals iterator for literal triples
+     */
+    void forEachRemaining(ResourceTripleIterator resources, LiteralTripleIterator literals);
+
+    /**
+     * @return true if no triples are left
+     */
+    boolean isEmpty();
+
+    /**
+     * Remove all triples.
+     */
+    void clear();
+}
@@ -220,6 +220,9 @@ public class TripleHandlers {
         }
 
         public void consumeNonReservedPredicateTriples() {
+            if (consumer.getConfiguration().shouldTranslateRDFInParallel()) {
+                new ParallelAssertionTranslator(consumer, resources, literals).translate();
+            }
             consumer.iterateResources(this::apply);
             consumer.iterateLiterals(this::apply);
         }
@@ -861,6 +864,16 @@ public class TripleHandlers {
             }
             consume(s, p, o);
         }
+
+        @Override
+        @Nullable
+        public OWLAxiom translate(IRI s, IRI p, OWLLiteral o, Set<OWLAnnotation> annotations) {
+            if (isAnon(s) || consumer.isOntology(s)) {
+                return null;
+            }
+            return df.getOWLAnnotationAssertionAxiom(df.getOWLAnnotationProperty(p), s, o,
+                annotations);
+        }
     }
 
     static class GTPAnnotationResourceTripleHandler extends AbstractResourceTripleHandler {
@@ -902,6 +915,16 @@ public class TripleHandlers {
             }
             consume(s, p, o);
         }
+
+        @Override
+        @Nullable
+        public OWLAxiom translate(IRI s, IRI p, IRI o, Set<OWLAnnotation> annotations) {
+            if (isAnon(s) || isAnon(o) || consumer.isOntology(s)) {
+                return null;
+            }
+            return df.getOWLAnnotationAssertionAxiom(s,
+                df.getOWLAnnotation(df.getOWLAnnotationProperty(p), o), annotations);
+        }
     }
 
     static class GTPDataPropertyAssertionHandler extends AbstractTripleHandler
@@ -930,6 +953,16 @@ public class TripleHandlers {
             add(df.getOWLDataPropertyAssertionAxiom(dp(p), ind(s), o, anns()));
             consume(s, p, o);
         }
+
+        @Override
+        @Nullable
+        public OWLAxiom translate(IRI s, IRI p, OWLLiteral o, Set<OWLAnnotation> annotations) {
+            if (isAnon(s)) {
+                return null;
+            }
+            return df.getOWLDataPropertyAssertionAxiom(dp(p), df.getOWLNamedIndividual(s), o,
+                annotations);
+        }
     }
 
     static class GTPLiteralTripleHandler extends AbstractTripleHandler
@@ -985,6 +1018,17 @@ public class TripleHandlers {
                 add(df.getOWLObjectPropertyAssertionAxiom(op(p), ind(s), ind(o), anns()));
             }
         }
+
+        @Override
+        @Nullable
+        public OWLAxiom translate(IRI s, IRI p, IRI o, Set<OWLAnnotation> annotations) {
+            if (!isOpLax(p) || isAnon(s) || isAnon(o)) {
+                return null;
+            }
+            // the predicate is a named property, so no inverse needs to be translated
+            return df.getOWLObjectPropertyAssertionAxiom(df.getOWLObjectProperty(p),
+                df.getOWLNamedIndividual(s), df.getOWLNamedIndividual(o), annotations);
+        }
     }
 
     static class GTPResourceTripleHandler extends AbstractResourceTripleHandler {
@@ -0,0 +1,267 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.rio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.IRIDocumentSource;
+import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.model.IRI;
+
+/**
+ * Parser for line based RDF formats (N-Triples and N-Quads) that splits a local file at line
+ * boundaries and parses the chunks on multiple threads. Each chunk is memory mapped and parsed by
+ * its own Rio parser into a batch of statements; batches are passed to the handler in file order,
+ * so the handler receives the statements in the same order as with a sequential parse. Only a
+ * bounded number of batches is parsed ahead of the handler. Blank node labels are preserved, so
+ * that a label used in two chunks denotes the same node, and prefixed with an ID unique to the
+ * parse, so that the same label in two documents, or in two loads of one document, denotes
+ * different nodes.
+ *
+ * @since 5.1.8
+ */
+final class ParallelLineParser {
+
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 28;
+    private static final ValueFactory VALUES = SimpleValueFactory.getInstance();
+    private final RDFFormat format;
+    private final int threads;
+
+    /**
+     * @param format line based format to parse
+     * @param threads number of parsing threads
+     */
+    ParallelLineParser(RDFFormat format, int threads) {
+        this.format = format;
+        this.threads = threads;
+    }
+
+    /**
+     * @param format format to check
+     * @return true if every line of a document in the format can be parsed on its own
+     */
+    static boolean isLineBased(RDFFormat format) {
+        return RDFFormat.NTRIPLES.equals(format) || RDFFormat.NQUADS.equals(format);
+    }
+
+    /**
+     * @param source document source
+     * @return the uncompressed local file the source reads from, or null if the source is not
+     *         backed by such a file
+     */
+    @Nullable
+    static Path localFile(OWLOntologyDocumentSource source) {
+        if (!(source instanceof FileDocumentSource || source instanceof IRIDocumentSource)) {
+            return null;
+        }
+        IRI iri = source.getDocumentIRI();
+        if (!"file".equals(iri.getScheme())) {
+            return null;
+        }
+        String name = iri.toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz") || name.endsWith(".xz") || name.endsWith(".zip")) {
+            return null;
+        }
+        try {
+            Path file = Paths.get(iri.toURI());
+            return Files.isRegularFile(file) ? file : null;
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param file file to parse
+     * @param baseUri base URI
+     * @param handler handler receiving the statements
+     * @throws IOException if the file cannot be read
+     */
+    void parse(Path file, String baseUri, RDFHandler handler) throws IOException {
+        String prefix = "p" + UUID.randomUUID().toString().replace("-", "") + '-';
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = split(channel, threads * 4);
+            Deque<Future<List<Statement>>> window = new ArrayDeque<>();
+            int next = 0;
+            handler.startRDF();
+            while (next < chunks.size() || !window.isEmpty()) {
+                while (next < chunks.size() && window.size() < threads * 2) {
+                    long[] chunk = chunks.get(next++);
+                    window.add(
+                        pool.submit(() -> parse(channel, chunk[0], chunk[1], baseUri, prefix)));
+                }
+                for (Statement statement : join(window.remove())) {
+                    handler.handleStatement(statement);
+                }
+            }
+            handler.endRDF();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Statement> parse(FileChannel channel, long start, long end, String baseUri,
+        String prefix) throws IOException {
+        RDFParser parser = RioParserImpl.createParser(format);
+        parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, Boolean.TRUE);
+        List<Statement> statements = new ArrayList<>();
+        parser.setRDFHandler(new StatementCollector(statements));
+        parser.parse(new ByteBufferInputStream(channel.map(MapMode.READ_ONLY, start, end - start)),
+            baseUri);
+        for (int i = 0; i < statements.size(); i++) {
+            statements.set(i, relabel(statements.get(i), prefix));
+        }
+        return statements;
+    }
+
+    private static Statement relabel(Statement s, String prefix) {
+        Resource context = s.getContext();
+        if (!(s.getSubject() instanceof BNode) && !(s.getObject() instanceof BNode)
+            && !(context instanceof BNode)) {
+            return s;
+        }
+        Resource subject = (Resource) relabel(s.getSubject(), prefix);
+        Value object = relabel(s.getObject(), prefix);
+        if (context == null) {
+            return VALUES.createStatement(subject, s.getPredicate(), object);
+        }
+        return VALUES.createStatement(subject, s.getPredicate(), object,
+            (Resource) relabel(context, prefix));
+    }
+
+    private static Value relabel(Value v, String prefix) {
+        return v instanceof BNode ? VALUES.createBNode(prefix + ((BNode) v).getID()) : v;
+    }
+
+    /**
+     * Split the file in chunks of roughly equal size, ending at line boundaries. A newline byte
+     * cannot be part of a multi byte UTF-8 sequence, so chunks never split a character.
+     */
+    private static List<long[]> split(FileChannel channel, int chunks) throws IOException {
+        long size = channel.size();
+        long target = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / chunks));
+        List<long[]> ranges = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = 0;
+        while (start < size) {
+            long end = nextLine(channel, Math.min(size, start + target), size, probe);
+            ranges.add(new long[] {start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    private static long nextLine(FileChannel channel, long position, long size, ByteBuffer probe)
+        throws IOException {
+        long p = position;
+        while (p < size) {
+            probe.clear();
+            int read = channel.read(probe, p);
+            if (read <= 0) {
+                return size;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += read;
+        }
+        return size;
+    }
+
+    private static List<Statement> join(Future<List<Statement>> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLParserException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new OWLParserException(cause);
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -40,6 +40,7 @@ import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -50,6 +51,7 @@ import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParseException;
@@ -122,7 +124,15 @@ public class RioParserImpl extends AbstractOWLParser implements RioParser {
                 }
                 handler.endRDF();
             } else {
-                parseDocumentSource(documentSource, baseUri, handler, configuration);
+                int threads = configuration.getLineParserThreads();
+                Path file = ParallelLineParser.localFile(documentSource);
+                if (threads > 1 && file != null
+                    && ParallelLineParser.isLineBased(owlFormatFactory.getRioFormat())) {
+                    new ParallelLineParser(owlFormatFactory.getRioFormat(), threads).parse(file,
+                        baseUri, handler);
+                } else {
+                    parseDocumentSource(documentSource, baseUri, handler, configuration);
+                }
             }
             return consumer.getOntologyFormat();
         } catch (final RDFHandlerException e) {
@@ -161,10 +171,7 @@ public class RioParserImpl extends AbstractOWLParser implements RioParser {
         final RDFHandler handler, OWLOntologyLoaderConfiguration config)
         throws OWLOntologyInputSourceException,
         IOException {
-        final RDFParser createParser = Rio.createParser(owlFormatFactory.getRioFormat());
-        createParser.getParserConfig().addNonFatalError(BasicParserSettings.VERIFY_DATATYPE_VALUES);
-        createParser.getParserConfig().addNonFatalError(BasicParserSettings.VERIFY_LANGUAGE_TAGS);
-        createParser.getParserConfig().addNonFatalError(BasicParserSettings.VERIFY_URI_SYNTAX);
+        final RDFParser createParser = createParser(owlFormatFactory.getRioFormat());
         createParser.setRDFHandler(handler);
         long rioParseStart = System.currentTimeMillis();
         try {
@@ -191,6 +198,22 @@ public class RioParserImpl extends AbstractOWLParser implements RioParser {
         }
     }
 
+    /**
+     * Create a Rio parser with the settings shared by sequential and parallel parsing. Blank node
+     * labels are not preserved here: the sequential parser generates node IDs that are unique to
+     * the parse, and {@link ParallelLineParser} relabels the preserved labels itself.
+     *
+     * @param format format to parse
+     * @return configured parser
+     */
+    static RDFParser createParser(RDFFormat format) {
+        RDFParser parser = Rio.createParser(format);
+        parser.getParserConfig().addNonFatalError(BasicParserSettings.VERIFY_DATATYPE_VALUES);
+        parser.getParserConfig().addNonFatalError(BasicParserSettings.VERIFY_LANGUAGE_TAGS);
+        parser.getParserConfig().addNonFatalError(BasicParserSettings.VERIFY_URI_SYNTAX);
+        return parser;
+    }
+
     @Override
     public String toString() {
         return getClass().getName() + " : " + owlFormatFactory;
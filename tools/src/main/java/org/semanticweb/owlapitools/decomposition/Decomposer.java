@@ -1,5 +1,6 @@
 package org.semanticweb.owlapitools.decomposition;
 
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 
 import java.util.ArrayList;
@@ -8,10 +9,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.util.ProgressMonitor;
 import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
 
 /**
@@ -42,6 +51,12 @@ public class Decomposer {
      */
     private ModuleType type;
     private List<AxiomWrapper> axioms;
+    /**
+     * modules of the axioms, as axiom ids, computed in advance for a parallel AOS creation; a
+     * module is dropped once its atom is built
+     */
+    @Nullable
+    private int[][] axiomModules = null;
 
     /**
      * @param axioms axiom wrappers to decompose
@@ -113,7 +128,35 @@ public class Decomposer {
     private Optional<OntologyAtom> buildModule(Signature sig, OntologyAtom parent) {
         // build a module for a given signature
         modularizer.extract(parent.getModule(), sig, type);
-        Collection<AxiomWrapper> module = modularizer.getModule();
+        return buildAtom(modularizer.getModule(), parent);
+    }
+
+    /**
+     * @param ax axiom
+     * @param parent parent atom
+     * @return module for given axiom AX, taken from the modules computed in advance if available
+     */
+    private Optional<OntologyAtom> buildModule(AxiomWrapper ax, OntologyAtom parent) {
+        int[][] modules = axiomModules;
+        if (modules == null) {
+            return buildModule(new Signature(ax.getAxiom().signature()), parent);
+        }
+        int[] ids = verifyNotNull(modules[ax.getId()]);
+        modules[ax.getId()] = null;
+        List<AxiomWrapper> module = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            module.add(axioms.get(id));
+        }
+        return buildAtom(module, parent);
+    }
+
+    /**
+     * @param module module of a signature
+     * @param parent parent atom, whose module includes the given one
+     * @return atom for the module
+     */
+    private Optional<OntologyAtom> buildAtom(Collection<AxiomWrapper> module,
+        OntologyAtom parent) {
         // if module is empty (empty bottom atom) -- do nothing
         if (module.isEmpty()) {
             return Optional.empty();
@@ -143,7 +186,7 @@ public class Decomposer {
             return atom.get();
         }
         // build an atom: use a module to find atomic dependencies
-        atom = buildModule(new Signature(ax.getAxiom().signature()), parent);
+        atom = buildModule(ax, parent);
         // no empty modules should be here
         assert atom.isPresent();
         // register axiom as a part of an atom
@@ -184,6 +227,128 @@ public class Decomposer {
         modularizer.preprocessOntology(axioms);
         // we don't need tautologies here
         removeTautologies();
+        buildBottomAtom();
+        return buildAOS();
+    }
+
+    /**
+     * Builds the atomic structure computing the modules of all the axioms in parallel first; the
+     * atoms and their dependencies are then built from these modules, as for
+     * {@link #getAOS(ModuleType)}. Each thread extracts modules with its own locality checker,
+     * which must behave like the one of this decomposer; progress is reported as the number of
+     * axioms whose module has been computed, and cancelling the monitor stops the decomposition.
+     *
+     * @param t module type
+     * @param threads number of threads computing the modules
+     * @param checkers supplier of a locality checker for each thread
+     * @param monitor progress monitor
+     * @return the atomic structure for given module type T
+     * @throws OWLRuntimeException if the decomposition is cancelled or interrupted, or if a
+     *         module extraction fails
+     */
+    public AtomList getAOS(ModuleType t, int threads, Supplier<? extends LocalityChecker> checkers,
+        ProgressMonitor monitor) {
+        checkNotNull(checkers, "checkers cannot be null");
+        checkNotNull(monitor, "monitor cannot be null");
+        type = t;
+        atomList = new AtomList();
+        modularizer.preprocessOntology(axioms);
+        removeTautologies();
+        buildBottomAtom();
+        try {
+            axiomModules = computeModules(Math.max(1, threads), checkers, monitor);
+            return buildAOS();
+        } finally {
+            axiomModules = null;
+            if (rootAtom != null) {
+                // the decomposition did not complete
+                restoreTautologies();
+                rootAtom = null;
+            }
+        }
+    }
+
+    /**
+     * @param threads number of threads
+     * @param checkers supplier of locality checkers
+     * @param monitor progress monitor
+     * @return module of each used axiom without an atom, as axiom ids, indexed by axiom id
+     */
+    private int[][] computeModules(int threads, Supplier<? extends LocalityChecker> checkers,
+        ProgressMonitor monitor) {
+        for (int i = 0; i < axioms.size(); i++) {
+            axioms.get(i).setId(i);
+        }
+        int[][] modules = new int[axioms.size()][];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        monitor.setStarted();
+        monitor.setSize(axioms.size());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                LocalityChecker checker = checkers.get();
+                futures.add(
+                    pool.submit(() -> computeModules(checker, modules, next, done, monitor)));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new OWLRuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            monitor.setFinished();
+        }
+        if (monitor.isCancelled()) {
+            throw new OWLRuntimeException("Atomic decomposition cancelled");
+        }
+        return modules;
+    }
+
+    /**
+     * compute modules for the axioms not yet taken by other threads; the axioms are wrapped again,
+     * so that the flags used by the modularizer are not shared between threads
+     *
+     * @param checker locality checker for this thread
+     * @param modules modules to fill in
+     * @param next id of the next axiom to take
+     * @param done number of axioms done
+     * @param monitor progress monitor
+     */
+    private void computeModules(LocalityChecker checker, int[][] modules, AtomicInteger next,
+        AtomicInteger done, ProgressMonitor monitor) {
+        List<AxiomWrapper> copies = new ArrayList<>(axioms.size());
+        for (AxiomWrapper p : axioms) {
+            AxiomWrapper copy = new AxiomWrapper(p.getAxiom());
+            copy.setUsed(p.isUsed());
+            copy.setId(p.getId());
+            copies.add(copy);
+        }
+        Modularizer m = buildModulariser(copies, checker);
+        for (int i = next.getAndIncrement(); i < copies.size() && !monitor.isCancelled(); i =
+            next.getAndIncrement()) {
+            AxiomWrapper p = copies.get(i);
+            // axioms in the bottom atom need no module
+            if (p.isUsed() && !axioms.get(i).getAtom().isPresent()) {
+                m.extract(new Signature(p.getAxiom().signature()), type);
+                modules[i] = m.getModule().stream().mapToInt(AxiomWrapper::getId).toArray();
+            }
+            synchronized (monitor) {
+                monitor.setProgress(done.incrementAndGet());
+            }
+        }
+    }
+
+    /**
+     * init the root atom and build the "bottom" atom for an empty signature, once the ontology is
+     * preprocessed and tautologies removed
+     */
+    private void buildBottomAtom() {
         // init the root atom
         rootAtom = new OntologyAtom();
         rootAtom.setModule(new HashSet<>(axioms));
@@ -193,6 +358,12 @@ public class Decomposer {
         if (bottomAtom.isPresent()) {
             bottomAtom.get().addAxioms(bottomAtom.get().getModule());
         }
+    }
+
+    /**
+     * @return the atomic structure, once the bottom atom is built
+     */
+    private AtomList buildAOS() {
         // create atoms for all the axioms in the ontology
         for (AxiomWrapper p : axioms) {
             if (p.isUsed() && !p.getAtom().isPresent()) {
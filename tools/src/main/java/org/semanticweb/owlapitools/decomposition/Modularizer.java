@@ -45,6 +45,10 @@ public class Modularizer {
      * number of non-local axioms
      */
     private long nNonLocal = 0;
+    /**
+     * true if all the used axioms are in the search space
+     */
+    private boolean searchOntology = false;
 
     /**
      * @param c the clocality checker
@@ -114,7 +118,7 @@ public class Modularizer {
      */
     private void addNonLocal(Collection<AxiomWrapper> axSet, boolean noCheck) {
         for (AxiomWrapper q : axSet) {
-            if (!q.isInModule() && q.isInSearchSpace()) {
+            if (!q.isInModule() && (searchOntology ? q.isUsed() : q.isInSearchSpace())) {
                 this.addNonLocal(q, noCheck);
             }
         }
@@ -164,6 +168,16 @@ public class Modularizer {
         nChecks += 2 * axioms.size();
     }
 
+    /**
+     * update the signature index of the preprocessed ontology after an axiom has been added to it,
+     * or after the Used status of one of its axioms has changed
+     *
+     * @param axiom the axiom to process
+     */
+    public void processAxiom(AxiomWrapper axiom) {
+        sigIndex.processAx(axiom);
+    }
+
     /**
      * extract module wrt SIGNATURE and TYPE from the set of axioms
      *
@@ -192,6 +206,42 @@ public class Modularizer {
         } while (size != module.size());
     }
 
+    /**
+     * extract module wrt SIGNATURE and TYPE from all the used axioms of the preprocessed ontology;
+     * no axiom needs to be marked as part of the search space, so the cost of the extraction
+     * depends on the size of the module rather than on the size of the ontology
+     *
+     * @param signature signature
+     * @param type type
+     */
+    public void extract(Signature signature, ModuleType type) {
+        boolean topLocality = type == ModuleType.TOP;
+        sig = signature;
+        checker.setSignatureValue(sig);
+        sig.setLocality(topLocality);
+        module.clear();
+        searchOntology = true;
+        try {
+            extractModuleQueue();
+        } finally {
+            searchOntology = false;
+        }
+        if (type == ModuleType.STAR) {
+            // here there is a star: do the cycle until stabilization
+            int size;
+            do {
+                size = module.size();
+                List<AxiomWrapper> oldModule = new ArrayList<>(module);
+                topLocality = !topLocality;
+                sig = signature;
+                sig.setLocality(topLocality);
+                extractModule(oldModule);
+            } while (size != module.size());
+        }
+        // leave the axioms ready for the next extraction
+        module.forEach(p -> p.setInModule(false));
+    }
+
     /**
      * @param ax axiom
      * @param type type
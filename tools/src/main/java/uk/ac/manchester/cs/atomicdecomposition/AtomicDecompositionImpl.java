@@ -1,5 +1,7 @@
 package uk.ac.manchester.cs.atomicdecomposition;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -15,6 +17,7 @@ import javax.annotation.Nullable;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.util.ProgressMonitor;
 import org.semanticweb.owlapitools.decomposition.AtomList;
 import org.semanticweb.owlapitools.decomposition.AxiomSelector;
 import org.semanticweb.owlapitools.decomposition.AxiomWrapper;
@@ -38,7 +41,7 @@ public class AtomicDecompositionImpl implements AtomicDecomposition {
     private final ModuleType type;
     Set<OWLAxiom> globalAxioms;
     Set<OWLAxiom> tautologies;
-    List<Atom> atoms;
+    List<Atom> atoms = new ArrayList<>();
     ObjectIntHashMap<Atom> atomIndex = new ObjectIntHashMap<>();
     IdentityMultiMap<Atom, Atom> dependents = new IdentityMultiMap<>();
     IdentityMultiMap<Atom, Atom> dependencies = new IdentityMultiMap<>();
@@ -66,10 +69,42 @@ public class AtomicDecompositionImpl implements AtomicDecomposition {
     public AtomicDecompositionImpl(List<OWLAxiom> axioms, ModuleType type) {
         this.type = type;
         decomposer = new Decomposer(AxiomSelector.wrap(axioms), new SyntacticLocalityChecker());
-        int size = decomposer.getAOS(this.type).size();
-        atoms = new ArrayList<>();
+        buildAtoms(decomposer.getAOS(this.type));
+    }
+
+    /**
+     * Decomposes the ontology computing the modules of its axioms on several threads.
+     *
+     * @param o o
+     * @param type type
+     * @param threads number of threads computing the modules of the axioms
+     * @param monitor progress monitor, notified as modules are computed
+     */
+    public AtomicDecompositionImpl(OWLOntology o, ModuleType type, int threads,
+        ProgressMonitor monitor) {
+        this(AxiomSelector.selectAxioms(o), type, threads, monitor);
+    }
+
+    /**
+     * Decomposes the axioms computing their modules on several threads.
+     *
+     * @param axioms axioms
+     * @param type type
+     * @param threads number of threads computing the modules of the axioms
+     * @param monitor progress monitor, notified as modules are computed
+     */
+    public AtomicDecompositionImpl(List<OWLAxiom> axioms, ModuleType type, int threads,
+        ProgressMonitor monitor) {
+        this.type = type;
+        decomposer = new Decomposer(AxiomSelector.wrap(axioms), new SyntacticLocalityChecker());
+        buildAtoms(
+            decomposer.getAOS(this.type, threads, SyntacticLocalityChecker::new, monitor));
+    }
+
+    private void buildAtoms(AtomList aos) {
+        int size = aos.size();
         for (int i = 0; i < size; i++) {
-            final Atom atom = new Atom(asSet(decomposer.getAOS().get(i).getAtomAxioms()));
+            final Atom atom = new Atom(asSet(aos.get(i).getAtomAxioms()));
             atoms.add(atom);
             atomIndex.put(atom, i);
             for (OWLEntity e : atom.getSignature()) {
@@ -77,7 +112,7 @@ public class AtomicDecompositionImpl implements AtomicDecomposition {
             }
         }
         for (int i = 0; i < size; i++) {
-            Set<OntologyAtom> dependentIndexes = decomposer.getAOS().get(i).getDependencies();
+            Set<OntologyAtom> dependentIndexes = aos.get(i).getDependencies();
             for (OntologyAtom j : dependentIndexes) {
                 dependencies.put(atoms.get(i), atoms.get(j.getId()));
                 dependents.put(atoms.get(j.getId()), atoms.get(i));
@@ -232,6 +267,18 @@ public class AtomicDecompositionImpl implements AtomicDecomposition {
         return decomposer.getAOS().get(index).getModule();
     }
 
+    /**
+     * Saves this decomposition to a snapshot file, which can be memory mapped with
+     * {@link MappedAtomicDecomposition#load(OWLOntology, Path)} instead of decomposing the
+     * ontology again.
+     *
+     * @param file snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        MappedAtomicDecomposition.save(this, type, file);
+    }
+
     @Override
     public AtomList getAtomList() {
         return decomposer.getAOS();
@@ -0,0 +1,579 @@
+package uk.ac.manchester.cs.atomicdecomposition;
+
+import static org.semanticweb.owlapi.model.AxiomType.LOGICAL_AXIOMS_AND_DECLARATIONS_TYPES;
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AsynchronousChangeBroadcastStrategy;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeBroadcastStrategy;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.parameters.AxiomAnnotations;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapitools.decomposition.AtomList;
+import org.semanticweb.owlapitools.decomposition.AxiomSelector;
+import org.semanticweb.owlapitools.decomposition.AxiomWrapper;
+import org.semanticweb.owlapitools.decomposition.Decomposer;
+import org.semanticweb.owlapitools.decomposition.LocalityChecker;
+import org.semanticweb.owlapitools.decomposition.Modularizer;
+import org.semanticweb.owlapitools.decomposition.OntologyAtom;
+import org.semanticweb.owlapitools.decomposition.Signature;
+import org.semanticweb.owlapitools.decomposition.SyntacticLocalityChecker;
+
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+
+/**
+ * Atomic decomposition of the logical axioms and declarations of an ontology and its imports
+ * closure, which listens to the changes of the ontologies and keeps itself up to date without
+ * decomposing the whole ontology again.
+ * <p>
+ * The module of a signature can only change if the signature of the module shares an entity with
+ * an added or removed axiom; the atoms affected by a change are therefore the atoms referencing
+ * the entities of the changed axioms, and all the atoms depending on them. Only the axioms of the
+ * affected atoms, and the added axioms, are decomposed again, extracting their modules from the
+ * whole ontology; the other atoms and their principal ideals do not change. The decomposition is
+ * computed again from scratch when imports change, when the module type is STAR, when an added
+ * axiom belongs to every module, or when most axioms would be decomposed again.
+ * <p>
+ * Decompositions are created by the {@code create} methods, which register them as listeners with
+ * the manager of the ontology; the {@code dispose} method must be called when the decomposition is
+ * no longer needed, so that it may remove itself as a listener from the manager.
+ * <p>
+ * Changes are handled as the manager broadcasts them. With the default, synchronous broadcast
+ * strategy, the thread applying the changes updates the decomposition before
+ * {@code applyChanges} returns, while the manager lock is held; a change that requires decomposing
+ * the ontology again blocks {@code applyChanges} for as long as a full decomposition takes. To move
+ * the work off the changing thread, create the decomposition with an
+ * {@link AsynchronousChangeBroadcastStrategy} on a concurrent manager; the changes are then
+ * compared with the ontology as it is when they are delivered.
+ *
+ * @since 5.1.8
+ */
+public class IncrementalAtomicDecomposition implements AtomicDecomposition,
+    OWLOntologyChangeListener {
+
+    private final OWLOntology ontology;
+    private final ModuleType type;
+    private final Map<OWLAxiom, AxiomWrapper> wrappers = new LinkedHashMap<>();
+    private final Set<OWLAxiom> tautologies = new HashSet<>();
+    private final Map<OWLAxiom, Atom> atomOf = new HashMap<>();
+    /**
+     * principal ideal of each atom
+     */
+    private final Map<Atom, Set<OWLAxiom>> ideals = new HashMap<>();
+    /**
+     * all the atoms in the principal ideal of each atom, except the atom itself
+     */
+    private final Map<Atom, Set<Atom>> dependencies = new HashMap<>();
+    /**
+     * all the atoms whose principal ideal includes each atom, except the atom itself
+     */
+    private final Map<Atom, Set<Atom>> dependents = new HashMap<>();
+    private final Map<OWLEntity, Set<Atom>> termBasedIndex = new HashMap<>();
+    private Modularizer modularizer;
+    @Nullable
+    private AtomList atomList;
+    /**
+     * imports closure of the decomposed ontology; import changes trigger a recomputation
+     */
+    private Set<OWLOntology> closure = Collections.emptySet();
+    private boolean decomposed = false;
+    private boolean listening = true;
+    private long repairs = 0;
+    private long recomputations = 0;
+
+    private IncrementalAtomicDecomposition(OWLOntology o, ModuleType type) {
+        ontology = checkNotNull(o, "o cannot be null");
+        this.type = checkNotNull(type, "type cannot be null");
+        modularizer = new Modularizer(new SyntacticLocalityChecker());
+    }
+
+    /**
+     * @param o ontology to decompose
+     * @return bottom decomposition of the ontology, listening to its changes
+     */
+    public static IncrementalAtomicDecomposition create(OWLOntology o) {
+        return create(o, ModuleType.BOT);
+    }
+
+    /**
+     * @param o ontology to decompose
+     * @param type module type
+     * @return decomposition of the ontology, listening to its changes with the default broadcast
+     *         strategy of the manager
+     */
+    public static IncrementalAtomicDecomposition create(OWLOntology o, ModuleType type) {
+        IncrementalAtomicDecomposition ad = new IncrementalAtomicDecomposition(o, type);
+        o.getOWLOntologyManager().addOntologyChangeListener(ad);
+        ad.decompose();
+        return ad;
+    }
+
+    /**
+     * @param o ontology to decompose
+     * @param type module type
+     * @param strategy strategy broadcasting the changes to the decomposition
+     * @return decomposition of the ontology, listening to its changes with the strategy
+     */
+    public static IncrementalAtomicDecomposition create(OWLOntology o, ModuleType type,
+        OWLOntologyChangeBroadcastStrategy strategy) {
+        IncrementalAtomicDecomposition ad = new IncrementalAtomicDecomposition(o, type);
+        o.getOWLOntologyManager().addOntologyChangeListener(ad,
+            checkNotNull(strategy, "strategy cannot be null"));
+        ad.decompose();
+        return ad;
+    }
+
+    /**
+     * first decomposition; the listener is registered beforehand, so that no change is missed,
+     * and changes broadcast in the meantime are already in the decomposition
+     */
+    private synchronized void decompose() {
+        recompute();
+        decomposed = true;
+    }
+
+    /**
+     * Stops tracking changes; the decomposition is no longer updated.
+     */
+    public synchronized void dispose() {
+        if (listening) {
+            ontology.getOWLOntologyManager().removeOntologyChangeListener(this);
+            listening = false;
+        }
+    }
+
+    /**
+     * @return number of changes handled by decomposing the affected atoms again
+     */
+    public synchronized long getRepairs() {
+        return repairs;
+    }
+
+    /**
+     * @return number of times the ontology has been decomposed from scratch, including the first
+     *         decomposition
+     */
+    public synchronized long getRecomputations() {
+        return recomputations;
+    }
+
+    /**
+     * decompose the whole ontology
+     */
+    private void recompute() {
+        wrappers.clear();
+        tautologies.clear();
+        atomOf.clear();
+        ideals.clear();
+        dependencies.clear();
+        dependents.clear();
+        termBasedIndex.clear();
+        atomList = null;
+        closure = asSet(ontology.importsClosure());
+        for (OWLAxiom ax : new LinkedHashSet<>(AxiomSelector.selectAxioms(ontology))) {
+            wrappers.put(ax, new AxiomWrapper(ax));
+        }
+        Decomposer decomposer =
+            new Decomposer(new ArrayList<>(wrappers.values()), new SyntacticLocalityChecker());
+        AtomList aos = decomposer.getAOS(type);
+        decomposer.getTautologies().forEach(p -> tautologies.add(p.getAxiom()));
+        List<Atom> atoms = new ArrayList<>(aos.size());
+        for (int i = 0; i < aos.size(); i++) {
+            Atom atom = new Atom(axioms(aos.get(i).getAtomAxioms()));
+            atoms.add(atom);
+            add(atom, axioms(aos.get(i).getModule()));
+        }
+        atoms.forEach(this::link);
+        // modules are extracted from the whole ontology from now on
+        wrappers.values().forEach(p -> p.setInModule(false));
+        recomputations++;
+        modularizer = decomposer.getModularizer();
+    }
+
+    private static Set<OWLAxiom> axioms(Collection<AxiomWrapper> c) {
+        Set<OWLAxiom> toReturn = new HashSet<>();
+        c.forEach(p -> toReturn.add(p.getAxiom()));
+        return toReturn;
+    }
+
+    /**
+     * register an atom and its principal ideal; dependencies are linked separately, once all the
+     * atoms in the ideal are registered
+     *
+     * @param atom atom
+     * @param ideal principal ideal of the atom
+     */
+    private void add(Atom atom, Set<OWLAxiom> ideal) {
+        ideals.put(atom, ideal);
+        dependencies.put(atom, new HashSet<>());
+        dependents.put(atom, new HashSet<>());
+        atom.getAxioms().forEach(ax -> atomOf.put(ax, atom));
+        atom.getSignature()
+            .forEach(e -> termBasedIndex.computeIfAbsent(e, x -> new HashSet<>()).add(atom));
+    }
+
+    /**
+     * make an atom depend on the atoms of the axioms in its principal ideal
+     *
+     * @param atom atom
+     */
+    private void link(Atom atom) {
+        Set<Atom> atomDependencies = dependencies.get(atom);
+        for (OWLAxiom ax : ideals.get(atom)) {
+            Atom dependency = atomOf.get(ax);
+            if (dependency != null && !dependency.equals(atom)
+                && atomDependencies.add(dependency)) {
+                dependents.get(dependency).add(atom);
+            }
+        }
+    }
+
+    /**
+     * unregister an atom; all of its dependents must be removed as well
+     *
+     * @param atom atom
+     */
+    private void remove(Atom atom) {
+        ideals.remove(atom);
+        for (Atom dependency : dependencies.remove(atom)) {
+            Set<Atom> set = dependents.get(dependency);
+            if (set != null) {
+                set.remove(atom);
+            }
+        }
+        dependents.remove(atom);
+        atom.getAxioms().forEach(atomOf::remove);
+        for (OWLEntity e : atom.getSignature()) {
+            Set<Atom> set = termBasedIndex.get(e);
+            if (set != null && set.remove(atom) && set.isEmpty()) {
+                termBasedIndex.remove(e);
+            }
+        }
+    }
+
+    /**
+     * @param ax axiom
+     * @param sig signature
+     * @return true if the axiom is local with respect to the signature, for the module type
+     */
+    private boolean isLocal(OWLAxiom ax, Signature sig) {
+        sig.setLocality(type == ModuleType.TOP);
+        LocalityChecker checker = modularizer.getLocalityChecker();
+        checker.setSignatureValue(sig);
+        return checker.local(ax);
+    }
+
+    @Override
+    public synchronized void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        if (!listening || !decomposed) {
+            return;
+        }
+        Set<OWLAxiom> changed = new LinkedHashSet<>();
+        for (OWLOntologyChange change : changes) {
+            if (!closure.contains(change.getOntology())) {
+                continue;
+            }
+            if (change.isImportChange()) {
+                recompute();
+                return;
+            }
+            if (change.isAxiomChange() && LOGICAL_AXIOMS_AND_DECLARATIONS_TYPES
+                .contains(change.getAxiom().getAxiomType())) {
+                changed.add(change.getAxiom());
+            }
+        }
+        // compare with the ontology, as an axiom may be added and removed in the same batch, or
+        // still be in another ontology of the imports closure
+        List<OWLAxiom> added = new ArrayList<>();
+        List<OWLAxiom> removed = new ArrayList<>();
+        for (OWLAxiom ax : changed) {
+            boolean present = ontology.containsAxiom(ax, Imports.INCLUDED,
+                AxiomAnnotations.CONSIDER_AXIOM_ANNOTATIONS);
+            if (present && !wrappers.containsKey(ax)) {
+                added.add(ax);
+            } else if (!present && wrappers.containsKey(ax)) {
+                removed.add(ax);
+            }
+        }
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        if (type == ModuleType.STAR) {
+            recompute();
+            return;
+        }
+        update(added, removed);
+    }
+
+    /**
+     * decompose again the atoms affected by the added and removed axioms
+     *
+     * @param added axioms added to the ontology
+     * @param removed axioms removed from the ontology
+     */
+    private void update(List<OWLAxiom> added, List<OWLAxiom> removed) {
+        Set<OWLEntity> signature = new HashSet<>();
+        for (OWLAxiom ax : removed) {
+            AxiomWrapper p = wrappers.remove(ax);
+            p.setUsed(false);
+            modularizer.processAxiom(p);
+            // tautologies are local for any signature, and never change modules
+            if (!tautologies.remove(ax)) {
+                ax.signature().forEach(signature::add);
+            }
+        }
+        List<OWLAxiom> newAxioms = new ArrayList<>();
+        boolean global = false;
+        for (OWLAxiom ax : added) {
+            AxiomWrapper p = new AxiomWrapper(ax);
+            wrappers.put(ax, p);
+            modularizer.processAxiom(p);
+            // an axiom is a tautology if it is local wrt its own signature
+            if (isLocal(ax, new Signature(ax.signature()))) {
+                tautologies.add(ax);
+            } else {
+                newAxioms.add(ax);
+                ax.signature().forEach(signature::add);
+                // an axiom that is not local wrt the empty signature is in every module
+                global |= !isLocal(ax, new Signature());
+            }
+        }
+        Set<Atom> affected = new HashSet<>();
+        for (OWLEntity e : signature) {
+            for (Atom atom : termBasedIndex.getOrDefault(e, Collections.emptySet())) {
+                if (affected.add(atom)) {
+                    affected.addAll(dependents.get(atom));
+                }
+            }
+        }
+        Set<OWLAxiom> toDecompose = new LinkedHashSet<>();
+        affected.forEach(atom -> toDecompose.addAll(atom.getAxioms()));
+        // decomposing most of the axioms again costs as much as decomposing the ontology
+        if (global || toDecompose.size() * 2 > atomOf.size()) {
+            recompute();
+            return;
+        }
+        toDecompose.removeAll(removed);
+        toDecompose.addAll(newAxioms);
+        affected.forEach(this::remove);
+        Map<OWLAxiom, Set<OWLAxiom>> members = new HashMap<>();
+        List<Set<OWLAxiom>> atomAxioms = new ArrayList<>();
+        List<Set<OWLAxiom>> atomIdeals = new ArrayList<>();
+        for (OWLAxiom ax : toDecompose) {
+            if (!members.containsKey(ax)) {
+                modularizer.extract(new Signature(ax.signature()), type);
+                List<AxiomWrapper> module = new ArrayList<>(modularizer.getModule());
+                decompose(ax, module, toDecompose, members, atomAxioms, atomIdeals);
+                // modules are extracted from the whole ontology again
+                module.forEach(p -> p.setInModule(false));
+            }
+        }
+        List<Atom> newAtoms = new ArrayList<>(atomAxioms.size());
+        for (int i = 0; i < atomAxioms.size(); i++) {
+            Atom atom = new Atom(atomAxioms.get(i));
+            newAtoms.add(atom);
+            add(atom, atomIdeals.get(i));
+        }
+        newAtoms.forEach(this::link);
+        atomList = null;
+        repairs++;
+    }
+
+    /**
+     * create the atom of an axiom, as the decomposer does: the modules of the axioms in the module
+     * of the atom are extracted from it, and an axiom whose module has the same size is in the same
+     * atom
+     *
+     * @param ax axiom
+     * @param module module of the axiom
+     * @param toDecompose axioms to decompose
+     * @param members axioms decomposed so far, and the axioms of their atom
+     * @param atomAxioms axioms of the atoms created so far
+     * @param atomIdeals principal ideals of the atoms created so far
+     */
+    private void decompose(OWLAxiom ax, List<AxiomWrapper> module, Set<OWLAxiom> toDecompose,
+        Map<OWLAxiom, Set<OWLAxiom>> members, List<Set<OWLAxiom>> atomAxioms,
+        List<Set<OWLAxiom>> atomIdeals) {
+        Set<OWLAxiom> atom = new HashSet<>();
+        atom.add(ax);
+        members.put(ax, atom);
+        atomAxioms.add(atom);
+        atomIdeals.add(axioms(module));
+        for (AxiomWrapper p : module) {
+            OWLAxiom q = p.getAxiom();
+            if (toDecompose.contains(q) && !members.containsKey(q)) {
+                modularizer.extract(module, new Signature(q.signature()), type);
+                if (modularizer.getModule().size() == module.size()) {
+                    atom.add(q);
+                    members.put(q, atom);
+                } else {
+                    decompose(q, new ArrayList<>(modularizer.getModule()), toDecompose, members,
+                        atomAxioms, atomIdeals);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized Set<Atom> getAtoms() {
+        return new HashSet<>(ideals.keySet());
+    }
+
+    @Nullable
+    @Override
+    public synchronized Atom getAtomForAxiom(OWLAxiom axiom) {
+        return atomOf.get(axiom);
+    }
+
+    @Override
+    public synchronized boolean isTopAtom(Atom atom) {
+        return dependents.getOrDefault(atom, Collections.emptySet()).isEmpty();
+    }
+
+    @Override
+    public synchronized boolean isBottomAtom(Atom atom) {
+        return dependencies.getOrDefault(atom, Collections.emptySet()).isEmpty();
+    }
+
+    @Override
+    public synchronized Set<OWLAxiom> getPrincipalIdeal(Atom atom) {
+        return new HashSet<>(ideals.getOrDefault(atom, Collections.emptySet()));
+    }
+
+    @Override
+    public synchronized Set<OWLEntity> getPrincipalIdealSignature(Atom atom) {
+        Set<OWLEntity> toReturn = new HashSet<>();
+        ideals.getOrDefault(atom, Collections.emptySet())
+            .forEach(ax -> ax.signature().forEach(toReturn::add));
+        return toReturn;
+    }
+
+    @Override
+    public Set<Atom> getDependencies(Atom atom) {
+        return getDependencies(atom, false);
+    }
+
+    @Override
+    public synchronized Set<Atom> getDependencies(Atom atom, boolean direct) {
+        return explore(atom, direct, dependencies);
+    }
+
+    @Override
+    public Set<Atom> getDependents(Atom atom) {
+        return getDependents(atom, false);
+    }
+
+    @Override
+    public synchronized Set<Atom> getDependents(Atom atom, boolean direct) {
+        return explore(atom, direct, dependents);
+    }
+
+    /**
+     * @param atom atom
+     * @param direct true if only the atoms directly related are required
+     * @param map transitive relation between atoms
+     * @return the related atoms; the atom itself is included if not direct
+     */
+    private static Set<Atom> explore(Atom atom, boolean direct, Map<Atom, Set<Atom>> map) {
+        Set<Atom> all = map.getOrDefault(atom, Collections.emptySet());
+        Set<Atom> toReturn = new HashSet<>(all);
+        if (direct) {
+            for (Atom a : all) {
+                toReturn.removeAll(map.get(a));
+            }
+        } else {
+            toReturn.add(atom);
+        }
+        return toReturn;
+    }
+
+    @Override
+    public synchronized Set<Atom> getRelatedAtoms(Atom atom) {
+        Set<Atom> s = getDependencies(atom);
+        s.addAll(getDependents(atom));
+        return s;
+    }
+
+    @Override
+    public synchronized Set<Atom> getTopAtoms() {
+        Set<Atom> toReturn = new HashSet<>();
+        dependents.forEach((atom, set) -> {
+            if (set.isEmpty()) {
+                toReturn.add(atom);
+            }
+        });
+        return toReturn;
+    }
+
+    @Override
+    public synchronized Set<Atom> getBottomAtoms() {
+        Set<Atom> toReturn = new HashSet<>();
+        dependencies.forEach((atom, set) -> {
+            if (set.isEmpty()) {
+                toReturn.add(atom);
+            }
+        });
+        return toReturn;
+    }
+
+    @Override
+    public synchronized Set<OWLAxiom> getTautologies() {
+        return new HashSet<>(tautologies);
+    }
+
+    @Override
+    public synchronized Map<OWLEntity, Set<Atom>> getTermBasedIndex() {
+        Map<OWLEntity, Set<Atom>> toReturn = new HashMap<>();
+        termBasedIndex.forEach((e, atoms) -> toReturn.put(e, new HashSet<>(atoms)));
+        return toReturn;
+    }
+
+    @Override
+    public synchronized Stream<OWLAxiom> getModule(Stream<OWLEntity> signature,
+        boolean useSemantics, ModuleType moduletype) {
+        modularizer.extract(new Signature(signature), moduletype);
+        return asList(modularizer.getModule().stream().map(AxiomWrapper::getAxiom)).stream();
+    }
+
+    @Override
+    public synchronized AtomList getAtomList() {
+        AtomList list = atomList;
+        if (list != null) {
+            return list;
+        }
+        list = new AtomList();
+        Map<Atom, OntologyAtom> structure = new HashMap<>();
+        for (Atom atom : ideals.keySet()) {
+            OntologyAtom ontologyAtom = list.newAtom();
+            atom.getAxioms().forEach(ax -> ontologyAtom.addAxiom(wrappers.get(ax)));
+            structure.put(atom, ontologyAtom);
+        }
+        structure.forEach((atom, ontologyAtom) -> {
+            List<AxiomWrapper> module = new ArrayList<>();
+            ideals.get(atom).forEach(ax -> module.add(wrappers.get(ax)));
+            ontologyAtom.setModule(module);
+            dependencies.get(atom).forEach(a -> ontologyAtom.addDepAtom(structure.get(a)));
+        });
+        atomList = list;
+        return list;
+    }
+}
@@ -0,0 +1,790 @@
+package uk.ac.manchester.cs.atomicdecomposition;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.util.SimpleRenderer;
+import org.semanticweb.owlapitools.decomposition.AtomList;
+import org.semanticweb.owlapitools.decomposition.AxiomSelector;
+import org.semanticweb.owlapitools.decomposition.AxiomWrapper;
+import org.semanticweb.owlapitools.decomposition.Decomposer;
+import org.semanticweb.owlapitools.decomposition.OntologyAtom;
+import org.semanticweb.owlapitools.decomposition.Signature;
+import org.semanticweb.owlapitools.decomposition.SyntacticLocalityChecker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+
+/**
+ * Atomic decomposition read from a memory mapped snapshot file, so that a decomposition computed
+ * once can be used again without being recomputed. Axioms and entities are stored as their
+ * positions in the sorted arrays of the decomposed axioms and of their signature; a snapshot is
+ * keyed by a SHA-256 hash of the sorted axioms, and is only loaded for an ontology with the same
+ * hash. Axioms are sorted and hashed in a canonical form, rendered by {@link SimpleRenderer}
+ * whatever the {@link org.semanticweb.owlapi.io.ToStringRenderer} in use, in which anonymous
+ * individuals are numbered in order of appearance in each axiom, since their node IDs change each
+ * time an ontology is loaded; the hash includes a version of the canonical form, to be increased
+ * whenever the rendering changes. Axioms with the same canonical form might swap positions between
+ * loads;
+ * this does not change the decomposition, since they have the same signature and the same
+ * locality, and so belong to the same atom.
+ * <p>
+ * The file is a sequence of big endian ints: a header with the module type, the hash and the
+ * number of axioms, entities and atoms, then the axioms of each atom, the direct dependencies and
+ * direct dependents of each atom, and the axioms referencing each entity, all as offset arrays
+ * followed by values (compressed sparse rows); finally the atom of each axiom, the atoms included
+ * in every module and the tautologies. Atoms are created on demand from the mapped data.
+ * <p>
+ * Modules of the same type as the decomposition are extracted from the atoms: an axiom that is
+ * not local with respect to the signature brings the whole principal ideal of its atom into the
+ * module, and only axioms referencing the signature need to be checked. Other modules are
+ * extracted from the axioms.
+ *
+ * @since 5.1.8
+ */
+public class MappedAtomicDecomposition implements AtomicDecomposition {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedAtomicDecomposition.class);
+    private static final int MAGIC = 0x4F574144;
+    private static final int VERSION = 2;
+    /** Version of the canonical form of the axioms, hashed with them. */
+    private static final int CANONICAL_FORM = 1;
+    private static final int HASH_INTS = 8;
+    private static final int HEADER = 6 + HASH_INTS;
+    private final ModuleType type;
+    private final OWLAxiom[] axioms;
+    private final Map<OWLAxiom, Integer> positions;
+    private final OWLEntity[] entities;
+    private final IntBuffer data;
+    private final int atomCount;
+    private final int atomAxioms;
+    private final int dependencies;
+    private final int dependents;
+    private final int terms;
+    private final int axiomAtoms;
+    private final int globalAtoms;
+    private final int tautologies;
+    private final Atom[] atoms;
+    @Nullable
+    private Decomposer decomposer;
+    @Nullable
+    private AtomList atomList;
+
+    private MappedAtomicDecomposition(ModuleType type, OWLAxiom[] axioms, OWLEntity[] entities,
+        IntBuffer data) {
+        this.type = type;
+        this.axioms = axioms;
+        positions = positions(axioms);
+        this.entities = entities;
+        this.data = data;
+        atomCount = data.get(HEADER - 1);
+        atomAxioms = HEADER;
+        dependencies = next(atomAxioms, atomCount);
+        dependents = next(dependencies, atomCount);
+        terms = next(dependents, atomCount);
+        axiomAtoms = next(terms, entities.length);
+        globalAtoms = axiomAtoms + axioms.length;
+        tautologies = globalAtoms + 1 + data.get(globalAtoms);
+        atoms = new Atom[atomCount];
+    }
+
+    /**
+     * @param rows start of a compressed sparse rows section
+     * @param size number of rows
+     * @return start of the following section
+     */
+    private int next(int rows, int size) {
+        return rows + size + 1 + data.get(rows + size);
+    }
+
+    /**
+     * Loads a decomposition of the logical axioms and declarations of an ontology and its imports
+     * closure.
+     *
+     * @param o ontology the decomposition was computed for
+     * @param file snapshot file
+     * @return the decomposition, or empty if the snapshot was saved for different axioms
+     * @throws IOException if the file cannot be read, is not a snapshot or is truncated
+     */
+    public static Optional<AtomicDecomposition> load(OWLOntology o, Path file)
+        throws IOException {
+        Canonical sorted = sort(AxiomSelector.selectAxioms(o));
+        return load(sorted.axioms, hash(sorted), file);
+    }
+
+    /**
+     * Loads a decomposition of the logical axioms and declarations of an ontology and its imports
+     * closure from a directory of snapshots; if no snapshot for these axioms and module type is
+     * found, the decomposition is computed and saved in the directory, named after the hash of the
+     * axioms.
+     *
+     * @param o ontology to decompose
+     * @param type module type
+     * @param directory directory of snapshots
+     * @return the decomposition
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static AtomicDecomposition load(OWLOntology o, ModuleType type, Path directory)
+        throws IOException {
+        checkNotNull(type, "type cannot be null");
+        List<OWLAxiom> selected = AxiomSelector.selectAxioms(o);
+        Canonical sorted = sort(selected);
+        OWLAxiom[] axioms = sorted.axioms;
+        byte[] hash = hash(sorted);
+        StringBuilder name = new StringBuilder();
+        for (byte b : hash) {
+            name.append(String.format("%02x", Byte.valueOf(b)));
+        }
+        Path file = directory.resolve(name.append('-').append(type).append(".ad").toString());
+        if (Files.exists(file)) {
+            try {
+                Optional<AtomicDecomposition> loaded = load(axioms, hash, file);
+                if (loaded.isPresent()
+                    && ((MappedAtomicDecomposition) loaded.get()).type == type) {
+                    return loaded.get();
+                }
+            } catch (IOException e) {
+                // truncated, corrupted or saved by another version: replaced below
+                LOGGER.warn("Replacing atomic decomposition snapshot {}: {}", file,
+                    e.getMessage());
+            }
+        }
+        AtomicDecomposition ad = new AtomicDecompositionImpl(selected, type);
+        Files.createDirectories(directory);
+        save(ad, type, file);
+        return ad;
+    }
+
+    private static Optional<AtomicDecomposition> load(OWLAxiom[] axioms, byte[] hash, Path file)
+        throws IOException {
+        IntBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < HEADER * 4L) {
+                throw new IOException("Not an atomic decomposition snapshot: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            data = channel.map(MapMode.READ_ONLY, 0, size).asIntBuffer();
+        }
+        if (data.get(0) != MAGIC || data.get(1) != VERSION) {
+            throw new IOException("Not an atomic decomposition snapshot: " + file);
+        }
+        IntBuffer expected = ByteBuffer.wrap(hash).asIntBuffer();
+        for (int i = 0; i < HASH_INTS; i++) {
+            if (data.get(3 + i) != expected.get(i)) {
+                return Optional.empty();
+            }
+        }
+        OWLEntity[] entities = entities(axioms);
+        if (data.get(HEADER - 3) != axioms.length || data.get(HEADER - 2) != entities.length) {
+            return Optional.empty();
+        }
+        MappedAtomicDecomposition ad;
+        try {
+            ad = new MappedAtomicDecomposition(ModuleType.values()[data.get(2)], axioms, entities,
+                data);
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated atomic decomposition snapshot: " + file, e);
+        }
+        if (ad.end() != data.limit()) {
+            throw new IOException("Truncated atomic decomposition snapshot: " + file);
+        }
+        return Optional.of(ad);
+    }
+
+    /**
+     * @return end of the last section
+     */
+    private int end() {
+        return tautologies + 1 + data.get(tautologies);
+    }
+
+    /**
+     * Saves a decomposition; the file is written in full before it replaces an existing file.
+     *
+     * @param ad decomposition to save
+     * @param type module type of the decomposition
+     * @param file snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    static void save(AtomicDecomposition ad, ModuleType type, Path file) throws IOException {
+        List<Atom> list = new ArrayList<>(ad.getAtoms());
+        Set<OWLAxiom> all = new HashSet<>(ad.getTautologies());
+        list.forEach(a -> all.addAll(a.getAxioms()));
+        Canonical canonical = sort(all);
+        OWLAxiom[] axioms = canonical.axioms;
+        Map<OWLAxiom, Integer> positions = positions(axioms);
+        OWLEntity[] entities = entities(axioms);
+        // atoms in the order of their first axiom, so that equal decompositions are saved equally
+        int[] first = new int[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            first[i] = Integer.MAX_VALUE;
+            for (OWLAxiom ax : list.get(i).getAxioms()) {
+                first[i] = Math.min(first[i], positions.get(ax).intValue());
+            }
+        }
+        Integer[] order = new Integer[list.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = Integer.valueOf(i);
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(first[a.intValue()], first[b.intValue()]));
+        List<Atom> sorted = new ArrayList<>();
+        Map<Atom, Integer> ids = new HashMap<>();
+        for (Integer i : order) {
+            ids.put(list.get(i.intValue()), Integer.valueOf(sorted.size()));
+            sorted.add(list.get(i.intValue()));
+        }
+        List<int[]> atomAxioms = new ArrayList<>();
+        List<int[]> dependencies = new ArrayList<>();
+        List<int[]> dependents = new ArrayList<>();
+        List<Set<Integer>> terms = new ArrayList<>();
+        for (int i = 0; i < entities.length; i++) {
+            terms.add(new HashSet<>());
+        }
+        for (int i = 0; i < axioms.length; i++) {
+            Integer ax = Integer.valueOf(i);
+            axioms[i].signature()
+                .forEach(e -> terms.get(Arrays.binarySearch(entities, e)).add(ax));
+        }
+        int[] axiomAtoms = new int[axioms.length];
+        Arrays.fill(axiomAtoms, -1);
+        List<Integer> global = new ArrayList<>();
+        Signature empty = new Signature();
+        empty.setLocality(type == ModuleType.TOP);
+        SyntacticLocalityChecker checker = new SyntacticLocalityChecker();
+        checker.setSignatureValue(empty);
+        for (int i = 0; i < sorted.size(); i++) {
+            Atom atom = sorted.get(i);
+            int[] indexes = new int[atom.getAxioms().size()];
+            int k = 0;
+            boolean nonLocal = false;
+            for (OWLAxiom ax : atom.getAxioms()) {
+                indexes[k] = positions.get(ax).intValue();
+                axiomAtoms[indexes[k++]] = i;
+                nonLocal |= !checker.local(ax);
+            }
+            Arrays.sort(indexes);
+            atomAxioms.add(indexes);
+            if (nonLocal) {
+                global.add(Integer.valueOf(i));
+            }
+            dependencies.add(ids(ad.getDependencies(atom, true), atom, ids));
+            dependents.add(ids(ad.getDependents(atom, true), atom, ids));
+        }
+        List<int[]> termAtoms = new ArrayList<>();
+        for (Set<Integer> s : terms) {
+            termAtoms.add(s.stream().mapToInt(Integer::intValue).sorted().toArray());
+        }
+        int[] tautologies = ad.getTautologies().stream()
+            .mapToInt(ax -> positions.get(ax).intValue()).sorted().toArray();
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), "atomicdecomposition", ".tmp");
+        try {
+            try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(type.ordinal());
+                out.write(hash(canonical));
+                out.writeInt(axioms.length);
+                out.writeInt(entities.length);
+                out.writeInt(sorted.size());
+                write(out, atomAxioms);
+                write(out, dependencies);
+                write(out, dependents);
+                write(out, termAtoms);
+                write(out, axiomAtoms);
+                out.writeInt(global.size());
+                for (Integer i : global) {
+                    out.writeInt(i.intValue());
+                }
+                out.writeInt(tautologies.length);
+                write(out, tautologies);
+                if (out.size() < 0) {
+                    // the counter overflows past 2GB, which cannot be mapped at once
+                    throw new IOException("Atomic decomposition too large for a snapshot");
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int[] ids(Set<Atom> atoms, Atom atom, Map<Atom, Integer> ids) {
+        return atoms.stream().filter(a -> !a.equals(atom)).mapToInt(a -> ids.get(a).intValue())
+            .sorted().toArray();
+    }
+
+    private static void write(DataOutputStream out, List<int[]> rows) throws IOException {
+        int offset = 0;
+        for (int[] row : rows) {
+            out.writeInt(offset);
+            offset += row.length;
+        }
+        out.writeInt(offset);
+        for (int[] row : rows) {
+            write(out, row);
+        }
+    }
+
+    private static void write(DataOutputStream out, int[] values) throws IOException {
+        for (int i : values) {
+            out.writeInt(i);
+        }
+    }
+
+    private static Canonical sort(Collection<OWLAxiom> axioms) {
+        SimpleRenderer renderer = new SimpleRenderer();
+        Map<OWLAxiom, String> keys = new HashMap<>();
+        for (OWLAxiom ax : axioms) {
+            keys.computeIfAbsent(ax, a -> canonical(a, renderer));
+        }
+        OWLAxiom[] sorted = keys.keySet().toArray(new OWLAxiom[0]);
+        Arrays.sort(sorted, Comparator.comparing((OWLAxiom ax) -> keys.get(ax))
+            .thenComparing(Comparator.naturalOrder()));
+        String[] sortedKeys = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sortedKeys[i] = keys.get(sorted[i]);
+        }
+        return new Canonical(sorted, sortedKeys);
+    }
+
+    private static Map<OWLAxiom, Integer> positions(OWLAxiom[] axioms) {
+        Map<OWLAxiom, Integer> positions = new HashMap<>();
+        for (int i = 0; i < axioms.length; i++) {
+            positions.put(axioms[i], Integer.valueOf(i));
+        }
+        return positions;
+    }
+
+    /**
+     * @param ax axiom
+     * @return rendering of the axiom with its anonymous individuals replaced by their order of
+     *         appearance
+     */
+    private static String canonical(OWLAxiom ax, SimpleRenderer renderer) {
+        String rendering = renderer.render(ax);
+        // longest first, so that a node ID does not match the start of a longer one
+        String ids = ax.anonymousIndividuals().map(Object::toString).distinct()
+            .sorted(Comparator.comparingInt(String::length).reversed()).map(Pattern::quote)
+            .collect(Collectors.joining("|"));
+        if (ids.isEmpty()) {
+            return rendering;
+        }
+        Map<String, String> labels = new HashMap<>();
+        Matcher matcher = Pattern.compile(ids).matcher(rendering);
+        StringBuffer canonical = new StringBuffer();
+        while (matcher.find()) {
+            String label = labels.computeIfAbsent(matcher.group(), id -> "_:" + labels.size());
+            matcher.appendReplacement(canonical, Matcher.quoteReplacement(label));
+        }
+        matcher.appendTail(canonical);
+        return canonical.toString();
+    }
+
+    private static OWLEntity[] entities(OWLAxiom[] axioms) {
+        Set<OWLEntity> entities = new HashSet<>();
+        for (OWLAxiom ax : axioms) {
+            ax.signature().forEach(entities::add);
+        }
+        OWLEntity[] sorted = entities.toArray(new OWLEntity[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static byte[] hash(Canonical sorted) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(4).putInt(CANONICAL_FORM).array());
+            for (String key : sorted.keys) {
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new OWLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Axioms sorted by canonical form, and their canonical forms in the same order.
+     */
+    private static final class Canonical {
+
+        final OWLAxiom[] axioms;
+        final String[] keys;
+
+        Canonical(OWLAxiom[] axioms, String[] keys) {
+            this.axioms = axioms;
+            this.keys = keys;
+        }
+    }
+
+    // access to the mapped rows
+
+    private int start(int rows, int size, int row) {
+        return rows + size + 1 + data.get(rows + row);
+    }
+
+    private int end(int rows, int size, int row) {
+        return rows + size + 1 + data.get(rows + row + 1);
+    }
+
+    private Atom atom(int i) {
+        Atom atom = atoms[i];
+        if (atom == null) {
+            Set<OWLAxiom> set = new HashSet<>();
+            for (int k = start(atomAxioms, atomCount, i); k < end(atomAxioms, atomCount, i); k++) {
+                set.add(axioms[data.get(k)]);
+            }
+            atom = new Atom(set);
+            atoms[i] = atom;
+        }
+        return atom;
+    }
+
+    /**
+     * @param atom atom
+     * @return index of the atom, or -1 if the atom is not part of this decomposition
+     */
+    private int index(Atom atom) {
+        for (OWLAxiom ax : atom.getAxioms()) {
+            Integer i = positions.get(ax);
+            return i == null ? -1 : data.get(axiomAtoms + i.intValue());
+        }
+        return -1;
+    }
+
+    private Set<Atom> atoms(BitSet set) {
+        Set<Atom> result = new HashSet<>();
+        set.stream().forEach(i -> result.add(atom(i)));
+        return result;
+    }
+
+    /**
+     * @param atom atom index
+     * @param rows dependencies or dependents
+     * @param closure set of atoms to add the atom and the atoms it reaches to
+     */
+    private void explore(int atom, int rows, BitSet closure) {
+        Deque<Integer> toDo = new ArrayDeque<>();
+        closure.set(atom);
+        toDo.add(Integer.valueOf(atom));
+        while (!toDo.isEmpty()) {
+            int i = toDo.poll().intValue();
+            for (int k = start(rows, atomCount, i); k < end(rows, atomCount, i); k++) {
+                int j = data.get(k);
+                if (!closure.get(j)) {
+                    closure.set(j);
+                    toDo.add(Integer.valueOf(j));
+                }
+            }
+        }
+    }
+
+    private Set<Atom> explore(Atom atom, boolean direct, int rows) {
+        int i = index(atom);
+        if (i < 0) {
+            return direct ? new HashSet<>() : new HashSet<>(Arrays.asList(atom));
+        }
+        BitSet result = new BitSet(atomCount);
+        if (direct) {
+            for (int k = start(rows, atomCount, i); k < end(rows, atomCount, i); k++) {
+                result.set(data.get(k));
+            }
+        } else {
+            explore(i, rows, result);
+        }
+        return atoms(result);
+    }
+
+    private Set<Atom> atoms(boolean withoutDependencies, boolean withoutDependents) {
+        BitSet result = new BitSet(atomCount);
+        for (int i = 0; i < atomCount; i++) {
+            if ((!withoutDependencies
+                || start(dependencies, atomCount, i) == end(dependencies, atomCount, i))
+                && (!withoutDependents
+                    || start(dependents, atomCount, i) == end(dependents, atomCount, i))) {
+                result.set(i);
+            }
+        }
+        return atoms(result);
+    }
+
+    private BitSet ideal(Atom atom) {
+        BitSet ideal = new BitSet(atomCount);
+        int i = index(atom);
+        if (i >= 0) {
+            explore(i, dependencies, ideal);
+        }
+        return ideal;
+    }
+
+    private Stream<OWLAxiom> axioms(BitSet atomSet) {
+        return atomSet.stream().flatMap(i -> IntStream
+            .range(start(atomAxioms, atomCount, i), end(atomAxioms, atomCount, i)).map(data::get))
+            .mapToObj(i -> axioms[i]);
+    }
+
+    @Override
+    public Set<Atom> getDependencies(Atom atom) {
+        return getDependencies(atom, false);
+    }
+
+    @Override
+    public Set<Atom> getDependencies(Atom atom, boolean direct) {
+        return explore(atom, direct, dependencies);
+    }
+
+    @Override
+    public Set<Atom> getDependents(Atom atom) {
+        return getDependents(atom, false);
+    }
+
+    @Override
+    public Set<Atom> getDependents(Atom atom, boolean direct) {
+        return explore(atom, direct, dependents);
+    }
+
+    @Override
+    public Set<Atom> getAtoms() {
+        return atoms(false, false);
+    }
+
+    @Override
+    public Set<OWLAxiom> getTautologies() {
+        Set<OWLAxiom> result = new HashSet<>();
+        for (int k = tautologies + 1; k <= tautologies + data.get(tautologies); k++) {
+            result.add(axioms[data.get(k)]);
+        }
+        return result;
+    }
+
+    @Nullable
+    @Override
+    public Atom getAtomForAxiom(OWLAxiom axiom) {
+        Integer i = positions.get(axiom);
+        if (i == null || data.get(axiomAtoms + i.intValue()) < 0) {
+            return null;
+        }
+        return atom(data.get(axiomAtoms + i.intValue()));
+    }
+
+    @Override
+    public Map<OWLEntity, Set<Atom>> getTermBasedIndex() {
+        Map<OWLEntity, Set<Atom>> index = new HashMap<>();
+        for (int e = 0; e < entities.length; e++) {
+            Set<Atom> set = new HashSet<>();
+            for (int k = start(terms, entities.length, e); k < end(terms, entities.length,
+                e); k++) {
+                int atom = data.get(axiomAtoms + data.get(k));
+                if (atom >= 0) {
+                    set.add(atom(atom));
+                }
+            }
+            if (!set.isEmpty()) {
+                index.put(entities[e], set);
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public boolean isTopAtom(Atom atom) {
+        int i = index(atom);
+        return i < 0 || start(dependents, atomCount, i) == end(dependents, atomCount, i);
+    }
+
+    @Override
+    public boolean isBottomAtom(Atom atom) {
+        int i = index(atom);
+        return i < 0 || start(dependencies, atomCount, i) == end(dependencies, atomCount, i);
+    }
+
+    @Override
+    public Set<Atom> getRelatedAtoms(Atom atom) {
+        Set<Atom> s = getDependencies(atom);
+        s.addAll(getDependents(atom));
+        return s;
+    }
+
+    @Override
+    public Set<Atom> getTopAtoms() {
+        return atoms(false, true);
+    }
+
+    @Override
+    public Set<Atom> getBottomAtoms() {
+        return atoms(true, false);
+    }
+
+    @Override
+    public Set<OWLAxiom> getPrincipalIdeal(Atom atom) {
+        Set<OWLAxiom> result = new HashSet<>();
+        axioms(ideal(atom)).forEach(result::add);
+        return result;
+    }
+
+    @Override
+    public Set<OWLEntity> getPrincipalIdealSignature(Atom atom) {
+        Set<OWLEntity> result = new HashSet<>();
+        axioms(ideal(atom)).flatMap(OWLAxiom::signature).forEach(result::add);
+        return result;
+    }
+
+    @Override
+    public Stream<OWLAxiom> getModule(Stream<OWLEntity> signature, boolean useSemantics,
+        ModuleType moduletype) {
+        if (moduletype != type || type == ModuleType.STAR) {
+            return getDecomposer().getModule(signature, useSemantics, moduletype).stream()
+                .map(AxiomWrapper::getAxiom);
+        }
+        Signature sig = new Signature(signature);
+        sig.setLocality(type == ModuleType.TOP);
+        SyntacticLocalityChecker checker = new SyntacticLocalityChecker();
+        checker.setSignatureValue(sig);
+        BitSet module = new BitSet(atomCount);
+        Deque<OWLEntity> queue = new ArrayDeque<>(sig.getSignature());
+        for (int k = globalAtoms + 1; k <= globalAtoms + data.get(globalAtoms); k++) {
+            addIdeal(data.get(k), module, sig, queue);
+        }
+        while (!queue.isEmpty()) {
+            int e = Arrays.binarySearch(entities, queue.poll());
+            if (e < 0) {
+                continue;
+            }
+            for (int k = start(terms, entities.length, e); k < end(terms, entities.length,
+                e); k++) {
+                int ax = data.get(k);
+                int i = data.get(axiomAtoms + ax);
+                // tautologies have no atom, and are local for any signature
+                if (i >= 0 && !module.get(i) && !checker.local(axioms[ax])) {
+                    addIdeal(i, module, sig, queue);
+                }
+            }
+        }
+        return axioms(module);
+    }
+
+    /**
+     * add the principal ideal of an atom to a module, and its new entities to the signature
+     *
+     * @param atom atom index
+     * @param module atoms in the module
+     * @param sig module signature
+     * @param queue entities to process
+     */
+    private void addIdeal(int atom, BitSet module, Signature sig, Deque<OWLEntity> queue) {
+        // the module contains the ideals of its atoms, so the search stops at them
+        Deque<Integer> toDo = new ArrayDeque<>();
+        module.set(atom);
+        toDo.add(Integer.valueOf(atom));
+        while (!toDo.isEmpty()) {
+            int i = toDo.poll().intValue();
+            for (int k = start(atomAxioms, atomCount, i); k < end(atomAxioms, atomCount,
+                i); k++) {
+                axioms[data.get(k)].signature().filter(sig::add).forEach(queue::add);
+            }
+            for (int k = start(dependencies, atomCount, i); k < end(dependencies, atomCount,
+                i); k++) {
+                int j = data.get(k);
+                if (!module.get(j)) {
+                    module.set(j);
+                    toDo.add(Integer.valueOf(j));
+                }
+            }
+        }
+    }
+
+    private Decomposer getDecomposer() {
+        Decomposer d = decomposer;
+        if (d == null) {
+            d = new Decomposer(AxiomSelector.wrap(Arrays.asList(axioms)),
+                new SyntacticLocalityChecker());
+            decomposer = d;
+        }
+        return d;
+    }
+
+    @Override
+    public AtomList getAtomList() {
+        AtomList list = atomList;
+        if (list != null) {
+            return list;
+        }
+        list = new AtomList();
+        AxiomWrapper[] wrappers = new AxiomWrapper[axioms.length];
+        for (int i = 0; i < axioms.length; i++) {
+            wrappers[i] = new AxiomWrapper(axioms[i]);
+        }
+        List<OntologyAtom> structure = new ArrayList<>();
+        for (int i = 0; i < atomCount; i++) {
+            OntologyAtom atom = list.newAtom();
+            for (int k = start(atomAxioms, atomCount, i); k < end(atomAxioms, atomCount,
+                i); k++) {
+                atom.addAxiom(wrappers[data.get(k)]);
+            }
+            BitSet ideal = new BitSet(atomCount);
+            explore(i, dependencies, ideal);
+            List<AxiomWrapper> module = new ArrayList<>();
+            ideal.stream().forEach(
+                j -> {
+                    for (int k = start(atomAxioms, atomCount, j); k < end(atomAxioms, atomCount,
+                        j); k++) {
+                        module.add(wrappers[data.get(k)]);
+                    }
+                });
+            atom.setModule(module);
+            structure.add(atom);
+        }
+        for (int i = 0; i < atomCount; i++) {
+            for (int k = start(dependencies, atomCount, i); k < end(dependencies, atomCount,
+                i); k++) {
+                structure.get(i).addDepAtom(structure.get(data.get(k)));
+            }
+        }
+        atomList = list;
+        return list;
+    }
+}
@@ -16,13 +16,29 @@ import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.add;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -63,6 +79,10 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
      * Represents the associated ontology.
      */
     private final OntologyAxiomSet ontologyAxiomSet;
+    /**
+     * Axioms that are not local for the empty signature, for each locality class.
+     */
+    private final Map<LocalityClass, int[]> nonLocalAxioms = new ConcurrentHashMap<>();
     private final OWLOntology ontology;
     /**
      * Represents the manager for the associated ontology.
@@ -72,6 +92,12 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
      * Type of module.
      */
     private ModuleType moduleType;
+    /**
+     * Cached modules for each module type and seed signature, before enrichment, or null if
+     * modules are not cached.
+     */
+    @Nullable
+    private volatile Map<ModuleType, Map<Set<OWLEntity>, LogicalModule>> moduleCache;
 
     /**
      * Creates a new module extractor for a subset of a given ontology, its manager, and a specified
@@ -216,6 +242,11 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
      * annotation or declaration axioms. The sub-ontology and module are represented as arrays of
      * Booleans.
      * <p/>
+     * The locality of an axiom only depends on the entities of its own signature that are in the
+     * module signature. The axioms checked first are therefore the axioms that are not local even
+     * for the empty signature and the axioms referencing the seed signature; afterwards, only the
+     * axioms referencing entities newly added to the signature are checked again.
+     * <p/>
      * This method is (if necessary, iteratively) called by the public method extract.
      *
      * @param subOnt an array of Booleans representing the sub-ontology
@@ -229,36 +260,68 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
         boolean[] mod = ontologyAxiomSet.getSubset(false);
         boolean[] q2 = ontologyAxiomSet.cloneSubset(subOnt);
         SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(localityClass);
-        boolean change = true;
-        int loopNumber = 0;
-        while (change) {
-            change = false;
-            loopNumber++;
-            LOGGER.info("  Loop {}", Integer.valueOf(loopNumber));
-            for (int i = 0; i < q2.length; i++) {
-                OWLAxiom axiom = ontologyAxiomSet.getAxiom(i);
+        Deque<OWLEntity> newEntities = new ArrayDeque<>(signature);
+        for (int i : getNonLocalAxioms(localityClass)) {
+            if (q2[i]) {
+                checkLocality(i, mod, q2, signature, sle, newEntities);
+            }
+        }
+        while (!newEntities.isEmpty()) {
+            for (int i : ontologyAxiomSet.getReferencingAxioms(newEntities.poll())) {
                 if (q2[i]) {
-                    if (!sle.isLocal(axiom, signature)) {
-                        LOGGER.info("      Non-local axiom:   {}", axiom);
-                        mod[i] = true;
-                        q2[i] = false;
-                        int oldSize = signature.size();
-                        add(signature, axiom.signature());
-                        // only triggering a change when the signature has
-                        // changed doesn't improve performance
-                        if (signature.size() > oldSize) {
-                            change = true;
-                            LOGGER.info("    New signature:   {}", signature);
-                        }
-                    } else {
-                        LOGGER.info("      Local axiom:       {}", axiom);
-                    }
+                    checkLocality(i, mod, q2, signature, sle, newEntities);
                 }
             }
         }
         return mod;
     }
 
+    /**
+     * @param localityClass the type of locality
+     * @return the numbers of the axioms that are not local for the empty signature
+     */
+    int[] getNonLocalAxioms(LocalityClass localityClass) {
+        return nonLocalAxioms.computeIfAbsent(localityClass, c -> {
+            SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(c);
+            Set<OWLEntity> empty = Collections.emptySet();
+            return IntStream.range(0, ontologyAxiomSet.size())
+                .filter(i -> !sle.isLocal(ontologyAxiomSet.getAxiom(i), empty)).toArray();
+        });
+    }
+
+    /**
+     * Moves an axiom from the sub-ontology to the module if it is not local; the entities in the
+     * signature of the axiom that are new to the module signature are added to it and queued.
+     *
+     * @param i a number for an axiom
+     * @param mod an array of Booleans representing the module
+     * @param q2 an array of Booleans representing the axioms not in the module yet
+     * @param signature the module signature
+     * @param sle the locality evaluator
+     * @param newEntities the entities whose axioms need to be checked again
+     */
+    private void checkLocality(int i, boolean[] mod, boolean[] q2, Set<OWLEntity> signature,
+        SyntacticLocalityEvaluator sle, Deque<OWLEntity> newEntities) {
+        OWLAxiom axiom = ontologyAxiomSet.getAxiom(i);
+        if (sle.isLocal(axiom, signature)) {
+            LOGGER.info("      Local axiom:       {}", axiom);
+            return;
+        }
+        LOGGER.info("      Non-local axiom:   {}", axiom);
+        mod[i] = true;
+        q2[i] = false;
+        boolean changed = false;
+        for (OWLEntity e : ontologyAxiomSet.getSignature(i)) {
+            if (signature.add(e)) {
+                newEntities.add(e);
+                changed = true;
+            }
+        }
+        if (changed) {
+            LOGGER.info("    New signature:   {}", signature);
+        }
+    }
+
     /**
      * This method extracts a module from a given sub-ontology of the associated ontology for a
      * given signature and locality type. The module will only contain logical axioms, no annotation
@@ -332,12 +395,12 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
         for (OWLEntity i : sig) {
             iris.add(i.getIRI());
         }
-        ontology.axioms(AxiomType.ANNOTATION_ASSERTION).forEach(annotation -> {
-            if (iris.contains(annotation.getSubject())) {
+        for (IRI iri : iris) {
+            ontology.annotationAssertionAxioms(iri).forEach(annotation -> {
                 enrichedModule.add(annotation);
                 LOGGER.info("  Added entity annotation axiom:   {}", annotation);
-            }
-        });
+            });
+        }
         // Adding all same-individuals axioms
         // Adding all different-individuals axioms
         for (OWLEntity entity : sig) {
@@ -384,11 +447,14 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
     Set<OWLAxiom> extractUnnestedModule(Set<OWLEntity> sig, LocalityClass cls) {
         outputSignature("\nExtracting " + cls + " module for the following seed signature ... ",
             sig);
+        return extractUnnestedLogicalModule(sig, cls).enrich();
+    }
+
+    private LogicalModule extractUnnestedLogicalModule(Set<OWLEntity> sig, LocalityClass cls) {
         boolean[] subOnt = ontologyAxiomSet.getSubset(true);
         Set<OWLEntity> signature = new HashSet<>(sig);
         boolean[] module = extractLogicalAxioms(subOnt, signature, cls);
-        Set<OWLAxiom> moduleAsSet = ontologyAxiomSet.toSet(module);
-        return enrich(moduleAsSet, signature);
+        return new LogicalModule(ontologyAxiomSet.toSet(module), signature);
     }
 
     /**
@@ -453,20 +519,141 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
     @Override
     public Set<OWLAxiom> extract(Set<OWLEntity> sig, int superClassLevel, int subClassLevel,
         @Nullable OWLReasoner reasoner) {
+        if (superClassLevel == 0 && subClassLevel == 0) {
+            return extract(moduleType, sig);
+        }
         Set<OWLEntity> enrichedSig = enrichSignature(sig, superClassLevel, subClassLevel, reasoner);
-        switch (moduleType) {
+        return extractModule(moduleType, enrichedSig);
+    }
+
+    /**
+     * Extracts the modules of the current module type for many seed signatures. All extractions
+     * share the axiom index of this extractor and run concurrently on the specified number of
+     * threads; equal signatures are extracted only once. Modules are taken from and added to the
+     * module cache, if enabled.
+     *
+     * @param signatures the seed signatures (sets of entities) for the modules
+     * @param threads the number of threads to use; 1 extracts the modules on the calling thread
+     * @return map from each distinct seed signature to its module, in the order of the signatures
+     */
+    public Map<Set<OWLEntity>, Set<OWLAxiom>> extract(
+        Collection<? extends Set<OWLEntity>> signatures, int threads) {
+        checkNotNull(signatures, "signatures cannot be null");
+        ModuleType type = moduleType;
+        List<Set<OWLEntity>> distinct = new ArrayList<>(new LinkedHashSet<>(signatures));
+        Map<Set<OWLEntity>, Set<OWLAxiom>> modules = new LinkedHashMap<>();
+        if (threads <= 1 || distinct.size() < 2) {
+            distinct.forEach(sig -> modules.put(sig, extract(type, sig)));
+            return modules;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, distinct.size()));
+        try {
+            List<Future<Set<OWLAxiom>>> futures = new ArrayList<>();
+            distinct.forEach(sig -> futures.add(pool.submit(() -> extract(type, sig))));
+            for (int i = 0; i < futures.size(); i++) {
+                modules.put(distinct.get(i), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new OWLRuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return modules;
+    }
+
+    /**
+     * Returns whether modules are cached.
+     *
+     * @return true if modules extracted without super- or subclasses are cached
+     */
+    public boolean isModuleCacheEnabled() {
+        return moduleCache != null;
+    }
+
+    /**
+     * Enables or disables the module cache. Modules extracted without adding super- or subclasses
+     * to the seed signature are cached by module type and seed signature. Only the axioms selected
+     * by locality are cached: they depend on the axioms given to this extractor, which never
+     * change, so they never need to be invalidated. Declarations, annotations and individual
+     * axioms are added from the ontology on every extraction, as without the cache. Disabling the
+     * cache drops all cached modules.
+     *
+     * @param enabled true if modules should be cached
+     */
+    public void setModuleCacheEnabled(boolean enabled) {
+        if (!enabled) {
+            moduleCache = null;
+        } else if (moduleCache == null) {
+            Map<ModuleType, Map<Set<OWLEntity>, LogicalModule>> cache =
+                new EnumMap<>(ModuleType.class);
+            for (ModuleType type : ModuleType.values()) {
+                cache.put(type, new ConcurrentHashMap<>());
+            }
+            moduleCache = cache;
+        }
+    }
+
+    /**
+     * Extracts a module for a seed signature, using the module cache if enabled.
+     *
+     * @param type the module type
+     * @param sig the seed signature
+     * @return the module
+     */
+    private Set<OWLAxiom> extract(ModuleType type, Set<OWLEntity> sig) {
+        Map<ModuleType, Map<Set<OWLEntity>, LogicalModule>> cache = moduleCache;
+        if (cache == null) {
+            return extractModule(type, sig);
+        }
+        Map<Set<OWLEntity>, LogicalModule> modules = cache.get(type);
+        LogicalModule module = modules.get(sig);
+        if (module == null) {
+            // not computed in the map, so that other signatures are not blocked meanwhile
+            module = extractLogicalModule(type, sig);
+            LogicalModule previous = modules.putIfAbsent(new HashSet<>(sig), module);
+            if (previous != null) {
+                module = previous;
+            }
+        }
+        // enrichment reads the ontology, which might have changed since the module was cached;
+        // it also copies the module, so callers are free to modify it
+        return module.enrich();
+    }
+
+    private LogicalModule extractLogicalModule(ModuleType type, Set<OWLEntity> sig) {
+        switch (type) {
             case TOP:
-                return extractUnnestedModule(enrichedSig, LocalityClass.TOP_TOP);
+                return extractUnnestedLogicalModule(sig, LocalityClass.TOP_TOP);
             case BOT:
-                return extractUnnestedModule(enrichedSig, LocalityClass.BOTTOM_BOTTOM);
+                return extractUnnestedLogicalModule(sig, LocalityClass.BOTTOM_BOTTOM);
             case STAR:
-                return extractStar(enrichedSig);
+                return extractStarLogicalModule(sig);
             default:
-                throw new OWLRuntimeException("Unsupported module type: " + moduleType);
+                throw new OWLRuntimeException("Unsupported module type: " + type);
+        }
+    }
+
+    private Set<OWLAxiom> extractModule(ModuleType type, Set<OWLEntity> sig) {
+        switch (type) {
+            case TOP:
+                return extractUnnestedModule(sig, LocalityClass.TOP_TOP);
+            case BOT:
+                return extractUnnestedModule(sig, LocalityClass.BOTTOM_BOTTOM);
+            case STAR:
+                return extractStar(sig);
+            default:
+                throw new OWLRuntimeException("Unsupported module type: " + type);
         }
     }
 
     protected Set<OWLAxiom> extractStar(Set<OWLEntity> enrichedSig) {
+        return extractStarLogicalModule(enrichedSig).enrich();
+    }
+
+    private LogicalModule extractStarLogicalModule(Set<OWLEntity> enrichedSig) {
         boolean[] subOnt = ontologyAxiomSet.getSubset(true);
         boolean nextStepNecessary = true;
         boolean inFirstStep = true;
@@ -489,8 +676,7 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
                 localityClass = LocalityClass.BOTTOM_BOTTOM;
             }
         }
-        Set<OWLAxiom> moduleAsSet = ontologyAxiomSet.toSet(subOnt);
-        return enrich(moduleAsSet, seedSig);
+        return new LogicalModule(ontologyAxiomSet.toSet(subOnt), seedSig);
     }
 
     @Override
@@ -506,6 +692,25 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
             iri);
     }
 
+    /**
+     * The axioms of a module selected by locality, and the module signature, before the module is
+     * enriched with the declarations, annotations and individual axioms for its signature.
+     */
+    private final class LogicalModule {
+
+        final Set<OWLAxiom> axioms;
+        final Set<OWLEntity> signature;
+
+        LogicalModule(Set<OWLAxiom> axioms, Set<OWLEntity> signature) {
+            this.axioms = axioms;
+            this.signature = signature;
+        }
+
+        Set<OWLAxiom> enrich() {
+            return SyntacticLocalityModuleExtractor.this.enrich(axioms, signature);
+        }
+    }
+
     /**
      * Auxiliary inner class for the representation of the associated ontology and all its
      * sub-ontologies as arrays of axioms. Advantages: (1) quicker set manipulation operations; (2)
@@ -521,6 +726,14 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
          * Array representing all axioms of the associated ontology.
          */
         final OWLAxiom[] ax;
+        /**
+         * Signatures of the axioms, in the same order as the axioms.
+         */
+        final OWLEntity[][] signatures;
+        /**
+         * Map from each entity to the numbers of the axioms referencing it.
+         */
+        final Map<OWLEntity, int[]> referencingAxioms = new HashMap<>();
 
         /**
          * Creates a new OntologyAxiomSet from a given set of axioms without looking up the
@@ -530,6 +743,16 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
          */
         OntologyAxiomSet(List<OWLAxiom> axs) {
             ax = axs.toArray(new OWLAxiom[axs.size()]);
+            signatures = new OWLEntity[ax.length][];
+            Map<OWLEntity, List<Integer>> index = new HashMap<>();
+            for (int i = 0; i < ax.length; i++) {
+                signatures[i] = ax[i].signature().toArray(OWLEntity[]::new);
+                for (OWLEntity e : signatures[i]) {
+                    index.computeIfAbsent(e, k -> new ArrayList<>()).add(Integer.valueOf(i));
+                }
+            }
+            index.forEach((e, list) -> referencingAxioms.put(e,
+                list.stream().mapToInt(Integer::intValue).toArray()));
         }
 
         /**
@@ -551,6 +774,30 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
             return ax[i];
         }
 
+        /**
+         * Returns the signature of some axiom from this set.
+         *
+         * @param i a number for an axiom
+         * @return the entities in the signature of the i-th axiom in this set
+         */
+        public OWLEntity[] getSignature(int i) {
+            return signatures[i];
+        }
+
+        /**
+         * Returns the axioms in this set referencing an entity.
+         *
+         * @param entity the entity
+         * @return the numbers of the axioms in this set with the entity in their signature
+         */
+        public int[] getReferencingAxioms(OWLEntity entity) {
+            int[] axioms = referencingAxioms.get(entity);
+            if (axioms == null) {
+                return new int[0];
+            }
+            return axioms;
+        }
+
         /**
          * Constructs an array of Booleans that represents a subset of this set. The subset either
          * equals this set (if init==true) or is the empty set (if init==false).